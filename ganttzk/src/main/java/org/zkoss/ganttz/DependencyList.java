@@ -25,6 +25,8 @@ import static org.zkoss.ganttz.i18n.I18nHelper._;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.zkoss.ganttz.data.Dependency;
@@ -124,6 +126,13 @@ public class DependencyList extends XulElement implements AfterCompose {
 
     private Menupopup limitingContextMenu;
 
+    private final List<DependencyComponent> dependencyComponents = new ArrayList<>();
+
+    /**
+     * Their components are created when both of their tasks are materialized.
+     */
+    private final PendingDependencies pendingDependencies = new PendingDependencies();
+
     public DependencyList(FunctionalityExposedForExtensions<?> context) {
         this.context = context;
     }
@@ -143,6 +152,7 @@ public class DependencyList extends XulElement implements AfterCompose {
         source.getTask().addVisibilityPropertiesChangeListener(visibilityToggler);
         destination.getTask().addVisibilityPropertiesChangeListener(visibilityToggler);
         dependencyComponent.setVisibilityChangeListener(visibilityToggler);
+        dependencyComponents.add(dependencyComponent);
 
         boolean dependencyMustBeVisible = visibilityToggler.dependencyMustBeVisible();
         visibilityToggler.toggleDependencyExistence(dependencyMustBeVisible);
@@ -168,6 +178,52 @@ public class DependencyList extends XulElement implements AfterCompose {
         }
     }
 
+    /**
+     * Adds the components of the dependencies whose tasks are materialized by
+     * the {@link TaskList}. The rest are kept until both of their tasks are.
+     */
+    void addDependencies(Collection<? extends Dependency> dependencies) {
+        TaskList taskList = getGanttPanel().getTaskList();
+        for (Dependency each : dependencies) {
+            if ( taskList.isMaterialized(each.getSource()) && taskList.isMaterialized(each.getDestination()) ) {
+                addDependencyComponent(taskList.asDependencyComponent(each));
+            } else {
+                pendingDependencies.add(each);
+            }
+        }
+    }
+
+    /**
+     * Creates the components of the pending dependencies of the tasks just
+     * materialized by the {@link TaskList}.
+     */
+    void tasksMaterialized(Collection<? extends Task> tasks) {
+        addDependencies(pendingDependencies.takeFor(tasks));
+    }
+
+    /**
+     * Removes the components of the dependencies of a task whose component is
+     * released by the {@link TaskList}, keeping them as pending.
+     */
+    void taskReleased(Task task) {
+        for (DependencyComponent each : new ArrayList<>(dependencyComponents)) {
+            if ( each.contains(task) ) {
+                removeDependencyComponent(each);
+                pendingDependencies.add(each.getDependency());
+            }
+        }
+    }
+
+    /**
+     * Discards all the components and pending dependencies.
+     */
+    void removeAllDependencies() {
+        for (DependencyComponent each : new ArrayList<>(dependencyComponents)) {
+            removeDependencyComponent(each);
+        }
+        pendingDependencies.clear();
+    }
+
     @Override
     public void afterCompose() {
         if ( listener == null ) {
@@ -262,6 +318,8 @@ public class DependencyList extends XulElement implements AfterCompose {
                 removeDependencyComponent(dependencyComponent);
             }
         }
+
+        pendingDependencies.removeAllOf(task);
     }
 
     public void remove(Dependency dependency) {
@@ -270,6 +328,8 @@ public class DependencyList extends XulElement implements AfterCompose {
                 removeDependencyComponent(dependencyComponent);
             }
         }
+
+        pendingDependencies.remove(dependency);
     }
 
     private void removeDependencyComponent(DependencyComponent dependencyComponent) {
@@ -285,6 +345,9 @@ public class DependencyList extends XulElement implements AfterCompose {
         dependencyComponent.removeChangeListeners();
 
         // Remove the dependency itself
-        this.removeChild(dependencyComponent);
+        dependencyComponents.remove(dependencyComponent);
+        if ( dependencyComponent.getParent() == this ) {
+            this.removeChild(dependencyComponent);
+        }
     }
 }
@@ -27,8 +27,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.joda.time.LocalDate;
@@ -47,7 +49,7 @@ import org.zkoss.ganttz.data.Position;
 import org.zkoss.ganttz.data.Task;
 import org.zkoss.ganttz.data.TaskContainer;
 import org.zkoss.ganttz.data.TaskLeaf;
-import org.zkoss.ganttz.data.criticalpath.CriticalPathCalculator;
+import org.zkoss.ganttz.data.criticalpath.CriticalPathEngine;
 import org.zkoss.ganttz.extensions.IContext;
 import org.zkoss.ganttz.timetracker.TimeTracker;
 import org.zkoss.ganttz.timetracker.zoom.IDetailItemModifier;
@@ -187,6 +189,11 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
 
     private final PlannerConfiguration<T> configuration;
 
+    /**
+     * It's kept so the critical path is recalculated incrementally after each change of the graph.
+     */
+    private final CriticalPathEngine<Task, Dependency> criticalPathEngine;
+
     public FunctionalityExposedForExtensions(
             Planner planner, PlannerConfiguration<T> configuration, GanttZKDiagramGraph diagramGraph) {
 
@@ -195,6 +202,7 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
         this.adapter = configuration.getAdapter();
         this.navigator = configuration.getNavigator();
         this.diagramGraph = diagramGraph;
+        this.criticalPathEngine = CriticalPathEngine.create(configuration.isDependenciesConstraintsHavePriority());
 
         final IDetailItemModifier firstLevelModifiers = configuration.getFirstLevelModifiers();
         final IDetailItemModifier secondLevelModifiers = configuration.getSecondLevelModifiers();
@@ -363,7 +371,7 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
         }
 
         diagramGraph.add(dependency);
-        getDependencyList().addDependencyComponent(getTaskList().asDependencyComponent(dependency));
+        getDependencyList().addDependencies(Collections.singletonList(dependency));
         adapter.addDependency(toDomainDependency(dependency));
     }
 
@@ -420,17 +428,14 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
 
     @Override
     public void showCriticalPath() {
-        CriticalPathCalculator<Task, Dependency> criticalPathCalculator =
-                CriticalPathCalculator.create(configuration.isDependenciesConstraintsHavePriority());
-
-        List<Task> criticalPath = criticalPathCalculator.calculateCriticalPath(diagramGraph);
+        Set<Task> criticalPath = new HashSet<>(criticalPathEngine.calculateCriticalPath(diagramGraph));
 
         for (Task task : diagramGraph.getTasks()) {
             task.setInCriticalPath(isInCriticalPath(criticalPath, task));
         }
     }
 
-    private boolean isInCriticalPath(List<Task> criticalPath, Task task) {
+    private boolean isInCriticalPath(Set<Task> criticalPath, Task task) {
         if ( task.isContainer() ) {
             List<Task> allTaskLeafs = task.getAllTaskLeafs();
 
@@ -444,10 +449,7 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
     public List<T> getCriticalPath() {
         List<T> result = new ArrayList<>();
 
-        CriticalPathCalculator<Task, Dependency> criticalPathCalculator =
-                CriticalPathCalculator.create(configuration.isDependenciesConstraintsHavePriority());
-
-        for (Task each : criticalPathCalculator.calculateCriticalPath(diagramGraph)) {
+        for (Task each : criticalPathEngine.calculateCriticalPath(diagramGraph)) {
             result.add(mapper.findAssociatedDomainObject(each));
         }
 
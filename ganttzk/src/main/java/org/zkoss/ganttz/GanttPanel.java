@@ -77,6 +77,10 @@ public class GanttPanel extends XulElement implements AfterCompose {
         tasksLists = TaskList.createFor(
                 context, doubleClickCommand, commandsOnTasksContextualized, disabilityConfiguration, predicate);
 
+        if ( planner.isPrinting() ) {
+            tasksLists.disableVirtualization();
+        }
+
         appendChild(tasksLists);
         appendChild(dependencyList);
     }
@@ -124,8 +128,7 @@ public class GanttPanel extends XulElement implements AfterCompose {
     public void afterCompose() {
         tasksLists.afterCompose();
 
-        dependencyList.setDependencyComponents(
-                tasksLists.asDependencyComponents(diagramGraph.getVisibleDependencies()));
+        dependencyList.addDependencies(diagramGraph.getVisibleDependencies());
 
         timeTrackerComponent.afterCompose();
         dependencyList.afterCompose();
@@ -0,0 +1,134 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.zkoss.ganttz;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.zkoss.ganttz.data.Dependency;
+import org.zkoss.ganttz.data.Task;
+
+/**
+ * Dependencies of a {@link DependencyList} without component because some of
+ * their tasks are not materialized by a virtualized {@link TaskList}.
+ * <p>
+ * They are indexed by both tasks, so they are found as soon as any of them is
+ * materialized.
+ * </p>
+ */
+class PendingDependencies {
+
+    private final Map<Task, Set<Dependency>> byTask = new HashMap<>();
+
+    void add(Dependency dependency) {
+        of(dependency.getSource()).add(dependency);
+        of(dependency.getDestination()).add(dependency);
+    }
+
+    private Set<Dependency> of(Task task) {
+        Set<Dependency> result = byTask.get(task);
+        if ( result == null ) {
+            result = new LinkedHashSet<>();
+            byTask.put(task, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes the pending dependencies of the tasks.
+     *
+     * @return the removed dependencies, without repetitions, in the order they
+     *         were added
+     */
+    Set<Dependency> takeFor(Collection<? extends Task> tasks) {
+        Set<Dependency> result = new LinkedHashSet<>();
+        for (Task each : tasks) {
+            Set<Dependency> pending = byTask.remove(each);
+            if ( pending != null ) {
+                result.addAll(pending);
+            }
+        }
+
+        for (Dependency each : result) {
+            removeFromBothTasks(each);
+        }
+
+        return result;
+    }
+
+    /**
+     * Discards the pending dependencies of a task removed from the planner.
+     */
+    void removeAllOf(Task task) {
+        takeFor(Collections.singletonList(task));
+    }
+
+    /**
+     * Discards the pending dependencies with the same source and destination,
+     * whatever their type is.
+     */
+    void remove(Dependency dependency) {
+        Set<Dependency> pending = byTask.get(dependency.getSource());
+        if ( pending == null ) {
+            return;
+        }
+
+        for (Dependency each : new LinkedHashSet<>(pending)) {
+            if ( each.getSource().equals(dependency.getSource()) &&
+                    each.getDestination().equals(dependency.getDestination()) ) {
+                removeFromBothTasks(each);
+            }
+        }
+    }
+
+    private void removeFromBothTasks(Dependency dependency) {
+        for (Task each : new Task[] { dependency.getSource(), dependency.getDestination() }) {
+            Set<Dependency> pending = byTask.get(each);
+            if ( pending != null ) {
+                pending.remove(dependency);
+                if ( pending.isEmpty() ) {
+                    byTask.remove(each);
+                }
+            }
+        }
+    }
+
+    Set<Dependency> getPendingOf(Task task) {
+        Set<Dependency> pending = byTask.get(task);
+        return pending == null
+                ? Collections.<Dependency> emptySet()
+                : Collections.unmodifiableSet(pending);
+    }
+
+    boolean isEmpty() {
+        return byTask.isEmpty();
+    }
+
+    void clear() {
+        byTask.clear();
+    }
+
+}
@@ -156,6 +156,8 @@ public class Planner extends HtmlMacroComponent  {
 
     private boolean shownMoneyCostBarByDefault = false;
 
+    private boolean printing = false;
+
     private FilterAndParentExpandedPredicates predicate;
 
     private boolean visibleChart;
@@ -196,6 +198,15 @@ public class Planner extends HtmlMacroComponent  {
         return values != null && toLowercaseSet(values).contains("all");
     }
 
+    /**
+     * @return if the planner is rendered to be printed, so all its rows must
+     *         be rendered
+     */
+    public static boolean guessPrinting(Map<String, String[]> queryURLParameters) {
+        String[] values = queryURLParameters.get("print");
+        return values != null && toLowercaseSet(values).contains("true");
+    }
+
     private static Set<String> toLowercaseSet(String[] values) {
         Set<String> result = new HashSet<>();
         for (String each : values) {
@@ -285,9 +296,7 @@ public class Planner extends HtmlMacroComponent  {
             return;
         }
 
-        for (DependencyComponent d : getTaskList().asDependencyComponents(dependencies)) {
-            dependencyList.addDependencyComponent(d);
-        }
+        dependencyList.addDependencies(dependencies);
     }
 
     public ListModel<ZoomLevel> getZoomLevels() {
@@ -779,6 +788,14 @@ public class Planner extends HtmlMacroComponent  {
         return areShownMoneyCostBarByDefault() || isShowingMoneyCostBar;
     }
 
+    public void setPrinting(boolean printing) {
+        this.printing = printing;
+    }
+
+    public boolean isPrinting() {
+        return printing;
+    }
+
     public void expandAll() {
         Button expandAllButton = (Button) getFellow(EXPAND_ALL_BUTTON);
         if ( disabilityConfiguration.isExpandAllEnabled() ) {
@@ -40,6 +40,7 @@ import org.zkoss.ganttz.data.ITaskFundamentalProperties.IUpdatablePosition;
 import org.zkoss.ganttz.data.Milestone;
 import org.zkoss.ganttz.data.Task;
 import org.zkoss.ganttz.data.Task.IReloadResourcesTextRequested;
+import org.zkoss.ganttz.data.TaskContainer;
 import org.zkoss.ganttz.data.constraint.Constraint;
 import org.zkoss.ganttz.data.constraint.Constraint.IConstraintViolationListener;
 import org.zkoss.ganttz.util.WeakReferencedListeners.Mode;
@@ -113,6 +114,30 @@ public class TaskComponent extends Div implements AfterCompose {
         return TaskRow.wrapInRow(result);
     }
 
+    /**
+     * Like {@link #asTaskComponent(Task, IDisabilityConfiguration, boolean)}
+     * but the components of the subtasks of a container are not created. It's
+     * used for the rows created on demand by a virtualized {@link TaskList}.
+     */
+    static TaskComponent asTaskComponentWithoutSubtasks(Task task,
+                                                        IDisabilityConfiguration disabilityConfiguration,
+                                                        boolean isTopLevel) {
+        final TaskComponent result;
+
+        if ( task.isContainer() ) {
+            result = new TaskContainerComponent((TaskContainer) task, disabilityConfiguration, false);
+
+        } else if ( task instanceof Milestone ) {
+            result = new MilestoneComponent(task, disabilityConfiguration);
+
+        } else {
+            result = new TaskComponent(task, disabilityConfiguration);
+        }
+        result.isTopLevel = isTopLevel;
+
+        return TaskRow.wrapInRow(result);
+    }
+
     public static TaskComponent asTaskComponent(Task task, IDisabilityConfiguration disabilityConfiguration) {
         return asTaskComponent(task, disabilityConfiguration, true);
     }
@@ -629,6 +654,19 @@ public class TaskComponent extends Div implements AfterCompose {
         task.removeReloadListener(reloadResourcesTextRequested);
     }
 
+    /**
+     * Removes the component and the listeners it has registered on its task,
+     * so it's not retained while the task is kept.
+     */
+    void release() {
+        remove();
+        task.removePropertyChangeListener(propertiesListener);
+        task.removeAdvancesPropertyChangeListener(showingAdvancePropertyListener);
+        task.removeReportedHoursPropertyChangeListener(showingReportedHoursPropertyListener);
+        task.removeMoneyCostBarPropertyChangeListener(showingMoneyCostBarPropertyListener);
+        task.removeCriticalPathPropertyChangeListener(criticalPathPropertyListener);
+    }
+
     public boolean isTopLevel() {
         return isTopLevel;
     }
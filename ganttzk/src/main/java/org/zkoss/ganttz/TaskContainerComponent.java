@@ -52,6 +52,12 @@ public class TaskContainerComponent extends TaskComponent implements
 
     public TaskContainerComponent(final TaskContainer taskContainer,
             final IDisabilityConfiguration disabilityConfiguration) {
+        this(taskContainer, disabilityConfiguration, true);
+    }
+
+    TaskContainerComponent(final TaskContainer taskContainer,
+            final IDisabilityConfiguration disabilityConfiguration,
+            boolean withSubtaskComponents) {
         super(taskContainer, disabilityConfiguration);
         if (!taskContainer.isContainer()) {
             throw new IllegalArgumentException();
@@ -64,6 +70,9 @@ public class TaskContainerComponent extends TaskComponent implements
             }
         };
         taskContainer.addExpandListener(expandListener);
+        if (!withSubtaskComponents) {
+            return;
+        }
         for (Task task : taskContainer.getTasks()) {
             getCurrentComponents().add(createChild(task));
         }
@@ -38,10 +38,18 @@ import org.zkoss.ganttz.timetracker.zoom.IZoomLevelChangedListener;
 import org.zkoss.ganttz.timetracker.zoom.ZoomLevel;
 import org.zkoss.ganttz.util.Interval;
 import org.zkoss.ganttz.util.MenuBuilder;
+import org.zkoss.ganttz.util.RowsWindow;
+import org.zkoss.zk.au.AuRequest;
+import org.zkoss.zk.au.AuService;
+import org.zkoss.zk.mesg.MZk;
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.UiException;
 import org.zkoss.zk.ui.ext.AfterCompose;
+import org.zkoss.zk.ui.sys.ContentRenderer;
 import org.zkoss.zul.Menupopup;
 import org.zkoss.zul.impl.XulElement;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
@@ -54,11 +62,40 @@ import java.util.Collections;
 
 /**
  * Component to show the list of task in the planner.
+ * <p>
+ * When there are more than {@link #VIRTUALIZATION_THRESHOLD} rows shown, the
+ * list is virtualized: only the rows around the ones in the viewport are
+ * materialized, and the rest are replaced by spacers in the client. As the user
+ * scrolls, the rows that leave the window are released and the ones entering it
+ * are created, so the components kept depend on the size of the viewport
+ * instead of the size of the project.
+ * </p>
+ * <p>
+ * The other end of a dependency of a row in the window is materialized too,
+ * placed at its position out of the flow of the rows, so the dependency is
+ * drawn. The virtualization is disabled when printing, as all the rows must be
+ * rendered.
+ * </p>
  *
  * @author Javier Moran Rua <jmoran@igalia.com>
  */
 public class TaskList extends XulElement implements AfterCompose {
 
+    /**
+     * Number of rows shown above which the list is virtualized.
+     */
+    static final int VIRTUALIZATION_THRESHOLD = 200;
+
+    /**
+     * Number of rows materialized before and after the ones in the viewport.
+     */
+    static final int WINDOW_BUFFER = 30;
+
+    /**
+     * Number of rows of the viewport assumed until the client reports it.
+     */
+    private static final int INITIAL_VIEWPORT_ROWS = 60;
+
     private transient IZoomLevelChangedListener zoomLevelChangedListener;
 
     private List<Task> currentTotalTasks;
@@ -81,6 +118,20 @@ public class TaskList extends XulElement implements AfterCompose {
 
     private Map<TaskComponent, Menupopup> contextMenus = new HashMap<>();
 
+    private boolean virtualizationEnabled = true;
+
+    private boolean virtualized = false;
+
+    private List<Task> shownTasks = new ArrayList<>();
+
+    private int firstViewportRow = 0;
+
+    private int viewportRows = INITIAL_VIEWPORT_ROWS;
+
+    private RowsWindow window;
+
+    private String progressType;
+
     public TaskList(
             FunctionalityExposedForExtensions<?> context,
             CommandOnTaskContextualized<?> doubleClickCommand,
@@ -95,9 +146,34 @@ public class TaskList extends XulElement implements AfterCompose {
         this.commandsOnTasksContextualized = commandsOnTasksContextualized;
         this.disabilityConfiguration = disabilityConfiguration;
         this.predicate = predicate;
+
+        setAuService(new AuService() {
+            public boolean service(AuRequest request, boolean everError) {
+                String command = request.getCommand();
+
+                if ( "onViewportChange".equals(command) ) {
+                    viewportChanged(
+                            ((Number) retrieveData(request, "firstRow")).intValue(),
+                            ((Number) retrieveData(request, "rows")).intValue());
+
+                    return true;
+                }
+
+                return false;
+            }
+
+            private Object retrieveData(AuRequest request, String key) {
+                Object value = request.getData().get(key);
+                if ( value == null )
+                    throw new UiException(MZk.ILLEGAL_REQUEST_WRONG_DATA, new Object[] { key, this });
+
+                return value;
+            }
+        });
     }
 
     public void updateCompletion(String progressType) {
+        this.progressType = progressType;
         for (TaskComponent task: getTaskComponents()) {
             task.updateCompletion(progressType);
             task.updateCompletionReportedHours();
@@ -140,6 +216,14 @@ public class TaskList extends XulElement implements AfterCompose {
         return asDependencyComponents(Collections.singletonList(dependency)).get(0);
     }
 
+    /**
+     * @return if there is a component for the task, so the components of its
+     *         dependencies can be created
+     */
+    boolean isMaterialized(Task task) {
+        return taskComponentByTask.containsKey(task);
+    }
+
     private synchronized void addTaskComponent(
             TaskRow beforeThis, final TaskComponent taskComponent, boolean relocate) {
 
@@ -154,7 +238,9 @@ public class TaskList extends XulElement implements AfterCompose {
     }
 
     public void addTasks(Position position, Collection<? extends Task> newTasks) {
-        createAndPublishComponentsIfNeeded(newTasks);
+        if ( !virtualized ) {
+            createAndPublishComponentsIfNeeded(newTasks);
+        }
 
         if ( position.isAppendToTop() ) {
             currentTotalTasks.addAll(newTasks);
@@ -168,14 +254,17 @@ public class TaskList extends XulElement implements AfterCompose {
         reload(true);
     }
 
+    /**
+     * @return the component of the task if it's in the list, <code>null</code>
+     *         otherwise
+     */
     public TaskComponent find(Task task) {
-        List<TaskComponent> taskComponents = getTaskComponents();
-        for (TaskComponent taskComponent : taskComponents) {
-            if ( taskComponent.getTask().equals(task) ) {
-                return taskComponent;
-            }
+        TaskComponent taskComponent = taskComponentByTask.get(task);
+        if ( taskComponent == null || taskComponent.getParent() == null ) {
+            return null;
         }
-        return null;
+
+        return taskComponent.getParent().getParent() == this ? taskComponent : null;
     }
 
     private void addListenerForTaskComponentEditForm(final TaskComponent taskComponent) {
@@ -214,18 +303,21 @@ public class TaskList extends XulElement implements AfterCompose {
     }
 
     public int getTasksNumber() {
-        return getTaskComponents().size();
+        return virtualized ? shownTasks.size() : getTaskComponents().size();
     }
 
     @Override
     public void afterCompose() {
-        publishOriginalTasksAsComponents();
+        taskComponentByTask = new HashMap<>();
+        virtualized = isToBeVirtualized(calculateShownTasks());
+        if ( !virtualized ) {
+            publishOriginalTasksAsComponents();
+        }
         registerZoomLevelChangedListener();
         reload(false);
     }
 
     private void publishOriginalTasksAsComponents() {
-        taskComponentByTask = new HashMap<>();
         createAndPublishComponentsIfNeeded(currentTotalTasks);
     }
 
@@ -290,7 +382,8 @@ public class TaskList extends XulElement implements AfterCompose {
 
     private Menupopup getContextMenuFor(TaskComponent taskComponent) {
         if ( contextMenus.get(taskComponent) == null ) {
-            MenuBuilder<TaskComponent> menuBuilder = MenuBuilder.on(getPage(), getTaskComponents());
+            MenuBuilder<TaskComponent> menuBuilder =
+                    MenuBuilder.on(getPage(), Collections.singletonList(taskComponent));
 
             if ( disabilityConfiguration.isAddingDependenciesEnabled() ) {
 
@@ -328,6 +421,17 @@ public class TaskList extends XulElement implements AfterCompose {
 
     public void remove(Task task) {
         currentTotalTasks.remove(task);
+        if ( virtualized ) {
+            TaskComponent taskComponent = taskComponentByTask.get(task);
+            if ( taskComponent != null ) {
+                release(taskComponent);
+            }
+            visibleTasks.remove(task);
+            reload(false);
+
+            return;
+        }
+
         for (TaskComponent taskComponent : getTaskComponents()) {
             if ( taskComponent.getTask().equals(task) ) {
                 taskComponent.remove();
@@ -346,12 +450,277 @@ public class TaskList extends XulElement implements AfterCompose {
     }
 
     private void reload(boolean relocate) {
-        ArrayList<Task> tasksPendingToAdd = new ArrayList<>();
-        reload(currentTotalTasks, tasksPendingToAdd, relocate);
-        addPendingTasks(tasksPendingToAdd, null, relocate);
+        List<Task> shown = calculateShownTasks();
+        boolean switched = isToBeVirtualized(shown) != virtualized;
+        if ( switched ) {
+            switchVirtualization(!virtualized);
+        }
+
+        if ( virtualized ) {
+            reloadWindow(shown, relocate);
+        } else {
+            ArrayList<Task> tasksPendingToAdd = new ArrayList<>();
+            reload(currentTotalTasks, tasksPendingToAdd, relocate);
+            addPendingTasks(tasksPendingToAdd, null, relocate);
+        }
+
+        if ( switched ) {
+            getGanttPanel().getDependencyList().addDependencies(context.getDiagramGraph().getVisibleDependencies());
+        }
         getGanttPanel().getDependencyList().redrawDependencies();
     }
 
+    private List<Task> calculateShownTasks() {
+        addExpandListenersTo(currentTotalTasks);
+
+        return tasksShownBy(predicate, currentTotalTasks);
+    }
+
+    private void addExpandListenersTo(List<? extends Task> tasks) {
+        for (Task task : tasks) {
+            if ( task instanceof TaskContainer ) {
+                addExpandListenerTo((TaskContainer) task);
+                addExpandListenersTo(task.getTasks());
+            }
+        }
+    }
+
+    /**
+     * @return the tasks accepted by the predicate in the order of the rows
+     */
+    static List<Task> tasksShownBy(IPredicate predicate, List<? extends Task> tasks) {
+        List<Task> result = new ArrayList<>();
+        addShownTasks(tasks, predicate, result);
+
+        return result;
+    }
+
+    private static void addShownTasks(List<? extends Task> tasks, IPredicate predicate, List<Task> result) {
+        for (Task task : tasks) {
+            if ( predicate.accepts(task) ) {
+                result.add(task);
+            }
+
+            if ( task instanceof TaskContainer ) {
+                addShownTasks(task.getTasks(), predicate, result);
+            }
+        }
+    }
+
+    static boolean mustBeVirtualized(List<Task> shown) {
+        return shown.size() > VIRTUALIZATION_THRESHOLD;
+    }
+
+    private boolean isToBeVirtualized(List<Task> shown) {
+        return virtualizationEnabled && mustBeVirtualized(shown);
+    }
+
+    /**
+     * Renders all the rows whatever their number is, as needed when printing.
+     * It must be called before the list is composed.
+     */
+    public void disableVirtualization() {
+        virtualizationEnabled = false;
+    }
+
+    /**
+     * @return the position of each shown task out of the window that is the
+     *         other end of a dependency of a task in it
+     */
+    static Map<Task, Integer> farEndpoints(
+            List<Task> shown, RowsWindow window, Collection<? extends Dependency> dependencies) {
+
+        Map<Task, Integer> rowByTask = new HashMap<>();
+        for (int i = 0; i < shown.size(); i++) {
+            rowByTask.put(shown.get(i), i);
+        }
+
+        Map<Task, Integer> result = new HashMap<>();
+        for (Dependency each : dependencies) {
+            Integer sourceRow = rowByTask.get(each.getSource());
+            Integer destinationRow = rowByTask.get(each.getDestination());
+            if ( sourceRow == null || destinationRow == null ||
+                    window.contains(sourceRow) == window.contains(destinationRow) ) {
+                continue;
+            }
+
+            if ( window.contains(sourceRow) ) {
+                result.put(each.getDestination(), destinationRow);
+            } else {
+                result.put(each.getSource(), sourceRow);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Releases all the components, so the list is rebuilt from scratch in the
+     * new mode.
+     */
+    private void switchVirtualization(boolean virtualize) {
+        getGanttPanel().getDependencyList().removeAllDependencies();
+        for (TaskComponent each : new ArrayList<>(taskComponentByTask.values())) {
+            releaseComponent(each);
+        }
+        taskComponentByTask.clear();
+
+        for (Task each : visibleTasks) {
+            each.setVisible(false);
+        }
+        visibleTasks.clear();
+
+        virtualized = virtualize;
+        window = null;
+        if ( !virtualized ) {
+            publishOriginalTasksAsComponents();
+        }
+        smartUpdate("rowsBefore", 0);
+        smartUpdate("rowsAfter", 0);
+        smartUpdate("virtualized", virtualized);
+    }
+
+    /**
+     * Materializes the rows of the window around the viewport and the other
+     * ends of their dependencies, releasing the rest, and creates the
+     * components of the dependencies whose tasks are now both materialized.
+     */
+    private void reloadWindow(List<Task> shown, boolean relocate) {
+        shownTasks = shown;
+        window = RowsWindow.around(firstViewportRow, viewportRows, shown.size(), WINDOW_BUFFER);
+        List<Task> inWindow = shown.subList(window.getStart(), window.getEnd());
+        Map<Task, Integer> farEndpoints =
+                farEndpoints(shown, window, context.getDiagramGraph().getVisibleDependencies());
+
+        Set<Task> kept = new HashSet<>(inWindow);
+        kept.addAll(farEndpoints.keySet());
+        for (TaskComponent each : getTaskComponents()) {
+            if ( !kept.contains(each.getTask()) ) {
+                release(each);
+            } else if ( farEndpoints.containsKey(each.getTask()) ) {
+                each.getRow().setAnchoredRow(farEndpoints.get(each.getTask()));
+            }
+        }
+
+        updateVisibleTasks(shown);
+
+        List<Task> materialized = new ArrayList<>();
+        Component next = skipAnchored(getFirstChild());
+        for (Task task : inWindow) {
+            TaskComponent existent = taskComponentByTask.get(task);
+            if ( existent == null ) {
+                addWindowTaskComponent(task, (TaskRow) next);
+                materialized.add(task);
+            } else if ( existent.getRow() == next ) {
+                next = skipAnchored(next.getNextSibling());
+            } else {
+                existent.getRow().setAnchoredRow(null);
+                insertBefore(existent.getRow(), next);
+            }
+        }
+
+        for (Map.Entry<Task, Integer> each : farEndpoints.entrySet()) {
+            if ( !taskComponentByTask.containsKey(each.getKey()) ) {
+                addWindowTaskComponent(each.getKey(), null).getRow().setAnchoredRow(each.getValue());
+                materialized.add(each.getKey());
+            }
+        }
+
+        smartUpdate("rowsBefore", window.getRowsBefore());
+        smartUpdate("rowsAfter", window.getRowsAfter());
+        smartUpdate("virtualized", true);
+
+        getGanttPanel().getDependencyList().tasksMaterialized(materialized);
+        if ( relocate ) {
+            getGanttPanel().adjustZoomColumnsHeight();
+        }
+    }
+
+    private TaskComponent addWindowTaskComponent(Task task, TaskRow beforeThis) {
+        TaskComponent result = TaskComponent.asTaskComponentWithoutSubtasks(
+                task, disabilityConfiguration, currentTotalTasks.contains(task));
+
+        taskComponentByTask.put(task, result);
+        addTaskComponent(beforeThis, result, false);
+        if ( progressType != null ) {
+            result.updateCompletion(progressType);
+            result.updateTooltipText(progressType);
+        }
+
+        return result;
+    }
+
+    private static Component skipAnchored(Component row) {
+        Component result = row;
+        while (result instanceof TaskRow && ((TaskRow) result).isAnchored()) {
+            result = result.getNextSibling();
+        }
+
+        return result;
+    }
+
+    private void updateVisibleTasks(List<Task> shown) {
+        Set<Task> nowVisible = new HashSet<>(shown);
+        for (Task each : visibleTasks) {
+            if ( !nowVisible.contains(each) ) {
+                each.setVisible(false);
+            }
+        }
+
+        for (Task each : shown) {
+            if ( !visibleTasks.contains(each) ) {
+                each.setVisible(true);
+            }
+        }
+        visibleTasks = nowVisible;
+    }
+
+    private void release(TaskComponent taskComponent) {
+        getGanttPanel().getDependencyList().taskReleased(taskComponent.getTask());
+        releaseComponent(taskComponent);
+        taskComponentByTask.remove(taskComponent.getTask());
+    }
+
+    private void releaseComponent(TaskComponent taskComponent) {
+        taskComponent.release();
+        Menupopup contextMenu = contextMenus.remove(taskComponent);
+        if ( contextMenu != null ) {
+            contextMenu.detach();
+        }
+    }
+
+    /**
+     * Called when the client reports the rows shown in the viewport. The
+     * window is only moved when the viewport gets near one of its ends.
+     */
+    void viewportChanged(int firstRow, int rows) {
+        firstViewportRow = Math.max(0, firstRow);
+        viewportRows = Math.max(1, rows);
+
+        if ( !virtualized || (window != null &&
+                window.covers(firstViewportRow, viewportRows, shownTasks.size())) ) {
+            return;
+        }
+
+        reloadWindow(shownTasks, false);
+        getGanttPanel().getDependencyList().redrawDependencies();
+    }
+
+    public boolean isVirtualized() {
+        return virtualized;
+    }
+
+    @Override
+    protected void renderProperties(ContentRenderer renderer) throws IOException {
+        super.renderProperties(renderer);
+
+        render(renderer, "virtualized", virtualized);
+        if ( window != null ) {
+            render(renderer, "rowsBefore", window.getRowsBefore());
+            render(renderer, "rowsAfter", window.getRowsAfter());
+        }
+    }
+
     private void reload(List<Task> tasks, List<Task> tasksPendingToAdd, boolean relocate) {
         for (Task task : tasks) {
             if ( visibleTasks.contains(task) ) {
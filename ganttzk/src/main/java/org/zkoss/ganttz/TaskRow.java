@@ -20,6 +20,9 @@
  */
 package org.zkoss.ganttz;
 
+import java.io.IOException;
+
+import org.zkoss.zk.ui.sys.ContentRenderer;
 import org.zkoss.zul.impl.XulElement;
 
 /**
@@ -28,6 +31,12 @@ import org.zkoss.zul.impl.XulElement;
  */
 public class TaskRow extends XulElement {
 
+    /**
+     * Position of the row when it's kept out of the flow of the rows of a
+     * virtualized {@link TaskList}, <code>null</code> otherwise.
+     */
+    private Integer anchoredRow;
+
     public static <T extends TaskComponent> T wrapInRow(T taskComponent) {
         TaskRow parent = new TaskRow();
         parent.appendChild(taskComponent);
@@ -43,4 +52,30 @@ public class TaskRow extends XulElement {
         return (TaskComponent) getChildren().get(0);
     }
 
+    boolean isAnchored() {
+        return anchoredRow != null;
+    }
+
+    /**
+     * Places the row at the given position instead of after the previous one,
+     * or puts it back in the flow if it's <code>null</code>.
+     */
+    void setAnchoredRow(Integer anchoredRow) {
+        if ( anchoredRow == null ? this.anchoredRow == null : anchoredRow.equals(this.anchoredRow) ) {
+            return;
+        }
+
+        this.anchoredRow = anchoredRow;
+        smartUpdate("anchoredRow", anchoredRow == null ? -1 : anchoredRow);
+    }
+
+    @Override
+    protected void renderProperties(ContentRenderer renderer) throws IOException {
+        super.renderProperties(renderer);
+
+        if ( anchoredRow != null ) {
+            renderer.render("anchoredRow", anchoredRow.intValue());
+        }
+    }
+
 }
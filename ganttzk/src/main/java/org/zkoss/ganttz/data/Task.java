@@ -295,6 +295,22 @@ public abstract class Task implements ITaskFundamentalProperties {
         this.visibilityProperties.removePropertyChangeListener(listener);
     }
 
+    public void removeCriticalPathPropertyChangeListener(PropertyChangeListener listener) {
+        this.criticalPathProperty.removePropertyChangeListener(listener);
+    }
+
+    public void removeAdvancesPropertyChangeListener(PropertyChangeListener listener) {
+        this.advancesProperty.removePropertyChangeListener(listener);
+    }
+
+    public void removeReportedHoursPropertyChangeListener(PropertyChangeListener listener) {
+        this.reportedHoursProperty.removePropertyChangeListener(listener);
+    }
+
+    public void removeMoneyCostBarPropertyChangeListener(PropertyChangeListener listener) {
+        this.moneyCostBarProperty.removePropertyChangeListener(listener);
+    }
+
     @Override
     public GanttDate getEndDate() {
         return fundamentalProperties.getEndDate();
@@ -0,0 +1,601 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.zkoss.ganttz.data.criticalpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.zkoss.ganttz.data.DependencyType;
+import org.zkoss.ganttz.data.GanttDate;
+import org.zkoss.ganttz.data.IDependency;
+import org.zkoss.ganttz.data.constraint.Constraint;
+
+/**
+ * Calculates the same critical path than {@link CriticalPathCalculator} but without recursion and keeping the graph
+ * between calculations.
+ *
+ * The tasks that are not containers are indexed and their dependencies, once the containers have been expanded to
+ * their leaf tasks, are kept in adjacency arrays. The forward and backward passes are then done iterating over a
+ * topological order, so big graphs don't overflow the stack and no objects are created per node.
+ *
+ * If the same graph is calculated again and its structure has not changed, as told by
+ * {@link ICriticalPathCalculable#getStructureVersion()}, the graph is reused and only the values of the tasks whose
+ * dates or constraints have changed, and the ones depending on them, are recalculated.
+ */
+public class CriticalPathEngine<T, D extends IDependency<T>> {
+
+    public static <T, D extends IDependency<T>> CriticalPathEngine<T, D> create(
+            boolean dependenciesConstraintsHavePriority) {
+        return new CriticalPathEngine<>(dependenciesConstraintsHavePriority);
+    }
+
+    private final boolean dependenciesConstraintsHavePriority;
+
+    private ICriticalPathCalculable<T> graph;
+
+    private int structureVersion;
+
+    private List<T> tasks;
+
+    private Map<T, Integer> indexes;
+
+    /**
+     * The outgoing dependencies of the task <code>i</code> are the positions from <code>outStart[i]</code> to
+     * <code>outStart[i + 1]</code> of {@link #outTarget} and {@link #outType}.
+     */
+    private int[] outStart;
+
+    private int[] outTarget;
+
+    private DependencyType[] outType;
+
+    private int[] inStart;
+
+    private int[] inSource;
+
+    private DependencyType[] inType;
+
+    /**
+     * The tasks that hang from the beginning of the project.
+     */
+    private boolean[] initial;
+
+    /**
+     * The tasks the end of the project hangs from.
+     */
+    private boolean[] last;
+
+    /**
+     * The tasks that propagate their values forward, because all their predecessors have done so.
+     */
+    private boolean[] forwarded;
+
+    private boolean[] backwarded;
+
+    /**
+     * The forwarded tasks whose earliest finish moves the end of the project.
+     */
+    private boolean[] finishing;
+
+    /**
+     * The forwarded tasks in topological order followed by the rest of tasks.
+     */
+    private int[] forwardOrder;
+
+    private int[] backwardOrder;
+
+    private LocalDate initDate;
+
+    private int[] durations;
+
+    private Constraint<GanttDate>[] constraints;
+
+    private int[] earliestStart;
+
+    private int[] latestFinish;
+
+    private boolean[] hasLatestFinish;
+
+    private int endOfProject;
+
+    /**
+     * The tasks whose duration has changed since the last calculation.
+     */
+    private boolean[] changed;
+
+    private boolean[] forwardDirty;
+
+    private boolean[] backwardDirty;
+
+    private CriticalPathEngine(boolean dependenciesConstraintsHavePriority) {
+        this.dependenciesConstraintsHavePriority = dependenciesConstraintsHavePriority;
+    }
+
+    public List<T> calculateCriticalPath(ICriticalPathCalculable<T> graph) {
+        boolean structureChanged = this.graph != graph || structureVersion != graph.getStructureVersion();
+        if ( structureChanged ) {
+            this.graph = graph;
+            this.structureVersion = graph.getStructureVersion();
+            build();
+        }
+
+        initDate = calculateInitDate();
+        if ( initDate == null ) {
+            return Collections.emptyList();
+        }
+        refreshDurationsAndConstraints(structureChanged);
+
+        forward(structureChanged);
+        backward();
+
+        return getTasksOnCriticalPath();
+    }
+
+    private LocalDate calculateInitDate() {
+        GanttDate min = null;
+        for (T each : graph.getTasks()) {
+            GanttDate start = graph.getStartDate(each);
+            if ( min == null || start.compareTo(min) < 0 ) {
+                min = start;
+            }
+        }
+        return min == null ? null : LocalDate.fromDateFields(min.toDayRoundedDate());
+    }
+
+    private void build() {
+        tasks = new ArrayList<>();
+        indexes = new HashMap<>();
+        for (T each : graph.getTasks()) {
+            if ( !graph.isContainer(each) ) {
+                indexes.put(each, tasks.size());
+                tasks.add(each);
+            }
+        }
+        int size = tasks.size();
+
+        EdgesBuilder edges = new EdgesBuilder(size);
+        addDependenciesOfContainers(edges);
+        for (int i = 0; i < size; i++) {
+            T task = tasks.get(i);
+            for (T each : graph.getOutgoingTasksFor(task)) {
+                edges.add(i, indexes.get(each));
+            }
+            for (T each : graph.getIncomingTasksFor(task)) {
+                edges.add(indexes.get(each), i);
+            }
+        }
+        buildAdjacencyArrays(edges);
+
+        initial = markWithoutVisibleDependencies(graph.getInitialTasks(), true);
+        last = markWithoutVisibleDependencies(graph.getLatestTasks(), false);
+        forwarded = new boolean[size];
+        forwardOrder = topologicalOrder(initial, inStart, outStart, outTarget, forwarded);
+        backwarded = new boolean[size];
+        backwardOrder = topologicalOrder(last, outStart, inStart, inSource, backwarded);
+
+        finishing = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            finishing[i] = forwarded[i] && allOutgoingAreStartStart(i);
+        }
+
+        durations = new int[size];
+        @SuppressWarnings("unchecked")
+        Constraint<GanttDate>[] noConstraints = new Constraint[size];
+        constraints = noConstraints;
+        earliestStart = new int[size];
+        latestFinish = new int[size];
+        hasLatestFinish = new boolean[size];
+        endOfProject = 0;
+        changed = new boolean[size];
+        forwardDirty = new boolean[size];
+        backwardDirty = new boolean[size];
+    }
+
+    /**
+     * The dependencies of a container apply to all its leaf tasks, as done by
+     * {@link CriticalPathCalculator}. The type of these dependencies is kept in case they're not real dependencies
+     * between the leaf tasks.
+     */
+    private void addDependenciesOfContainers(EdgesBuilder edges) {
+        for (T task : graph.getTasks()) {
+            if ( !graph.isContainer(task) ) {
+                continue;
+            }
+            Collection<T> allChildren = leafTasksOf(Collections.singletonList(task));
+
+            for (T each : withoutChildrenAndParents(task, graph.getIncomingTasksFor(task))) {
+                edges.addAll(leafTasksOf(Collections.singletonList(each)), allChildren,
+                        typeOf(graph.getDependencyFrom(each, task)));
+            }
+            for (T each : withoutChildrenAndParents(task, graph.getOutgoingTasksFor(task))) {
+                edges.addAll(allChildren, leafTasksOf(Collections.singletonList(each)),
+                        typeOf(graph.getDependencyFrom(task, each)));
+            }
+        }
+    }
+
+    private static DependencyType typeOf(IDependency<?> dependency) {
+        return dependency != null ? dependency.getType() : DependencyType.END_START;
+    }
+
+    private Collection<T> leafTasksOf(Collection<T> tasks) {
+        if ( tasks == null ) {
+            return Collections.emptyList();
+        }
+        List<T> result = new ArrayList<>();
+        for (T each : tasks) {
+            if ( graph.isContainer(each) ) {
+                result.addAll(leafTasksOf(graph.getChildren(each)));
+            } else {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    private Set<T> withoutChildrenAndParents(T container, Set<T> tasks) {
+        Set<T> result = new HashSet<>();
+        for (T each : tasks) {
+            if ( !graph.contains(container, each) && !graph.contains(each, container) ) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    private class EdgesBuilder {
+
+        private final int size;
+
+        private final Set<Long> added = new HashSet<>();
+
+        private final Map<Long, DependencyType> typesOfContainers = new HashMap<>();
+
+        private int[] from = new int[16];
+
+        private int[] to = new int[16];
+
+        private int count = 0;
+
+        EdgesBuilder(int size) {
+            this.size = size;
+        }
+
+        void addAll(Collection<T> origins, Collection<T> destinations, DependencyType type) {
+            for (T origin : origins) {
+                for (T destination : destinations) {
+                    Integer originIndex = indexes.get(origin);
+                    Integer destinationIndex = indexes.get(destination);
+                    add(originIndex, destinationIndex);
+                    if ( originIndex != null && destinationIndex != null ) {
+                        typesOfContainers.put(key(originIndex, destinationIndex), type);
+                    }
+                }
+            }
+        }
+
+        void add(Integer origin, Integer destination) {
+            if ( origin == null || destination == null || !added.add(key(origin, destination)) ) {
+                return;
+            }
+            if ( count == from.length ) {
+                from = Arrays.copyOf(from, count * 2);
+                to = Arrays.copyOf(to, count * 2);
+            }
+            from[count] = origin;
+            to[count] = destination;
+            count++;
+        }
+
+        private long key(int origin, int destination) {
+            return (long) origin * size + destination;
+        }
+
+        DependencyType typeOf(int edge) {
+            IDependency<T> dependency = graph.getDependencyFrom(tasks.get(from[edge]), tasks.get(to[edge]));
+            if ( dependency != null ) {
+                return dependency.getType();
+            }
+            DependencyType result = typesOfContainers.get(key(from[edge], to[edge]));
+            return result != null ? result : DependencyType.END_START;
+        }
+
+    }
+
+    private void buildAdjacencyArrays(EdgesBuilder edges) {
+        int size = tasks.size();
+        outStart = new int[size + 1];
+        inStart = new int[size + 1];
+        for (int i = 0; i < edges.count; i++) {
+            outStart[edges.from[i] + 1]++;
+            inStart[edges.to[i] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            outStart[i + 1] += outStart[i];
+            inStart[i + 1] += inStart[i];
+        }
+
+        outTarget = new int[edges.count];
+        outType = new DependencyType[edges.count];
+        inSource = new int[edges.count];
+        inType = new DependencyType[edges.count];
+        int[] outNext = Arrays.copyOf(outStart, size);
+        int[] inNext = Arrays.copyOf(inStart, size);
+        for (int i = 0; i < edges.count; i++) {
+            DependencyType type = edges.typeOf(i);
+            int out = outNext[edges.from[i]]++;
+            outTarget[out] = edges.to[i];
+            outType[out] = type;
+            int in = inNext[edges.to[i]]++;
+            inSource[in] = edges.from[i];
+            inType[in] = type;
+        }
+    }
+
+    private boolean[] markWithoutVisibleDependencies(List<T> tasks, boolean incoming) {
+        boolean[] result = new boolean[this.tasks.size()];
+        for (T each : leafTasksOf(tasks)) {
+            Integer index = indexes.get(each);
+            if ( index == null ) {
+                continue;
+            }
+            result[index] = incoming
+                    ? !graph.hasVisibleIncomingDependencies(each)
+                    : !graph.hasVisibleOutcomingDependencies(each);
+        }
+        return result;
+    }
+
+    /**
+     * A task is reached when all its predecessors have been reached. The ones without predecessors are reached only if
+     * they're roots. The reached tasks are marked and returned first in topological order, and then the rest.
+     */
+    private static int[] topologicalOrder(boolean[] roots,
+                                          int[] predecessorsStart,
+                                          int[] successorsStart,
+                                          int[] successors,
+                                          boolean[] reached) {
+        int size = roots.length;
+        int[] pending = new int[size];
+        int[] result = new int[size];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            pending[i] = predecessorsStart[i + 1] - predecessorsStart[i];
+            if ( pending[i] == 0 && roots[i] ) {
+                result[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            int current = result[head++];
+            reached[current] = true;
+            for (int e = successorsStart[current]; e < successorsStart[current + 1]; e++) {
+                if ( --pending[successors[e]] == 0 ) {
+                    result[tail++] = successors[e];
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if ( !reached[i] ) {
+                result[tail++] = i;
+            }
+        }
+        return result;
+    }
+
+    private boolean allOutgoingAreStartStart(int task) {
+        for (int e = outStart[task]; e < outStart[task + 1]; e++) {
+            if ( outType[e] != DependencyType.START_START ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The tasks whose duration has changed must be recalculated. The ones with constraints are always recalculated,
+     * since a constraint could have changed or depend on the initial date.
+     */
+    private void refreshDurationsAndConstraints(boolean all) {
+        for (int i = 0; i < tasks.size(); i++) {
+            T task = tasks.get(i);
+            int duration = Days.daysBetween(
+                    new LocalDate(graph.getStartDate(task).toDayRoundedDate()),
+                    new LocalDate(graph.getEndDateFor(task).toDayRoundedDate())).getDays();
+            Constraint<GanttDate> constraint = getDateConstraints(task);
+
+            changed[i] = all || duration != durations[i];
+            boolean dirty = changed[i] || constraint != null || constraints[i] != null;
+            durations[i] = duration;
+            constraints[i] = constraint;
+            forwardDirty[i] = dirty;
+            backwardDirty[i] = dirty;
+        }
+    }
+
+    private Constraint<GanttDate> getDateConstraints(T task) {
+        if ( dependenciesConstraintsHavePriority ) {
+            return null;
+        }
+        List<Constraint<GanttDate>> all = new ArrayList<>();
+        List<Constraint<GanttDate>> startConstraints = graph.getStartConstraintsFor(task);
+        if ( startConstraints != null ) {
+            all.addAll(startConstraints);
+        }
+        List<Constraint<GanttDate>> endConstraints = graph.getEndConstraintsFor(task);
+        if ( endConstraints != null ) {
+            all.addAll(endConstraints);
+        }
+        return all.isEmpty() ? null : Constraint.coalesce(all);
+    }
+
+    private void forward(boolean all) {
+        boolean endOfProjectDirty = all;
+        for (int task : forwardOrder) {
+            if ( !forwardDirty[task] ) {
+                continue;
+            }
+            int previousEarliestStart = earliestStart[task];
+            earliestStart[task] = calculateEarliestStart(task);
+            boolean finishMoved = changed[task] || previousEarliestStart != earliestStart[task];
+            if ( forwarded[task] && finishMoved ) {
+                for (int e = outStart[task]; e < outStart[task + 1]; e++) {
+                    forwardDirty[outTarget[e]] = true;
+                }
+                endOfProjectDirty |= finishing[task];
+            }
+        }
+        if ( endOfProjectDirty ) {
+            updateEndOfProject();
+        }
+    }
+
+    private int calculateEarliestStart(int task) {
+        int result = 0;
+        if ( initial[task] ) {
+            result = Math.max(result, constrainedStart(task, 0));
+        }
+        for (int e = inStart[task]; e < inStart[task + 1]; e++) {
+            int source = inSource[e];
+            if ( !forwarded[source] ) {
+                continue;
+            }
+            int sourceFinish = earliestStart[source] + durations[source];
+            switch (inType[e]) {
+            case START_START:
+                result = Math.max(result, constrainedStart(task, earliestStart[source]));
+                break;
+            case END_END:
+                result = Math.max(result, constrainedStart(task, sourceFinish - durations[task]));
+                break;
+            case END_START:
+            default:
+                result = Math.max(result, constrainedStart(task, sourceFinish));
+                break;
+            }
+        }
+        return result;
+    }
+
+    private int constrainedStart(int task, int start) {
+        Constraint<GanttDate> constraint = constraints[task];
+        if ( constraint == null ) {
+            return start;
+        }
+        GanttDate date = constraint.applyTo(GanttDate.createFrom(initDate.plusDays(start)));
+        return Days.daysBetween(initDate, LocalDate.fromDateFields(date.toDayRoundedDate())).getDays();
+    }
+
+    private void updateEndOfProject() {
+        int previous = endOfProject;
+        endOfProject = 0;
+        for (int i = 0; i < finishing.length; i++) {
+            if ( finishing[i] ) {
+                endOfProject = Math.max(endOfProject, earliestStart[i] + durations[i]);
+            }
+        }
+        if ( previous != endOfProject ) {
+            for (int i = 0; i < last.length; i++) {
+                backwardDirty[i] |= last[i];
+            }
+        }
+    }
+
+    private void backward() {
+        for (int task : backwardOrder) {
+            if ( !backwardDirty[task] ) {
+                continue;
+            }
+            int previousLatestFinish = latestFinish[task];
+            boolean previouslyFound = hasLatestFinish[task];
+            calculateLatestFinish(task);
+            boolean startMoved = changed[task] || previousLatestFinish != latestFinish[task]
+                    || previouslyFound != hasLatestFinish[task];
+            if ( backwarded[task] && startMoved ) {
+                for (int e = inStart[task]; e < inStart[task + 1]; e++) {
+                    backwardDirty[inSource[e]] = true;
+                }
+            }
+        }
+    }
+
+    private void calculateLatestFinish(int task) {
+        boolean found = false;
+        int result = 0;
+        if ( last[task] ) {
+            result = constrainedFinish(task, endOfProject);
+            found = true;
+        }
+        for (int e = outStart[task]; e < outStart[task + 1]; e++) {
+            int target = outTarget[e];
+            if ( !backwarded[target] ) {
+                continue;
+            }
+            int targetStart = latestFinish[target] - durations[target];
+            int candidate;
+            switch (outType[e]) {
+            case START_START:
+                candidate = constrainedFinish(task, targetStart + durations[task]);
+                break;
+            case END_END:
+                candidate = constrainedFinish(task, latestFinish[target]);
+                break;
+            case END_START:
+            default:
+                candidate = constrainedFinish(task, targetStart);
+                break;
+            }
+            result = found ? Math.min(result, candidate) : candidate;
+            found = true;
+        }
+        latestFinish[task] = result;
+        hasLatestFinish[task] = found;
+    }
+
+    private int constrainedFinish(int task, int finish) {
+        Constraint<GanttDate> constraint = constraints[task];
+        if ( constraint == null ) {
+            return finish;
+        }
+        int duration = durations[task];
+        GanttDate date = constraint.applyTo(GanttDate.createFrom(initDate.plusDays(finish - duration)));
+        return Days.daysBetween(initDate, LocalDate.fromDateFields(date.toDayRoundedDate())).getDays() + duration;
+    }
+
+    private List<T> getTasksOnCriticalPath() {
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if ( hasLatestFinish[i] && latestFinish[i] - durations[i] == earliestStart[i] ) {
+                result.add(tasks.get(i));
+            }
+        }
+        return result;
+    }
+
+}
@@ -68,4 +68,10 @@ public interface ICriticalPathCalculable<T> {
 
     List<T> getChildren(T task);
 
+    /**
+     * It must change each time a task or a dependency is added or removed, so the calculated critical path graph can
+     * be reused while it doesn't change.
+     */
+    int getStructureVersion();
+
 }
@@ -0,0 +1,102 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.zkoss.ganttz.util;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Range of rows of a list that are materialized: the ones shown in the
+ * viewport plus a buffer of rows before and after them.
+ *
+ * It's recalculated only when the viewport gets near one of its ends, so small
+ * scrolls don't create or remove rows.
+ */
+public class RowsWindow {
+
+    public static RowsWindow around(int firstVisibleRow, int visibleRows, int totalRows, int buffer) {
+        Validate.isTrue(visibleRows >= 0);
+        Validate.isTrue(totalRows >= 0);
+        Validate.isTrue(buffer >= 0);
+
+        int first = Math.max(0, Math.min(firstVisibleRow, totalRows - visibleRows));
+        int start = Math.max(0, first - buffer);
+        int end = Math.min(totalRows, first + visibleRows + buffer);
+
+        return new RowsWindow(start, Math.max(start, end), totalRows, buffer);
+    }
+
+    private final int start;
+
+    private final int end;
+
+    private final int totalRows;
+
+    private final int buffer;
+
+    private RowsWindow(int start, int end, int totalRows, int buffer) {
+        this.start = start;
+        this.end = end;
+        this.totalRows = totalRows;
+        this.buffer = buffer;
+    }
+
+    /**
+     * @return the position of the first materialized row
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * @return the position after the last materialized row
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    public boolean contains(int row) {
+        return row >= start && row < end;
+    }
+
+    public int getRowsBefore() {
+        return start;
+    }
+
+    public int getRowsAfter() {
+        return totalRows - end;
+    }
+
+    /**
+     * Checks if the window still has at least a third of its buffer before and
+     * after the viewport, or reaches the ends of the list.
+     */
+    public boolean covers(int firstVisibleRow, int visibleRows, int totalRows) {
+        if ( totalRows != this.totalRows ) {
+            return false;
+        }
+
+        int margin = buffer / 3;
+        boolean startCovered = start == 0 || firstVisibleRow - margin >= start;
+        boolean endCovered = end == totalRows || firstVisibleRow + visibleRows + margin <= end;
+
+        return startCovered && endCovered;
+    }
+
+}
@@ -59,6 +59,11 @@ ganttz.GanttPanel = zk.$extends(
             this._taskdetails.css("top", "-" + this._rightPanelLayout.scrollTop() + "px");
             this._plannergraph.scrollLeft( this._rightPanelLayout.scrollLeft() );
             this.timeplotContainerRescroll();
+
+            var taskList = ganttz.TaskList.getInstance();
+            if (taskList) {
+                taskList.viewportScrolled();
+            }
         },
         
         /*
@@ -3,11 +3,116 @@ zk.$package("ganttz");
 ganttz.TaskList = zk.$extends(
     zk.Widget,
     {
+        $define : {
+            // When virtualized only some rows are rendered and the rest are
+            // replaced by the spacers before and after them
+            virtualized : function() {
+                this.viewportScrolled();
+            },
+            rowsBefore : function() {
+                this._updateSpacers();
+            },
+            rowsAfter : function() {
+                this._updateSpacers();
+            }
+        },
+
         $init : function() {
             this.$supers('$init', arguments);
             this.$class.setInstance(this);
         },
 
+        bind_ : function() {
+            this.$supers('bind_', arguments);
+            this._updateSpacers();
+            this.viewportScrolled();
+        },
+
+        unbind_ : function() {
+            clearTimeout(this._viewportTimeout);
+            this._viewportTimeout = null;
+            this.$supers('unbind_', arguments);
+        },
+
+        insertChildHTML_ : function(child, before, desktop) {
+            var rowsAfter = this.$n('rows-after');
+
+            if (before || !rowsAfter) {
+                this.$supers('insertChildHTML_', arguments);
+                return;
+            }
+
+            // Appended rows go before the spacer of the rows after them
+            jq(rowsAfter).before(child.redrawHTML_());
+            child.bind(desktop);
+        },
+
+        rowHeight : function() {
+            var first = this._nextInFlow(this.firstChild);
+            var second = first ? this._nextInFlow(first.nextSibling) : null;
+
+            if (second && first.$n() && second.$n()) {
+                this._measuredRowHeight = second.$n().offsetTop - first.$n().offsetTop;
+            }
+
+            return this._measuredRowHeight || this.$class.DEFAULT_ROW_HEIGHT;
+        },
+
+        _nextInFlow : function(row) {
+            while (row && row.isAnchored && row.isAnchored()) {
+                row = row.nextSibling;
+            }
+            return row;
+        },
+
+        _updateSpacers : function() {
+            if (!this.desktop) {
+                return;
+            }
+
+            var rowHeight = this.rowHeight();
+            jq(this.$n('rows-before')).height((this._rowsBefore || 0) * rowHeight);
+            jq(this.$n('rows-after')).height((this._rowsAfter || 0) * rowHeight);
+
+            for (var child = this.firstChild; child; child = child.nextSibling) {
+                if (child.isAnchored && child.isAnchored()) {
+                    child.updateAnchor();
+                }
+            }
+        },
+
+        /*
+         * Reports to the server the rows in the viewport, so it materializes the ones around them.
+         * The reports are delayed to send only one while scrolling.
+         */
+        viewportScrolled : function() {
+            if (!this._virtualized || !this.desktop || this._viewportTimeout) {
+                return;
+            }
+
+            this._viewportTimeout = setTimeout(jq.proxy(function() {
+                this._viewportTimeout = null;
+                this._sendViewport();
+            }, this), this.$class.VIEWPORT_REPORT_DELAY);
+        },
+
+        _sendViewport : function() {
+            var scroller = jq('.rightpanel-layout div:first')[0];
+            var rowsBefore = this.$n('rows-before');
+
+            if (!scroller || !rowsBefore) {
+                return;
+            }
+
+            var rowHeight = this.rowHeight();
+            var top = scroller.getBoundingClientRect().top - rowsBefore.getBoundingClientRect().top;
+
+            zAu.send(new zk.Event(this, 'onViewportChange', {
+                firstRow : Math.max(0, Math.floor(top / rowHeight)),
+                rows : Math.ceil(scroller.clientHeight / rowHeight) + 1
+            }));
+        },
+
         showAllTaskLabels : function() {
             for (var child = this.firstChild; child; child = child.nextSibling)
                 child.showLabels();
@@ -44,6 +149,10 @@ ganttz.TaskList = zk.$extends(
     },
     {
         // Class stuff
+        DEFAULT_ROW_HEIGHT : 22,
+
+        VIEWPORT_REPORT_DELAY : 150,
+
         setInstance : function(instance) {
             this.instance = instance;
         },
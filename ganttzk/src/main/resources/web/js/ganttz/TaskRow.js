@@ -2,6 +2,41 @@ zk.$package("ganttz");
 
 ganttz.TaskRow = zk.$extends(zk.Widget, {
 
+    $define : {
+        // Position of the row when it's out of the flow of a virtualized list, -1 otherwise
+        anchoredRow : function() {
+            this.updateAnchor();
+        }
+    },
+
+    bind_ : function() {
+        this.$supers('bind_', arguments);
+        this.updateAnchor();
+    },
+
+    isAnchored : function() {
+        return this._anchoredRow != null && this._anchoredRow >= 0;
+    },
+
+    /*
+     * The anchored rows are placed where they would be if all the rows before them were rendered,
+     * as the spacers of the list take their height.
+     */
+    updateAnchor : function() {
+        var node = this.$n();
+        var list = this.parent;
+
+        if (!node) {
+            return;
+        }
+
+        if (this.isAnchored() && list) {
+            jq(node).css({ position : 'absolute', top : this._anchoredRow * list.rowHeight() });
+        } else {
+            jq(node).css({ position : '', top : '' });
+        }
+    },
+
     _labelsHidden : true,
 
     showLabels : function() {
@@ -6,8 +6,10 @@ function(out){
     out.push('<div id="scroll_container">');
         out.push('<div z.type="gantt.tasklist.TaskList" z.autoz="true" ' + this.domAttrs_() + '>');
             out.push('<div id="listtasks">');
+                out.push('<div id="', this.uuid, '-rows-before"></div>');
                 for(var w = this.firstChild; w; w = w.nextSibling)
                     w.redraw(out);
+                out.push('<div id="', this.uuid, '-rows-after"></div>');
             out.push('</div>');
         out.push('</div>');
     out.push('</div>');
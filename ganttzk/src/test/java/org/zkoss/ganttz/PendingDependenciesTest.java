@@ -0,0 +1,139 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.zkoss.ganttz;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.zkoss.ganttz.data.Dependency;
+import org.zkoss.ganttz.data.DependencyType;
+import org.zkoss.ganttz.data.ITaskFundamentalProperties;
+import org.zkoss.ganttz.data.Task;
+import org.zkoss.ganttz.data.TaskLeaf;
+
+public class PendingDependenciesTest {
+
+    private Task a;
+
+    private Task b;
+
+    private Task c;
+
+    private PendingDependencies pending;
+
+    private static Task createTask() {
+        ITaskFundamentalProperties properties = createNiceMock(ITaskFundamentalProperties.class);
+        replay(properties);
+        return new TaskLeaf(properties);
+    }
+
+    @Before
+    public void createTasks() {
+        a = createTask();
+        b = createTask();
+        c = createTask();
+        pending = new PendingDependencies();
+    }
+
+    private static Dependency dependency(Task source, Task destination) {
+        return new Dependency(source, destination, DependencyType.END_START);
+    }
+
+    @Test
+    public void aDependencyIsPendingOnBothTasks() {
+        Dependency aToB = dependency(a, b);
+        pending.add(aToB);
+
+        assertEquals(Collections.singleton(aToB), pending.getPendingOf(a));
+        assertEquals(Collections.singleton(aToB), pending.getPendingOf(b));
+        assertTrue(pending.getPendingOf(c).isEmpty());
+    }
+
+    @Test
+    public void theDependenciesOfTheMaterializedTasksAreTakenOnce() {
+        Dependency aToB = dependency(a, b);
+        Dependency bToC = dependency(b, c);
+        pending.add(aToB);
+        pending.add(bToC);
+
+        assertEquals(Arrays.asList(aToB, bToC), Arrays.asList(pending.takeFor(Arrays.asList(a, b, c)).toArray()));
+        assertTrue(pending.isEmpty());
+    }
+
+    @Test
+    public void aTakenDependencyIsNotPendingOnTheOtherTaskAnyMore() {
+        Dependency aToB = dependency(a, b);
+        Dependency bToC = dependency(b, c);
+        pending.add(aToB);
+        pending.add(bToC);
+
+        assertEquals(Collections.singleton(aToB), pending.takeFor(Collections.singletonList(a)));
+
+        assertEquals(Collections.singleton(bToC), pending.getPendingOf(b));
+        assertTrue(pending.takeFor(Collections.singletonList(a)).isEmpty());
+    }
+
+    @Test
+    public void aDependencyCanBePendingAgainWhenOneOfItsTasksIsReleased() {
+        Dependency aToB = dependency(a, b);
+        pending.add(aToB);
+        pending.takeFor(Arrays.asList(a, b));
+
+        pending.add(aToB);
+
+        assertEquals(Collections.singleton(aToB), pending.takeFor(Collections.singletonList(b)));
+        assertTrue(pending.isEmpty());
+    }
+
+    @Test
+    public void theDependenciesOfARemovedTaskAreDiscarded() {
+        pending.add(dependency(a, b));
+        pending.add(dependency(c, a));
+        Dependency bToC = dependency(b, c);
+        pending.add(bToC);
+
+        pending.removeAllOf(a);
+
+        assertTrue(pending.getPendingOf(a).isEmpty());
+        assertEquals(Collections.singleton(bToC), pending.getPendingOf(b));
+        assertEquals(Collections.singleton(bToC), pending.getPendingOf(c));
+    }
+
+    @Test
+    public void aDependencyIsRemovedWhateverItsTypeIs() {
+        pending.add(dependency(a, b));
+        Dependency bToA = dependency(b, a);
+        pending.add(bToA);
+
+        pending.remove(new Dependency(a, b, DependencyType.START_START));
+
+        assertEquals(Collections.singleton(bToA), pending.getPendingOf(a));
+        assertEquals(Collections.singleton(bToA), pending.getPendingOf(b));
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.zkoss.ganttz;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.zkoss.ganttz.data.Dependency;
+import org.zkoss.ganttz.data.DependencyType;
+import org.zkoss.ganttz.data.ITaskFundamentalProperties;
+import org.zkoss.ganttz.data.Task;
+import org.zkoss.ganttz.data.TaskContainer;
+import org.zkoss.ganttz.data.TaskLeaf;
+import org.zkoss.ganttz.util.RowsWindow;
+
+public class TaskListTest {
+
+    private static ITaskFundamentalProperties properties() {
+        ITaskFundamentalProperties result = createNiceMock(ITaskFundamentalProperties.class);
+        replay(result);
+        return result;
+    }
+
+    private static Task leaf() {
+        return new TaskLeaf(properties());
+    }
+
+    private static TaskContainer container(Task... tasks) {
+        TaskContainer result = new TaskContainer(properties(), true);
+        for (Task each : tasks) {
+            result.add(each);
+        }
+        return result;
+    }
+
+    private static IPredicate allBut(Task... rejected) {
+        final Set<Task> rejectedSet = new HashSet<>(Arrays.asList(rejected));
+        return object -> !rejectedSet.contains(object);
+    }
+
+    private static List<Task> leafs(int number) {
+        List<Task> result = new ArrayList<>();
+        for (int i = 0; i < number; i++) {
+            result.add(leaf());
+        }
+        return result;
+    }
+
+    @Test
+    public void theShownTasksFollowTheOrderOfTheRows() {
+        Task first = leaf();
+        Task nested = leaf();
+        TaskContainer inner = container(nested);
+        Task sibling = leaf();
+        TaskContainer outer = container(inner, sibling);
+        Task last = leaf();
+
+        assertEquals(Arrays.asList(first, outer, inner, nested, sibling, last),
+                TaskList.tasksShownBy(allBut(), Arrays.asList(first, outer, last)));
+    }
+
+    @Test
+    public void theTasksRejectedByThePredicateAreNotShown() {
+        Task first = leaf();
+        Task hidden = leaf();
+        TaskContainer container = container(hidden, leaf());
+        Task shownChild = container.getTasks().get(1);
+
+        assertEquals(Arrays.asList(first, container, shownChild),
+                TaskList.tasksShownBy(allBut(hidden), Arrays.asList(first, container)));
+    }
+
+    @Test
+    public void theSubtasksOfARejectedContainerAreStillAskedFor() {
+        Task child = leaf();
+        TaskContainer container = container(child);
+
+        assertEquals(Collections.singletonList(child),
+                TaskList.tasksShownBy(allBut(container), Collections.singletonList(container)));
+    }
+
+    @Test
+    public void theListIsVirtualizedOnlyAboveTheThreshold() {
+        assertFalse(TaskList.mustBeVirtualized(leafs(TaskList.VIRTUALIZATION_THRESHOLD)));
+        assertTrue(TaskList.mustBeVirtualized(leafs(TaskList.VIRTUALIZATION_THRESHOLD + 1)));
+    }
+
+    @Test
+    public void theSubtasksShownCountForTheThreshold() {
+        TaskContainer container = container(leafs(TaskList.VIRTUALIZATION_THRESHOLD).toArray(new Task[0]));
+        List<Task> topLevel = Collections.singletonList((Task) container);
+
+        assertTrue(TaskList.mustBeVirtualized(TaskList.tasksShownBy(allBut(), topLevel)));
+        assertFalse(TaskList.mustBeVirtualized(
+                TaskList.tasksShownBy(allBut(container.getTasks().get(0)), topLevel)));
+    }
+
+    private static Dependency dependency(Task source, Task destination) {
+        return new Dependency(source, destination, DependencyType.END_START);
+    }
+
+    @Test
+    public void theOtherEndsOfTheDependenciesOfTheWindowAreMaterializedAtTheirRows() {
+        List<Task> shown = leafs(500);
+        RowsWindow window = RowsWindow.around(200, 40, shown.size(), TaskList.WINDOW_BUFFER);
+        Task hidden = leaf();
+
+        Map<Task, Integer> expected = new HashMap<>();
+        expected.put(shown.get(10), 10);
+        expected.put(shown.get(450), 450);
+
+        assertEquals(expected, TaskList.farEndpoints(shown, window, Arrays.asList(
+                dependency(shown.get(10), shown.get(200)),
+                dependency(shown.get(239), shown.get(450)),
+                dependency(shown.get(200), shown.get(210)),
+                dependency(shown.get(20), shown.get(30)),
+                dependency(shown.get(200), hidden))));
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.zkoss.ganttz.data.criticalpath;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.zkoss.ganttz.data.IDependency;
+import org.zkoss.ganttz.data.criticalpath.SimpleGraph.SimpleTask;
+
+/**
+ * Compares {@link CriticalPathCalculator} with {@link CriticalPathEngine}, both from scratch and after changing the
+ * duration of a task, over layered graphs. It's not run with the tests, it must be launched from its main method with
+ * the test classpath. The calculator needs a big stack with the biggest graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = { "-Xss64m" })
+public class CriticalPathBenchmark {
+
+    @Param({ "1000", "10000" })
+    private int numberOfTasks;
+
+    private SimpleGraph graph;
+
+    private CriticalPathEngine<SimpleTask, IDependency<SimpleTask>> engine;
+
+    private int changes = 0;
+
+    @Setup(Level.Trial)
+    public void createGraph() {
+        graph = SimpleGraph.layered(numberOfTasks, 50, 3, 1L);
+        engine = CriticalPathEngine.create(false);
+        engine.calculateCriticalPath(graph);
+    }
+
+    @Benchmark
+    public List<SimpleTask> calculator() {
+        CriticalPathCalculator<SimpleTask, IDependency<SimpleTask>> calculator = CriticalPathCalculator.create(false);
+        return calculator.calculateCriticalPath(graph);
+    }
+
+    @Benchmark
+    public List<SimpleTask> engineFromScratch() {
+        CriticalPathEngine<SimpleTask, IDependency<SimpleTask>> fromScratch = CriticalPathEngine.create(false);
+        return fromScratch.calculateCriticalPath(graph);
+    }
+
+    @Benchmark
+    public List<SimpleTask> engineAfterChangingADuration() {
+        changes++;
+        graph.getTask((changes * 7919) % numberOfTasks).setDuration(1 + changes % 20);
+        return engine.calculateCriticalPath(graph);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CriticalPathBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -71,6 +71,19 @@ public class CriticalPathCalculatorTest {
         return CriticalPathCalculator.create(false);
     }
 
+    /**
+     * The critical path is also calculated with {@link CriticalPathEngine}, that must give the same tasks.
+     */
+    private List<ITaskFundamentalProperties> calculateCriticalPath() {
+        List<ITaskFundamentalProperties> result = buildCalculator().calculateCriticalPath(diagramGraphExample);
+
+        CriticalPathEngine<ITaskFundamentalProperties, IDependency<ITaskFundamentalProperties>> engine =
+                CriticalPathEngine.create(false);
+        assertThat(new HashSet<>(engine.calculateCriticalPath(diagramGraphExample)), equalTo(new HashSet<>(result)));
+
+        return result;
+    }
+
     private ITaskFundamentalProperties createTaskWithBiggerOrEqualThanConstraint(
             LocalDate start, int durationDays, LocalDate date) {
 
@@ -1394,7 +1407,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void trivialBaseCase() {
         givenOneTask(10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
         assertThat(daysBetweenStartAndEnd(criticalPath.get(0)), equalTo(10));
@@ -2261,7 +2274,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void trivialBaseCaseWithTwoTasksNotConnected() {
         givenTwoTasksNotConnected(5, 10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
         assertThat(daysBetweenStartAndEnd(criticalPath.get(0)), equalTo(10));
@@ -2270,7 +2283,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void pairOfTasks() {
         givenPairOfTasks(10, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2282,7 +2295,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoPairOfTasksNotConnected() {
         givenTwoPairOfTasksNotConnected(10, 5, 6, 4);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2294,7 +2307,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoPairOfTasksNotConnected2() {
         givenTwoPairOfTasksNotConnected(8, 1, 6, 4);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2306,7 +2319,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoTaskConnectedAndOneIndependentTask() {
         givenTwoTaskConnectedAndOneIndependentTask(5, 10, 12);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2318,7 +2331,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoTaskConnectedAndOneIndependentTask2() {
         givenTwoTaskConnectedAndOneIndependentTask(5, 10, 20);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
         assertThat(daysBetweenStartAndEnd(criticalPath.get(0)), equalTo(20));
@@ -2327,7 +2340,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoTaskConnectedAndOneIndependentTaskWithTheSameDuration() {
         givenTwoTaskConnectedAndOneIndependentTask(10, 10, 20);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(3));
     }
@@ -2335,7 +2348,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void oneTaskWithTwoDependantTasks() {
         givenOneTaskWithTwoDependantTasks(4, 5, 10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2347,7 +2360,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void oneTaskWithTwoDependantTasks2() {
         givenOneTaskWithTwoDependantTasks(4, 5, 1);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2359,7 +2372,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoTaskWithOneCommonDependantTask() {
         givenTwoTaskWithOneCommonDependantTask(4, 2, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2371,7 +2384,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoTaskWithOneCommonDependantTask2() {
         givenTwoTaskWithOneCommonDependantTask(4, 10, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2383,7 +2396,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void oneTaskWithTwoDependantTasksAndOneCommonDependantTask() {
         givenOneTaskWithTwoDependantTasksAndOneCommonDependantTask(4, 2, 5, 10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(3));
 
@@ -2395,7 +2408,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoTaskWithOneCommonDependantTaskWithTwoDependantTasks() {
         givenTwoTaskWithOneCommonDependantTaskWithTwoDependantTasks(2, 6, 4, 8, 10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(3));
 
@@ -2407,7 +2420,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoTaskWithOneCommonDependantTaskWithTwoDependantTasks2() {
         givenTwoTaskWithOneCommonDependantTaskWithTwoDependantTasks(4, 2, 10, 8, 6);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(3));
 
@@ -2419,7 +2432,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void example() {
         givenExample(20);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2431,7 +2444,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void example2() {
         givenExample(10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(4));
 
@@ -2443,7 +2456,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void example3() {
         givenExample(19);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(6));
 
@@ -2457,7 +2470,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void pairOfTasksStartStart() {
         givenPairOfTasksStartStart(5, 10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2469,7 +2482,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void pairOfTasksStartStart2() {
         givenPairOfTasksStartStart(8, 4);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
         assertThat(daysBetweenStartAndEnd(criticalPath.get(0)), equalTo(8));
@@ -2478,7 +2491,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void pairOfTasksStartStart3() {
         givenPairOfTasksStartStart(5, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2490,7 +2503,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void pairOfTasksStartStartFirstOfThemWithOneSubtask() {
         givenPairOfTasksStartStartFirstOfThemWithOneSubtask(4, 6, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2502,7 +2515,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void pairOfTasksStartStartFirstOfThemWithOneSubtask2() {
         givenPairOfTasksStartStartFirstOfThemWithOneSubtask(4, 6, 15);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2514,7 +2527,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoTasksWithSubtasksRelatedWithStartStart() {
         givenTwoTasksWithSubtasksRelatedWithStartStart(4, 3, 5, 6);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2526,7 +2539,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoTasksWithSubtasksRelatedWithStartStart2() {
         givenTwoTasksWithSubtasksRelatedWithStartStart(2, 10, 4, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2538,7 +2551,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoTasksWithSubtasksRelatedWithStartStart3() {
         givenTwoTasksWithSubtasksRelatedWithStartStart(4, 7, 5, 6);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(4));
 
@@ -2550,7 +2563,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void exampleStartStart() {
         givenExampleStartStart(5, 3, 10, 2);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2562,7 +2575,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void exampleStartStart2() {
         givenExampleStartStart(5, 3, 4, 8);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(3));
 
@@ -2574,7 +2587,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void exampleStartStart3() {
         givenExampleStartStart(5, 8, 4, 2);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2586,7 +2599,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void pairOfTasksEndEnd() {
         givenPairOfTasksEndEnd(10, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2598,7 +2611,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void pairOfTasksEndEnd2() {
         givenPairOfTasksEndEnd(5, 10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
         assertThat(daysBetweenStartAndEnd(criticalPath.get(0)), equalTo(10));
@@ -2607,7 +2620,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void pairOfTasksEndEndFirstOfThemWithOneSubtask() {
         givenPairOfTasksEndEndFirstOfThemWithOneSubtask(4, 3, 2);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2619,7 +2632,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void pairOfTasksEndEndFirstOfThemWithOneSubtask2() {
         givenPairOfTasksEndEndFirstOfThemWithOneSubtask(2, 3, 6);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
         assertThat(daysBetweenStartAndEnd(criticalPath.get(0)), equalTo(6));
@@ -2628,7 +2641,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoTasksWithSubtasksRelatedWithEndEnd() {
         givenTwoTasksWithSubtasksRelatedWithEndEnd(5, 3, 4, 2);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(3));
 
@@ -2640,7 +2653,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void twoTasksWithSubtasksRelatedWithEndEnd2() {
         givenTwoTasksWithSubtasksRelatedWithEndEnd(5, 2, 4, 6);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2652,7 +2665,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void exampleEndEnd() {
         givenExampleEndEnd(5, 4, 2, 3);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2664,7 +2677,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void exampleEndEnd2() {
         givenExampleEndEnd(5, 2, 4, 3);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(3));
 
@@ -2676,7 +2689,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void exampleEndEnd3() {
         givenExampleEndEnd(2, 4, 3, 10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
         assertThat(daysBetweenStartAndEnd(criticalPath.get(0)), equalTo(10));
@@ -2685,7 +2698,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void oneTaskWithTwoDependantTasksLastOneWithEqualConstraint() {
         givenOneTaskWithTwoDependantTasksLastOneWithEqualConstraint(2, 5, 3, START.plusDays(5));
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
         assertThat(daysBetweenStartAndEnd(criticalPath.get(0)), equalTo(3));
@@ -2694,7 +2707,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void oneTaskWithTwoDependantTasksLastOneWithEqualConstraint2() {
         givenOneTaskWithTwoDependantTasksLastOneWithEqualConstraint(2, 5, 3, START.plusDays(4));
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(3));
 
@@ -2706,7 +2719,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void oneTaskWithTwoDependantTasksLastOneWithBiggerOrEqualThanConstraint() {
         givenOneTaskWithTwoDependantTasksLastOneWithBiggerOrEqualThanConstraint(2, 5, 3, START.plusDays(5));
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
         assertThat(daysBetweenStartAndEnd(criticalPath.get(0)), equalTo(3));
@@ -2715,7 +2728,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void oneTaskWithTwoDependantTasksLastOneWithBiggerOrEqualThanConstraint2() {
         givenOneTaskWithTwoDependantTasksLastOneWithBiggerOrEqualThanConstraint(2, 6, 4, START.plusDays(3));
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2727,7 +2740,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void taskContainerWithOneSubtask() {
         givenTaskContainerWithOneSubtask(10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
 
@@ -2740,7 +2753,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void taskContainerWithTwoSubtasks() {
         givenTaskContainerWithTwoSubtasks(10, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
 
@@ -2753,7 +2766,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void taskContainerWithOneSubtaskDependingOnOneTask() {
         givenTaskContainerWithOneSubtaskDependingOnOneTask(10, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2766,7 +2779,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void oneTaskDependingOnTaskContainerWithOneSubtask() {
         givenOneTaskDependingOnTaskContainerWithOneSubtask(10, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2779,7 +2792,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void exampleWithContainers() {
         givenExampleWithContainers();
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2792,7 +2805,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void anotherExampleWithContiners() {
         givenAnotherWithContainers();
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2805,7 +2818,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void complexExample() {
         givenComplexExample();
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(3));
 
@@ -2818,7 +2831,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void taskContainerWithAnotherContainer() {
         givenTaskContainerWithAnotherContainer(10, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
 
@@ -2831,7 +2844,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void taskContainerWithAnotherContainer2() {
         givenTaskContainerWithAnotherContainer(5, 10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
 
@@ -2844,7 +2857,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void startStartContainerExample() {
         givenStartStartContainerExample(10, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
 
@@ -2857,7 +2870,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void startStartContainerExample2() {
         givenStartStartContainerExample(5, 10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2870,7 +2883,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void endEndContainerExample() {
         givenEndEndContainerExample(10, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2882,7 +2895,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void endEndContainerExample2() {
         givenEndEndContainerExample(5, 10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
 
@@ -2895,7 +2908,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void taskContainerWithContainerWithSubtask() {
         givenTaskContainerWithContainerWithSubtask(10);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
 
@@ -2908,7 +2921,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void exampleContainersWithContainers() {
         givenExampleContainersWithContainers(10, 5);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2970,7 +2983,7 @@ public class CriticalPathCalculatorTest {
         givenPairOfTasksWithDependencyFirstWithBiggerConstraintAndSecondWithEqualConstraint(
                 6, START.plusDays(2), 4, START);
 
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2984,7 +2997,7 @@ public class CriticalPathCalculatorTest {
         givenPairOfTasksWithDependencyFirstWithBiggerConstraintAndSecondWithEqualConstraint(
                 6, START, 4, START.plusDays(5));
 
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -2998,7 +3011,7 @@ public class CriticalPathCalculatorTest {
         givenPairOfTasksWithDependencyFirstWithBiggerConstraintAndSecondWithEqualConstraint(
                 6, START, 4, START.plusDays(10));
 
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(1));
         assertThat(daysBetweenStartAndEnd(criticalPath.get(0)), equalTo(4));
@@ -3049,7 +3062,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void examplePairOfTasksWithDependencyBothWithEqualConstraint1() {
         givenPairOfTasksWithDependencyBothWithEqualConstraint(6, START.plusDays(2), 4, START);
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -3061,7 +3074,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void examplePairOfTasksWithDependencyBothWithEqualConstraint2() {
         givenPairOfTasksWithDependencyBothWithEqualConstraint(6, START, 4, START.plusDays(5));
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
@@ -3073,7 +3086,7 @@ public class CriticalPathCalculatorTest {
     @Test
     public void examplePairOfTasksWithDependencyBothWithEqualConstraint3() {
         givenPairOfTasksWithDependencyBothWithEqualConstraint(6, START, 4, START.plusDays(10));
-        List<ITaskFundamentalProperties> criticalPath = buildCalculator().calculateCriticalPath(diagramGraphExample);
+        List<ITaskFundamentalProperties> criticalPath = calculateCriticalPath();
 
         assertThat(criticalPath.size(), equalTo(2));
 
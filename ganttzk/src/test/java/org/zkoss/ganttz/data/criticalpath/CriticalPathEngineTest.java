@@ -0,0 +1,153 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.zkoss.ganttz.data.criticalpath;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.zkoss.ganttz.data.DependencyType;
+import org.zkoss.ganttz.data.IDependency;
+import org.zkoss.ganttz.data.criticalpath.SimpleGraph.SimpleTask;
+
+/**
+ * Tests for {@link CriticalPathEngine}. The results are compared with the ones of {@link CriticalPathCalculator}.
+ */
+public class CriticalPathEngineTest {
+
+    private final CriticalPathEngine<SimpleTask, IDependency<SimpleTask>> engine = CriticalPathEngine.create(false);
+
+    private static Set<SimpleTask> calculatedFromScratch(SimpleGraph graph) {
+        CriticalPathCalculator<SimpleTask, IDependency<SimpleTask>> calculator = CriticalPathCalculator.create(false);
+        return new HashSet<>(calculator.calculateCriticalPath(graph));
+    }
+
+    private Set<SimpleTask> calculated(SimpleGraph graph) {
+        return new HashSet<>(engine.calculateCriticalPath(graph));
+    }
+
+    /**
+     * <pre>
+     *      /-- T1 --\
+     * T0 --          -- T3
+     *      \-- T2 --/
+     * </pre>
+     */
+    private SimpleGraph givenDiamond(int durationOfT1, int durationOfT2) {
+        SimpleGraph result = new SimpleGraph();
+        SimpleTask t0 = result.addTask(2);
+        SimpleTask t1 = result.addTask(durationOfT1);
+        SimpleTask t2 = result.addTask(durationOfT2);
+        SimpleTask t3 = result.addTask(3);
+        result.addDependency(t0, t1, DependencyType.END_START);
+        result.addDependency(t0, t2, DependencyType.END_START);
+        result.addDependency(t1, t3, DependencyType.END_START);
+        result.addDependency(t2, t3, DependencyType.END_START);
+        return result;
+    }
+
+    @Test
+    public void theLongestBranchIsInTheCriticalPath() {
+        SimpleGraph graph = givenDiamond(5, 2);
+
+        assertThat(calculated(graph), equalTo(tasks(graph, 0, 1, 3)));
+    }
+
+    private static Set<SimpleTask> tasks(SimpleGraph graph, Integer... indexes) {
+        Set<SimpleTask> result = new HashSet<>();
+        for (Integer each : Arrays.asList(indexes)) {
+            result.add(graph.getTask(each));
+        }
+        return result;
+    }
+
+    @Test
+    public void aChangeOfDurationIsRecalculatedWithoutRebuildingTheGraph() {
+        SimpleGraph graph = givenDiamond(5, 2);
+        calculated(graph);
+
+        graph.getTask(2).setDuration(8);
+
+        assertThat(calculated(graph), equalTo(tasks(graph, 0, 2, 3)));
+        assertThat(calculated(graph), equalTo(calculatedFromScratch(graph)));
+    }
+
+    @Test
+    public void bothBranchesAreCriticalIfTheyHaveTheSameDuration() {
+        SimpleGraph graph = givenDiamond(5, 2);
+        calculated(graph);
+
+        graph.getTask(2).setDuration(5);
+
+        assertThat(calculated(graph), equalTo(tasks(graph, 0, 1, 2, 3)));
+    }
+
+    @Test
+    public void theGraphIsRebuiltIfItsStructureChanges() {
+        SimpleGraph graph = givenDiamond(5, 2);
+        calculated(graph);
+
+        SimpleTask t4 = graph.addTask(10);
+        graph.addDependency(graph.getTask(2), t4, DependencyType.END_START);
+
+        assertThat(calculated(graph), equalTo(tasks(graph, 0, 2, 4)));
+    }
+
+    @Test
+    public void aLongChainDoesNotOverflowTheStack() {
+        SimpleGraph graph = new SimpleGraph();
+        SimpleTask previous = graph.addTask(1);
+        for (int i = 1; i < 50000; i++) {
+            SimpleTask current = graph.addTask(1);
+            graph.addDependency(previous, current, DependencyType.END_START);
+            previous = current;
+        }
+
+        assertThat(engine.calculateCriticalPath(graph).size(), equalTo(50000));
+    }
+
+    @Test
+    public void bigGraphsHaveTheSameCriticalPathThanCalculatedFromScratch() {
+        for (long seed = 0; seed < 10; seed++) {
+            SimpleGraph graph = SimpleGraph.layered(500, 25, 3, seed);
+            assertThat(calculated(graph), equalTo(calculatedFromScratch(graph)));
+        }
+    }
+
+    @Test
+    public void successiveChangesOfDurationsKeepTheSameResultsThanCalculatedFromScratch() {
+        SimpleGraph graph = SimpleGraph.layered(500, 25, 3, 42);
+        calculated(graph);
+
+        for (int i = 0; i < 50; i++) {
+            graph.getTask((i * 37) % 500).setDuration(1 + (i * 13) % 30);
+
+            List<SimpleTask> criticalPath = engine.calculateCriticalPath(graph);
+            assertTrue(!criticalPath.isEmpty());
+            assertThat(new HashSet<>(criticalPath), equalTo(calculatedFromScratch(graph)));
+        }
+    }
+
+}
@@ -0,0 +1,255 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.zkoss.ganttz.data.criticalpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.zkoss.ganttz.data.DependencyType;
+import org.zkoss.ganttz.data.GanttDate;
+import org.zkoss.ganttz.data.IDependency;
+import org.zkoss.ganttz.data.constraint.Constraint;
+import org.zkoss.ganttz.data.criticalpath.SimpleGraph.SimpleTask;
+
+/**
+ * A graph of tasks without containers nor constraints, whose dates can be changed, to calculate the critical path of
+ * big graphs without mocks.
+ */
+public class SimpleGraph implements ICriticalPathCalculable<SimpleTask> {
+
+    public static class SimpleTask {
+
+        private final String name;
+
+        private LocalDate start;
+
+        private LocalDate end;
+
+        SimpleTask(String name, LocalDate start, int durationDays) {
+            this.name = name;
+            this.start = start;
+            this.end = start.plusDays(durationDays);
+        }
+
+        public void setDuration(int durationDays) {
+            this.end = start.plusDays(durationDays);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+    }
+
+    private static class SimpleDependency implements IDependency<SimpleTask> {
+
+        private final SimpleTask source;
+
+        private final SimpleTask destination;
+
+        private final DependencyType type;
+
+        SimpleDependency(SimpleTask source, SimpleTask destination, DependencyType type) {
+            this.source = source;
+            this.destination = destination;
+            this.type = type;
+        }
+
+        @Override
+        public SimpleTask getSource() {
+            return source;
+        }
+
+        @Override
+        public SimpleTask getDestination() {
+            return destination;
+        }
+
+        @Override
+        public DependencyType getType() {
+            return type;
+        }
+
+    }
+
+    /**
+     * Creates a graph of layers of tasks, where each task depends on some random tasks of the previous layer.
+     */
+    public static SimpleGraph layered(int numberOfTasks, int tasksPerLayer, int dependenciesPerTask, long seed) {
+        Random random = new Random(seed);
+        SimpleGraph result = new SimpleGraph();
+        List<SimpleTask> previousLayer = new ArrayList<>();
+        List<SimpleTask> layer = new ArrayList<>();
+        for (int i = 0; i < numberOfTasks; i++) {
+            SimpleTask task = result.addTask(1 + random.nextInt(20));
+            for (int j = 0; j < dependenciesPerTask && !previousLayer.isEmpty(); j++) {
+                SimpleTask origin = previousLayer.get(random.nextInt(previousLayer.size()));
+                result.addDependency(origin, task, DependencyType.values()[random.nextInt(3)]);
+            }
+            layer.add(task);
+            if ( layer.size() == tasksPerLayer ) {
+                previousLayer = layer;
+                layer = new ArrayList<>();
+            }
+        }
+        return result;
+    }
+
+    private static final LocalDate START = new LocalDate(2026, 1, 5);
+
+    private final List<SimpleTask> tasks = new ArrayList<>();
+
+    private final Map<SimpleTask, Map<SimpleTask, SimpleDependency>> outgoing = new HashMap<>();
+
+    private final Map<SimpleTask, Map<SimpleTask, SimpleDependency>> incoming = new HashMap<>();
+
+    private int structureVersion = 0;
+
+    public SimpleTask addTask(int durationDays) {
+        SimpleTask result = new SimpleTask("T" + tasks.size(), START, durationDays);
+        tasks.add(result);
+        outgoing.put(result, new HashMap<SimpleTask, SimpleDependency>());
+        incoming.put(result, new HashMap<SimpleTask, SimpleDependency>());
+        structureVersion++;
+        return result;
+    }
+
+    public void addDependency(SimpleTask origin, SimpleTask destination, DependencyType type) {
+        SimpleDependency dependency = new SimpleDependency(origin, destination, type);
+        outgoing.get(origin).put(destination, dependency);
+        incoming.get(destination).put(origin, dependency);
+        structureVersion++;
+    }
+
+    public SimpleTask getTask(int index) {
+        return tasks.get(index);
+    }
+
+    @Override
+    public List<SimpleTask> getInitialTasks() {
+        List<SimpleTask> result = new ArrayList<>();
+        for (SimpleTask each : tasks) {
+            if ( !hasVisibleIncomingDependencies(each) ) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<SimpleTask> getLatestTasks() {
+        List<SimpleTask> result = new ArrayList<>();
+        for (SimpleTask each : tasks) {
+            if ( !hasVisibleOutcomingDependencies(each) ) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean hasVisibleIncomingDependencies(SimpleTask task) {
+        for (SimpleDependency each : incoming.get(task).values()) {
+            if ( each.getType() != DependencyType.END_END ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasVisibleOutcomingDependencies(SimpleTask task) {
+        for (SimpleDependency each : outgoing.get(task).values()) {
+            if ( each.getType() != DependencyType.START_START ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Set<SimpleTask> getIncomingTasksFor(SimpleTask task) {
+        return new LinkedHashSet<>(incoming.get(task).keySet());
+    }
+
+    @Override
+    public Set<SimpleTask> getOutgoingTasksFor(SimpleTask task) {
+        return new LinkedHashSet<>(outgoing.get(task).keySet());
+    }
+
+    @Override
+    public IDependency<SimpleTask> getDependencyFrom(SimpleTask from, SimpleTask to) {
+        Map<SimpleTask, SimpleDependency> destinations = outgoing.get(from);
+        return destinations != null ? destinations.get(to) : null;
+    }
+
+    @Override
+    public List<SimpleTask> getTasks() {
+        return new ArrayList<>(tasks);
+    }
+
+    @Override
+    public boolean isContainer(SimpleTask task) {
+        return false;
+    }
+
+    @Override
+    public boolean contains(SimpleTask container, SimpleTask task) {
+        return false;
+    }
+
+    @Override
+    public GanttDate getStartDate(SimpleTask task) {
+        return GanttDate.createFrom(task.start);
+    }
+
+    @Override
+    public GanttDate getEndDateFor(SimpleTask task) {
+        return GanttDate.createFrom(task.end);
+    }
+
+    @Override
+    public List<Constraint<GanttDate>> getStartConstraintsFor(SimpleTask task) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<Constraint<GanttDate>> getEndConstraintsFor(SimpleTask task) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<SimpleTask> getChildren(SimpleTask task) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int getStructureVersion() {
+        return structureVersion;
+    }
+
+}
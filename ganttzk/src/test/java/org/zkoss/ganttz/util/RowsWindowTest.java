@@ -0,0 +1,95 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.zkoss.ganttz.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class RowsWindowTest {
+
+    @Test
+    public void theWindowIncludesTheBufferAroundTheViewport() {
+        RowsWindow window = RowsWindow.around(1000, 40, 5000, 30);
+
+        assertEquals(970, window.getStart());
+        assertEquals(1070, window.getEnd());
+        assertEquals(970, window.getRowsBefore());
+        assertEquals(3930, window.getRowsAfter());
+    }
+
+    @Test
+    public void theWindowIsLimitedByTheEndsOfTheList() {
+        RowsWindow atTop = RowsWindow.around(0, 40, 5000, 30);
+        assertEquals(0, atTop.getStart());
+        assertEquals(70, atTop.getEnd());
+
+        RowsWindow atBottom = RowsWindow.around(4990, 40, 5000, 30);
+        assertEquals(4930, atBottom.getStart());
+        assertEquals(5000, atBottom.getEnd());
+        assertEquals(0, atBottom.getRowsAfter());
+    }
+
+    @Test
+    public void aShortListIsCompletelyIncluded() {
+        RowsWindow window = RowsWindow.around(10, 40, 25, 30);
+
+        assertEquals(0, window.getStart());
+        assertEquals(25, window.getEnd());
+    }
+
+    @Test
+    public void theWindowContainsTheRowsFromItsStartUntilItsEnd() {
+        RowsWindow window = RowsWindow.around(1000, 40, 5000, 30);
+
+        assertFalse(window.contains(969));
+        assertTrue(window.contains(970));
+        assertTrue(window.contains(1069));
+        assertFalse(window.contains(1070));
+    }
+
+    @Test
+    public void smallScrollsAreCoveredByTheSameWindow() {
+        RowsWindow window = RowsWindow.around(1000, 40, 5000, 30);
+
+        assertTrue(window.covers(1000, 40, 5000));
+        assertTrue(window.covers(1010, 40, 5000));
+        assertTrue(window.covers(980, 40, 5000));
+    }
+
+    @Test
+    public void theWindowMustMoveWhenTheViewportGetsNearItsEnds() {
+        RowsWindow window = RowsWindow.around(1000, 40, 5000, 30);
+
+        assertFalse(window.covers(1025, 40, 5000));
+        assertFalse(window.covers(975, 40, 5000));
+        assertFalse(window.covers(3000, 40, 5000));
+    }
+
+    @Test
+    public void theWindowMustMoveWhenTheNumberOfRowsChanges() {
+        RowsWindow window = RowsWindow.around(1000, 40, 5000, 30);
+
+        assertFalse(window.covers(1000, 40, 5100));
+    }
+
+}
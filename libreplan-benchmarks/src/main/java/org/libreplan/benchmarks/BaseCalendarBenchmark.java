@@ -0,0 +1,90 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.libreplan.benchmarks.data.SyntheticCalendars;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link BaseCalendar#getCapacityOn(PartialDay)} asking for every
+ * day of some years, on a calendar with exceptions and on a resource calendar
+ * derived from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BaseCalendarBenchmark {
+
+    @Param({ "1", "5" })
+    private int years;
+
+    private BaseCalendar calendar;
+
+    private ResourceCalendar resourceCalendar;
+
+    private LocalDate end;
+
+    @Setup(Level.Trial)
+    public void createCalendars() {
+        calendar = SyntheticCalendars.withExceptions(years, 1L);
+        resourceCalendar = SyntheticCalendars.derivedFrom(calendar);
+        end = SyntheticCalendars.START.plusYears(years);
+    }
+
+    @Benchmark
+    public EffortDuration capacityOfEachDay() {
+        return sumCapacities(calendar);
+    }
+
+    @Benchmark
+    public EffortDuration capacityOfEachDayOfDerivedCalendar() {
+        return sumCapacities(resourceCalendar);
+    }
+
+    private EffortDuration sumCapacities(BaseCalendar calendar) {
+        EffortDuration result = EffortDuration.zero();
+        for (LocalDate day = SyntheticCalendars.START; day.isBefore(end); day = day.plusDays(1)) {
+            result = result.plus(calendar.getCapacityOn(PartialDay.wholeDay(day)));
+        }
+        return result;
+    }
+
+}
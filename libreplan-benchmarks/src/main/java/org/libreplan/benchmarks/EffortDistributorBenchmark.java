@@ -0,0 +1,90 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.libreplan.benchmarks.data.SyntheticCalendars;
+import org.libreplan.benchmarks.data.SyntheticResources;
+import org.libreplan.business.planner.entities.AssignedEffortForResource;
+import org.libreplan.business.planner.entities.EffortDistributor;
+import org.libreplan.business.planner.entities.EffortDistributor.ResourceWithAssignedDuration;
+import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link EffortDistributor#distributeForDay(PartialDay, EffortDuration)}
+ * sharing among the workers half of their capacity on each day of a year, one
+ * day per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EffortDistributorBenchmark {
+
+    private static final int DAYS = 365;
+
+    @Param({ "50", "500", "5000" })
+    private int numberOfResources;
+
+    private EffortDistributor distributor;
+
+    private EffortDuration effortPerDay;
+
+    private int day = 0;
+
+    @Setup(Level.Trial)
+    public void createResources() {
+        List<Resource> resources = SyntheticResources.workers(numberOfResources,
+                SyntheticCalendars.withExceptions(1, 1L), Scenario.create("benchmark"));
+
+        distributor = new EffortDistributor(resources,
+                AssignedEffortForResource.effortDiscounting(Collections.<ResourceAllocation<?>> emptyList()));
+        effortPerDay = EffortDuration.hours(4 * numberOfResources);
+    }
+
+    @Benchmark
+    public List<ResourceWithAssignedDuration> distributeForDay() {
+        LocalDate date = SyntheticCalendars.START.plusDays(day++ % DAYS);
+        return distributor.distributeForDay(PartialDay.wholeDay(date), effortPerDay);
+    }
+
+}
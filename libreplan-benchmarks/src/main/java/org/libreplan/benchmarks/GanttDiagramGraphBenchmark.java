@@ -0,0 +1,101 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.libreplan.benchmarks.data.SyntheticGanttGraphs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.zkoss.ganttz.data.GanttDiagramGraph;
+import org.zkoss.ganttz.data.GanttDiagramGraph.GanttZKDiagramGraph;
+
+/**
+ * Measures {@link GanttDiagramGraph#enforceAllRestrictions()} on a new
+ * diagram, as done when a planning is opened, and on a diagram whose
+ * restrictions have already been enforced. Each operation of the former needs
+ * a new diagram, so it's measured one operation at a time.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class GanttDiagramGraphBenchmark {
+
+    private static final int LAYER_WIDTH = 50;
+
+    private static final int DEPENDENCIES_PER_TASK = 2;
+
+    @State(Scope.Thread)
+    public static class NewGraph {
+
+        @Param({ "100", "1000", "10000" })
+        private int numberOfTasks;
+
+        private GanttZKDiagramGraph graph;
+
+        @Setup(Level.Invocation)
+        public void createGraph() {
+            graph = SyntheticGanttGraphs.layered(numberOfTasks, LAYER_WIDTH, DEPENDENCIES_PER_TASK, 1L);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EnforcedGraph {
+
+        @Param({ "100", "1000", "10000" })
+        private int numberOfTasks;
+
+        private GanttZKDiagramGraph graph;
+
+        @Setup(Level.Trial)
+        public void createGraph() {
+            graph = SyntheticGanttGraphs.layered(numberOfTasks, LAYER_WIDTH, DEPENDENCIES_PER_TASK, 1L);
+            graph.enforceAllRestrictions();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public GanttZKDiagramGraph enforceAllRestrictionsOnNewGraph(NewGraph newGraph) {
+        newGraph.graph.enforceAllRestrictions();
+        return newGraph.graph;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public GanttZKDiagramGraph enforceAllRestrictionsAgain(EnforcedGraph enforcedGraph) {
+        enforcedGraph.graph.enforceAllRestrictions();
+        return enforcedGraph.graph;
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.libreplan.benchmarks.data.SyntheticCalendars;
+import org.libreplan.benchmarks.data.SyntheticProjects;
+import org.libreplan.benchmarks.data.SyntheticResources;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.planner.entities.GenericResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.ResourcesPerDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the distribution of a {@link GenericResourceAllocation} among a
+ * pool of workers, demanding twenty of them each day of a task that lasts some
+ * years. The demand doesn't grow with the pool, as the effort of an allocation
+ * must fit in an {@link EffortDuration}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GenericResourceAllocationBenchmark {
+
+    private static final int RESOURCES_PER_DAY = 20;
+
+    @Param({ "50", "500", "5000" })
+    private int numberOfResources;
+
+    @Param({ "1", "5" })
+    private int years;
+
+    private Task task;
+
+    private List<Resource> resources;
+
+    private ResourcesPerDay resourcesPerDay;
+
+    @Setup(Level.Trial)
+    public void createProject() {
+        Scenario scenario = Scenario.create("benchmark");
+        BaseCalendar calendar = SyntheticCalendars.withExceptions(years, 1L);
+
+        resources = SyntheticResources.workers(numberOfResources, calendar, scenario);
+        task = SyntheticProjects.task(scenario, calendar, years, 1000);
+        resourcesPerDay = ResourcesPerDay.amount(RESOURCES_PER_DAY);
+    }
+
+    @Benchmark
+    public GenericResourceAllocation allocateResourcesPerDay() {
+        GenericResourceAllocation result = GenericResourceAllocation.create(task);
+        result.forResources(resources).allocate(resourcesPerDay);
+        return result;
+    }
+
+}
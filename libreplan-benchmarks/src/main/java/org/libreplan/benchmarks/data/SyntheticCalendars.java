@@ -0,0 +1,103 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.data;
+
+import java.util.Random;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.CalendarData.Days;
+import org.libreplan.business.calendars.entities.CalendarException;
+import org.libreplan.business.calendars.entities.CalendarExceptionType;
+import org.libreplan.business.calendars.entities.CalendarExceptionTypeColor;
+import org.libreplan.business.calendars.entities.Capacity;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Creates calendars like the ones of a company: eight hours from Monday to
+ * Friday, with some holidays and some days with reduced hours every year.
+ */
+public class SyntheticCalendars {
+
+    /**
+     * First day of the synthetic data. The resource calendars are active from
+     * long before it.
+     */
+    public static final LocalDate START = new LocalDate(2026, 1, 5);
+
+    private static final int HOLIDAYS_PER_YEAR = 12;
+
+    private static final int REDUCED_DAYS_PER_YEAR = 20;
+
+    private SyntheticCalendars() {
+    }
+
+    public static BaseCalendar workingWeek() {
+        BaseCalendar result = BaseCalendar.create();
+        result.setName("benchmark");
+
+        Capacity eightHours = Capacity.create(EffortDuration.hours(8)).overAssignableWithoutLimit();
+        for (Days each : Days.values()) {
+            boolean weekend = each == Days.SATURDAY || each == Days.SUNDAY;
+            result.setCapacityAt(each, weekend ? Capacity.zero() : eightHours);
+        }
+        return result;
+    }
+
+    /**
+     * @return a working week calendar with holidays and days with four hours
+     *         spread over the years after {@link #START}
+     */
+    public static BaseCalendar withExceptions(int years, long seed) {
+        BaseCalendar result = workingWeek();
+        Random random = new Random(seed);
+
+        CalendarExceptionType holiday =
+                CalendarExceptionType.create("HOLIDAY", CalendarExceptionTypeColor.DEFAULT, true);
+        CalendarExceptionType reduced =
+                CalendarExceptionType.create("REDUCED", CalendarExceptionTypeColor.DEFAULT, false);
+
+        for (int year = 0; year < years; year++) {
+            LocalDate firstDay = START.plusYears(year);
+            for (int i = 0; i < HOLIDAYS_PER_YEAR + REDUCED_DAYS_PER_YEAR; i++) {
+                LocalDate day = firstDay.plusDays(random.nextInt(365));
+                if ( result.getOwnExceptionDay(day) != null ) {
+                    continue;
+                }
+                result.addExceptionDay(i < HOLIDAYS_PER_YEAR
+                        ? CalendarException.create(day, EffortDuration.zero(), holiday)
+                        : CalendarException.create(day, EffortDuration.hours(4), reduced));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a calendar for a resource derived from the given one, active
+     *         during all the synthetic data
+     */
+    public static ResourceCalendar derivedFrom(BaseCalendar parent) {
+        ResourceCalendar result = parent.newDerivedResourceCalendar();
+        result.setStartDate(result.getFistCalendarAvailability(), START.minusYears(10));
+        return result;
+    }
+
+}
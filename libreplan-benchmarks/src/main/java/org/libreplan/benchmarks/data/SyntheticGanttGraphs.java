@@ -0,0 +1,90 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.zkoss.ganttz.data.DefaultFundamentalProperties;
+import org.zkoss.ganttz.data.Dependency;
+import org.zkoss.ganttz.data.DependencyType;
+import org.zkoss.ganttz.data.GanttDate;
+import org.zkoss.ganttz.data.GanttDiagramGraph;
+import org.zkoss.ganttz.data.GanttDiagramGraph.GanttZKDiagramGraph;
+import org.zkoss.ganttz.data.Task;
+import org.zkoss.ganttz.data.TaskLeaf;
+import org.zkoss.ganttz.data.constraint.Constraint;
+
+/**
+ * Creates Gantt diagrams whose tasks are arranged in layers. Each task depends
+ * on some random tasks of the previous layer, so the restrictions have to be
+ * propagated from the first layer to the last one.
+ */
+public class SyntheticGanttGraphs {
+
+    private static final long DAY_IN_MILLISECONDS = 24L * 60 * 60 * 1000;
+
+    private static final int MAX_DURATION_IN_DAYS = 20;
+
+    private SyntheticGanttGraphs() {
+    }
+
+    /**
+     * @param width
+     *            the number of tasks of each layer
+     * @param dependenciesPerTask
+     *            the number of tasks of the previous layer each task depends on
+     * @return a graph whose tasks all start at {@link SyntheticCalendars#START},
+     *         so no restriction has been enforced yet
+     */
+    public static GanttZKDiagramGraph layered(int numberOfTasks, int width, int dependenciesPerTask, long seed) {
+        Random random = new Random(seed);
+        Date start = SyntheticCalendars.START.toDate();
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < numberOfTasks; i++) {
+            long duration = (1 + random.nextInt(MAX_DURATION_IN_DAYS)) * DAY_IN_MILLISECONDS;
+            tasks.add(new TaskLeaf(new DefaultFundamentalProperties("Task " + i, start, duration, "",
+                    start, start, start, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO)));
+        }
+
+        GanttZKDiagramGraph result = GanttDiagramGraph.create(false,
+                Collections.<Constraint<GanttDate>> emptyList(), Collections.<Constraint<GanttDate>> emptyList(),
+                false);
+        result.addTopLevel(tasks);
+
+        for (int i = width; i < numberOfTasks; i++) {
+            int previousLayerStart = (i / width - 1) * width;
+            for (int j = 0; j < dependenciesPerTask; j++) {
+                Task origin = tasks.get(previousLayerStart + random.nextInt(width));
+                if ( result.getDependencyFrom(origin, tasks.get(i)) == null ) {
+                    result.addWithoutEnforcingConstraints(
+                            new Dependency(origin, tasks.get(i), DependencyType.END_START));
+                }
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.data;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.SchedulingDataForVersion;
+import org.libreplan.business.orders.entities.TaskSource;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.IntraDayDate;
+
+/**
+ * Creates the entities of a project in memory, as they would be once loaded
+ * in the planning.
+ */
+public class SyntheticProjects {
+
+    private SyntheticProjects() {
+    }
+
+    /**
+     * @return a task of a project with a single line of the given hours, going
+     *         from {@link SyntheticCalendars#START} during the given years
+     */
+    public static Task task(Scenario scenario, BaseCalendar calendar, int years, int hours) {
+        Order order = Order.create();
+        order.useSchedulingDataFor(OrderVersion.createInitialVersion(scenario));
+        order.setInitDate(SyntheticCalendars.START.toDate());
+        order.setCalendar(calendar);
+
+        OrderLine line = OrderLine.createOrderLineWithUnfixedPercentage(hours);
+        order.add(line);
+
+        TaskSource taskSource =
+                TaskSource.create(SchedulingDataForVersion.createInitialFor(line), line.getHoursGroups());
+        Task result = Task.createTask(taskSource);
+
+        LocalDate start = SyntheticCalendars.START;
+        result.setIntraDayStartDate(IntraDayDate.startOfDay(start));
+        result.setIntraDayEndDate(IntraDayDate.startOfDay(start.plusYears(years)));
+        return result;
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.scenarios.entities.Scenario;
+
+/**
+ * Creates workers with calendars derived from a company calendar. They use
+ * the given {@link Scenario} instead of the scenario manager, so no Spring
+ * context is needed.
+ */
+public class SyntheticResources {
+
+    private SyntheticResources() {
+    }
+
+    public static List<Resource> workers(int numberOfWorkers, BaseCalendar calendar, Scenario scenario) {
+        List<Resource> result = new ArrayList<>();
+        for (int i = 0; i < numberOfWorkers; i++) {
+            Worker worker = Worker.create("Worker " + i, "Benchmark", "NIF" + i);
+            worker.setCalendar(SyntheticCalendars.derivedFrom(calendar));
+            worker.useScenario(scenario);
+            result.add(worker);
+        }
+        return result;
+    }
+
+}
@@ -44,9 +44,16 @@ public abstract class AdvanceAssignment extends BaseEntity {
 
     public void setReportGlobalAdvance(boolean reportGlobalAdvance) {
         this.reportGlobalAdvance = reportGlobalAdvance;
+        markOrderElementAsDirty();
+    }
 
-        if ( this.orderElement != null ) {
-            this.orderElement.markAsDirtyLastAdvanceMeasurementForSpreading();
+    /**
+     * It clears the progress already calculated by the order element and its
+     * ancestors, as this assignment has changed.
+     */
+    public void markOrderElementAsDirty() {
+        if ( orderElement != null ) {
+            orderElement.markAsDirtyLastAdvanceMeasurementForSpreading();
         }
     }
 
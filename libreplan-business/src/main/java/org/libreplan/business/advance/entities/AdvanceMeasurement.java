@@ -75,6 +75,10 @@ public class AdvanceMeasurement extends BaseEntity {
             resetCommunicationDate();
         }
         this.date = date;
+
+        if (advanceAssignment != null) {
+            advanceAssignment.markOrderElementAsDirty();
+        }
     }
 
     @NotNull(message = "date not specified")
@@ -93,7 +97,7 @@ public class AdvanceMeasurement extends BaseEntity {
         }
 
         if (advanceAssignment != null) {
-            advanceAssignment.getOrderElement().markAsDirtyLastAdvanceMeasurementForSpreading();
+            advanceAssignment.markOrderElementAsDirty();
         }
     }
 
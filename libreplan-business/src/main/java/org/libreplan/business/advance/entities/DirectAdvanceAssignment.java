@@ -89,6 +89,7 @@ public class DirectAdvanceAssignment extends AdvanceAssignment {
         if (maxValue != null) {
             this.maxValue.setScale(2);
         }
+        markOrderElementAsDirty();
     }
 
     public SortedSet<AdvanceMeasurement> getAdvanceMeasurements() {
@@ -99,6 +100,7 @@ public class DirectAdvanceAssignment extends AdvanceAssignment {
             SortedSet<AdvanceMeasurement> advanceMeasurements) {
         this.advanceMeasurements.clear();
         this.advanceMeasurements.addAll(advanceMeasurements);
+        markOrderElementAsDirty();
     }
 
     public AdvanceMeasurement getLastAdvanceMeasurement() {
@@ -146,10 +148,7 @@ public class DirectAdvanceAssignment extends AdvanceAssignment {
         boolean result = this.advanceMeasurements.add(advanceMeasurement);
         if (result) {
             advanceMeasurement.setAdvanceAssignment(this);
-            if (getOrderElement() != null) {
-                getOrderElement()
-                        .markAsDirtyLastAdvanceMeasurementForSpreading();
-            }
+            markOrderElementAsDirty();
         }
         return result;
     }
@@ -157,7 +156,7 @@ public class DirectAdvanceAssignment extends AdvanceAssignment {
     public void removeAdvanceMeasurement(AdvanceMeasurement advanceMeasurement) {
         this.advanceMeasurements.remove(advanceMeasurement);
         advanceMeasurement.setAdvanceAssignment(null);
-        getOrderElement().markAsDirtyLastAdvanceMeasurementForSpreading();
+        markOrderElementAsDirty();
     }
 
     public void removeAdvanceMeasurements(
@@ -166,14 +165,12 @@ public class DirectAdvanceAssignment extends AdvanceAssignment {
             each.setAdvanceAssignment(null);
         }
         this.advanceMeasurements.removeAll(advanceMeasurements);
-        getOrderElement().markAsDirtyLastAdvanceMeasurementForSpreading();
+        markOrderElementAsDirty();
     }
 
     public void clearAdvanceMeasurements() {
         this.advanceMeasurements.clear();
-        if (getOrderElement() != null) {
-            getOrderElement().markAsDirtyLastAdvanceMeasurementForSpreading();
-        }
+        markOrderElementAsDirty();
     }
 
     public AdvanceMeasurement getAdvanceMeasurementAtExactDate(LocalDate date) {
@@ -221,6 +218,18 @@ public class DirectAdvanceAssignment extends AdvanceAssignment {
         return fake;
     }
 
+    /**
+     * The fake assignments are calculated from the real ones when the
+     * progress is read, so changing them does not change the progress of
+     * their order element.
+     */
+    @Override
+    public void markOrderElementAsDirty() {
+        if ( !fake ) {
+            super.markOrderElementAsDirty();
+        }
+    }
+
     @AssertTrue(message = "maxixum value of percentage progress type must be 100")
     public boolean isMaxValueMustBe100ForPercentageConstraint() {
         AdvanceType advanceType = getAdvanceType();
@@ -74,6 +74,8 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
 
     private Integer lastSequenceCode = 0;
 
+    private transient volatile CapacityTimeline capacityTimeline;
+
     /**
      * Constructor for hibernate. Do not use!
      */
@@ -239,6 +241,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         }
 
         exceptions.add(day);
+        CapacityTimeline.invalidateAll();
     }
 
     public void removeExceptionDay(LocalDate date) {
@@ -249,6 +252,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         }
 
         exceptions.remove(day);
+        CapacityTimeline.invalidateAll();
     }
 
     public void updateExceptionDay(LocalDate date, Capacity capacity, CalendarExceptionType type) {
@@ -268,13 +272,21 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
     }
 
     public CalendarException getExceptionDay(LocalDate date) {
-        for (CalendarException exceptionDay : getExceptions(date)) {
-            if (exceptionDay.getDate().equals(date)) {
-                return exceptionDay;
-            }
+        return getCapacityTimeline().getExceptionAt(CapacityTimeline.toEpochDay(date));
+    }
+
+    /**
+     * Returns the compiled {@link CapacityTimeline} of this calendar, compiling it again if some calendar has been
+     * modified since the last time.
+     */
+    CapacityTimeline getCapacityTimeline() {
+        CapacityTimeline result = capacityTimeline;
+        if (result == null || !result.isUpToDate()) {
+            result = CapacityTimeline.compile(this);
+            capacityTimeline = result;
         }
 
-        return null;
+        return result;
     }
 
     @Override
@@ -286,31 +298,26 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
     public Capacity getCapacityWithOvertime(LocalDate day) {
         Validate.notNull(day);
 
-        return multiplyByCalendarUnits(findCapacityAt(day));
+        return getCapacityTimeline().getCapacityWithUnitsAt(CapacityTimeline.toEpochDay(day));
     }
 
     private Capacity findCapacityAt(LocalDate date) {
-        if (!isActive(date)) {
-            return Capacity.zero();
-        }
-
-        CalendarException exceptionDay = getExceptionDay(date);
-        if (exceptionDay != null) {
-            return exceptionDay.getCapacity();
-        }
-
-        return getCapacityConsideringCalendarDataOn(date, getDayFrom(date));
+        return getCapacityTimeline().getCapacityAt(CapacityTimeline.toEpochDay(date));
     }
 
-    private Days getDayFrom(LocalDate date) {
-        return Days.values()[date.getDayOfWeek() - 1];
+    public Capacity getCapacityConsideringCalendarDataOn(LocalDate date, Days day) {
+        return getCapacityTimeline().getWeekCapacityAt(CapacityTimeline.toEpochDay(date), day.ordinal());
     }
 
-    public Capacity getCapacityConsideringCalendarDataOn(LocalDate date, Days day) {
+    /**
+     * Calculates the capacity for the day of the week from the calendar version at the date, or from the parent if
+     * the version does not define it. It is used to compile the {@link CapacityTimeline}.
+     */
+    Capacity computeCapacityConsideringCalendarDataOn(LocalDate date, Days day) {
         CalendarData calendarData = getCalendarData(date);
 
         Capacity capacity = calendarData.getCapacityOn(day);
-        BaseCalendar parent = getParent(date);
+        BaseCalendar parent = calendarData.getParent();
 
         if (capacity == null && parent != null) {
             return parent.getCapacityConsideringCalendarDataOn(date, day);
@@ -444,6 +451,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
                         }
 
                         Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+                        CapacityTimeline.invalidateAll();
 
                         return newCalendarData;
                     }
@@ -491,6 +499,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         CalendarData newCalendarData = CalendarData.create();
         calendarDataVersions.add(newCalendarData);
         Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+        CapacityTimeline.invalidateAll();
 
         return newCalendarData;
     }
@@ -508,6 +517,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         newCalendarData.setExpiringDate(expiringDate);
         calendarDataVersions.add(newCalendarData);
         Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+        CapacityTimeline.invalidateAll();
 
         return newCalendarData;
     }
@@ -561,6 +571,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
             else{
                 calendarDataVersions.add(version);
                 Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+                CapacityTimeline.invalidateAll();
                 return;
             }
         }
@@ -583,6 +594,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
                 }
 
                 calendarDataVersions.add(i, version);
+                CapacityTimeline.invalidateAll();
 
                 return;
             }
@@ -590,6 +602,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
 
         calendarDataVersions.add(version);
         Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+        CapacityTimeline.invalidateAll();
 
     }
 
@@ -813,6 +826,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         } else {
             calendarDataVersions.remove(calendarData);
         }
+        CapacityTimeline.invalidateAll();
     }
 
     public LocalDate getValidFrom(CalendarData calendarData) {
@@ -867,25 +881,17 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
                 }
             }
             calendarAvailabilities.add(calendarAvailability);
+            CapacityTimeline.invalidateAll();
         }
     }
 
     public void removeCalendarAvailability(CalendarAvailability calendarAvailability) {
         calendarAvailabilities.remove(calendarAvailability);
+        CapacityTimeline.invalidateAll();
     }
 
     public boolean isActive(LocalDate date) {
-        if (getCalendarAvailabilities().isEmpty()) {
-            return true;
-        }
-
-        for (CalendarAvailability calendarAvailability : getCalendarAvailabilities()) {
-            if (calendarAvailability.isActive(date)) {
-                return true;
-            }
-        }
-
-        return false;
+        return getCapacityTimeline().isActive(CapacityTimeline.toEpochDay(date));
     }
 
     public boolean isActiveBetween(LocalDate startDate, LocalDate endDate) {
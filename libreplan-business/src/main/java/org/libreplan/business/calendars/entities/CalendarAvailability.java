@@ -81,6 +81,7 @@ public class CalendarAvailability extends IntegrationEntity {
         }
 
         this.startDate = startDate;
+        CapacityTimeline.invalidateAll();
     }
 
     public LocalDate getEndDate() {
@@ -92,6 +93,7 @@ public class CalendarAvailability extends IntegrationEntity {
             throw new IllegalArgumentException("End date must be greater or equal than start date");
         }
         this.endDate = endDate;
+        CapacityTimeline.invalidateAll();
     }
 
     public boolean isActive(LocalDate date) {
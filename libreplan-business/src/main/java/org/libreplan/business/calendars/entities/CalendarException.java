@@ -82,6 +82,7 @@ public class CalendarException extends IntegrationEntity {
         if (type != null) {
             this.type = type;
         }
+        CapacityTimeline.invalidateAll();
     }
 
     private LocalDate date;
@@ -0,0 +1,442 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.calendars.entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.CalendarData.Days;
+
+/**
+ * Immutable, compiled view of the capacity a {@link BaseCalendar} gives for each day.
+ * <p>
+ * Calendar versions and parent calendars are flattened into contiguous ranges of days with the capacity for each
+ * day of the week, and own and inherited exceptions are indexed by day. Days are represented as the number of days
+ * since 1970-01-01, so a lookup is a binary search over primitive arrays and does not allocate.
+ * <p>
+ * Any modification of a calendar, its {@link CalendarData} versions, its {@link CalendarException exceptions} or
+ * its {@link CalendarAvailability availabilities} invalidates all the compiled timelines, since derived calendars
+ * depend on the state of their parents. Calendars are rarely modified compared to how often they are queried.
+ */
+final class CapacityTimeline {
+
+    private static final AtomicLong modifications = new AtomicLong();
+
+    private static final long DAYS_0000_TO_1970 = (146097L * 5L) - (30L * 365L + 7L);
+
+    private static final LocalDate EPOCH = new LocalDate(1970, 1, 1);
+
+    private static final int DAYS_PER_WEEK = 7;
+
+    private static final Capacity INACTIVE = Capacity.zero();
+
+    /**
+     * Marks all the compiled timelines as stale. It must be called whenever calendar data that affects the
+     * capacities is modified.
+     */
+    static void invalidateAll() {
+        modifications.incrementAndGet();
+    }
+
+    static long currentStamp() {
+        return modifications.get();
+    }
+
+    /**
+     * Number of days since 1970-01-01 in the ISO calendar. Unlike Joda-Time's day arithmetic it does not create any
+     * object.
+     */
+    static int toEpochDay(LocalDate date) {
+        long year = date.getYear();
+        int month = date.getMonthOfYear();
+        long total = 365 * year;
+
+        if ( year >= 0 ) {
+            total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        } else {
+            total -= year / -4 - year / -100 + year / -400;
+        }
+
+        total += (367 * month - 362) / 12;
+        total += date.getDayOfMonth() - 1;
+
+        if ( month > 2 ) {
+            total--;
+            if ( !isLeapYear(year) ) {
+                total--;
+            }
+        }
+
+        return (int) (total - DAYS_0000_TO_1970);
+    }
+
+    private static boolean isLeapYear(long year) {
+        return ((year & 3) == 0) && ((year % 100) != 0 || (year % 400) == 0);
+    }
+
+    static LocalDate fromEpochDay(int epochDay) {
+        return EPOCH.plusDays(epochDay);
+    }
+
+    /**
+     * Index in {@link Days} of the day of the week of the given day.
+     */
+    static int dayOfWeekIndex(int epochDay) {
+        // 1970-01-01 was a Thursday
+        return Math.floorMod(epochDay + 3, DAYS_PER_WEEK);
+    }
+
+    static CapacityTimeline compile(BaseCalendar calendar) {
+        long stamp = currentStamp();
+
+        List<CalendarData> versions = calendar.getCalendarDataVersions();
+        Set<BaseCalendar> parents = parentsOf(versions);
+
+        WeekSegments segments = compileWeekSegments(calendar, versions, parents);
+        ExceptionsIndex exceptions = compileExceptions(calendar, parents);
+        ExceptionsIndex inheritableExceptions = compileInheritableExceptions(calendar);
+
+        return new CapacityTimeline(stamp, calendar, segments, exceptions, inheritableExceptions,
+                compileAvailabilities(calendar.getCalendarAvailabilities()));
+    }
+
+    private static Set<BaseCalendar> parentsOf(List<CalendarData> versions) {
+        Set<BaseCalendar> result = new HashSet<>();
+        for (CalendarData each : versions) {
+            if ( each.getParent() != null ) {
+                result.add(each.getParent());
+            }
+        }
+        return result;
+    }
+
+    private static WeekSegments compileWeekSegments(BaseCalendar calendar,
+                                                    List<CalendarData> versions,
+                                                    Set<BaseCalendar> parents) {
+
+        TreeSet<Integer> boundaries = new TreeSet<>();
+        for (CalendarData each : versions) {
+            if ( each.getExpiringDate() != null ) {
+                boundaries.add(toEpochDay(each.getExpiringDate()));
+            }
+        }
+        for (BaseCalendar each : parents) {
+            WeekSegments parentSegments = each.getCapacityTimeline().segments;
+            for (int i = 1; i < parentSegments.starts.length; i++) {
+                boundaries.add(parentSegments.starts[i]);
+            }
+        }
+
+        List<Integer> starts = new ArrayList<>();
+        List<Capacity[]> capacities = new ArrayList<>();
+
+        for (Integer boundary : withLowestBound(boundaries)) {
+            int representative = boundary == Integer.MIN_VALUE ? representativeOfFirstRange(boundaries) : boundary;
+            LocalDate date = fromEpochDay(representative);
+
+            Capacity[] week = new Capacity[DAYS_PER_WEEK];
+            for (Days day : Days.values()) {
+                week[day.ordinal()] = calendar.computeCapacityConsideringCalendarDataOn(date, day);
+            }
+
+            if ( capacities.isEmpty() || !Arrays.equals(capacities.get(capacities.size() - 1), week) ) {
+                starts.add(boundary);
+                capacities.add(week);
+            }
+        }
+
+        return new WeekSegments(toIntArray(starts), capacities.toArray(new Capacity[capacities.size()][]));
+    }
+
+    private static List<Integer> withLowestBound(TreeSet<Integer> boundaries) {
+        List<Integer> result = new ArrayList<>(boundaries.size() + 1);
+        result.add(Integer.MIN_VALUE);
+        result.addAll(boundaries);
+        return result;
+    }
+
+    private static int representativeOfFirstRange(TreeSet<Integer> boundaries) {
+        return boundaries.isEmpty() ? 0 : boundaries.first() - 1;
+    }
+
+    /**
+     * Exceptions as seen from the calendar itself: own exceptions and, for the rest of days, the ones inherited from
+     * the parent calendar that applies at each day.
+     */
+    private static ExceptionsIndex compileExceptions(BaseCalendar calendar, Set<BaseCalendar> parents) {
+        Map<Integer, CalendarException> result = ownExceptionsByDay(calendar);
+        Set<Integer> ownDays = new HashSet<>(result.keySet());
+
+        for (BaseCalendar parent : parents) {
+            ExceptionsIndex inherited = parent.getCapacityTimeline().inheritableExceptions;
+            for (int i = 0; i < inherited.days.length; i++) {
+                int day = inherited.days[i];
+                if ( !ownDays.contains(day) && calendar.getCalendarData(fromEpochDay(day)).getParent() == parent ) {
+                    result.put(day, inherited.exceptions[i]);
+                }
+            }
+        }
+
+        return ExceptionsIndex.from(result);
+    }
+
+    /**
+     * Exceptions that derived calendars inherit: own exceptions plus the ones inherited from the current parent.
+     */
+    private static ExceptionsIndex compileInheritableExceptions(BaseCalendar calendar) {
+        Map<Integer, CalendarException> result = ownExceptionsByDay(calendar);
+        BaseCalendar parent = calendar.getParent();
+
+        if ( parent != null ) {
+            ExceptionsIndex inherited = parent.getCapacityTimeline().inheritableExceptions;
+            for (int i = 0; i < inherited.days.length; i++) {
+                if ( !result.containsKey(inherited.days[i]) ) {
+                    result.put(inherited.days[i], inherited.exceptions[i]);
+                }
+            }
+        }
+
+        return ExceptionsIndex.from(result);
+    }
+
+    private static Map<Integer, CalendarException> ownExceptionsByDay(BaseCalendar calendar) {
+        Map<Integer, CalendarException> result = new TreeMap<>();
+        for (CalendarException each : calendar.getOwnExceptions()) {
+            int day = toEpochDay(each.getDate());
+            if ( !result.containsKey(day) ) {
+                result.put(day, each);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Merges the availabilities into sorted, disjoint and inclusive ranges. Returns <code>null</code> if there are no
+     * availabilities, meaning that the calendar is always active.
+     */
+    private static int[][] compileAvailabilities(Collection<CalendarAvailability> availabilities) {
+        if ( availabilities.isEmpty() ) {
+            return null;
+        }
+
+        TreeMap<Integer, Integer> ranges = new TreeMap<>();
+        for (CalendarAvailability each : availabilities) {
+            int start = toEpochDay(each.getStartDate());
+            int end = each.getEndDate() == null ? Integer.MAX_VALUE : toEpochDay(each.getEndDate());
+            if ( start <= end ) {
+                Integer previousEnd = ranges.get(start);
+                ranges.put(start, previousEnd == null ? end : Math.max(previousEnd, end));
+            }
+        }
+
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> each : ranges.entrySet()) {
+            int last = ends.size() - 1;
+            if ( last >= 0 && (ends.get(last) == Integer.MAX_VALUE || each.getKey() <= ends.get(last) + 1) ) {
+                ends.set(last, Math.max(ends.get(last), each.getValue()));
+            } else {
+                starts.add(each.getKey());
+                ends.add(each.getValue());
+            }
+        }
+
+        return new int[][] { toIntArray(starts), toIntArray(ends) };
+    }
+
+    private static int[] toIntArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Index of the last element of the sorted array that is lower or equal than the key, or -1 if there is none.
+     */
+    private static int floorIndex(int[] sorted, int key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private static class WeekSegments {
+
+        /**
+         * Sorted starting days, the first one is always {@link Integer#MIN_VALUE}. Each segment lasts until the
+         * beginning of the next one.
+         */
+        private final int[] starts;
+
+        private final Capacity[][] capacities;
+
+        private WeekSegments(int[] starts, Capacity[][] capacities) {
+            this.starts = starts;
+            this.capacities = capacities;
+        }
+
+        private Capacity at(int epochDay, int dayOfWeek) {
+            return capacities[floorIndex(starts, epochDay)][dayOfWeek];
+        }
+
+    }
+
+    private static class ExceptionsIndex {
+
+        private static ExceptionsIndex from(Map<Integer, CalendarException> exceptionsByDay) {
+            int[] days = new int[exceptionsByDay.size()];
+            CalendarException[] exceptions = new CalendarException[exceptionsByDay.size()];
+            int i = 0;
+            for (Map.Entry<Integer, CalendarException> each : new TreeMap<>(exceptionsByDay).entrySet()) {
+                days[i] = each.getKey();
+                exceptions[i] = each.getValue();
+                i++;
+            }
+            return new ExceptionsIndex(days, exceptions);
+        }
+
+        private final int[] days;
+
+        private final CalendarException[] exceptions;
+
+        private ExceptionsIndex(int[] days, CalendarException[] exceptions) {
+            this.days = days;
+            this.exceptions = exceptions;
+        }
+
+        private int indexOf(int epochDay) {
+            return Arrays.binarySearch(days, epochDay);
+        }
+
+        private CalendarException at(int epochDay) {
+            int index = indexOf(epochDay);
+            return index >= 0 ? exceptions[index] : null;
+        }
+
+    }
+
+    private final long stamp;
+
+    private final WeekSegments segments;
+
+    private final ExceptionsIndex exceptions;
+
+    private final ExceptionsIndex inheritableExceptions;
+
+    private final int[] activeStarts;
+
+    private final int[] activeEnds;
+
+    private final Capacity inactiveCapacityWithUnits;
+
+    private final Capacity[][] segmentsCapacitiesWithUnits;
+
+    private final Capacity[] exceptionsCapacitiesWithUnits;
+
+    private CapacityTimeline(long stamp,
+                             BaseCalendar calendar,
+                             WeekSegments segments,
+                             ExceptionsIndex exceptions,
+                             ExceptionsIndex inheritableExceptions,
+                             int[][] availabilities) {
+        this.stamp = stamp;
+        this.segments = segments;
+        this.exceptions = exceptions;
+        this.inheritableExceptions = inheritableExceptions;
+        this.activeStarts = availabilities == null ? null : availabilities[0];
+        this.activeEnds = availabilities == null ? null : availabilities[1];
+        this.inactiveCapacityWithUnits = calendar.multiplyByCalendarUnits(INACTIVE);
+        this.segmentsCapacitiesWithUnits = new Capacity[segments.capacities.length][];
+        this.exceptionsCapacitiesWithUnits = new Capacity[exceptions.exceptions.length];
+
+        for (int i = 0; i < segments.capacities.length; i++) {
+            Capacity[] week = new Capacity[DAYS_PER_WEEK];
+            for (int j = 0; j < DAYS_PER_WEEK; j++) {
+                week[j] = calendar.multiplyByCalendarUnits(segments.capacities[i][j]);
+            }
+            segmentsCapacitiesWithUnits[i] = week;
+        }
+
+        for (int i = 0; i < exceptions.exceptions.length; i++) {
+            exceptionsCapacitiesWithUnits[i] = calendar.multiplyByCalendarUnits(exceptions.exceptions[i].getCapacity());
+        }
+    }
+
+    boolean isUpToDate() {
+        return stamp == currentStamp();
+    }
+
+    boolean isActive(int epochDay) {
+        if ( activeStarts == null ) {
+            return true;
+        }
+        int index = floorIndex(activeStarts, epochDay);
+        return index >= 0 && epochDay <= activeEnds[index];
+    }
+
+    CalendarException getExceptionAt(int epochDay) {
+        return exceptions.at(epochDay);
+    }
+
+    /**
+     * Capacity defined by the calendar versions, or inherited from the parents, for the day of the week given.
+     */
+    Capacity getWeekCapacityAt(int epochDay, int dayOfWeek) {
+        return segments.at(epochDay, dayOfWeek);
+    }
+
+    /**
+     * Capacity at the given day not multiplied by calendar units.
+     */
+    Capacity getCapacityAt(int epochDay) {
+        if ( !isActive(epochDay) ) {
+            return INACTIVE;
+        }
+        CalendarException exception = exceptions.at(epochDay);
+        if ( exception != null ) {
+            return exception.getCapacity();
+        }
+        return segments.at(epochDay, dayOfWeekIndex(epochDay));
+    }
+
+    /**
+     * Capacity at the given day multiplied by calendar units.
+     */
+    Capacity getCapacityWithUnitsAt(int epochDay) {
+        if ( !isActive(epochDay) ) {
+            return inactiveCapacityWithUnits;
+        }
+        int exceptionIndex = exceptions.indexOf(epochDay);
+        if ( exceptionIndex >= 0 ) {
+            return exceptionsCapacitiesWithUnits[exceptionIndex];
+        }
+        return segmentsCapacitiesWithUnits[floorIndex(segments.starts, epochDay)][dayOfWeekIndex(epochDay)];
+    }
+
+}
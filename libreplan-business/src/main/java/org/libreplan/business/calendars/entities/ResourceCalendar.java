@@ -48,6 +48,7 @@ public class ResourceCalendar extends BaseCalendar {
 
     public void setCapacity(Integer capacity) {
         this.capacity = capacity;
+        CapacityTimeline.invalidateAll();
     }
 
     public static ResourceCalendar create() {
@@ -0,0 +1,148 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.common;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.Validate;
+import org.libreplan.business.common.entities.EntityNameEnum;
+import org.libreplan.business.common.entities.EntitySequence;
+
+/**
+ * Hands out the codes of the {@link EntitySequence entity sequences} from
+ * blocks of codes reserved in advance.
+ *
+ * Each block is reserved with a single update of the sequence, so the nodes
+ * creating entities at the same time only contend once per block. Once a block
+ * is reserved its codes are taken without locks. The size of the blocks grows
+ * while the codes are consumed quickly, as in bulk imports, and goes back to
+ * one when they are not, so few codes are lost when the application is
+ * stopped.
+ */
+public class EntityCodeAllocator {
+
+    public static final int MAX_BLOCK_SIZE = 256;
+
+    /**
+     * If a block is used up before this time the next one is bigger
+     */
+    private static final long QUICK_CONSUMPTION_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    public interface IBlockReserver {
+
+        /**
+         * Advances the active sequence of <code>entityName</code>
+         * <code>size</code> values, on its own transaction.
+         *
+         * @return the codes of the values reserved that are not used yet by
+         *         any entity
+         */
+        List<String> reserve(EntityNameEnum entityName, int size);
+
+    }
+
+    private static class Block {
+
+        private final String[] codes;
+
+        private final int reservedSize;
+
+        private final long reservedAt = System.nanoTime();
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        Block(List<String> codes, int reservedSize) {
+            this.codes = codes.toArray(new String[codes.size()]);
+            this.reservedSize = reservedSize;
+        }
+
+        /**
+         * @return <code>null</code> if the block is used up
+         */
+        String take() {
+            int position = next.getAndIncrement();
+            return position < codes.length ? codes[position] : null;
+        }
+
+    }
+
+    private final IBlockReserver reserver;
+
+    private final ConcurrentMap<EntityNameEnum, Block> blocks = new ConcurrentHashMap<>();
+
+    private final Map<EntityNameEnum, Object> locks = new EnumMap<>(EntityNameEnum.class);
+
+    public EntityCodeAllocator(IBlockReserver reserver) {
+        Validate.notNull(reserver);
+        this.reserver = reserver;
+        for (EntityNameEnum each : EntityNameEnum.values()) {
+            locks.put(each, new Object());
+        }
+    }
+
+    public String nextCode(EntityNameEnum entityName) {
+        while (true) {
+            Block block = blocks.get(entityName);
+            String code = block != null ? block.take() : null;
+            if ( code != null ) {
+                return code;
+            }
+            reserveAfter(entityName, block);
+        }
+    }
+
+    private void reserveAfter(EntityNameEnum entityName, Block usedUp) {
+        synchronized (locks.get(entityName)) {
+            if ( blocks.get(entityName) != usedUp ) {
+                // Another thread has already reserved a new block
+                return;
+            }
+            int size = nextSize(usedUp);
+            blocks.put(entityName, new Block(reserver.reserve(entityName, size), size));
+        }
+    }
+
+    private static int nextSize(Block usedUp) {
+        if ( usedUp == null || System.nanoTime() - usedUp.reservedAt > QUICK_CONSUMPTION_NANOS ) {
+            return 1;
+        }
+        return Math.min(usedUp.reservedSize * 2, MAX_BLOCK_SIZE);
+    }
+
+    /**
+     * Forgets the codes reserved and not handed out yet. It must be called
+     * when the sequences are modified, so the next codes are taken from the
+     * active ones.
+     */
+    public void discardReservedCodes() {
+        for (EntityNameEnum each : EntityNameEnum.values()) {
+            synchronized (locks.get(each)) {
+                blocks.remove(each);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,264 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.common.daos;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.Type;
+import org.libreplan.business.common.BaseEntity;
+
+/**
+ * Keeps the state written to the database for the entities of a detached
+ * graph that is saved several times, like the order of a planning.
+ *
+ * While a save is tracked, {@link DirtyTrackingInterceptor} asks it which
+ * properties of each reattached entity have changed since the last save, so
+ * only the modified entities are updated instead of all the ones reached by the
+ * cascades. The entities without a known state, the first time they are saved
+ * for example, are updated as usual. It also collects the entities inserted, so
+ * they can be marked as not new after the commit without walking the graph.
+ *
+ * Only the flushes of the first transaction begun after
+ * {@link #startTracking()} are tracked, and what they write replaces the known
+ * states when it commits. If it fails the known states are forgotten, so the
+ * next save updates all the entities again.
+ */
+public class DirtyTracker {
+
+    /**
+     * The version is updated by Hibernate after writing the state, so it isn't
+     * compared. All the entities map it with this name.
+     */
+    private static final String VERSION_PROPERTY = "version";
+
+    private static final ThreadLocal<DirtyTracker> current = new ThreadLocal<>();
+
+    static DirtyTracker getCurrent() {
+        return current.get();
+    }
+
+    /**
+     * The state of an entity as it was written to the database
+     */
+    private static class Snapshot {
+
+        private final Type[] types;
+
+        private final Object[] values;
+
+        Snapshot(String[] propertyNames, Type[] types, Object[] state, SessionFactoryImplementor factory) {
+            this.types = types;
+            this.values = new Object[state.length];
+            for (int i = 0; i < state.length; i++) {
+                if ( isCompared(propertyNames[i], types[i]) ) {
+                    values[i] = types[i].deepCopy(state[i], factory);
+                }
+            }
+        }
+
+        private static boolean isCompared(String propertyName, Type type) {
+            // Collections are dirty checked by Hibernate by themselves
+            return !type.isCollectionType() && !VERSION_PROPERTY.equals(propertyName);
+        }
+
+        int[] findDirty(String[] propertyNames, Object[] state, SessionFactoryImplementor factory) {
+            List<Integer> dirty = new ArrayList<>();
+            for (int i = 0; i < state.length; i++) {
+                if ( isCompared(propertyNames[i], types[i]) && !types[i].isEqual(values[i], state[i], factory) ) {
+                    dirty.add(i);
+                }
+            }
+
+            int[] result = new int[dirty.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = dirty.get(i);
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * The states written by the last committed save. Only the entities saved
+     * by it are kept, the ones no longer reachable are forgotten.
+     */
+    private Map<Object, Snapshot> saved = new IdentityHashMap<>();
+
+    private final Map<Object, Snapshot> flushed = new IdentityHashMap<>();
+
+    private final List<BaseEntity> inserted = new ArrayList<>();
+
+    private boolean tracking = false;
+
+    /**
+     * The transaction being tracked, the first one begun after
+     * {@link #startTracking()}
+     */
+    private Transaction transaction;
+
+    private boolean recording = false;
+
+    /**
+     * The transactions begun inside the tracked one, with
+     * <code>REQUIRES_NEW</code> for example. They use other sessions, so their
+     * flushes aren't tracked.
+     */
+    private int nestedTransactions = 0;
+
+    /**
+     * Starts tracking the flushes done by the current thread. It must be
+     * called before the transaction starts, so the flush of the commit is
+     * tracked too.
+     */
+    public void startTracking() {
+        Validate.isTrue(current.get() == null, "another save is being tracked");
+        clearTransactionState();
+        current.set(this);
+    }
+
+    public void stopTracking() {
+        current.remove();
+        if ( recording ) {
+            // The tracked transaction didn't complete, so what it flushed is unknown
+            discard();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if a previous tracked save was committed, so
+     *         the states of its entities are known
+     */
+    public boolean isTracking() {
+        return tracking;
+    }
+
+    /**
+     * To be called when the tracked transaction has been committed. The
+     * states flushed by it replace the ones known.
+     *
+     * @return the entities inserted by it
+     */
+    public List<BaseEntity> committed() {
+        saved = new IdentityHashMap<>(flushed);
+        tracking = !saved.isEmpty();
+        List<BaseEntity> result = new ArrayList<>(inserted);
+        clearTransactionState();
+        return result;
+    }
+
+    /**
+     * To be called when the tracked transaction has failed. The entities may
+     * have been modified by the failed save, so the known states are
+     * forgotten.
+     */
+    public void discard() {
+        saved = new IdentityHashMap<>();
+        tracking = false;
+        clearTransactionState();
+    }
+
+    private void clearTransactionState() {
+        flushed.clear();
+        inserted.clear();
+        transaction = null;
+        recording = false;
+        nestedTransactions = 0;
+    }
+
+    void transactionBegun(Transaction begun) {
+        if ( transaction == null ) {
+            transaction = begun;
+            recording = true;
+        } else if ( recording ) {
+            nestedTransactions++;
+        }
+    }
+
+    void transactionCompleted(Transaction completed) {
+        if ( !recording ) {
+            return;
+        }
+        if ( nestedTransactions > 0 ) {
+            nestedTransactions--;
+        } else {
+            // Whether it has been committed is told by committed or discard
+            recording = false;
+        }
+    }
+
+    private boolean isRecording() {
+        return recording && nestedTransactions == 0;
+    }
+
+    /**
+     * Records the state being flushed for an entity if it's tracked: it has
+     * been reattached, inserted or saved before. The entities loaded by queries
+     * are dirty checked by Hibernate and not kept.
+     *
+     * @return the modified properties since the last save, or
+     *         <code>null</code> if Hibernate must find them out as usual
+     */
+    int[] flushing(Object entity, Object[] state, Object[] loadedState,
+                   String[] propertyNames, Type[] types, SessionFactoryImplementor factory) {
+
+        if ( !isRecording() ) {
+            return null;
+        }
+
+        Snapshot last = flushed.get(entity);
+        if ( last == null ) {
+            last = saved.get(entity);
+        }
+        if ( last == null && loadedState != null ) {
+            return null;
+        }
+        flushed.put(entity, new Snapshot(propertyNames, types, state, factory));
+
+        if ( loadedState != null || last == null ) {
+            return null;
+        }
+        return last.findDirty(propertyNames, state, factory);
+    }
+
+    void inserting(Object entity, Object[] state, String[] propertyNames, Type[] types,
+                   SessionFactoryImplementor factory) {
+
+        if ( !isRecording() ) {
+            return;
+        }
+        flushed.put(entity, new Snapshot(propertyNames, types, state, factory));
+        if ( entity instanceof BaseEntity ) {
+            inserted.add((BaseEntity) entity);
+        }
+    }
+
+    void deleting(Object entity) {
+        if ( isRecording() ) {
+            flushed.remove(entity);
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.common.daos;
+
+import java.io.Serializable;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+
+/**
+ * Hibernate interceptor that lets the {@link DirtyTracker} bound to the
+ * current thread, if any, do the dirty checking of the reattached entities.
+ * Without a {@link DirtyTracker} it behaves as if there were no interceptor.
+ */
+public class DirtyTrackingInterceptor extends EmptyInterceptor implements BeanFactoryAware {
+
+    private transient BeanFactory beanFactory;
+
+    private transient volatile SessionFactoryImplementor sessionFactory;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    /**
+     * The session factory is built with this interceptor, so it's retrieved
+     * when it's used for the first time.
+     */
+    private SessionFactoryImplementor getSessionFactory() {
+        if ( sessionFactory == null ) {
+            sessionFactory = (SessionFactoryImplementor) beanFactory.getBean(SessionFactory.class);
+        }
+        return sessionFactory;
+    }
+
+    @Override
+    public int[] findDirty(Object entity, Serializable id, Object[] currentState,
+                           Object[] previousState, String[] propertyNames, Type[] types) {
+
+        DirtyTracker tracker = DirtyTracker.getCurrent();
+        if ( tracker == null ) {
+            return null;
+        }
+        return tracker.flushing(entity, currentState, previousState, propertyNames, types, getSessionFactory());
+    }
+
+    @Override
+    public boolean onSave(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        DirtyTracker tracker = DirtyTracker.getCurrent();
+        if ( tracker != null ) {
+            tracker.inserting(entity, state, propertyNames, types, getSessionFactory());
+        }
+        return false;
+    }
+
+    @Override
+    public void onDelete(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        DirtyTracker tracker = DirtyTracker.getCurrent();
+        if ( tracker != null ) {
+            tracker.deleting(entity);
+        }
+    }
+
+    @Override
+    public void afterTransactionBegin(Transaction tx) {
+        DirtyTracker tracker = DirtyTracker.getCurrent();
+        if ( tracker != null ) {
+            tracker.transactionBegun(tx);
+        }
+    }
+
+    @Override
+    public void afterTransactionCompletion(Transaction tx) {
+        DirtyTracker tracker = DirtyTracker.getCurrent();
+        if ( tracker != null ) {
+            tracker.transactionCompleted(tx);
+        }
+    }
+
+}
@@ -22,21 +22,29 @@
 package org.libreplan.business.common.daos;
 
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.lang3.Validate;
 import org.hibernate.NonUniqueResultException;
 import org.hibernate.criterion.Restrictions;
+import org.libreplan.business.common.EntityCodeAllocator;
+import org.libreplan.business.common.EntityCodeAllocator.IBlockReserver;
+import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.entities.EntityNameEnum;
 import org.libreplan.business.common.entities.EntitySequence;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.i18n.I18nHelper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.orm.hibernate5.HibernateOptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * DAO for {@link EntitySequence}.
@@ -47,6 +55,18 @@ import org.springframework.transaction.annotation.Transactional;
 @Scope(BeanDefinition.SCOPE_SINGLETON)
 public class EntitySequenceDAO extends GenericDAOHibernate<EntitySequence, Long> implements IEntitySequenceDAO {
 
+    private static final int RESERVE_ATTEMPTS = 5;
+
+    @Autowired
+    private IAdHocTransactionService transactionService;
+
+    private final EntityCodeAllocator codeAllocator = new EntityCodeAllocator(new IBlockReserver() {
+        @Override
+        public List<String> reserve(EntityNameEnum entityName, int size) {
+            return reserveOnAnotherTransaction(entityName, size);
+        }
+    });
+
     @Override
     public List<EntitySequence> getAll() {
         return list(EntitySequence.class);
@@ -95,14 +115,63 @@ public class EntitySequenceDAO extends GenericDAOHibernate<EntitySequence, Long>
         return entitySequence;
     }
 
+    /**
+     * The codes are handed out from blocks reserved on their own transaction,
+     * so the reserved values are not reused even if the transaction of the
+     * caller is rolled back.
+     */
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public String getNextEntityCode(EntityNameEnum entityName) {
-        return getNextEntityCodeWithoutTransaction(entityName);
+        return codeAllocator.nextCode(entityName);
+    }
+
+    @Override
+    public void discardReservedCodes() {
+        codeAllocator.discardReservedCodes();
+    }
+
+    private List<String> reserveOnAnotherTransaction(final EntityNameEnum entityName, final int size) {
+        for (int i = 0; i < RESERVE_ATTEMPTS; i++) {
+            try {
+                return transactionService.runOnAnotherTransaction(new IOnTransaction<List<String>>() {
+                    @Override
+                    public List<String> execute() {
+                        return reserveCodes(entityName, size);
+                    }
+                });
+            } catch (OptimisticLockingFailureException e) {
+                // Another node has reserved a block at the same time, try again
+            }
+        }
+
+        throw new ConcurrentModificationException("Could not reserve codes for " + entityName);
+    }
+
+    private List<String> reserveCodes(EntityNameEnum entityName, int size) {
+        EntitySequence entitySequence;
+        try {
+            entitySequence = getActiveEntitySequence(entityName);
+        } catch (InstanceNotFoundException | NonUniqueResultException e) {
+            throw new RuntimeException(e);
+        }
+
+        List<String> result = new ArrayList<>(entitySequence.reserveCodes(size));
+        Set<String> used = new HashSet<>();
+        for (String each : entityName.getIntegrationEntityDAO().findExistingCodes(result)) {
+            used.add(each.toLowerCase());
+        }
+        for (Iterator<String> iterator = result.iterator(); iterator.hasNext(); ) {
+            if ( used.contains(iterator.next().toLowerCase()) ) {
+                iterator.remove();
+            }
+        }
+
+        save(entitySequence);
+        return result;
     }
 
     public String getNextEntityCodeWithoutTransaction(EntityNameEnum entityName) {
-        for (int i = 0; i < 5; i++) {
+        for (int i = 0; i < RESERVE_ATTEMPTS; i++) {
             try {
                 String code;
                 EntitySequence entitySequence = getActiveEntitySequence(entityName);
@@ -120,7 +189,7 @@ public class EntitySequenceDAO extends GenericDAOHibernate<EntitySequence, Long>
             }
         }
 
-        return null;
+        throw new ConcurrentModificationException("Could not retrieve code for " + entityName);
     }
 
     @Override
@@ -49,10 +49,31 @@ public interface IEntitySequenceDAO extends IGenericDAO<EntitySequence, Long> {
     EntitySequence getActiveEntitySequence(EntityNameEnum entityName)
             throws InstanceNotFoundException, NonUniqueResultException;
 
+    /**
+     * Returns a code of the active sequence not used by any entity. The
+     * sequence is advanced on its own transaction, reserving several codes at
+     * once when many are requested.
+     *
+     * @throws java.util.ConcurrentModificationException
+     *             if the sequence cannot be advanced because of concurrent
+     *             modifications
+     */
     String getNextEntityCode(EntityNameEnum entityName);
 
+    /**
+     * Like {@link #getNextEntityCode(EntityNameEnum)}, but advancing the
+     * sequence one value in the current transaction. It must be used when the
+     * sequence could have been created in the current transaction.
+     */
     String getNextEntityCodeWithoutTransaction(EntityNameEnum entityName);
 
+    /**
+     * Forgets the codes reserved by {@link #getNextEntityCode(EntityNameEnum)}
+     * and not used yet, so the next ones are taken from the current active
+     * sequences.
+     */
+    void discardReservedCodes();
+
     boolean existOtherActiveSequenceByEntityNameForNewObject(EntitySequence entitySequence);
 
     Integer getNumberOfDigitsCode(EntityNameEnum entityName);
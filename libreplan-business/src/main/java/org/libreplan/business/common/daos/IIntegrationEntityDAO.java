@@ -21,6 +21,7 @@
 
 package org.libreplan.business.common.daos;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.libreplan.business.common.IntegrationEntity;
@@ -63,9 +64,35 @@ public interface IIntegrationEntityDAO<E extends IntegrationEntity>
 
     public E findExistingEntityByCode(String code);
 
+    /**
+     * It returns the codes among <code>codes</code> that are already used,
+     * ignoring the case, with a single query.
+     */
+    public List<String> findExistingCodes(Collection<String> codes);
+
+    /**
+     * It returns the entities whose code is among <code>codes</code>,
+     * ignoring the case, with a single query.
+     */
+    public List<E> findByCodes(Collection<String> codes);
+
     /**
      * It returns all entities ordered by ascending code.
      */
     public List<E> findAll();
 
+    /**
+     * It returns the first <code>maxResults</code> entities ordered by
+     * ascending code whose code is after <code>code</code>. If
+     * <code>code</code> is <code>null</code> they are taken from the first
+     * one. It allows to go through all the entities page by page.
+     */
+    public List<E> findAfterCode(String code, int maxResults);
+
+    /**
+     * It detaches all the entities loaded in the current session, so they can
+     * be garbage collected. The changes not flushed are lost.
+     */
+    public void clearSession();
+
 }
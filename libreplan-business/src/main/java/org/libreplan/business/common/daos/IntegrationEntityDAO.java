@@ -21,9 +21,13 @@
 
 package org.libreplan.business.common.daos;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Criteria;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.IntegrationEntity;
@@ -68,7 +72,7 @@ public class IntegrationEntityDAO<E extends IntegrationEntity>
 
         E entity = (E) getSession()
                 .createCriteria(getEntityClass())
-                .add(Restrictions.eq("code", code.trim()).ignoreCase())
+                .add(Restrictions.eq(getCodeProperty(), code.trim()).ignoreCase())
                 .uniqueResult();
 
         if (entity == null) {
@@ -94,10 +98,69 @@ public class IntegrationEntityDAO<E extends IntegrationEntity>
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<String> findExistingCodes(Collection<String> codes) {
+        if (codes.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return getSession()
+                .createQuery("SELECT e." + getCodeProperty() + " FROM " + getEntityClass().getName() + " e " +
+                        "WHERE lower(e." + getCodeProperty() + ") IN (:codes)")
+                .setParameterList("codes", toLowerCase(codes))
+                .list();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<E> findByCodes(Collection<String> codes) {
+        if (codes.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return getSession()
+                .createQuery("FROM " + getEntityClass().getName() + " e " +
+                        "WHERE lower(e." + getCodeProperty() + ") IN (:codes)")
+                .setParameterList("codes", toLowerCase(codes))
+                .list();
+    }
+
+    private static List<String> toLowerCase(Collection<String> codes) {
+        List<String> result = new ArrayList<>();
+        for (String each : codes) {
+            result.add(each.trim().toLowerCase());
+        }
+        return result;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<E> findAll() {
         return getSession().createCriteria(getEntityClass()).addOrder(Order.asc("code")).list();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<E> findAfterCode(String code, int maxResults) {
+        Criteria criteria = getSession().createCriteria(getEntityClass());
+        if (code != null) {
+            criteria.add(Restrictions.gt(getCodeProperty(), code));
+        }
+        return criteria.addOrder(Order.asc(getCodeProperty())).setMaxResults(maxResults).list();
+    }
+
+    /**
+     * The path of the property that keeps the code of the entities. DAOs of
+     * entities that map their code inside a component must override it.
+     */
+    protected String getCodeProperty() {
+        return "code";
+    }
+
+    @Override
+    public void clearSession() {
+        getSession().clear();
+    }
+
 }
@@ -23,6 +23,8 @@ package org.libreplan.business.common.entities;
 
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.hibernate.NonUniqueResultException;
 import javax.validation.constraints.AssertTrue;
@@ -186,6 +188,20 @@ public class EntitySequence extends BaseEntity {
         lastValue++;
     }
 
+    /**
+     * Advances the sequence <code>size</code> values at once.
+     *
+     * @return the codes of the values skipped
+     */
+    public List<String> reserveCodes(int size) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            incrementLastValue();
+            result.add(getCode());
+        }
+        return result;
+    }
+
     @NotNull(message = "entity name not specified")
     public EntityNameEnum getEntityName() {
         return entityName;
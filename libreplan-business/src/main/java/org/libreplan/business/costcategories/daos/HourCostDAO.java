@@ -22,12 +22,15 @@
 package org.libreplan.business.costcategories.daos;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
 
 import org.hibernate.Query;
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.costcategories.entities.CostCategory;
+import org.libreplan.business.costcategories.entities.CostRateIndex;
 import org.libreplan.business.costcategories.entities.HourCost;
 import org.libreplan.business.costcategories.entities.TypeOfWorkHours;
 import org.libreplan.business.resources.entities.Criterion;
@@ -47,6 +50,24 @@ import org.springframework.transaction.annotation.Transactional;
 public class HourCostDAO extends IntegrationEntityDAO<HourCost> implements
         IHourCostDAO {
 
+    /**
+     * The last {@link CostRateIndex} built, with the stamp of the data used
+     */
+    private static class CachedIndex {
+
+        private final List<Object> stamp;
+
+        private final CostRateIndex index;
+
+        CachedIndex(List<Object> stamp, CostRateIndex index) {
+            this.stamp = stamp;
+            this.index = index;
+        }
+
+    }
+
+    private volatile CachedIndex cachedIndex;
+
     @Override
     public void remove(Long id) throws InstanceNotFoundException {
         try {
@@ -94,4 +115,63 @@ public class HourCostDAO extends IntegrationEntityDAO<HourCost> implements
         return (BigDecimal) query.uniqueResult();
     }
 
-}
\ No newline at end of file
+    @Override
+    @Transactional(readOnly = true)
+    public CostRateIndex getCostRateIndex() {
+        List<Object> stamp = getCostRatesStamp();
+        CachedIndex cached = cachedIndex;
+        if ( cached != null && cached.stamp.equals(stamp) ) {
+            return cached.index;
+        }
+
+        CostRateIndex result = buildCostRateIndex();
+        cachedIndex = new CachedIndex(stamp, result);
+        return result;
+    }
+
+    /**
+     * Any insertion, modification or removal of the rows the index is built
+     * from changes the number of rows, the sum of their versions or their
+     * maximum id, so comparing them is enough to know if it is current.
+     */
+    private List<Object> getCostRatesStamp() {
+        Object[] hourCosts = (Object[]) getSession().createQuery(
+                "SELECT COUNT(hc), SUM(hc.version), MAX(hc.id) FROM HourCost hc")
+                .uniqueResult();
+        Object[] assignments = (Object[]) getSession().createQuery(
+                "SELECT COUNT(rcca), SUM(rcca.version), MAX(rcca.id) "
+                        + "FROM ResourcesCostCategoryAssignment rcca")
+                .uniqueResult();
+
+        return Arrays.asList(hourCosts[0], hourCosts[1], hourCosts[2],
+                assignments[0], assignments[1], assignments[2]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CostRateIndex buildCostRateIndex() {
+        CostRateIndex result = new CostRateIndex();
+
+        List<Object[]> assignments = getSession().createQuery(
+                "SELECT rcca.resource.id, rcca.costCategory.id, rcca.initDate, rcca.endDate "
+                        + "FROM ResourcesCostCategoryAssignment rcca "
+                        + "WHERE rcca.resource IS NOT NULL AND rcca.costCategory IS NOT NULL")
+                .list();
+        for (Object[] each : assignments) {
+            result.addAssignment((Long) each[0], (Long) each[1],
+                    (LocalDate) each[2], (LocalDate) each[3]);
+        }
+
+        List<Object[]> hourCosts = getSession().createQuery(
+                "SELECT hc.category.id, hc.type.id, hc.initDate, hc.endDate, hc.priceCost "
+                        + "FROM HourCost hc "
+                        + "WHERE hc.category IS NOT NULL AND hc.type IS NOT NULL")
+                .list();
+        for (Object[] each : hourCosts) {
+            result.addHourCost((Long) each[0], (Long) each[1],
+                    (LocalDate) each[2], (LocalDate) each[3], (BigDecimal) each[4]);
+        }
+
+        return result;
+    }
+
+}
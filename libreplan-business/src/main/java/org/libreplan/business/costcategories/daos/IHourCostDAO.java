@@ -27,6 +27,7 @@ import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.costcategories.entities.CostCategory;
+import org.libreplan.business.costcategories.entities.CostRateIndex;
 import org.libreplan.business.costcategories.entities.HourCost;
 import org.libreplan.business.costcategories.entities.ResourcesCostCategoryAssignment;
 import org.libreplan.business.costcategories.entities.TypeOfWorkHours;
@@ -62,4 +63,17 @@ public interface IHourCostDAO extends IIntegrationEntityDAO<HourCost> {
 
     public BigDecimal getPriceCostFromCriterionAndType(
             CostCategory category, TypeOfWorkHours type);
+
+    /**
+     * Returns a {@link CostRateIndex} with all the price costs, to resolve
+     * many of them as {@link #getPriceCostFromResourceDateAndType} without
+     * querying the database for each one.<br />
+     *
+     * The index is built once and shared. It is built again when the
+     * {@link HourCost HourCosts} or the
+     * {@link ResourcesCostCategoryAssignment ResourcesCostCategoryAssignments}
+     * have changed since then, what is checked with a couple of aggregated
+     * queries.
+     */
+    CostRateIndex getCostRateIndex();
 }
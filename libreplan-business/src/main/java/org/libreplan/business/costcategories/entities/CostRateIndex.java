@@ -0,0 +1,151 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.costcategories.entities;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.LocalDate;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.util.Pair;
+
+/**
+ * Resolves the price of an hour of a {@link Resource} in a date for a
+ * {@link TypeOfWorkHours} in memory.
+ *
+ * It keeps the intervals of the {@link ResourcesCostCategoryAssignment
+ * ResourcesCostCategoryAssignments} of each resource and the intervals of the
+ * {@link HourCost HourCosts} of each {@link CostCategory} and type, so the price
+ * is resolved as {@link #getPriceCost(Long, LocalDate, Long)} without querying
+ * the database. Once it is built it is not modified, so it can be shared.
+ */
+public class CostRateIndex {
+
+    /**
+     * An interval of dates with the end date included. If the end date is
+     * <code>null</code> the interval has no end.
+     */
+    private static class Interval<T> {
+
+        private final LocalDate initDate;
+
+        private final LocalDate endDate;
+
+        private final T value;
+
+        Interval(LocalDate initDate, LocalDate endDate, T value) {
+            this.initDate = initDate;
+            this.endDate = endDate;
+            this.value = value;
+        }
+
+        boolean includes(LocalDate date) {
+            return !initDate.isAfter(date) && (endDate == null || !endDate.isBefore(date));
+        }
+
+    }
+
+    private final Map<Long, List<Interval<Long>>> categoriesByResource = new HashMap<>();
+
+    private final Map<Pair<Long, Long>, List<Interval<BigDecimal>>> pricesByCategoryAndType = new HashMap<>();
+
+    /**
+     * Adds an assignment of the {@link CostCategory} with id
+     * <code>costCategoryId</code> to the {@link Resource} with id
+     * <code>resourceId</code>. If it has no init date it is ignored.
+     */
+    public CostRateIndex addAssignment(Long resourceId, Long costCategoryId,
+                                       LocalDate initDate, LocalDate endDate) {
+        Validate.notNull(resourceId);
+        Validate.notNull(costCategoryId);
+        if ( initDate != null ) {
+            intervalsOf(categoriesByResource, resourceId).add(
+                    new Interval<>(initDate, endDate, costCategoryId));
+        }
+        return this;
+    }
+
+    /**
+     * Adds a price of the {@link CostCategory} with id
+     * <code>costCategoryId</code> for the {@link TypeOfWorkHours} with id
+     * <code>typeId</code>. If it has no init date or price it is ignored.
+     */
+    public CostRateIndex addHourCost(Long costCategoryId, Long typeId,
+                                     LocalDate initDate, LocalDate endDate, BigDecimal priceCost) {
+        Validate.notNull(costCategoryId);
+        Validate.notNull(typeId);
+        if ( initDate != null && priceCost != null ) {
+            intervalsOf(pricesByCategoryAndType, Pair.create(costCategoryId, typeId)).add(
+                    new Interval<>(initDate, endDate, priceCost));
+        }
+        return this;
+    }
+
+    private static <K, T> List<Interval<T>> intervalsOf(Map<K, List<Interval<T>>> map, K key) {
+        List<Interval<T>> result = map.get(key);
+        if ( result == null ) {
+            result = new ArrayList<>();
+            map.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the price cost for the {@link TypeOfWorkHours} with id
+     * <code>typeId</code> of the {@link CostCategory} assigned to the
+     * {@link Resource} with id <code>resourceId</code> at <code>date</code>,
+     * like {@link org.libreplan.business.costcategories.daos.IHourCostDAO#getPriceCostFromResourceDateAndType}.
+     *
+     * @return <code>null</code> if there is no price defined for them
+     */
+    public BigDecimal getPriceCost(Long resourceId, LocalDate date, Long typeId) {
+        List<Interval<Long>> assignments = categoriesByResource.get(resourceId);
+        if ( assignments == null || date == null ) {
+            return null;
+        }
+        for (Interval<Long> assignment : assignments) {
+            if ( assignment.includes(date) ) {
+                BigDecimal price = findPrice(assignment.value, typeId, date);
+                if ( price != null ) {
+                    return price;
+                }
+            }
+        }
+        return null;
+    }
+
+    private BigDecimal findPrice(Long costCategoryId, Long typeId, LocalDate date) {
+        List<Interval<BigDecimal>> prices = pricesByCategoryAndType.get(Pair.create(costCategoryId, typeId));
+        if ( prices == null ) {
+            return null;
+        }
+        for (Interval<BigDecimal> each : prices) {
+            if ( each.includes(date) ) {
+                return each.value;
+            }
+        }
+        return null;
+    }
+
+}
@@ -25,6 +25,8 @@ import org.libreplan.business.email.entities.EmailNotification;
 import org.libreplan.business.email.entities.EmailTemplateEnum;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -37,6 +39,11 @@ public class EmailNotificationDAO
         extends GenericDAOHibernate<EmailNotification, Long>
         implements IEmailNotificationDAO {
 
+    /**
+     * Maximum number of ids in each <code>IN</code> clause
+     */
+    private static final int DELETE_BATCH_SIZE = 500;
+
     @Override
     public List<EmailNotification> getAll() {
         return list(EmailNotification.class);
@@ -89,4 +96,24 @@ public class EmailNotificationDAO
                 .uniqueResult() == null;
     }
 
+    @Override
+    public int deleteAll(Collection<EmailNotification> notifications) {
+        List<Long> ids = new ArrayList<>();
+        for (EmailNotification each : notifications) {
+            if ( each.getId() != null ) {
+                ids.add(each.getId());
+            }
+        }
+
+        int result = 0;
+        for (int i = 0; i < ids.size(); i += DELETE_BATCH_SIZE) {
+            result += getSession()
+                    .createQuery("DELETE FROM EmailNotification WHERE id IN (:ids)")
+                    .setParameterList("ids", ids.subList(i, Math.min(i + DELETE_BATCH_SIZE, ids.size())))
+                    .executeUpdate();
+        }
+
+        return result;
+    }
+
 }
@@ -23,6 +23,7 @@ import org.libreplan.business.common.daos.IGenericDAO;
 import org.libreplan.business.email.entities.EmailNotification;
 import org.libreplan.business.email.entities.EmailTemplateEnum;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -41,4 +42,11 @@ public interface IEmailNotificationDAO extends IGenericDAO<EmailNotification, Lo
     boolean deleteAllByType(EmailTemplateEnum enumeration);
 
     boolean deleteById(EmailNotification notification);
+
+    /**
+     * Deletes the notifications with a few bulk statements instead of one by one.
+     *
+     * @return the number of notifications deleted
+     */
+    int deleteAll(Collection<EmailNotification> notifications);
 }
@@ -0,0 +1,182 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A modification done on an entity that has been committed to the database. Besides the entity class, its id and the
+ * operation done, it keeps the ids of the entities referenced by its many-to-one properties, both before and after the
+ * modification, so incremental updates can know what was affected even when the entity has been deleted.
+ */
+public class DatabaseModification {
+
+    public enum Operation {
+        INSERT, UPDATE, DELETE
+    }
+
+    public static Builder on(Class<?> entityClass, Long id, Operation operation) {
+        return new Builder(entityClass, id, operation);
+    }
+
+    public static class Builder {
+
+        private final Class<?> entityClass;
+
+        private final Long id;
+
+        private final Operation operation;
+
+        /**
+         * Most of the modified entities don't reference other ones, so it's created when needed
+         */
+        private Map<String, Set<Long>> references = null;
+
+        private Builder(Class<?> entityClass, Long id, Operation operation) {
+            Validate.notNull(entityClass);
+            Validate.notNull(operation);
+            this.entityClass = entityClass;
+            this.id = id;
+            this.operation = operation;
+        }
+
+        public Builder reference(String property, Long referencedId) {
+            if ( referencedId == null ) {
+                return this;
+            }
+            if ( references == null ) {
+                references = new HashMap<>();
+            }
+            if ( !references.containsKey(property) ) {
+                references.put(property, new HashSet<>());
+            }
+            references.get(property).add(referencedId);
+            return this;
+        }
+
+        public DatabaseModification build() {
+            return new DatabaseModification(this);
+        }
+
+    }
+
+    public static Set<Long> idsOf(Collection<? extends DatabaseModification> modifications, Class<?> klass) {
+        Set<Long> result = new HashSet<>();
+        for (DatabaseModification each : modifications) {
+            if ( each.isOn(klass) && each.getId() != null ) {
+                result.add(each.getId());
+            }
+        }
+        return result;
+    }
+
+    public static Set<Long> deletedIdsOf(Collection<? extends DatabaseModification> modifications, Class<?> klass) {
+        Set<Long> result = new HashSet<>();
+        for (DatabaseModification each : modifications) {
+            if ( each.isOn(klass) && each.isDelete() && each.getId() != null ) {
+                result.add(each.getId());
+            }
+        }
+        return result;
+    }
+
+    public static boolean anyOn(Collection<? extends DatabaseModification> modifications, Class<?>... klasses) {
+        for (DatabaseModification each : modifications) {
+            for (Class<?> klass : klasses) {
+                if ( each.isOn(klass) ) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public static Set<Long> referencesOf(Collection<? extends DatabaseModification> modifications,
+                                         Class<?> klass,
+                                         String property) {
+        Set<Long> result = new HashSet<>();
+        for (DatabaseModification each : modifications) {
+            if ( each.isOn(klass) ) {
+                result.addAll(each.getReferences(property));
+            }
+        }
+        return result;
+    }
+
+    private final Class<?> entityClass;
+
+    private final Long id;
+
+    private final Operation operation;
+
+    private final Map<String, Set<Long>> references;
+
+    private DatabaseModification(Builder builder) {
+        this.entityClass = builder.entityClass;
+        this.id = builder.id;
+        this.operation = builder.operation;
+        this.references = builder.references != null
+                ? new HashMap<>(builder.references)
+                : Collections.<String, Set<Long>> emptyMap();
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return the id of the modified entity or <code>null</code> if it is not a <code>Long</code>
+     */
+    public Long getId() {
+        return id;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public boolean isDelete() {
+        return operation == Operation.DELETE;
+    }
+
+    public boolean isOn(Class<?> klass) {
+        return klass.isAssignableFrom(entityClass);
+    }
+
+    /**
+     * Returns the ids of the entities referenced by a many-to-one property, before and after the modification.
+     */
+    public Set<Long> getReferences(String property) {
+        Set<Long> result = references.get(property);
+        return result == null ? Collections.<Long> emptySet() : Collections.unmodifiableSet(result);
+    }
+
+    @Override
+    public String toString() {
+        return operation + " " + entityClass.getSimpleName() + "#" + id;
+    }
+
+}
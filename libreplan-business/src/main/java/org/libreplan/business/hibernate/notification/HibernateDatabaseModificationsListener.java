@@ -20,10 +20,13 @@
  */
 package org.libreplan.business.hibernate.notification;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
@@ -32,6 +35,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PostConstruct;
 import javax.transaction.Status;
@@ -53,6 +57,10 @@ import org.hibernate.event.spi.PostUpdateEventListener;
 import org.hibernate.internal.SessionFactoryImpl;
 import org.hibernate.persister.entity.EntityPersister;
 import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+import org.libreplan.business.common.BaseEntity;
+import org.libreplan.business.hibernate.notification.DatabaseModification.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -74,20 +82,40 @@ public class HibernateDatabaseModificationsListener implements
 
     private ConcurrentMap<Transaction, Dispatcher> pending = new ConcurrentHashMap<>();
 
-    private Set<NotBlockingAutoUpdatedSnapshot<?>> snapshotsInterestedOn(Class<?> entityClass) {
-        List<Class<?>> list = new ArrayList<>(1);
-        list.add(entityClass);
+    private final AtomicLong modificationsVersion = new AtomicLong();
+
+    private final ConcurrentMap<Class<?>, AtomicLong> modificationsVersionByClass = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Transaction, Set<Class<?>>> modifying = new ConcurrentHashMap<>();
+
+    private Map<NotBlockingAutoUpdatedSnapshot<?>, List<DatabaseModification>> snapshotsInterestedOn(
+            DatabaseModification modification) {
+
+        List<DatabaseModification> list = new ArrayList<>(1);
+        list.add(modification);
 
         return snapshotsInterestedOn(list);
     }
 
-    private Set<NotBlockingAutoUpdatedSnapshot<?>> snapshotsInterestedOn(Collection<? extends Class<?>> classesList) {
-        Set<NotBlockingAutoUpdatedSnapshot<?>> result = new HashSet<>();
+    /**
+     * Returns the snapshots interested on some of the modifications, along with the modifications each one is
+     * interested on.
+     */
+    private Map<NotBlockingAutoUpdatedSnapshot<?>, List<DatabaseModification>> snapshotsInterestedOn(
+            Collection<? extends DatabaseModification> modifications) {
 
-        for (Class<?> each : new HashSet<>(classesList)) {
-            BlockingQueue<NotBlockingAutoUpdatedSnapshot<?>> queue = interested.get(each);
-            if ( queue != null ) {
-                result.addAll(queue);
+        Map<NotBlockingAutoUpdatedSnapshot<?>, List<DatabaseModification>> result = new HashMap<>();
+
+        for (DatabaseModification each : modifications) {
+            BlockingQueue<NotBlockingAutoUpdatedSnapshot<?>> queue = interested.get(each.getEntityClass());
+            if ( queue == null ) {
+                continue;
+            }
+            for (NotBlockingAutoUpdatedSnapshot<?> snapshot : queue) {
+                if ( !result.containsKey(snapshot) ) {
+                    result.put(snapshot, new ArrayList<>());
+                }
+                result.get(snapshot).add(each);
             }
         }
 
@@ -96,16 +124,16 @@ public class HibernateDatabaseModificationsListener implements
 
     private final class Dispatcher implements Synchronization {
 
-        private BlockingQueue<Class<?>> classes = new LinkedBlockingQueue<>();
+        private BlockingQueue<DatabaseModification> modifications = new LinkedBlockingQueue<>();
         private final Transaction transaction;
 
-        public Dispatcher(Transaction transaction, Class<?> entityClass) {
-            classes.offer(entityClass);
+        public Dispatcher(Transaction transaction, DatabaseModification modification) {
+            modifications.offer(modification);
             this.transaction = transaction;
         }
 
-        public void add(Class<?> entityClass) {
-            classes.offer(entityClass);
+        public void add(DatabaseModification modification) {
+            modifications.offer(modification);
         }
 
         @Override
@@ -118,13 +146,14 @@ public class HibernateDatabaseModificationsListener implements
             pending.remove(transaction);
 
             if ( isProbablySucessful(status) ) {
-                List<Class<?>> list = new ArrayList<>();
-                classes.drainTo(list);
+                List<DatabaseModification> list = new ArrayList<>();
+                modifications.drainTo(list);
                 LOG.debug(list.size() + " modification events recorded");
-                Set<NotBlockingAutoUpdatedSnapshot<?>> toDispatch = snapshotsInterestedOn(list);
+                Map<NotBlockingAutoUpdatedSnapshot<?>, List<DatabaseModification>> toDispatch =
+                        snapshotsInterestedOn(list);
 
-                LOG.debug(
-                        "dispatching " + toDispatch + " snapshots to reload due to transaction successful completion");
+                LOG.debug("dispatching " + toDispatch.keySet() +
+                        " snapshots to reload due to transaction successful completion");
 
                 dispatch(toDispatch);
             }
@@ -164,17 +193,79 @@ public class HibernateDatabaseModificationsListener implements
 
     @Override
     public void onPostDelete(PostDeleteEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        Class<?> entityClass = inferEntityClass(getEntityObject(event));
+        changeVersionAfter(inferTransaction(event), entityClass);
+        if ( isSomeoneInterestedOn(entityClass) ) {
+            modificationOn(
+                    inferTransaction(event),
+                    modification(entityClass, event.getId(), Operation.DELETE, event.getPersister(),
+                            event.getDeletedState()));
+        }
     }
 
     @Override
     public void onPostUpdate(PostUpdateEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        Class<?> entityClass = inferEntityClass(getEntityObject(event));
+        changeVersionAfter(inferTransaction(event), entityClass);
+        if ( isSomeoneInterestedOn(entityClass) ) {
+            modificationOn(
+                    inferTransaction(event),
+                    modification(entityClass, event.getId(), Operation.UPDATE, event.getPersister(),
+                            event.getOldState(), event.getState()));
+        }
     }
 
     @Override
     public void onPostInsert(PostInsertEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        Class<?> entityClass = inferEntityClass(getEntityObject(event));
+        changeVersionAfter(inferTransaction(event), entityClass);
+        if ( isSomeoneInterestedOn(entityClass) ) {
+            modificationOn(
+                    inferTransaction(event),
+                    modification(entityClass, event.getId(), Operation.INSERT, event.getPersister(),
+                            event.getState()));
+        }
+    }
+
+    private boolean isSomeoneInterestedOn(Class<?> entityClass) {
+        return interested.containsKey(entityClass);
+    }
+
+    private static DatabaseModification modification(Class<?> entityClass,
+                                                     Serializable id,
+                                                     Operation operation,
+                                                     EntityPersister persister,
+                                                     Object[]... states) {
+
+        DatabaseModification.Builder builder =
+                DatabaseModification.on(entityClass, id instanceof Long ? (Long) id : null, operation);
+
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+
+        for (Object[] state : states) {
+            if ( state == null ) {
+                continue;
+            }
+            for (int i = 0; i < types.length; i++) {
+                if ( types[i] instanceof EntityType ) {
+                    builder.reference(names[i], inferId(state[i]));
+                }
+            }
+        }
+
+        return builder.build();
+    }
+
+    private static Long inferId(Object entity) {
+        Object id = null;
+        if ( entity instanceof HibernateProxy ) {
+            id = ((HibernateProxy) entity).getHibernateLazyInitializer().getIdentifier();
+        } else if ( entity instanceof BaseEntity ) {
+            id = ((BaseEntity) entity).getId();
+        }
+
+        return id instanceof Long ? (Long) id : null;
     }
 
 
@@ -204,41 +295,88 @@ public class HibernateDatabaseModificationsListener implements
         return entity.getClass();
     }
 
-    void modificationOn(Transaction transaction, Class<?> entityClass) {
+    /**
+     * The version is changed when the transaction finishes, as the
+     * modifications aren't seen by other transactions before. It's changed
+     * even if the transaction is rolled back, as it's harmless.
+     */
+    private void changeVersionAfter(final Transaction transaction, Class<?> entityClass) {
         if ( transaction == null ) {
-            dispatch(snapshotsInterestedOn(entityClass));
+            incrementVersions(Collections.<Class<?>> singleton(entityClass));
 
             return;
         }
-        Dispatcher newDispatcher = new Dispatcher(transaction, entityClass);
+        Set<Class<?>> modifiedClasses = modifying.get(transaction);
+        if ( modifiedClasses == null ) {
+            // The events of a transaction are received in the thread using it
+            modifiedClasses = ConcurrentHashMap.newKeySet();
+            modifying.put(transaction, modifiedClasses);
+            transaction.registerSynchronization(new Synchronization() {
+
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    incrementVersions(modifying.remove(transaction));
+                }
+            });
+        }
+        modifiedClasses.add(entityClass);
+    }
+
+    private void incrementVersions(Set<Class<?>> modifiedClasses) {
+        for (Class<?> each : modifiedClasses) {
+            modificationsVersionByClass.putIfAbsent(each, new AtomicLong());
+            modificationsVersionByClass.get(each).incrementAndGet();
+        }
+        modificationsVersion.incrementAndGet();
+    }
+
+    void modificationOn(Transaction transaction, DatabaseModification modification) {
+        if ( transaction == null ) {
+            dispatch(snapshotsInterestedOn(modification));
+
+            return;
+        }
+        Dispatcher newDispatcher = new Dispatcher(transaction, modification);
         Dispatcher previous;
         previous = pending.putIfAbsent(transaction, newDispatcher);
 
         boolean dispatcherAlreadyExisted = previous != null;
         if ( dispatcherAlreadyExisted ) {
-            previous.add(entityClass);
+            previous.add(modification);
         } else {
             transaction.registerSynchronization(newDispatcher);
         }
     }
 
-    private void dispatch(Set<NotBlockingAutoUpdatedSnapshot<?>> toBeDispatched) {
+    private void dispatch(Map<NotBlockingAutoUpdatedSnapshot<?>, List<DatabaseModification>> toBeDispatched) {
         toBeDispatched.forEach(this::dispatch);
     }
 
-    private void dispatch(NotBlockingAutoUpdatedSnapshot<?> each) {
-        each.reloadNeeded(executor);
+    private void dispatch(NotBlockingAutoUpdatedSnapshot<?> each, List<DatabaseModification> modifications) {
+        each.reloadNeeded(executor, modifications);
     }
 
     @Override
     public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, ReloadOn reloadOn) {
+        return takeSnapshot(name, callable, null, reloadOn);
+    }
+
+    @Override
+    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name,
+                                                    Callable<T> callable,
+                                                    IIncrementalUpdate<T> incrementalUpdate,
+                                                    ReloadOn reloadOn) {
         if ( !hibernateListenersRegistered ) {
             throw new IllegalStateException(
                     "The hibernate listeners has not been registered. There is some configuration problem.");
         }
 
         final NotBlockingAutoUpdatedSnapshot<T> result;
-        result = new NotBlockingAutoUpdatedSnapshot<>(name, callable);
+        result = new NotBlockingAutoUpdatedSnapshot<>(name, callable, incrementalUpdate);
 
         for (Class<?> each : reloadOn.getClassesOnWhichToReload()) {
             interested.putIfAbsent(each, emptyQueue());
@@ -251,6 +389,33 @@ public class HibernateDatabaseModificationsListener implements
         return result;
     }
 
+    @Override
+    public long getModificationsVersion() {
+        return modificationsVersion.get();
+    }
+
+    @Override
+    public long getModificationsVersion(Class<?>... entityClasses) {
+        long result = 0;
+        for (Map.Entry<Class<?>, AtomicLong> each : modificationsVersionByClass.entrySet()) {
+            if ( isSubclassOfAny(each.getKey(), entityClasses) ) {
+                result += each.getValue().get();
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean isSubclassOfAny(Class<?> klass, Class<?>[] classes) {
+        for (Class<?> each : classes) {
+            if ( each.isAssignableFrom(klass) ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     private BlockingQueue<NotBlockingAutoUpdatedSnapshot<?>> emptyQueue() {
         return new LinkedBlockingQueue<>();
     }
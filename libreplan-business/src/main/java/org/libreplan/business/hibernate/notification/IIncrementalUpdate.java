@@ -0,0 +1,37 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+import java.util.List;
+
+/**
+ * Applies the {@link DatabaseModification modifications} committed to the database to the previous value of a
+ * snapshot, so it is not necessary to calculate it again from scratch.
+ */
+public interface IIncrementalUpdate<T> {
+
+    /**
+     * The previous value must not be modified, since it could be in use. A new value must be returned instead.
+     *
+     * @return the updated value or <code>null</code> if the modifications cannot be applied incrementally and the
+     *         snapshot must be fully reloaded
+     */
+    T apply(T previousValue, List<DatabaseModification> modifications) throws Exception;
+
+}
@@ -30,4 +30,29 @@ public interface ISnapshotRefresherService {
 
     public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, ReloadOn reloadOn);
 
+    /**
+     * Like {@link #takeSnapshot(String, Callable, ReloadOn)}, but the modifications done on the classes to reload on are
+     * applied to the previous value using <code>incrementalUpdate</code>. The <code>callable</code> is only used for
+     * the first load, when the modifications cannot be applied incrementally and periodically to ensure consistency.
+     */
+    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name,
+                                                    Callable<T> callable,
+                                                    IIncrementalUpdate<T> incrementalUpdate,
+                                                    ReloadOn reloadOn);
+
+    /**
+     * @return a number that changes each time a transaction that has inserted,
+     *         updated or removed some entity finishes. The modifications done
+     *         without Hibernate entities, like bulk updates, or from other
+     *         nodes are not noticed.
+     */
+    public long getModificationsVersion();
+
+    /**
+     * Like {@link #getModificationsVersion()}, but it only changes when some
+     * entity of one of the <code>entityClasses</code>, or of a subclass of
+     * them, has been inserted, updated or removed.
+     */
+    public long getModificationsVersion(Class<?>... entityClasses);
+
 }
@@ -20,9 +20,16 @@
  */
 package org.libreplan.business.hibernate.notification;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang3.Validate;
@@ -38,8 +45,28 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
     private static final Log LOG = LogFactory
             .getLog(NotBlockingAutoUpdatedSnapshot.class);
 
+    /**
+     * After this number of incremental updates the snapshot is fully
+     * reloaded, so errors cannot accumulate indefinitely.
+     */
+    private static final int MAX_INCREMENTAL_UPDATES = 200;
+
+    /**
+     * Time after which the next modification causes a full reload instead of
+     * an incremental update.
+     */
+    private static final long FULL_RELOAD_PERIOD_MS = TimeUnit.MINUTES
+            .toMillis(15);
+
     private final Callable<T> callable;
 
+    private final IIncrementalUpdate<T> incrementalUpdate;
+
+    private final AtomicInteger incrementalUpdatesSinceFullReload = new AtomicInteger();
+
+    private final AtomicLong lastFullReloadTime = new AtomicLong(
+            System.currentTimeMillis());
+
     private final AtomicReference<State> currentState;
 
     private final String name;
@@ -49,11 +76,26 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
     private abstract class State {
         abstract T getValue();
 
+        /**
+         * Returns the value this state will have once its ongoing calculation,
+         * if any, is finished. If the calculation has not started yet, it is
+         * run on the calling thread.
+         */
+        abstract T awaitValue() throws Exception;
+
         void cancel() {
         }
 
         State nextState(Future<T> future) {
-            return new PreviousValueAndOngoingCalculation(this, future);
+            return new PreviousValueAndOngoingCalculation(collapsed(), future);
+        }
+
+        /**
+         * Equivalent state without references to finished calculations, so
+         * chains of updates do not retain old values.
+         */
+        State collapsed() {
+            return this;
         }
 
         boolean hasBeenInitialized() {
@@ -68,6 +110,11 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        T awaitValue() {
+            throw new IllegalStateException(name + " has not been loaded");
+        }
+
         @Override
         State nextState(Future<T> future) {
             return new FirstCalculation(future);
@@ -91,6 +138,11 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         T getValue() {
             return value;
         }
+
+        @Override
+        T awaitValue() {
+            return value;
+        }
     }
 
     private class PreviousValueAndOngoingCalculation extends State {
@@ -120,6 +172,24 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
             return previousValue.getValue();
         }
 
+        @Override
+        T awaitValue() throws Exception {
+            return await(ongoingCalculation);
+        }
+
+        @Override
+        State collapsed() {
+            if (ongoingCalculation.isCancelled()
+                    || !ongoingCalculation.isDone()) {
+                return this;
+            }
+            try {
+                return new NoOngoingCalculation(ongoingCalculation.get());
+            } catch (Exception e) {
+                return previousValue.collapsed();
+            }
+        }
+
         private T getValueFromFuture() {
             try {
                 return ongoingCalculation.get();
@@ -160,6 +230,11 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
             }
         }
 
+        @Override
+        T awaitValue() throws Exception {
+            return await(ongoingCalculation);
+        }
+
         @Override
         void cancel() {
             ongoingCalculation.cancel(true);
@@ -167,11 +242,25 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
 
     }
 
+    private static <T> T await(Future<T> future) throws Exception {
+        if (future instanceof RunnableFuture) {
+            // it does nothing if it has already been started
+            ((RunnableFuture<T>) future).run();
+        }
+        return future.get();
+    }
+
     public NotBlockingAutoUpdatedSnapshot(String name, Callable<T> callable) {
+        this(name, callable, null);
+    }
+
+    public NotBlockingAutoUpdatedSnapshot(String name, Callable<T> callable,
+            IIncrementalUpdate<T> incrementalUpdate) {
         Validate.notNull(callable);
         Validate.notNull(name);
         this.name = "*" + name + "*";
         this.callable = callable;
+        this.incrementalUpdate = incrementalUpdate;
         this.currentState = new AtomicReference<State>(new NotLaunchState());
         this.executionsReport = new ExecutionsReport();
     }
@@ -181,7 +270,72 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         return currentState.get().getValue();
     }
 
+    /**
+     * Updates the snapshot applying the modifications to the current value if
+     * possible. Otherwise it is fully reloaded.
+     */
+    public void reloadNeeded(ExecutorService executorService,
+            List<DatabaseModification> modifications) {
+        if (incrementalUpdate == null || modifications.isEmpty()
+                || isFullReloadDue()) {
+            reloadNeeded(executorService);
+            return;
+        }
+        incrementalUpdatesSinceFullReload.incrementAndGet();
+        List<DatabaseModification> toApply = new ArrayList<>(modifications);
+        State previousState;
+        State newState;
+        RunnableFuture<T> task;
+        do {
+            previousState = currentState.get();
+            if (!previousState.hasBeenInitialized()) {
+                reloadNeeded(executorService);
+                return;
+            }
+            task = new FutureTask<>(
+                    callableDecoratedWithStatistics(applying(previousState,
+                            toApply)));
+            newState = previousState.nextState(task);
+        } while (!currentState.compareAndSet(previousState, newState));
+        // the previous state is not cancelled since the new value depends on it
+        executorService.execute(task);
+    }
+
+    private boolean isFullReloadDue() {
+        return incrementalUpdatesSinceFullReload.get() >= MAX_INCREMENTAL_UPDATES
+                || System.currentTimeMillis() - lastFullReloadTime.get() >= FULL_RELOAD_PERIOD_MS;
+    }
+
+    private Callable<T> applying(final State previousState,
+            final List<DatabaseModification> modifications) {
+        return new Callable<T>() {
+
+            @Override
+            public T call() throws Exception {
+                T previousValue;
+                try {
+                    previousValue = previousState.awaitValue();
+                } catch (Exception e) {
+                    LOG.debug(name + " previous value not available, "
+                            + "calculating it from scratch", e);
+                    return callable.call();
+                }
+                T result = incrementalUpdate.apply(previousValue,
+                        modifications);
+                if (result == null) {
+                    LOG.debug(name + " " + modifications.size()
+                            + " modifications cannot be applied incrementally, "
+                            + "calculating it from scratch");
+                    return callable.call();
+                }
+                return result;
+            }
+        };
+    }
+
     public void reloadNeeded(ExecutorService executorService) {
+        incrementalUpdatesSinceFullReload.set(0);
+        lastFullReloadTime.set(System.currentTimeMillis());
         Future<T> future = executorService
                 .submit(callableDecoratedWithStatistics());
         State previousState;
@@ -220,6 +374,10 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
     }
 
     private Callable<T> callableDecoratedWithStatistics() {
+        return callableDecoratedWithStatistics(callable);
+    }
+
+    private Callable<T> callableDecoratedWithStatistics(final Callable<T> decorated) {
         final long requestTime = System.currentTimeMillis();
         return new Callable<T>() {
 
@@ -229,7 +387,7 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
                 long timeWaiting = start - requestTime;
                 Exception error = null;
                 try {
-                    return callable.call();
+                    return decorated.call();
                 } catch (Exception e) {
                     error = e;
                     LOG.error("error executing snapshot " + name);
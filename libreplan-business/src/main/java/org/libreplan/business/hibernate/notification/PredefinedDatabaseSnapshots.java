@@ -22,10 +22,15 @@ package org.libreplan.business.hibernate.notification;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.Callable;
@@ -39,6 +44,7 @@ import org.libreplan.business.calendars.entities.CalendarData;
 import org.libreplan.business.calendars.entities.CalendarException;
 import org.libreplan.business.common.AdHocTransactionService;
 import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.costcategories.daos.ICostCategoryDAO;
 import org.libreplan.business.costcategories.entities.CostCategory;
 import org.libreplan.business.externalcompanies.daos.IExternalCompanyDAO;
@@ -49,13 +55,18 @@ import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.labels.entities.LabelType;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.planner.chart.EffortDaysLine;
 import org.libreplan.business.planner.chart.ResourceLoadChartData;
 import org.libreplan.business.planner.daos.IDayAssignmentDAO;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
-import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DerivedDayAssignment;
+import org.libreplan.business.planner.entities.GenericDayAssignment;
+import org.libreplan.business.planner.entities.GenericDayAssignmentsContainer;
 import org.libreplan.business.planner.entities.GenericResourceAllocation;
 import org.libreplan.business.planner.entities.ICostCalculator;
 import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificDayAssignment;
+import org.libreplan.business.planner.entities.SpecificDayAssignmentsContainer;
 import org.libreplan.business.planner.entities.SpecificResourceAllocation;
 import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.planner.entities.TaskElement;
@@ -150,9 +161,9 @@ public class PredefinedDatabaseSnapshots {
 
     private IAutoUpdatedSnapshot<List<ExternalCompany>> externalCompanies;
 
-    private IAutoUpdatedSnapshot<List<String>> customerReferences;
+    private IAutoUpdatedSnapshot<ValuesByOrder> customerReferences;
 
-    private IAutoUpdatedSnapshot<List<String>> ordersCodes;
+    private IAutoUpdatedSnapshot<ValuesByOrder> ordersCodes;
 
     private IAutoUpdatedSnapshot<ResourceLoadChartData> resourceLoadChartData;
 
@@ -193,11 +204,11 @@ public class PredefinedDatabaseSnapshots {
     }
 
     public List<String> snapshotCustomerReferences() {
-        return customerReferences.getValue();
+        return customerReferences.getValue().getValues();
     }
 
     public List<String> snapshotOrdersCodes() {
-        return ordersCodes.getValue();
+        return ordersCodes.getValue().getValues();
     }
 
     public ResourceLoadChartData snapshotResourceLoadChartData() {
@@ -238,15 +249,28 @@ public class PredefinedDatabaseSnapshots {
                 VirtualWorker.class);
 
         externalCompanies = snapshot("external companies", calculateExternalCompanies(), ExternalCompany.class);
-        customerReferences = snapshot("customer references", calculateCustomerReferences(), Order.class);
-        ordersCodes = snapshot("order codes", calculateOrdersCodes(), Order.class);
+
+        customerReferences = snapshot(
+                "customer references",
+                calculateCustomerReferences(),
+                updateValuesByOrder(CUSTOMER_REFERENCE),
+                Order.class);
+
+        ordersCodes = snapshot("order codes", calculateOrdersCodes(), updateValuesByOrder(CODE), Order.class);
 
         resourceLoadChartData = snapshot(
                 "resource load grouped by date",
                 calculateResourceLoadChartData(),
+                updateResourceLoadChartData(),
                 CalendarAvailability.class,
                 CalendarException.class,
                 CalendarData.class,
+                Worker.class,
+                Machine.class,
+                VirtualWorker.class,
+                SpecificDayAssignment.class,
+                GenericDayAssignment.class,
+                DerivedDayAssignment.class,
                 TaskElement.class,
                 SpecificResourceAllocation.class,
                 GenericResourceAllocation.class,
@@ -257,14 +281,21 @@ public class PredefinedDatabaseSnapshots {
         estimatedCostPerTask = snapshot(
                 "estimated cost per task",
                 calculateEstimatedCostPerTask(),
+                updateEstimatedCostPerTask(),
                 TaskElement.class,
                 Task.class,
                 TaskGroup.class,
-                DayAssignment.class);
+                SpecificResourceAllocation.class,
+                GenericResourceAllocation.class,
+                SpecificDayAssignmentsContainer.class,
+                GenericDayAssignmentsContainer.class,
+                SpecificDayAssignment.class,
+                GenericDayAssignment.class);
 
         advanceCostPerTask = snapshot(
                 "advance cost per task",
                 calculateAdvanceCostPerTask(),
+                updateAdvanceCostPerTask(),
                 TaskElement.class,
                 Task.class,
                 TaskGroup.class,
@@ -276,11 +307,27 @@ public class PredefinedDatabaseSnapshots {
                 .takeSnapshot(name, callableOnReadOnlyTransaction(callable), ReloadOn.onChangeOf(reloadOnChangesOf));
     }
 
+    private <T> IAutoUpdatedSnapshot<T> snapshot(String name,
+                                                 Callable<T> callable,
+                                                 IIncrementalUpdate<T> incrementalUpdate,
+                                                 Class<?>... reloadOnChangesOf) {
+        return snapshotRefresherService.takeSnapshot(
+                name,
+                callableOnReadOnlyTransaction(callable),
+                incrementalUpdateOnReadOnlyTransaction(incrementalUpdate),
+                ReloadOn.onChangeOf(reloadOnChangesOf));
+    }
+
     @SuppressWarnings("unchecked")
     private <T> Callable<T> callableOnReadOnlyTransaction(Callable<T> callable) {
         return AdHocTransactionService.readOnlyProxy(transactionService, Callable.class, callable);
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> IIncrementalUpdate<T> incrementalUpdateOnReadOnlyTransaction(IIncrementalUpdate<T> incrementalUpdate) {
+        return AdHocTransactionService.readOnlyProxy(transactionService, IIncrementalUpdate.class, incrementalUpdate);
+    }
+
     private Callable<SortedMap<CriterionType, List<Criterion>>> calculateCriterionsMap() {
         return () -> {
             SortedMap<CriterionType, List<Criterion>> result = new TreeMap<>(getComparatorByName());
@@ -340,32 +387,129 @@ public class PredefinedDatabaseSnapshots {
         return () -> externalCompanyDAO.getExternalCompaniesAreClient();
     }
 
-    private Callable<List<String>> calculateCustomerReferences() {
-        return () -> {
-            List<String> result = new ArrayList<>();
-            for (Order order : orderDAO.getOrdersWithNotEmptyCustomersReferences()) {
-                result.add(order.getCustomerReference());
-            }
-            return result;
-        };
+    /**
+     * Some value of each order, keeping which order it comes from so it can be updated when the order changes.
+     */
+    private static class ValuesByOrder {
+
+        private final Map<Long, String> valueByOrderId;
+
+        private final List<String> values;
+
+        private ValuesByOrder(Map<Long, String> valueByOrderId) {
+            this.valueByOrderId = valueByOrderId;
+            this.values = Collections.unmodifiableList(new ArrayList<>(valueByOrderId.values()));
+        }
+
+        public List<String> getValues() {
+            return values;
+        }
+
     }
 
-    private Callable<List<String>> calculateOrdersCodes() {
-        return () -> {
-            List<String> result = new ArrayList<>();
-            for (Order order : orderDAO.getOrders()) {
-                result.add(order.getCode());
+    private interface IOrderValue {
+
+        /**
+         * @return the value or <code>null</code> if the order has no value
+         */
+        String of(Order order);
+    }
+
+    private static final IOrderValue CODE = Order::getCode;
+
+    private static final IOrderValue CUSTOMER_REFERENCE = order -> {
+        String reference = order.getCustomerReference();
+        return reference == null || reference.isEmpty() ? null : reference;
+    };
+
+    private static ValuesByOrder valuesByOrder(List<Order> orders, IOrderValue orderValue) {
+        Map<Long, String> result = new LinkedHashMap<>();
+        for (Order order : orders) {
+            result.put(order.getId(), orderValue.of(order));
+        }
+        return new ValuesByOrder(result);
+    }
+
+    private IIncrementalUpdate<ValuesByOrder> updateValuesByOrder(final IOrderValue orderValue) {
+        return (previous, modifications) -> {
+            Map<Long, String> result = new LinkedHashMap<>(previous.valueByOrderId);
+            result.keySet().removeAll(DatabaseModification.deletedIdsOf(modifications, Order.class));
+
+            Set<Long> modified = DatabaseModification.idsOf(modifications, Order.class);
+            modified.removeAll(DatabaseModification.deletedIdsOf(modifications, Order.class));
+            for (Long each : modified) {
+                String value = findOrderValue(each, orderValue);
+                if ( value == null ) {
+                    result.remove(each);
+                } else {
+                    result.put(each, value);
+                }
             }
-            return result;
+
+            return new ValuesByOrder(result);
         };
     }
 
+    private String findOrderValue(Long orderId, IOrderValue orderValue) {
+        try {
+            return orderValue.of(orderDAO.find(orderId));
+        } catch (InstanceNotFoundException e) {
+            return null;
+        }
+    }
+
+    private Callable<ValuesByOrder> calculateCustomerReferences() {
+        return () -> valuesByOrder(orderDAO.getOrdersWithNotEmptyCustomersReferences(), CUSTOMER_REFERENCE);
+    }
+
+    private Callable<ValuesByOrder> calculateOrdersCodes() {
+        return () -> valuesByOrder(orderDAO.getOrders(), CODE);
+    }
+
+    /**
+     * The effort of each resource on each day is summed up in the database, since the chart doesn't need the day
+     * assignments themselves.
+     */
     private Callable<ResourceLoadChartData> calculateResourceLoadChartData() {
         return () -> {
-            List<DayAssignment> dayAssignments = dayAssignmentDAO.getAllFor(scenarioManager.getCurrent(), null, null);
             List<Resource> resources = resourceDAO.list(Resource.class);
-            return new ResourceLoadChartData(dayAssignments, resources);
+            Map<Long, EffortDaysLine> effortByResource =
+                    dayAssignmentDAO.getEffortPerResource(scenarioManager.getCurrent(), null, null, resources);
+
+            return ResourceLoadChartData.withBreakdownByResource(effortByResource, resources);
+        };
+    }
+
+    /**
+     * Only the load of the resources whose day assignments have been modified is calculated again. All the resources
+     * are only retrieved if the chart spans new days, as the availability of the rest of days doesn't change unless
+     * some resource or calendar is modified, which forces a full calculation.
+     *
+     * @see ResourceLoadChartData#resourcesToReload(java.util.Collection)
+     */
+    private IIncrementalUpdate<ResourceLoadChartData> updateResourceLoadChartData() {
+        return (previous, modifications) -> {
+            Set<Long> resourceIds = ResourceLoadChartData.resourcesToReload(modifications);
+            if ( !previous.hasBreakdownByResource() || resourceIds == null ) {
+                return null;
+            }
+            if ( resourceIds.isEmpty() ) {
+                return previous;
+            }
 
+            List<Resource> modifiedResources = new ArrayList<>();
+            for (Long each : resourceIds) {
+                try {
+                    modifiedResources.add(resourceDAO.find(each));
+                } catch (InstanceNotFoundException e) {
+                    // the resource has been removed along with its day assignments
+                }
+            }
+            Map<Long, EffortDaysLine> effortOfResources =
+                    dayAssignmentDAO.getEffortPerResource(scenarioManager.getCurrent(), null, null, modifiedResources);
+
+            return previous.withAssignmentsReloaded(
+                    resourceIds, effortOfResources, modifiedResources, () -> resourceDAO.list(Resource.class));
         };
     }
 
@@ -389,6 +533,95 @@ public class PredefinedDatabaseSnapshots {
         };
     }
 
+    private interface ITaskCost {
+
+        SortedMap<LocalDate, BigDecimal> of(Task task);
+    }
+
+    /**
+     * The tasks affected by the modifications are found through the chain day assignment, day assignments container
+     * and resource allocation. The references kept by the modifications are used too, since the entities could have
+     * been removed.
+     */
+    private IIncrementalUpdate<Map<TaskElement, SortedMap<LocalDate, BigDecimal>>> updateEstimatedCostPerTask() {
+        return (previous, modifications) -> {
+            Set<Long> specificContainers = new HashSet<>();
+            specificContainers.addAll(DatabaseModification.idsOf(modifications, SpecificDayAssignmentsContainer.class));
+            specificContainers.addAll(
+                    DatabaseModification.referencesOf(modifications, SpecificDayAssignment.class, "container"));
+
+            Set<Long> genericContainers = new HashSet<>();
+            genericContainers.addAll(DatabaseModification.idsOf(modifications, GenericDayAssignmentsContainer.class));
+            genericContainers.addAll(
+                    DatabaseModification.referencesOf(modifications, GenericDayAssignment.class, "container"));
+
+            Set<Long> allocations = new HashSet<>();
+            allocations.addAll(DatabaseModification.idsOf(modifications, ResourceAllocation.class));
+            allocations.addAll(DatabaseModification.referencesOf(
+                    modifications, SpecificDayAssignmentsContainer.class, "resourceAllocation"));
+
+            allocations.addAll(DatabaseModification.referencesOf(
+                    modifications, GenericDayAssignmentsContainer.class, "resourceAllocation"));
+
+            Set<Long> tasks = new HashSet<>();
+            tasks.addAll(DatabaseModification.idsOf(modifications, Task.class));
+            tasks.addAll(DatabaseModification.referencesOf(modifications, ResourceAllocation.class, "task"));
+            tasks.addAll(taskElementDAO.findTaskIdsByResourceAllocations(allocations));
+            tasks.addAll(taskElementDAO.findTaskIdsByDayAssignmentsContainers(specificContainers, genericContainers));
+
+            return recalculateCostPerTask(previous, modifications, tasks, hoursCostCalculator::getEstimatedCost);
+        };
+    }
+
+    /**
+     * The advance cost depends on the advance of the order elements, which could be propagated to their ancestors, so
+     * the modifications on advance assignments force a full reload.
+     */
+    private IIncrementalUpdate<Map<TaskElement, SortedMap<LocalDate, BigDecimal>>> updateAdvanceCostPerTask() {
+        return (previous, modifications) -> {
+            if ( DatabaseModification.anyOn(modifications, DirectAdvanceAssignment.class) ) {
+                return null;
+            }
+            Set<Long> tasks = DatabaseModification.idsOf(modifications, Task.class);
+
+            return recalculateCostPerTask(previous, modifications, tasks, hoursCostCalculator::getAdvanceCost);
+        };
+    }
+
+    private Map<TaskElement, SortedMap<LocalDate, BigDecimal>> recalculateCostPerTask(
+            Map<TaskElement, SortedMap<LocalDate, BigDecimal>> previous,
+            List<DatabaseModification> modifications,
+            Set<Long> tasksToRecalculate,
+            ITaskCost taskCost) {
+
+        Set<Long> removed = DatabaseModification.deletedIdsOf(modifications, TaskElement.class);
+        tasksToRecalculate.removeAll(removed);
+
+        Set<Long> toReplace = new HashSet<>(removed);
+        toReplace.addAll(tasksToRecalculate);
+
+        Map<TaskElement, SortedMap<LocalDate, BigDecimal>> result = new HashMap<>(previous);
+        Iterator<TaskElement> iterator = result.keySet().iterator();
+        while (iterator.hasNext()) {
+            if ( toReplace.contains(iterator.next().getId()) ) {
+                iterator.remove();
+            }
+        }
+
+        for (Long each : tasksToRecalculate) {
+            try {
+                TaskElement taskElement = taskElementDAO.find(each);
+                if ( taskElement instanceof Task ) {
+                    result.put(taskElement, taskCost.of((Task) taskElement));
+                }
+            } catch (InstanceNotFoundException e) {
+                // the task has been removed in a later transaction
+            }
+        }
+
+        return result;
+    }
+
     private Callable<Map<TaskElement, SortedMap<LocalDate, BigDecimal>>> calculateAdvanceCostPerTask() {
         return () -> {
             Map<TaskElement, SortedMap<LocalDate, BigDecimal>> map = new HashMap<>();
@@ -21,6 +21,8 @@
 
 package org.libreplan.business.orders.daos;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +50,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class HoursGroupDAO extends IntegrationEntityDAO<HoursGroup>
         implements IHoursGroupDAO {
 
+    private static final int IN_CLAUSE_SIZE = 500;
+
     @Override
     @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
     public boolean existsByCodeAnotherTransaction(HoursGroup hoursGroup) {
@@ -97,7 +101,7 @@ public class HoursGroupDAO extends IntegrationEntityDAO<HoursGroup>
     @Transactional(readOnly= true, propagation = Propagation.REQUIRES_NEW)
     public HoursGroup findRepeatedHoursGroupCodeInDB(List<HoursGroup> hoursGroupList) {
         final Map<String, HoursGroup> hoursGroups = createMapByCode(hoursGroupList);
-        final Map<String, HoursGroup> hoursGroupsInDB = createMapByCode(getAll());
+        final Map<String, HoursGroup> hoursGroupsInDB = createMapByCode(findWithCodes(hoursGroups.keySet()));
 
         for (String code : hoursGroups.keySet()) {
             HoursGroup hoursGroup = hoursGroups.get(code);
@@ -113,8 +117,22 @@ public class HoursGroupDAO extends IntegrationEntityDAO<HoursGroup>
         return null;
     }
 
-    private List<HoursGroup> getAll() {
-        return list(HoursGroup.class);
+    @SuppressWarnings("unchecked")
+    private List<HoursGroup> findWithCodes(Collection<String> codes) {
+        List<String> list = new ArrayList<String>();
+        for (String each : codes) {
+            if (each != null) {
+                list.add(each);
+            }
+        }
+
+        List<HoursGroup> result = new ArrayList<HoursGroup>();
+        for (int i = 0; i < list.size(); i += IN_CLAUSE_SIZE) {
+            Criteria c = getSession().createCriteria(HoursGroup.class);
+            c.add(Restrictions.in("code", list.subList(i, Math.min(i + IN_CLAUSE_SIZE, list.size()))));
+            result.addAll(c.list());
+        }
+        return result;
     }
 
     private Map<String, HoursGroup> createMapByCode(List<HoursGroup> hoursGroups) {
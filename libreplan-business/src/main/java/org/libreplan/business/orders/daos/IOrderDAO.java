@@ -30,11 +30,13 @@ import org.libreplan.business.externalcompanies.entities.ExternalCompany;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderPlanningSummary;
 import org.libreplan.business.orders.entities.OrderStatusEnum;
 import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.reports.dtos.CostExpenseSheetDTO;
 import org.libreplan.business.reports.dtos.OrderCostsPerResourceDTO;
 import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.users.entities.User;
 
@@ -88,6 +90,38 @@ public interface IOrderDAO extends IIntegrationEntityDAO<Order> {
             List<Label> labels, List<Criterion> criteria,
             ExternalCompany customer, OrderStatusEnum state);
 
+    /**
+     * Like {@link #getOrdersByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState}
+     * but it only returns the identifiers of the orders, so they are not
+     * loaded. It doesn't check if they are in a {@link Scenario}.
+     */
+    List<Long> getOrdersIdsByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
+            String username, Date startDate, Date endDate,
+            List<Label> labels, List<Criterion> criteria,
+            ExternalCompany customer, OrderStatusEnum state);
+
+    /**
+     * Returns the {@link OrderPlanningSummary} of the orders of the
+     * <code>scenario</code> that the user can read.
+     *
+     * The summaries of each scenario are read with a single query. In read
+     * only transactions they are kept until some of the entities they are read
+     * from is saved or removed.
+     */
+    List<OrderPlanningSummary> getPlanningSummariesByReadAuthorization(String username, Scenario scenario);
+
+    /**
+     * Returns the identifiers of the orders of the <code>scenario</code> with
+     * some generic allocation for the <code>criterion</code>.
+     */
+    List<Long> getOrdersIdsAllocatingCriterion(Scenario scenario, Criterion criterion);
+
+    /**
+     * Returns the identifiers of the orders of the <code>scenario</code> with
+     * some specific allocation for the <code>resource</code>.
+     */
+    List<Long> getOrdersIdsAllocatingResource(Scenario scenario, Resource resource);
+
     /**
      * Returns the order filtered by the name.
      * If name is blank (whitespace, empty ("") or null, it throws <code>InstanceNotFoundException</code>.
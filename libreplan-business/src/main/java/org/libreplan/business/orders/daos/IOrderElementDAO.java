@@ -22,6 +22,7 @@
 package org.libreplan.business.orders.daos;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -126,6 +127,12 @@ public interface IOrderElementDAO extends IIntegrationEntityDAO<OrderElement> {
      */
     OrderElement findRepeatedOrderCodeInDB(OrderElement order);
 
+    /**
+     * Like {@link #findRepeatedOrderCodeInDB(OrderElement)} but only checks the
+     * codes of the given order elements
+     */
+    OrderElement findRepeatedOrderCodeInDB(Collection<? extends OrderElement> orderElements);
+
     boolean hasImputedExpenseSheet(Long id) throws InstanceNotFoundException;
 
     boolean hasImputedExpenseSheetThisOrAnyOfItsChildren(Long id) throws InstanceNotFoundException;
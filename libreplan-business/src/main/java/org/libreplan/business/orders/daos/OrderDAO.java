@@ -24,31 +24,49 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
 import org.hibernate.Query;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
+import org.libreplan.business.common.entities.ProgressType;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.costcategories.daos.CostCategoryDAO;
 import org.libreplan.business.costcategories.daos.ITypeOfWorkHoursDAO;
 import org.libreplan.business.costcategories.entities.TypeOfWorkHours;
 import org.libreplan.business.externalcompanies.entities.ExternalCompany;
+import org.libreplan.business.hibernate.notification.ISnapshotRefresherService;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderPlanningSummary;
 import org.libreplan.business.orders.entities.OrderStatusEnum;
+import org.libreplan.business.orders.entities.SchedulingDataForVersion;
 import org.libreplan.business.orders.entities.SchedulingState;
+import org.libreplan.business.orders.entities.SumChargedEffort;
+import org.libreplan.business.orders.entities.TaskSource;
 import org.libreplan.business.planner.daos.ITaskSourceDAO;
+import org.libreplan.business.planner.entities.PlanningData;
 import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.reports.dtos.CostExpenseSheetDTO;
 import org.libreplan.business.reports.dtos.OrderCostsPerResourceDTO;
 import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.scenarios.entities.OrderVersion;
 import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.users.daos.IOrderAuthorizationDAO;
 import org.libreplan.business.users.daos.IUserDAO;
@@ -56,12 +74,15 @@ import org.libreplan.business.users.entities.OrderAuthorization;
 import org.libreplan.business.users.entities.OrderAuthorizationType;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * DAO for {@link Order}.
@@ -89,6 +110,35 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
     @Autowired
     private IAdHocTransactionService transactionService;
 
+    @Autowired
+    private ISnapshotRefresherService snapshotRefresherService;
+
+    /**
+     * The entities whose modification can change an {@link OrderPlanningSummary}
+     */
+    private static final Class<?>[] PLANNING_SUMMARIES_SOURCES = {
+            Order.class, OrderVersion.class, SchedulingDataForVersion.class, TaskSource.class, TaskElement.class,
+            PlanningData.class, SumChargedEffort.class, Label.class, Scenario.class };
+
+    /**
+     * The last {@link OrderPlanningSummary OrderPlanningSummaries} read for a
+     * scenario, with the version of the modifications they include
+     */
+    private static class CachedSummaries {
+
+        private final long modificationsVersion;
+
+        private final List<OrderPlanningSummary> summaries;
+
+        CachedSummaries(long modificationsVersion, List<OrderPlanningSummary> summaries) {
+            this.modificationsVersion = modificationsVersion;
+            this.summaries = summaries;
+        }
+
+    }
+
+    private final ConcurrentMap<Long, CachedSummaries> cachedSummaries = new ConcurrentHashMap<>();
+
     private String STATE_PARAMETER = "state";
 
     @Override
@@ -233,14 +283,32 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
             ExternalCompany customer,
             OrderStatusEnum state) {
 
+        Criteria c = createCriteriaByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
+                user, startDate, endDate, labels, criteria, customer, state);
+
+        return c == null ? Collections.<Order> emptyList() : c.list();
+    }
+
+    /**
+     * @return <code>null</code> if it's known that no order passes the filters
+     */
+    private Criteria createCriteriaByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
+            User user,
+            Date startDate,
+            Date endDate,
+            List<Label> labels,
+            List<Criterion> criteria,
+            ExternalCompany customer,
+            OrderStatusEnum state) {
+
         List<Long> ordersIdsFiltered = getOrdersIdsFiltered(user, labels, criteria, customer, state);
         if (ordersIdsFiltered != null && ordersIdsFiltered.isEmpty()) {
-            return Collections.emptyList();
+            return null;
         }
 
         List<Long> ordersIdsByDates = getOrdersIdsByDates(startDate, endDate);
         if (ordersIdsByDates != null && ordersIdsByDates.isEmpty()) {
-            return Collections.emptyList();
+            return null;
         }
 
         List<Long> ordersIdsUnscheduled = getOrdersIdsUnscheduled(startDate, endDate);
@@ -273,7 +341,7 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
         c.addOrder(org.hibernate.criterion.Order.desc("initDate"));
         c.addOrder(org.hibernate.criterion.Order.asc("infoComponent.name"));
 
-        return c.list();
+        return c;
     }
 
     private List<Long> getOrdersIdsUnscheduled(Date startDate, Date endDate) {
@@ -500,6 +568,11 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
         }
     }
 
+    @Override
+    protected String getCodeProperty() {
+        return "infoComponent.code";
+    }
+
     @Override
     public List<Order> findAll() {
         return getSession()
@@ -562,6 +635,189 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
                 user, startDate, endDate, labels, criteria, customer, state), scenario);
     }
 
+    @Override
+    public List<Long> getOrdersIdsByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
+            String username,
+            Date startDate,
+            Date endDate,
+            List<Label> labels,
+            List<Criterion> criteria,
+            ExternalCompany customer,
+            OrderStatusEnum state) {
+
+        User user;
+        try {
+            user = userDAO.findByLoginName(username);
+        } catch (InstanceNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+
+        Criteria c = createCriteriaByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
+                user, startDate, endDate, labels, criteria, customer, state);
+        if (c == null) {
+            return Collections.emptyList();
+        }
+        c.setProjection(Projections.id());
+
+        return c.list();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderPlanningSummary> getPlanningSummariesByReadAuthorization(String username, Scenario scenario) {
+        User user;
+        try {
+            user = userDAO.findByLoginName(username);
+        } catch (InstanceNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+
+        List<OrderPlanningSummary> summaries = getPlanningSummaries(scenario);
+        List<Long> ordersIdsByReadAuthorization = getOrdersIdsByReadAuthorization(user);
+        if (ordersIdsByReadAuthorization == null) {
+            return summaries;
+        }
+
+        Set<Long> readable = new HashSet<>(ordersIdsByReadAuthorization);
+        List<OrderPlanningSummary> result = new ArrayList<>();
+        for (OrderPlanningSummary each : summaries) {
+            if (readable.contains(each.getOrderId())) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The summaries are only kept in read only transactions, as the others
+     * could see modifications not committed yet.
+     */
+    private List<OrderPlanningSummary> getPlanningSummaries(Scenario scenario) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return readPlanningSummaries(scenario);
+        }
+
+        long modificationsVersion = snapshotRefresherService.getModificationsVersion(PLANNING_SUMMARIES_SOURCES);
+        CachedSummaries cached = cachedSummaries.get(scenario.getId());
+        if (cached != null && cached.modificationsVersion == modificationsVersion) {
+            return cached.summaries;
+        }
+
+        List<OrderPlanningSummary> result = Collections.unmodifiableList(readPlanningSummaries(scenario));
+        cachedSummaries.put(scenario.getId(), new CachedSummaries(modificationsVersion, result));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OrderPlanningSummary> readPlanningSummaries(Scenario scenario) {
+        String strQuery = "SELECT o.id, o.infoComponent.code, t.name, o.initDate, o.deadline, o.state, "
+                + "o.customerReference, t.startDate.date, t.startDate.effortDuration, "
+                + "t.endDate.date, t.endDate.effortDuration, t.advancePercentage, "
+                + "pd.progressAllByNumHours, pd.progressByNumHours, pd.progressByDuration, "
+                + "t.sumOfAssignedEffort, o.totalHours, "
+                + "sce.directChargedEffort, sce.indirectChargedEffort, "
+                + "sce.firstTimesheetDate, sce.lastTimesheetDate "
+                + "FROM Scenario s JOIN s.orders v, "
+                + "Order o JOIN o.schedulingDataForVersion sd LEFT JOIN o.sumChargedEffort sce, "
+                + "TaskSource ts, TaskGroup t LEFT JOIN t.planningData pd "
+                + "WHERE s.id = :scenario "
+                + "AND key(v) = o AND key(sd) = v AND ts.schedulingData = sd AND ts.task = t";
+
+        List<Object[]> rows = getSession().createQuery(strQuery)
+                .setParameter("scenario", scenario.getId())
+                .list();
+
+        Map<Long, List<String>> labels = getLabelsNames(scenario);
+
+        List<OrderPlanningSummary> result = new ArrayList<>();
+        for (Object[] each : rows) {
+            Long orderId = (Long) each[0];
+
+            Map<ProgressType, BigDecimal> progressByType = new EnumMap<>(ProgressType.class);
+            putIfNotNull(progressByType, ProgressType.SPREAD_PROGRESS, (BigDecimal) each[11]);
+            putIfNotNull(progressByType, ProgressType.ALL_NUMHOURS, (BigDecimal) each[12]);
+            putIfNotNull(progressByType, ProgressType.CRITICAL_PATH_NUMHOURS, (BigDecimal) each[13]);
+            putIfNotNull(progressByType, ProgressType.CRITICAL_PATH_DURATION, (BigDecimal) each[14]);
+
+            EffortDuration chargedEffort = each[17] == null
+                    ? null
+                    : ((EffortDuration) each[17]).plus((EffortDuration) each[18]);
+
+            result.add(new OrderPlanningSummary(orderId, (String) each[1], (String) each[2],
+                    (Date) each[3], (Date) each[4], (OrderStatusEnum) each[5], (String) each[6],
+                    IntraDayDate.create((LocalDate) each[7], (EffortDuration) each[8]),
+                    IntraDayDate.create((LocalDate) each[9], (EffortDuration) each[10]),
+                    progressByType,
+                    (EffortDuration) each[15], chargedEffort, (Integer) each[16],
+                    (Date) each[19], (Date) each[20],
+                    labels.containsKey(orderId) ? labels.get(orderId) : Collections.<String> emptyList()));
+        }
+        return result;
+    }
+
+    private static <K, V> void putIfNotNull(Map<K, V> map, K key, V value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    /**
+     * @return the names of the labels of each order of the scenario, sorted
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, List<String>> getLabelsNames(Scenario scenario) {
+        String strQuery = "SELECT o.id, l.name "
+                + "FROM Scenario s JOIN s.orders v, Order o JOIN o.labels l "
+                + "WHERE s.id = :scenario AND key(v) = o "
+                + "ORDER BY l.name";
+
+        List<Object[]> rows = getSession().createQuery(strQuery)
+                .setParameter("scenario", scenario.getId())
+                .list();
+
+        Map<Long, List<String>> result = new HashMap<>();
+        for (Object[] each : rows) {
+            Long orderId = (Long) each[0];
+            if (!result.containsKey(orderId)) {
+                result.put(orderId, new ArrayList<>());
+            }
+            result.get(orderId).add((String) each[1]);
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> getOrdersIdsAllocatingCriterion(Scenario scenario, Criterion criterion) {
+        String strQuery = "SELECT DISTINCT o.id "
+                + "FROM Scenario s JOIN s.orders v, Order o, "
+                + "OrderElement oe JOIN oe.schedulingDataForVersion sd, "
+                + "TaskSource ts, GenericResourceAllocation ga JOIN ga.criterions c "
+                + "WHERE s.id = :scenario AND key(v) = o AND key(sd) = v AND ts.schedulingData = sd "
+                + "AND ga.task = ts.task AND c.id = :criterion";
+
+        return getSession().createQuery(strQuery)
+                .setParameter("scenario", scenario.getId())
+                .setParameter("criterion", criterion.getId())
+                .list();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> getOrdersIdsAllocatingResource(Scenario scenario, Resource resource) {
+        String strQuery = "SELECT DISTINCT o.id "
+                + "FROM Scenario s JOIN s.orders v, Order o, "
+                + "OrderElement oe JOIN oe.schedulingDataForVersion sd, "
+                + "TaskSource ts, SpecificResourceAllocation sa "
+                + "WHERE s.id = :scenario AND key(v) = o AND key(sd) = v AND ts.schedulingData = sd "
+                + "AND sa.task = ts.task AND sa.resource.id = :resource";
+
+        return getSession().createQuery(strQuery)
+                .setParameter("scenario", scenario.getId())
+                .setParameter("resource", resource.getId())
+                .list();
+    }
+
     private List<Order> existsInScenario(List<Order> orders, Scenario scenario) {
         List<Order> result = new ArrayList<>();
         for (Order each : orders) {
@@ -25,6 +25,7 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -72,6 +73,8 @@ import org.springframework.transaction.annotation.Transactional;
 @Scope(BeanDefinition.SCOPE_SINGLETON)
 public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implements IOrderElementDAO {
 
+    private static final int IN_CLAUSE_SIZE = 500;
+
     @Autowired
     private IWorkReportLineDAO workReportLineDAO;
 
@@ -179,6 +182,11 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
         return result;
     }
 
+    @Override
+    protected String getCodeProperty() {
+        return "infoComponent.code";
+    }
+
     @Override
     public List<OrderElement> findAll() {
         return getSession()
@@ -442,8 +450,14 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
     @Override
     @Transactional(readOnly= true, propagation = Propagation.REQUIRES_NEW)
     public OrderElement findRepeatedOrderCodeInDB(OrderElement order) {
-        final Map<String, OrderElement> orderElements = createMapByCode(getOrderAndAllChildren(order));
-        final Map<String, OrderElement> orderElementsInDB = createMapByCode(getAll());
+        return findRepeatedOrderCodeInDB(getOrderAndAllChildren(order));
+    }
+
+    @Override
+    @Transactional(readOnly= true, propagation = Propagation.REQUIRES_NEW)
+    public OrderElement findRepeatedOrderCodeInDB(Collection<? extends OrderElement> orderElementsToCheck) {
+        final Map<String, OrderElement> orderElements = createMapByCode(new ArrayList<>(orderElementsToCheck));
+        final Map<String, OrderElement> orderElementsInDB = createMapByCode(findWithCodes(orderElements.keySet()));
         boolean condition;
 
         for (String code : orderElements.keySet()) {
@@ -462,6 +476,24 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
         return null;
     }
 
+    @SuppressWarnings("unchecked")
+    private List<OrderElement> findWithCodes(Collection<String> codes) {
+        List<String> list = new ArrayList<>();
+        for (String each : codes) {
+            if ( each != null ) {
+                list.add(each);
+            }
+        }
+
+        List<OrderElement> result = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += IN_CLAUSE_SIZE) {
+            result.addAll(getSession().createCriteria(OrderElement.class)
+                    .add(Restrictions.in("infoComponent.code", list.subList(i, Math.min(i + IN_CLAUSE_SIZE, list.size()))))
+                    .list());
+        }
+        return result;
+    }
+
     private List<OrderElement> getOrderAndAllChildren(OrderElement order) {
         List<OrderElement> result = new ArrayList<>();
         result.add(order);
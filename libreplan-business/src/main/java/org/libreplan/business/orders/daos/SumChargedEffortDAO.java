@@ -19,12 +19,16 @@
 
 package org.libreplan.business.orders.daos;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.hibernate.SessionFactory;
@@ -35,7 +39,6 @@ import org.libreplan.business.common.daos.GenericDAOHibernate;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
-import org.libreplan.business.orders.entities.OrderLineGroup;
 import org.libreplan.business.orders.entities.SumChargedEffort;
 import org.libreplan.business.util.Pair;
 import org.libreplan.business.workingday.EffortDuration;
@@ -73,159 +76,205 @@ public class SumChargedEffortDAO extends
     @Autowired
     private IOrderElementDAO orderElementDAO;
 
+    /**
+     * Maximum number of values in the <code>IN</code> clauses of the queries
+     */
+    private static final int IN_CLAUSE_SIZE = 500;
+
     private Map<OrderElement, SumChargedEffort> mapSumChargedEfforts;
 
+    /**
+     * Effort to add to the direct and indirect charged effort of an
+     * {@link OrderElement}, in seconds. It is negative when the effort has to
+     * be subtracted.
+     */
+    private static class EffortDelta {
+
+        private int direct = 0;
+
+        private int indirect = 0;
+
+        private boolean isZero() {
+            return direct == 0 && indirect == 0;
+        }
+
+    }
+
     @Override
     public void updateRelatedSumChargedEffortWithWorkReportLineSet(
             Set<WorkReportLine> workReportLineSet) {
-        resetMapSumChargedEfforts();
+        Map<Long, Pair<EffortDuration, Long>> previousEfforts = findPreviousEfforts(workReportLineSet);
 
+        Map<OrderElement, EffortDelta> deltas = new HashMap<OrderElement, EffortDelta>();
         for (WorkReportLine workReportLine : workReportLineSet) {
-            updateRelatedSumChargedEffortWithAddedOrModifiedWorkReportLine(workReportLine);
+            OrderElement orderElement = workReportLine.getOrderElement();
+            getDelta(deltas, orderElement).direct += workReportLine.getEffort().getSeconds();
+
+            if (!workReportLine.isNewObject()) {
+                Pair<EffortDuration, Long> previous = previousEfforts.get(workReportLine.getId());
+                if (previous == null) {
+                    throw new RuntimeException(new InstanceNotFoundException(
+                            workReportLine.getId(), WorkReportLine.class.getName()));
+                }
+                OrderElement previousOrderElement = findInSession(orderElement, previous.getSecond());
+                getDelta(deltas, previousOrderElement).direct -= previous.getFirst().getSeconds();
+            }
         }
+
+        applyDeltas(deltas);
     }
 
-    private void updateRelatedSumChargedEffortWithAddedOrModifiedWorkReportLine(
-            final WorkReportLine workReportLine) {
-        boolean increase = true;
-        boolean sameOrderElement = true;
-        EffortDuration effort = workReportLine.getEffort();
-        OrderElement orderElement = workReportLine.getOrderElement();
-
-        EffortDuration previousEffort = null;
-        OrderElement previousOrderElement = null;
-
-        if (!workReportLine.isNewObject()) {
-            Pair<EffortDuration, OrderElement> previous = transactionService
-                    .runOnAnotherTransaction(new IOnTransaction<Pair<EffortDuration, OrderElement>>() {
-                        @Override
-                        public Pair<EffortDuration, OrderElement> execute() {
-                            try {
-                                WorkReportLine line = workReportLineDAO
-                                        .find(workReportLine.getId());
-
-                                OrderElement orderElement = line
-                                        .getOrderElement();
-                                forceLoadParents(orderElement);
-
-                                return Pair.create(line.getEffort(),
-                                        orderElement);
-                            } catch (InstanceNotFoundException e) {
-                                throw new RuntimeException(e);
-                            }
-                        }
-
-                        private void forceLoadParents(OrderElement orderElement) {
-                            OrderLineGroup parent = orderElement.getParent();
-                            if (parent != null) {
-                                forceLoadParents(parent);
-                            }
-                        }
-
-                    });
-
-            previousEffort = previous.getFirst();
-            previousOrderElement = previous.getSecond();
-
-            sameOrderElement = orderElement.getId().equals(
-                    previousOrderElement.getId());
+    /**
+     * Reads the effort and the {@link OrderElement} of the lines already
+     * saved, as they are before saving the changes, in a single query.
+     */
+    private Map<Long, Pair<EffortDuration, Long>> findPreviousEfforts(
+            Set<WorkReportLine> workReportLineSet) {
+        final List<Long> ids = getIdsOfSavedLines(workReportLineSet);
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
         }
 
-        if (sameOrderElement) {
-            if (previousEffort != null) {
-                if (effort.compareTo(previousEffort) >= 0) {
-                    effort = effort.minus(previousEffort);
-                } else {
-                    increase = false;
-                    effort = previousEffort.minus(effort);
-                }
-            }
+        return transactionService
+                .runOnAnotherReadOnlyTransaction(new IOnTransaction<Map<Long, Pair<EffortDuration, Long>>>() {
+                    @Override
+                    public Map<Long, Pair<EffortDuration, Long>> execute() {
+                        return workReportLineDAO.findSavedEffortsAndOrderElements(ids);
+                    }
+                });
+    }
 
-            if (!effort.isZero()) {
-                if (increase) {
-                    addDirectChargedEffort(orderElement, effort);
-                } else {
-                    substractDirectChargedEffort(orderElement, effort);
-                }
+    private static List<Long> getIdsOfSavedLines(Set<WorkReportLine> workReportLineSet) {
+        List<Long> result = new ArrayList<Long>();
+        for (WorkReportLine each : workReportLineSet) {
+            if (!each.isNewObject()) {
+                result.add(each.getId());
             }
-        } else {
-            substractDirectChargedEffort(previousOrderElement, previousEffort);
-            addDirectChargedEffort(orderElement, effort);
         }
+        return result;
     }
 
-    private void addDirectChargedEffort(OrderElement orderElement,
-            EffortDuration effort) {
-        SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
-
-        sumChargedEffort.addDirectChargedEffort(effort);
-        save(sumChargedEffort);
-
-        addInirectChargedEffortRecursively(orderElement.getParent(), effort);
+    private OrderElement findInSession(OrderElement current, Long orderElementId) {
+        if (orderElementId.equals(current.getId())) {
+            return current;
+        }
+        try {
+            return orderElementDAO.find(orderElementId);
+        } catch (InstanceNotFoundException e) {
+            throw new RuntimeException(e);
+        }
     }
 
-    private void addInirectChargedEffortRecursively(OrderElement orderElement,
-            EffortDuration effort) {
-        if (orderElement != null) {
-            SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
+    private static EffortDelta getDelta(Map<OrderElement, EffortDelta> deltas,
+            OrderElement orderElement) {
+        EffortDelta result = deltas.get(orderElement);
+        if (result == null) {
+            result = new EffortDelta();
+            deltas.put(orderElement, result);
+        }
+        return result;
+    }
 
-            sumChargedEffort.addIndirectChargedEffort(effort);
-            save(sumChargedEffort);
+    /**
+     * Adds the direct deltas to the indirect ones of the ancestors, and then
+     * updates each affected {@link SumChargedEffort} once.
+     */
+    private void applyDeltas(Map<OrderElement, EffortDelta> deltas) {
+        for (Entry<OrderElement, EffortDelta> each : new ArrayList<Entry<OrderElement, EffortDelta>>(
+                deltas.entrySet())) {
+            int direct = each.getValue().direct;
+            if (direct != 0) {
+                for (OrderElement ancestor = each.getKey().getParent(); ancestor != null; ancestor = ancestor
+                        .getParent()) {
+                    getDelta(deltas, ancestor).indirect += direct;
+                }
+            }
+        }
 
-            addInirectChargedEffortRecursively(orderElement.getParent(), effort);
+        Iterator<EffortDelta> iterator = deltas.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isZero()) {
+                iterator.remove();
+            }
         }
-    }
 
-    @Override
-    public void updateRelatedSumChargedEffortWithDeletedWorkReportLineSet(
-            Set<WorkReportLine> workReportLineSet) {
-        resetMapSumChargedEfforts();
+        loadSumChargedEfforts(deltas.keySet());
+        for (Entry<OrderElement, EffortDelta> each : deltas.entrySet()) {
+            SumChargedEffort sumChargedEffort = getByOrderElement(each.getKey());
+            EffortDelta delta = each.getValue();
 
-        for (WorkReportLine workReportLine : workReportLineSet) {
-            updateRelatedSumChargedEffortWithDeletedWorkReportLine(workReportLine);
+            if (delta.direct > 0) {
+                sumChargedEffort.addDirectChargedEffort(EffortDuration.seconds(delta.direct));
+            } else if (delta.direct < 0) {
+                sumChargedEffort.subtractDirectChargedEffort(EffortDuration.seconds(-delta.direct));
+            }
+            if (delta.indirect > 0) {
+                sumChargedEffort.addIndirectChargedEffort(EffortDuration.seconds(delta.indirect));
+            } else if (delta.indirect < 0) {
+                sumChargedEffort.subtractIndirectChargedEffort(EffortDuration.seconds(-delta.indirect));
+            }
+            save(sumChargedEffort);
         }
     }
 
-    private void resetMapSumChargedEfforts() {
-        mapSumChargedEfforts = new HashMap<OrderElement, SumChargedEffort>();
-    }
+    /**
+     * Loads the {@link SumChargedEffort} of all the {@link OrderElement
+     * OrderElements} at once, creating the missing ones.
+     */
+    @SuppressWarnings("unchecked")
+    private void loadSumChargedEfforts(Collection<OrderElement> orderElements) {
+        resetMapSumChargedEfforts();
 
-    private void updateRelatedSumChargedEffortWithDeletedWorkReportLine(
-            WorkReportLine workReportLine) {
-        if (workReportLine.isNewObject()) {
-            // If the line hasn't been saved, we have nothing to update
-            return;
+        List<OrderElement> saved = new ArrayList<OrderElement>();
+        for (OrderElement each : orderElements) {
+            if (!each.isNewObject()) {
+                saved.add(each);
+            }
         }
 
-        // Refresh data from database, because of changes not saved are not
-        // useful for the following operations
-        sessionFactory.getCurrentSession().refresh(workReportLine);
+        Map<Long, SumChargedEffort> found = new HashMap<Long, SumChargedEffort>();
+        for (int i = 0; i < saved.size(); i += IN_CLAUSE_SIZE) {
+            List<SumChargedEffort> list = getSession()
+                    .createCriteria(getEntityClass())
+                    .add(Restrictions.in("orderElement",
+                            saved.subList(i, Math.min(i + IN_CLAUSE_SIZE, saved.size()))))
+                    .list();
+            for (SumChargedEffort each : list) {
+                found.put(each.getOrderElement().getId(), each);
+            }
+        }
 
-        substractDirectChargedEffort(workReportLine.getOrderElement(),
-                workReportLine.getEffort());
+        for (OrderElement each : orderElements) {
+            SumChargedEffort sumChargedEffort = each.isNewObject() ? null : found.get(each.getId());
+            mapSumChargedEfforts.put(each,
+                    sumChargedEffort != null ? sumChargedEffort : SumChargedEffort.create(each));
+        }
     }
 
-    private void substractDirectChargedEffort(OrderElement orderElement,
-            EffortDuration effort) {
-        SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
+    @Override
+    public void updateRelatedSumChargedEffortWithDeletedWorkReportLineSet(
+            Set<WorkReportLine> workReportLineSet) {
+        // The values saved in the database are used, because of changes not
+        // saved are not useful for the following operations
+        Map<Long, Pair<EffortDuration, Long>> savedEfforts = workReportLineDAO
+                .findSavedEffortsAndOrderElements(getIdsOfSavedLines(workReportLineSet));
 
-        sumChargedEffort.subtractDirectChargedEffort(effort);
-        save(sumChargedEffort);
+        Map<OrderElement, EffortDelta> deltas = new HashMap<OrderElement, EffortDelta>();
+        for (WorkReportLine workReportLine : workReportLineSet) {
+            Pair<EffortDuration, Long> saved = savedEfforts.get(workReportLine.getId());
+            if (workReportLine.isNewObject() || saved == null) {
+                // If the line hasn't been saved, we have nothing to update
+                continue;
+            }
+            OrderElement orderElement = findInSession(workReportLine.getOrderElement(), saved.getSecond());
+            getDelta(deltas, orderElement).direct -= saved.getFirst().getSeconds();
+        }
 
-        substractInirectChargedEffortRecursively(orderElement.getParent(),
-                effort);
+        applyDeltas(deltas);
     }
 
-    private void substractInirectChargedEffortRecursively(OrderElement orderElement,
-            EffortDuration effort) {
-        if (orderElement != null) {
-            SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
-
-            sumChargedEffort.subtractIndirectChargedEffort(effort);
-            save(sumChargedEffort);
-
-            substractInirectChargedEffortRecursively(orderElement.getParent(), effort);
-        }
+    private void resetMapSumChargedEfforts() {
+        mapSumChargedEfforts = new HashMap<OrderElement, SumChargedEffort>();
     }
 
     private SumChargedEffort getByOrderElement(OrderElement orderElement) {
@@ -253,69 +302,101 @@ public class SumChargedEffortDAO extends
     public void recalculateSumChargedEfforts(Long orderId) {
         try {
             Order order = orderDAO.find(orderId);
-            resetMapSumChargedEfforts();
-            resetSumChargedEffort(order);
-            calculateDirectChargedEffort(order);
-            calculateTimesheetData(order);
+
+            List<OrderElement> orderElements = new ArrayList<OrderElement>();
+            orderElements.add(order);
+            orderElements.addAll(order.getAllChildren());
+
+            Map<Long, Object[]> summaries = findWorkReportLinesSummaries(orderElements);
+            Set<Long> finished = findOrderElementsWithFinishedLines(orderElements);
+
+            loadSumChargedEfforts(orderElements);
+            rebuildSumChargedEffort(order, summaries, finished);
         } catch (InstanceNotFoundException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void resetSumChargedEffort(OrderElement orderElement) {
-        SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
-        sumChargedEffort.reset();
-
-        for (OrderElement each : orderElement.getChildren()) {
-            resetSumChargedEffort(each);
+    /**
+     * Returns the sum of the effort and the first and last dates of the
+     * {@link WorkReportLine WorkReportLines} of each {@link OrderElement} by
+     * its id, grouped in the database. The elements without lines are not
+     * included.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, Object[]> findWorkReportLinesSummaries(List<OrderElement> orderElements) {
+        Map<Long, Object[]> result = new HashMap<Long, Object[]>();
+        for (int i = 0; i < orderElements.size(); i += IN_CLAUSE_SIZE) {
+            List<Object[]> rows = getSession()
+                    .createQuery("SELECT line.orderElement.id, SUM(line.effort), MIN(line.date), MAX(line.date) "
+                            + "FROM WorkReportLine line "
+                            + "WHERE line.orderElement IN (:orderElements) "
+                            + "GROUP BY line.orderElement.id")
+                    .setParameterList("orderElements",
+                            orderElements.subList(i, Math.min(i + IN_CLAUSE_SIZE, orderElements.size())))
+                    .list();
+            for (Object[] each : rows) {
+                result.put((Long) each[0], each);
+            }
         }
+        return result;
     }
 
-    private void calculateDirectChargedEffort(OrderElement orderElement) {
-        for (OrderElement each : orderElement.getChildren()) {
-            calculateDirectChargedEffort(each);
-        }
-
-        EffortDuration effort = EffortDuration.zero();
-        for (WorkReportLine line : workReportLineDAO
-                .findByOrderElement(orderElement)) {
-            effort = effort.plus(line.getEffort());
+    @SuppressWarnings("unchecked")
+    private Set<Long> findOrderElementsWithFinishedLines(List<OrderElement> orderElements) {
+        Set<Long> result = new HashSet<Long>();
+        for (int i = 0; i < orderElements.size(); i += IN_CLAUSE_SIZE) {
+            result.addAll(getSession()
+                    .createQuery("SELECT DISTINCT line.orderElement.id "
+                            + "FROM WorkReportLine line "
+                            + "WHERE line.finished = true AND line.orderElement IN (:orderElements)")
+                    .setParameterList("orderElements",
+                            orderElements.subList(i, Math.min(i + IN_CLAUSE_SIZE, orderElements.size())))
+                    .list());
         }
-        addDirectChargedEffort(orderElement, effort);
-    }
-
-    private void calculateTimesheetData(OrderElement orderElement) {
-        calculateTimesheetDatesAndChildren(orderElement);
-        calculateFinishedTimesheetsAndChildren(orderElement);
+        return result;
     }
 
-    private Pair<Date, Date> calculateTimesheetDatesAndChildren(
-            OrderElement orderElement) {
-        Pair<Date, Date> minMax = workReportLineDAO
-                .findMinAndMaxDatesByOrderElement(orderElement);
-
+    /**
+     * Sets the values of the {@link SumChargedEffort} of the element and its
+     * descendants from the summaries of their lines.
+     *
+     * @return the total effort of the element and its descendants and their
+     *         first and last timesheet dates
+     */
+    private Object[] rebuildSumChargedEffort(OrderElement orderElement,
+            Map<Long, Object[]> summaries, Set<Long> finished) {
+        Object[] summary = summaries.get(orderElement.getId());
+
+        EffortDuration direct = EffortDuration.zero();
         Set<Date> minDates = new HashSet<Date>();
         Set<Date> maxDates = new HashSet<Date>();
+        if (summary != null) {
+            direct = EffortDuration.seconds(((Number) summary[1]).intValue());
+            addIfNotNull(minDates, (Date) summary[2]);
+            addIfNotNull(maxDates, (Date) summary[3]);
+        }
 
-        addIfNotNull(minDates, minMax.getFirst());
-        addIfNotNull(maxDates, minMax.getSecond());
-
+        EffortDuration indirect = EffortDuration.zero();
         for (OrderElement child : orderElement.getChildren()) {
-            Pair<Date, Date> minMaxChild = calculateTimesheetDatesAndChildren(child);
-            addIfNotNull(minDates, minMaxChild.getFirst());
-            addIfNotNull(maxDates, minMaxChild.getSecond());
+            Object[] childTotal = rebuildSumChargedEffort(child, summaries, finished);
+            indirect = indirect.plus((EffortDuration) childTotal[0]);
+            addIfNotNull(minDates, (Date) childTotal[1]);
+            addIfNotNull(maxDates, (Date) childTotal[2]);
         }
 
-        Pair<Date, Date> result = Pair.create(
-                minDates.isEmpty() ? null : Collections.min(minDates),
-                maxDates.isEmpty() ? null : Collections.max(maxDates));
+        Date first = minDates.isEmpty() ? null : Collections.min(minDates);
+        Date last = maxDates.isEmpty() ? null : Collections.max(maxDates);
 
         SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
-        sumChargedEffort.setTimesheetDates(result.getFirst(),
-                result.getSecond());
+        sumChargedEffort.reset();
+        sumChargedEffort.addDirectChargedEffort(direct);
+        sumChargedEffort.addIndirectChargedEffort(indirect);
+        sumChargedEffort.setTimesheetDates(first, last);
+        sumChargedEffort.setFinishedTimesheets(finished.contains(orderElement.getId()));
         save(sumChargedEffort);
 
-        return result;
+        return new Object[] { direct.plus(indirect), first, last };
     }
 
     private void addIfNotNull(Collection<Date> list, Date date) {
@@ -324,15 +405,6 @@ public class SumChargedEffortDAO extends
         }
     }
 
-    private void calculateFinishedTimesheetsAndChildren(
-            OrderElement orderElement) {
-        calculateFinishedTimesheets(orderElement);
-
-        for (OrderElement child : orderElement.getChildren()) {
-            calculateFinishedTimesheetsAndChildren(child);
-        }
-    }
-
     private void calculateFinishedTimesheets(OrderElement orderElement) {
         SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
         sumChargedEffort.setFinishedTimesheets(workReportLineDAO
@@ -348,25 +420,14 @@ public class SumChargedEffortDAO extends
         Set<OrderElement> orderElements = new HashSet<OrderElement>();
 
         if (workReportLines != null) {
-            for (final WorkReportLine workReportLine : workReportLines) {
-                if (!workReportLine.isNewObject()) {
-                    OrderElement previousOrderElement = transactionService
-                            .runOnAnotherTransaction(new IOnTransaction<OrderElement>() {
-                                @Override
-                                public OrderElement execute() {
-                                    try {
-                                        WorkReportLine line = workReportLineDAO
-                                                .find(workReportLine.getId());
-
-                                        return line.getOrderElement();
-                                    } catch (InstanceNotFoundException e) {
-                                        throw new RuntimeException(e);
-                                    }
-                                }
-                            });
-                    orderElements.add(previousOrderElement);
+            Map<Long, Pair<EffortDuration, Long>> previousEfforts = findPreviousEfforts(workReportLines);
+            for (WorkReportLine workReportLine : workReportLines) {
+                OrderElement orderElement = workReportLine.getOrderElement();
+                Pair<EffortDuration, Long> previous = previousEfforts.get(workReportLine.getId());
+                if (previous != null) {
+                    orderElements.add(findInSession(orderElement, previous.getSecond()));
                 }
-                orderElements.add(workReportLine.getOrderElement());
+                orderElements.add(orderElement);
             }
         }
 
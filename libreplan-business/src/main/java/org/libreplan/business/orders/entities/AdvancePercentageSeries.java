@@ -0,0 +1,215 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.orders.entities;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.LocalDate;
+import org.libreplan.business.advance.entities.AdvanceMeasurement;
+import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
+
+/**
+ * Percentage of progress of an {@link OrderElement} along the time.
+ *
+ * It is a step function: the value at a date is the one of the last change at
+ * or before that date, or the initial value if there is none. The series of an
+ * {@link OrderLineGroup} that spreads the progress of its children is
+ * calculated from the series of its children, merging their dates, so the
+ * whole tree is calculated bottom-up visiting each measurement once.
+ */
+public class AdvancePercentageSeries {
+
+    public static AdvancePercentageSeries constant(BigDecimal value) {
+        return new AdvancePercentageSeries(value, new LocalDate[0], new BigDecimal[0], value);
+    }
+
+    /**
+     * The values are the ones returned by
+     * {@link DirectAdvanceAssignment#getAdvancePercentage(LocalDate)}.
+     */
+    public static AdvancePercentageSeries of(DirectAdvanceAssignment assignment) {
+        BigDecimal maxValue = assignment.getMaxValue();
+        if ( maxValue.compareTo(BigDecimal.ZERO) == 0 ) {
+            return constant(BigDecimal.ZERO);
+        }
+
+        List<LocalDate> dates = new ArrayList<>();
+        List<BigDecimal> values = new ArrayList<>();
+
+        // The measurements are sorted from the newest to the oldest one
+        for (AdvanceMeasurement each : assignment.getAdvanceMeasurements()) {
+            if ( each.getDate() != null ) {
+                dates.add(each.getDate());
+                values.add(each.getValue() == null
+                        ? BigDecimal.ZERO
+                        : each.getValue().divide(maxValue, 4, RoundingMode.DOWN));
+            }
+        }
+        Collections.reverse(dates);
+        Collections.reverse(values);
+
+        return new AdvancePercentageSeries(BigDecimal.ZERO, dates.toArray(new LocalDate[dates.size()]),
+                values.toArray(new BigDecimal[values.size()]), assignment.getAdvancePercentage());
+    }
+
+    /**
+     * Averages the series of some children weighted by their hours, as
+     * {@link OrderLineGroup#getAdvancePercentageChildren(LocalDate)} does.
+     */
+    public static AdvancePercentageSeries weightedByHours(List<AdvancePercentageSeries> children,
+                                                          List<Integer> hours,
+                                                          int totalHours) {
+        Validate.isTrue(children.size() == hours.size());
+        if ( totalHours <= 0 ) {
+            return constant(BigDecimal.ZERO);
+        }
+        BigDecimal divisor = new BigDecimal(totalHours).setScale(2);
+
+        BigDecimal initial = BigDecimal.ZERO;
+        BigDecimal last = BigDecimal.ZERO;
+        PriorityQueue<Cursor> pending = new PriorityQueue<>();
+        int maxChanges = 0;
+
+        for (int i = 0; i < children.size(); i++) {
+            AdvancePercentageSeries child = children.get(i);
+            BigDecimal weight = new BigDecimal(hours.get(i));
+            initial = initial.add(child.initial.multiply(weight));
+            last = last.add(child.last.multiply(weight));
+            if ( child.dates.length > 0 && weight.signum() != 0 ) {
+                pending.add(new Cursor(child, weight));
+                maxChanges += child.dates.length;
+            }
+        }
+
+        List<LocalDate> dates = new ArrayList<>(maxChanges);
+        List<BigDecimal> values = new ArrayList<>(maxChanges);
+        BigDecimal current = initial;
+
+        while (!pending.isEmpty()) {
+            LocalDate date = pending.peek().getDate();
+            while (!pending.isEmpty() && pending.peek().getDate().equals(date)) {
+                Cursor cursor = pending.poll();
+                current = current.add(cursor.advance());
+                if ( cursor.hasNext() ) {
+                    pending.add(cursor);
+                }
+            }
+            dates.add(date);
+            values.add(current.divide(divisor, 4, RoundingMode.DOWN));
+        }
+
+        return new AdvancePercentageSeries(initial.divide(divisor, 4, RoundingMode.DOWN),
+                dates.toArray(new LocalDate[dates.size()]), values.toArray(new BigDecimal[values.size()]),
+                last.divide(divisor, 4, RoundingMode.DOWN));
+    }
+
+    /**
+     * Walks the changes of a child series keeping its weighted value.
+     */
+    private static class Cursor implements Comparable<Cursor> {
+
+        private final AdvancePercentageSeries series;
+
+        private final BigDecimal weight;
+
+        private int position = 0;
+
+        private BigDecimal previous;
+
+        Cursor(AdvancePercentageSeries series, BigDecimal weight) {
+            this.series = series;
+            this.weight = weight;
+            this.previous = series.initial;
+        }
+
+        LocalDate getDate() {
+            return series.dates[position];
+        }
+
+        /**
+         * @return the change of the weighted value at the current date
+         */
+        BigDecimal advance() {
+            BigDecimal value = series.values[position++];
+            BigDecimal result = value.subtract(previous).multiply(weight);
+            previous = value;
+            return result;
+        }
+
+        boolean hasNext() {
+            return position < series.dates.length;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return getDate().compareTo(other.getDate());
+        }
+
+    }
+
+    private final BigDecimal initial;
+
+    private final LocalDate[] dates;
+
+    private final BigDecimal[] values;
+
+    private final BigDecimal last;
+
+    private AdvancePercentageSeries(BigDecimal initial, LocalDate[] dates, BigDecimal[] values, BigDecimal last) {
+        this.initial = initial;
+        this.dates = dates;
+        this.values = values;
+        this.last = last;
+    }
+
+    /**
+     * @param date
+     *            if <code>null</code> the last value is returned
+     */
+    public BigDecimal getValue(LocalDate date) {
+        if ( date == null ) {
+            return last;
+        }
+        int position = Arrays.binarySearch(dates, date);
+        if ( position < 0 ) {
+            position = -position - 2;
+        }
+        return position < 0 ? initial : values[position];
+    }
+
+    public BigDecimal getLastValue() {
+        return last;
+    }
+
+    /**
+     * @return the dates where the value changes, in ascending order
+     */
+    public List<LocalDate> getDates() {
+        return Collections.unmodifiableList(Arrays.asList(dates));
+    }
+
+}
@@ -117,6 +117,11 @@ public abstract class OrderElement extends IntegrationEntity implements ICriteri
 
     private Boolean dirtyLastAdvanceMeasurementForSpreading = true;
 
+    /**
+     * This field is transient.
+     */
+    private AdvancePercentageSeries advancePercentageSeries = null;
+
     private SumChargedEffort sumChargedEffort;
 
     private SumExpenses sumExpenses;
@@ -701,6 +706,7 @@ public abstract class OrderElement extends IntegrationEntity implements ICriteri
 
         newAdvanceAssignment.setOrderElement(this);
         this.directAdvanceAssignments.add(newAdvanceAssignment);
+        markAsDirtyLastAdvanceMeasurementForSpreading();
 
         if ( this.getParent() != null ) {
             addChildrenAdvanceInParents(this.getParent());
@@ -823,6 +829,20 @@ public abstract class OrderElement extends IntegrationEntity implements ICriteri
 
     public abstract BigDecimal getAdvancePercentage(LocalDate date);
 
+    /**
+     * The progress reported as global along the time. It is calculated once
+     * and kept until the progress or the hours of this element or any of its
+     * descendants are modified.
+     */
+    public AdvancePercentageSeries getAdvancePercentageSeries() {
+        if ( advancePercentageSeries == null ) {
+            advancePercentageSeries = calculateAdvancePercentageSeries();
+        }
+        return advancePercentageSeries;
+    }
+
+    protected abstract AdvancePercentageSeries calculateAdvancePercentageSeries();
+
     public abstract Set<IndirectAdvanceAssignment> getIndirectAdvanceAssignments();
 
     public abstract DirectAdvanceAssignment calculateFakeDirectAdvanceAssignment(
@@ -1400,6 +1420,7 @@ public abstract class OrderElement extends IntegrationEntity implements ICriteri
         }
 
         dirtyLastAdvanceMeasurementForSpreading = true;
+        advancePercentageSeries = null;
     }
 
     public void setSumChargedEffort(SumChargedEffort sumChargedHours) {
@@ -184,6 +184,7 @@ public class OrderLine extends OrderElement {
     public void setHoursGroups(final Set<HoursGroup> hoursGroups) {
         this.hoursGroups.clear();
         this.hoursGroups.addAll(hoursGroups);
+        markAsDirtyLastAdvanceMeasurementForSpreading();
     }
 
     public void addHoursGroup(HoursGroup hoursGroup) {
@@ -195,10 +196,12 @@ public class OrderLine extends OrderElement {
 
     public void doAddHoursGroup(HoursGroup hoursGroup) {
         hoursGroups.add(hoursGroup);
+        markAsDirtyLastAdvanceMeasurementForSpreading();
     }
 
     public void deleteHoursGroup(HoursGroup hoursGroup) {
         hoursGroups.remove(hoursGroup);
+        markAsDirtyLastAdvanceMeasurementForSpreading();
         recalculateHoursGroups();
     }
 
@@ -236,6 +239,17 @@ public class OrderLine extends OrderElement {
         return BigDecimal.ZERO;
     }
 
+    @Override
+    protected AdvancePercentageSeries calculateAdvancePercentageSeries() {
+        for (DirectAdvanceAssignment directAdvanceAssignment : directAdvanceAssignments) {
+            if ( directAdvanceAssignment.getReportGlobalAdvance() ) {
+                return AdvancePercentageSeries.of(directAdvanceAssignment);
+            }
+        }
+
+        return AdvancePercentageSeries.constant(BigDecimal.ZERO);
+    }
+
     public Set<DirectAdvanceAssignment> getAllDirectAdvanceAssignments(AdvanceType advanceType) {
         Set<DirectAdvanceAssignment> result = new HashSet<>();
         for (DirectAdvanceAssignment directAdvanceAssignment : directAdvanceAssignments) {
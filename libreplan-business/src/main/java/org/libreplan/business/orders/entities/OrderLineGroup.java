@@ -192,6 +192,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
             if ( advance.getAdvanceType().getUnitName().equals(PredefinedAdvancedTypes.CHILDREN.getTypeName()) ) {
                 indirectAdvanceAssignments.remove(advance);
                 updateSpreadAdvance();
+                markAsDirtyLastAdvanceMeasurementForSpreading();
             }
         }
     }
@@ -243,6 +244,11 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
 
     private Set<IndirectAdvanceAssignment> indirectAdvanceAssignments = new HashSet<>();
 
+    /**
+     * This field is transient.
+     */
+    private AdvancePercentageSeries advancePercentageChildrenSeries = null;
+
     /**
      * Constructor for hibernate. Do not use!
      */
@@ -270,6 +276,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
     public void remove(OrderElement child) {
         getManipulator().remove(child);
         removeIndirectAdvanceAssignments(child);
+        markAsDirtyLastAdvanceMeasurementForSpreading();
     }
 
     @Override
@@ -278,12 +285,14 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
 
         addIndirectAdvanceAssignments(orderElement);
         removeIndirectAdvanceAssignments(oldOrderElement);
+        markAsDirtyLastAdvanceMeasurementForSpreading();
     }
 
     @Override
     public void add(OrderElement orderElement) {
         getManipulator().add(orderElement);
         addIndirectAdvanceAssignments(orderElement);
+        markAsDirtyLastAdvanceMeasurementForSpreading();
     }
 
     private void addIndirectAdvanceAssignments(OrderElement orderElement) {
@@ -407,6 +416,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
     public void add(int position, OrderElement orderElement) {
         getManipulator().add(position, orderElement);
         addIndirectAdvanceAssignments(orderElement);
+        markAsDirtyLastAdvanceMeasurementForSpreading();
     }
 
     @Override
@@ -476,26 +486,64 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
         return getAdvancePercentageChildren(null);
     }
 
+    /**
+     * The average of the progress of the children weighted by their hours.
+     *
+     * @param date
+     *            if <code>null</code> the last progress of the children is used
+     */
     public BigDecimal getAdvancePercentageChildren(LocalDate date) {
-        Integer hours = getWorkHours();
-        BigDecimal result = new BigDecimal(0);
+        return getAdvancePercentageChildrenSeries().getValue(date);
+    }
 
-        if ( hours > 0 ) {
+    private AdvancePercentageSeries getAdvancePercentageChildrenSeries() {
+        if ( advancePercentageChildrenSeries == null ) {
+            List<AdvancePercentageSeries> series = new ArrayList<>();
+            List<Integer> hours = new ArrayList<>();
+            int totalHours = 0;
             for (OrderElement orderElement : children) {
-                BigDecimal childPercentage;
-                if ( date == null ) {
-                    childPercentage = orderElement.getAdvancePercentage();
-                } else {
-                    childPercentage = orderElement.getAdvancePercentage(date);
-                }
-                Integer childHours = orderElement.getWorkHours();
-                result = result.add(childPercentage.multiply(new BigDecimal(childHours)));
+                series.add(orderElement.getAdvancePercentageSeries());
+                hours.add(orderElement.getWorkHours());
+                totalHours += hours.get(hours.size() - 1);
+            }
+            advancePercentageChildrenSeries = AdvancePercentageSeries.weightedByHours(series, hours, totalHours);
+        }
+        return advancePercentageChildrenSeries;
+    }
+
+    @Override
+    protected AdvancePercentageSeries calculateAdvancePercentageSeries() {
+        for (DirectAdvanceAssignment directAdvanceAssignment : directAdvanceAssignments) {
+            if ( directAdvanceAssignment.getReportGlobalAdvance() ) {
+                return AdvancePercentageSeries.of(directAdvanceAssignment);
             }
-            result = result.divide(new BigDecimal(hours).setScale(2), 4, RoundingMode.DOWN);
+        }
+
+        for (IndirectAdvanceAssignment indirectAdvanceAssignment : indirectAdvanceAssignments) {
+            if ( indirectAdvanceAssignment.getReportGlobalAdvance() ) {
+
+                if ( indirectAdvanceAssignment.getAdvanceType().getUnitName().equals(
+                        PredefinedAdvancedTypes.CHILDREN.getTypeName()) ) {
+
+                    return getAdvancePercentageChildrenSeries();
+                }
 
+                DirectAdvanceAssignment directAdvanceAssignment =
+                        calculateFakeDirectAdvanceAssignment(indirectAdvanceAssignment);
+
+                return directAdvanceAssignment != null
+                        ? AdvancePercentageSeries.of(directAdvanceAssignment)
+                        : AdvancePercentageSeries.constant(BigDecimal.ZERO);
+            }
         }
 
-        return result;
+        return AdvancePercentageSeries.constant(BigDecimal.ZERO);
+    }
+
+    @Override
+    public void markAsDirtyLastAdvanceMeasurementForSpreading() {
+        advancePercentageChildrenSeries = null;
+        super.markAsDirtyLastAdvanceMeasurementForSpreading();
     }
 
     @Override
@@ -534,7 +582,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
             advanceMeasurements.addAll(directAdvanceAssignment.getAdvanceMeasurements());
         }
 
-        List<LocalDate> measurementDates = getMeasurementDates(advanceMeasurements);
+        SortedSet<LocalDate> measurementDates = getMeasurementDates(advanceMeasurements);
         SortedSet<AdvanceMeasurement> newAdvanceMeasurements = new TreeSet<>(new AdvanceMeasurementComparator());
 
         for (LocalDate localDate : measurementDates) {
@@ -548,17 +596,11 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
         return newDirectAdvanceAssignment;
     }
 
-    private List<LocalDate> getMeasurementDates(List<AdvanceMeasurement> advanceMeasurements) {
-        List<LocalDate> result = new ArrayList<>();
+    private SortedSet<LocalDate> getMeasurementDates(List<AdvanceMeasurement> advanceMeasurements) {
+        SortedSet<LocalDate> result = new TreeSet<>();
         for (AdvanceMeasurement advanceMeasurement : advanceMeasurements) {
-            LocalDate date = advanceMeasurement.getDate();
-            if ( result.indexOf(date) < 0 ) {
-                result.add(date);
-            }
+            result.add(advanceMeasurement.getDate());
         }
-
-        Collections.sort(result);
-
         return result;
     }
 
@@ -911,6 +953,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
                 (!existsDirectAdvanceAssignmentWithTheSameType(indirectAdvanceAssignment.getAdvanceType())) ) {
 
             indirectAdvanceAssignments.add(indirectAdvanceAssignment);
+            markAsDirtyLastAdvanceMeasurementForSpreading();
         }
         if ( parent != null ) {
             parent.addIndirectAdvanceAssignment(indirectAdvanceAssignment.createIndirectAdvanceFor(parent));
@@ -934,6 +977,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
             if ( toRemove != null ) {
                 indirectAdvanceAssignments.remove(toRemove);
                 updateSpreadAdvance();
+                markAsDirtyLastAdvanceMeasurementForSpreading();
             }
 
             if ( parent != null ) {
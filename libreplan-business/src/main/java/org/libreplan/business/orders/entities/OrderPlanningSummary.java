@@ -0,0 +1,222 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.orders.entities;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.LocalDate;
+import org.libreplan.business.common.entities.ProgressType;
+import org.libreplan.business.planner.entities.TaskGroup;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate;
+
+/**
+ * Data of an {@link Order} and of its root {@link TaskGroup} in a
+ * {@link Scenario} needed to draw it in the company planning, read without
+ * loading the entities. Once it is created it is not modified, so it can be
+ * shared.
+ */
+public class OrderPlanningSummary {
+
+    private final Long orderId;
+
+    private final String code;
+
+    private final String name;
+
+    private final Date initDate;
+
+    private final Date deadline;
+
+    private final OrderStatusEnum state;
+
+    private final String customerReference;
+
+    private final IntraDayDate startDate;
+
+    private final IntraDayDate endDate;
+
+    private final Map<ProgressType, BigDecimal> progressByType;
+
+    private final EffortDuration assignedEffort;
+
+    private final EffortDuration chargedEffort;
+
+    private final Integer workHours;
+
+    private final Date firstTimesheetDate;
+
+    private final Date lastTimesheetDate;
+
+    private final List<String> labels;
+
+    /**
+     * @param progressByType
+     *            the progresses of the root {@link TaskGroup}, the missing
+     *            ones are zero
+     * @param labels
+     *            the names of the labels of the order
+     */
+    public OrderPlanningSummary(Long orderId, String code, String name,
+                                Date initDate, Date deadline, OrderStatusEnum state, String customerReference,
+                                IntraDayDate startDate, IntraDayDate endDate,
+                                Map<ProgressType, BigDecimal> progressByType,
+                                EffortDuration assignedEffort, EffortDuration chargedEffort, Integer workHours,
+                                Date firstTimesheetDate, Date lastTimesheetDate,
+                                List<String> labels) {
+        Validate.notNull(orderId);
+        this.orderId = orderId;
+        this.code = code;
+        this.name = name;
+        this.initDate = initDate;
+        this.deadline = deadline;
+        this.state = state;
+        this.customerReference = customerReference;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.progressByType = progressByType.isEmpty()
+                ? Collections.<ProgressType, BigDecimal> emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(progressByType));
+        this.assignedEffort = assignedEffort != null ? assignedEffort : EffortDuration.zero();
+        this.chargedEffort = chargedEffort != null ? chargedEffort : EffortDuration.zero();
+        this.workHours = workHours != null ? workHours : 0;
+        this.firstTimesheetDate = firstTimesheetDate;
+        this.lastTimesheetDate = lastTimesheetDate;
+        this.labels = Collections.unmodifiableList(labels);
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @return the name of the root {@link TaskGroup}
+     */
+    public String getName() {
+        return name;
+    }
+
+    public Date getInitDate() {
+        return initDate;
+    }
+
+    public Date getDeadline() {
+        return deadline;
+    }
+
+    public OrderStatusEnum getState() {
+        return state;
+    }
+
+    public String getCustomerReference() {
+        return customerReference;
+    }
+
+    /**
+     * @see TaskGroup#getStartDate()
+     */
+    public Date getStartDate() {
+        return startDate != null ? startDate.toDateTimeAtStartOfDay().toDate() : null;
+    }
+
+    /**
+     * @see TaskGroup#getEndDate()
+     */
+    public Date getEndDate() {
+        return endDate != null ? endDate.toDateTimeAtStartOfDay().toDate() : null;
+    }
+
+    public LocalDate getStartAsLocalDate() {
+        return startDate != null ? startDate.getDate() : null;
+    }
+
+    public LocalDate getEndAsLocalDate() {
+        return endDate != null ? endDate.getDate() : null;
+    }
+
+    public IntraDayDate getIntraDayStartDate() {
+        return startDate;
+    }
+
+    public IntraDayDate getIntraDayEndDate() {
+        return endDate;
+    }
+
+    /**
+     * @return the spreading progress of the root {@link TaskGroup}
+     */
+    public BigDecimal getAdvancePercentage() {
+        return getAdvancePercentage(ProgressType.SPREAD_PROGRESS);
+    }
+
+    /**
+     * @see TaskGroup#getAdvancePercentage(ProgressType)
+     */
+    public BigDecimal getAdvancePercentage(ProgressType progressType) {
+        BigDecimal result = progressByType.get(progressType != null ? progressType : ProgressType.SPREAD_PROGRESS);
+        return result != null ? result : BigDecimal.ZERO;
+    }
+
+    /**
+     * @return the effort assigned to the tasks of the order, as it was cached
+     *         in the root {@link TaskGroup} when the planning was saved
+     */
+    public EffortDuration getAssignedEffort() {
+        return assignedEffort;
+    }
+
+    /**
+     * @see SumChargedEffort#getTotalChargedEffort()
+     */
+    public EffortDuration getChargedEffort() {
+        return chargedEffort;
+    }
+
+    /**
+     * @see Order#getTotalHours()
+     */
+    public Integer getWorkHours() {
+        return workHours;
+    }
+
+    public Date getFirstTimesheetDate() {
+        return firstTimesheetDate;
+    }
+
+    public Date getLastTimesheetDate() {
+        return lastTimesheetDate;
+    }
+
+    public List<String> getLabels() {
+        return labels;
+    }
+
+}
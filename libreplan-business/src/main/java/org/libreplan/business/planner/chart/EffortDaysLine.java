@@ -0,0 +1,266 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.planner.chart;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * A {@link ContiguousDaysLine} specialized for {@link EffortDuration}. The effort of each day is kept as its seconds in
+ * an <code>int</code> array, so the operations between lines don't allocate anything per day. Days without a value
+ * have a zero effort.
+ *
+ * It's converted to a {@link SortedMap} only when it has to be shown.
+ */
+public class EffortDaysLine {
+
+    public static EffortDaysLine create(LocalDate fromInclusive, LocalDate endExclusive) {
+        if ( fromInclusive.isAfter(endExclusive) ) {
+            throw new IllegalArgumentException(
+                    "fromInclusive (" + fromInclusive + ") is after endExclusive (" + endExclusive + ")");
+        }
+        return new EffortDaysLine(fromInclusive, new int[Days.daysBetween(fromInclusive, endExclusive).getDays()]);
+    }
+
+    public static EffortDaysLine invalid() {
+        return new EffortDaysLine(null, new int[0]);
+    }
+
+    /**
+     * Creates a line from the first to the last day of the assignments, as {@link ContiguousDaysLine#byDay} does,
+     * with no effort on any day.
+     */
+    public static EffortDaysLine spanning(Collection<? extends DayAssignment> assignments) {
+        if ( assignments.isEmpty() ) {
+            return invalid();
+        }
+        LocalDate min = null;
+        LocalDate max = null;
+        for (DayAssignment each : assignments) {
+            LocalDate day = each.getDay();
+            min = min == null || day.isBefore(min) ? day : min;
+            max = max == null || day.isAfter(max) ? day : max;
+        }
+        return create(min, max.plusDays(1));
+    }
+
+    public static EffortDaysLine from(ContiguousDaysLine<EffortDuration> line) {
+        if ( line.isNotValid() ) {
+            return invalid();
+        }
+        EffortDaysLine result = create(line.getStart(), line.getEndExclusive());
+        int i = 0;
+        for (ContiguousDaysLine.OnDay<EffortDuration> each : line) {
+            result.seconds[i++] = each.getValue() == null ? 0 : each.getValue().getSeconds();
+        }
+        return result;
+    }
+
+    public static EffortDaysLine sum(EffortDaysLine a, EffortDaysLine b) {
+        EffortDaysLine result = a.copy();
+        result.accumulate(b);
+        return result;
+    }
+
+    public static EffortDaysLine min(EffortDaysLine a, EffortDaysLine b) {
+        if ( a.isNotValid() ) {
+            return invalid();
+        }
+        checkSameInterval(a, b);
+        int[] result = new int[a.seconds.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Math.min(a.seconds[i], b.seconds[i]);
+        }
+        return new EffortDaysLine(a.startInclusive, result);
+    }
+
+    /**
+     * Subtracts the subtrahend line from the minuend line. As an effort can't be negative, if the subtrahend is
+     * bigger than the minuend at some day, zero is returned for that day.
+     */
+    public static EffortDaysLine substract(EffortDaysLine minuend, EffortDaysLine subtrahend) {
+        if ( minuend.isNotValid() ) {
+            return invalid();
+        }
+        checkSameInterval(minuend, subtrahend);
+        int[] result = new int[minuend.seconds.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Math.max(minuend.seconds[i] - subtrahend.seconds[i], 0);
+        }
+        return new EffortDaysLine(minuend.startInclusive, result);
+    }
+
+    private static void checkSameInterval(EffortDaysLine a, EffortDaysLine b) {
+        Validate.isTrue(a.getStart().equals(b.getStart()), "the start of all lines must be same date");
+        Validate.isTrue(a.size() == b.size(), "the end of all lines must be same date");
+    }
+
+    private final LocalDate startInclusive;
+
+    private final int[] seconds;
+
+    private EffortDaysLine(LocalDate startInclusive, int[] seconds) {
+        this.startInclusive = startInclusive;
+        this.seconds = seconds;
+    }
+
+    public boolean isNotValid() {
+        return startInclusive == null;
+    }
+
+    public LocalDate getStart() {
+        mustBeValid();
+        return startInclusive;
+    }
+
+    private void mustBeValid() {
+        if ( isNotValid() ) {
+            throw new IllegalStateException("this line is invalid");
+        }
+    }
+
+    public LocalDate getEndExclusive() {
+        return getStart().plusDays(seconds.length);
+    }
+
+    public int size() {
+        return seconds.length;
+    }
+
+    public boolean isEmpty() {
+        return seconds.length == 0;
+    }
+
+    public boolean includes(LocalDate day) {
+        if ( isNotValid() ) {
+            return false;
+        }
+        int index = indexOf(day);
+        return index >= 0 && index < seconds.length;
+    }
+
+    private int indexOf(LocalDate day) {
+        Validate.notNull(day);
+        return Days.daysBetween(startInclusive, day).getDays();
+    }
+
+    public EffortDuration get(LocalDate day) throws IndexOutOfBoundsException {
+        return EffortDuration.seconds(getSeconds(day));
+    }
+
+    public int getSeconds(LocalDate day) throws IndexOutOfBoundsException {
+        return seconds[checkedIndexOf(day)];
+    }
+
+    public void set(LocalDate day, EffortDuration effort) throws IndexOutOfBoundsException {
+        seconds[checkedIndexOf(day)] = effort.getSeconds();
+    }
+
+    /**
+     * Adds the effort to the one already kept for that day.
+     */
+    public void add(LocalDate day, EffortDuration effort) throws IndexOutOfBoundsException {
+        seconds[checkedIndexOf(day)] += effort.getSeconds();
+    }
+
+    private int checkedIndexOf(LocalDate day) {
+        mustBeValid();
+        int index = indexOf(day);
+        if ( index < 0 || index >= seconds.length ) {
+            throw new IndexOutOfBoundsException(day + " is not inside [" + startInclusive + ", "
+                    + getEndExclusive() + ")");
+        }
+        return index;
+    }
+
+    /**
+     * Adds in situ the efforts of another line with the same interval.
+     */
+    public void accumulate(EffortDaysLine other) {
+        if ( isNotValid() ) {
+            return;
+        }
+        checkSameInterval(this, other);
+        for (int i = 0; i < seconds.length; i++) {
+            seconds[i] += other.seconds[i];
+        }
+    }
+
+    /**
+     * Adds in situ the duration of each assignment on its day. The assignments out of the line are ignored.
+     */
+    public void accumulate(Collection<? extends DayAssignment> assignments) {
+        if ( isNotValid() ) {
+            return;
+        }
+        for (DayAssignment each : assignments) {
+            int index = indexOf(each.getDay());
+            if ( index >= 0 && index < seconds.length ) {
+                seconds[index] += each.getDuration().getSeconds();
+            }
+        }
+    }
+
+    public EffortDaysLine subInterval(LocalDate startInclusive, LocalDate endExclusive) {
+        if ( isNotValid() || startInclusive.compareTo(endExclusive) >= 0
+                || startInclusive.compareTo(getEndExclusive()) >= 0
+                || endExclusive.compareTo(getStart()) <= 0 ) {
+            return invalid();
+        }
+        int from = Math.max(indexOf(startInclusive), 0);
+        int to = Math.min(indexOf(endExclusive), seconds.length);
+        return new EffortDaysLine(this.startInclusive.plusDays(from), Arrays.copyOfRange(seconds, from, to));
+    }
+
+    public EffortDaysLine copy() {
+        return new EffortDaysLine(startInclusive, seconds.clone());
+    }
+
+    public SortedMap<LocalDate, EffortDuration> toSortedMap() {
+        SortedMap<LocalDate, EffortDuration> result = new TreeMap<>();
+        LocalDate day = startInclusive;
+        for (int each : seconds) {
+            result.put(day, EffortDuration.seconds(each));
+            day = day.plusDays(1);
+        }
+        return result;
+    }
+
+    public ContiguousDaysLine<EffortDuration> toContiguousDaysLine() {
+        if ( isNotValid() ) {
+            return ContiguousDaysLine.invalid();
+        }
+        ContiguousDaysLine<EffortDuration> result = ContiguousDaysLine.create(startInclusive, getEndExclusive());
+        LocalDate day = startInclusive;
+        for (int each : seconds) {
+            result.set(day, EffortDuration.seconds(each));
+            day = day.plusDays(1);
+        }
+        return result;
+    }
+
+}
@@ -22,8 +22,6 @@
 package org.libreplan.business.planner.chart;
 
 import static org.libreplan.business.planner.chart.ContiguousDaysLine.compound;
-import static org.libreplan.business.planner.chart.ContiguousDaysLine.sum;
-import static org.libreplan.business.planner.chart.ContiguousDaysLine.toSortedMap;
 import static org.libreplan.business.workingday.EffortDuration.min;
 
 import java.util.Collection;
@@ -34,11 +32,21 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 
+import org.apache.commons.lang3.Validate;
 import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.CalendarAvailability;
+import org.libreplan.business.calendars.entities.CalendarData;
+import org.libreplan.business.calendars.entities.CalendarException;
+import org.libreplan.business.hibernate.notification.DatabaseModification;
 import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.planner.chart.ContiguousDaysLine.IValueTransformer;
 import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workingday.EffortDuration.IEffortFrom;
@@ -55,11 +63,51 @@ import org.libreplan.business.workingday.IntraDayDate.PartialDay;
  */
 public class ResourceLoadChartData implements ILoadChartData {
 
-    private SortedMap<LocalDate, EffortDuration> load;
+    private EffortDaysLine load;
 
-    private SortedMap<LocalDate, EffortDuration> overload;
+    private EffortDaysLine overload;
 
-    private SortedMap<LocalDate, EffortDuration> availability;
+    private EffortDaysLine availability;
+
+    /**
+     * The effort assigned to each resource by day. It's only kept by the instances created with
+     * {@link #withBreakdownByResource(Map, List)}, so they can be updated when the day assignments of some resources
+     * change.
+     */
+    private Map<Long, SortedMap<LocalDate, EffortDuration>> assignedByResource;
+
+    private Map<Long, SortedMap<LocalDate, EffortDuration>> overloadByResource;
+
+    private SortedMap<LocalDate, EffortDuration> assigned;
+
+    private SortedMap<LocalDate, EffortDuration> overloaded;
+
+    /**
+     * Creates the chart data keeping the breakdown by resource of the load, so
+     * {@link #withAssignmentsReloaded(Collection, Map, List, Supplier)} can be used later on. The result is the same
+     * than the one got by {@link #ResourceLoadChartData(List, List)} with the day assignments the efforts come from.
+     *
+     * @param effortByResource
+     *            the effort assigned to each resource on each day, indexed by the id of the resource
+     * @param resources
+     *            all the resources
+     */
+    public static ResourceLoadChartData withBreakdownByResource(Map<Long, EffortDaysLine> effortByResource,
+                                                                List<Resource> resources) {
+
+        ResourceLoadChartData result = new ResourceLoadChartData();
+        result.assignedByResource = new HashMap<>();
+        result.overloadByResource = new HashMap<>();
+        result.assigned = new TreeMap<>();
+        result.overloaded = new TreeMap<>();
+        result.addResourcesEfforts(effortByResource, resources);
+        result.calculateChartValues(EffortDaysLine.invalid(), () -> resources);
+
+        return result;
+    }
+
+    private ResourceLoadChartData() {
+    }
 
     public ResourceLoadChartData(List<DayAssignment> dayAssignments, List<Resource> resources) {
         this(dayAssignments, resources, null, null);
@@ -70,22 +118,247 @@ public class ResourceLoadChartData implements ILoadChartData {
                                  LocalDate startInclusive,
                                  LocalDate endExclusive) {
 
-        ContiguousDaysLine<List<DayAssignment>> assignments = ContiguousDaysLine.byDay(dayAssignments);
+        EffortDaysLine days = EffortDaysLine.spanning(dayAssignments);
 
         if (startInclusive != null && endExclusive != null) {
-            assignments = assignments.subInterval(startInclusive, endExclusive);
+            days = days.subInterval(startInclusive, endExclusive);
         }
 
-        ContiguousDaysLine<EffortDuration> load = assignments.transform(extractLoad());
+        EffortDaysLine load = days.copy();
+        load.accumulate(dayAssignments);
 
-        ContiguousDaysLine<EffortDuration> overload = assignments.transform(extractOverload());
+        EffortDaysLine overload = overloadOf(dayAssignments, days.copy());
 
-        ContiguousDaysLine<EffortDuration> availabilityOnAllResources =
-                assignments.transform(extractAvailabilityOnAllResources(resources));
+        EffortDaysLine availabilityOnAllResources =
+                availabilityOf(() -> resources, days.copy(), EffortDaysLine.invalid());
 
-        this.load = toSortedMap(ContiguousDaysLine.min(load, availabilityOnAllResources));
-        this.overload = toSortedMap(sum(overload, availabilityOnAllResources));
-        this.availability = toSortedMap(availabilityOnAllResources);
+        this.load = EffortDaysLine.min(load, availabilityOnAllResources);
+        this.overload = EffortDaysLine.sum(overload, availabilityOnAllResources);
+        this.availability = availabilityOnAllResources;
+    }
+
+    /**
+     * Accumulates on the line the overload of each resource, the effort assigned to it over its capacity. The
+     * assignments of each resource are sorted by day, so the effort assigned on each day is added up without
+     * building a list per day.
+     */
+    private static EffortDaysLine overloadOf(List<DayAssignment> dayAssignments, EffortDaysLine result) {
+        if ( result.isNotValid() ) {
+            return result;
+        }
+        for (List<DayAssignment> each : DayAssignment.byResourceAndOrdered(dayAssignments).values()) {
+            int i = 0;
+            while (i < each.size()) {
+                DayAssignment first = each.get(i);
+                int assignedSeconds = 0;
+                for (; i < each.size() && each.get(i).getDay().equals(first.getDay()); i++) {
+                    assignedSeconds += each.get(i).getDuration().getSeconds();
+                }
+                if ( result.includes(first.getDay()) ) {
+                    EffortDuration assigned = EffortDuration.seconds(assignedSeconds);
+                    EffortDuration capacity =
+                            calendarCapacityFor(first.getResource(), PartialDay.wholeDay(first.getDay()));
+
+                    result.add(first.getDay(), assigned.minus(min(capacity, assigned)));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fills the line with the capacity of all the resources, reusing the values of the previous availability. The
+     * resources are only retrieved if some day is not included in the previous availability.
+     */
+    private static EffortDaysLine availabilityOf(Supplier<List<Resource>> allResources,
+                                                 EffortDaysLine result,
+                                                 EffortDaysLine previousAvailability) {
+        if ( result.isNotValid() ) {
+            return result;
+        }
+        List<Resource> resources = null;
+        for (LocalDate day = result.getStart(); day.isBefore(result.getEndExclusive()); day = day.plusDays(1)) {
+            if ( previousAvailability.includes(day) ) {
+                result.set(day, previousAvailability.get(day));
+            } else {
+                if ( resources == null ) {
+                    resources = allResources.get();
+                }
+                result.set(day, sumCalendarCapacitiesForDay(resources, day));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new chart data replacing the day assignments of the given resources, without modifying this one. The
+     * assignments of the rest of resources and the availability already calculated are reused.
+     *
+     * @param resourceIds
+     *            the ids of the resources whose day assignments have changed
+     * @param effortOfResources
+     *            the current effort assigned to those resources on each day, indexed by the id of the resource
+     * @param reloadedResources
+     *            the resources whose efforts are given
+     * @param allResources
+     *            gives all the resources, used to calculate the availability on the days not calculated yet. It's
+     *            only called if the chart spans some new day.
+     */
+    public ResourceLoadChartData withAssignmentsReloaded(Collection<Long> resourceIds,
+                                                         Map<Long, EffortDaysLine> effortOfResources,
+                                                         List<Resource> reloadedResources,
+                                                         Supplier<List<Resource>> allResources) {
+
+        Validate.isTrue(hasBreakdownByResource(), "the chart data has not been created with the breakdown by resource");
+
+        ResourceLoadChartData result = new ResourceLoadChartData();
+        result.assignedByResource = new HashMap<>(assignedByResource);
+        result.overloadByResource = new HashMap<>(overloadByResource);
+        result.assigned = new TreeMap<>(assigned);
+        result.overloaded = new TreeMap<>(overloaded);
+
+        for (Long each : resourceIds) {
+            subtract(result.assigned, result.assignedByResource.remove(each));
+            subtract(result.overloaded, result.overloadByResource.remove(each));
+        }
+        result.addResourcesEfforts(effortOfResources, reloadedResources);
+        result.calculateChartValues(availability, allResources);
+
+        return result;
+    }
+
+    /**
+     * Finds out which resources have a different load after some modifications. The changes on calendars or resources
+     * modify the availability, so the whole chart must be calculated again then. The same happens when a resource
+     * allocation or a task element is removed without reporting the removal of any day assignment, as its resources
+     * can't be known.
+     *
+     * @return the ids of the resources whose day assignments must be reloaded, or <code>null</code> if the whole chart
+     *         must be calculated again
+     */
+    public static Set<Long> resourcesToReload(Collection<? extends DatabaseModification> modifications) {
+        if ( DatabaseModification.anyOn(modifications,
+                CalendarAvailability.class, CalendarException.class, CalendarData.class, Resource.class) ) {
+            return null;
+        }
+        if ( !DatabaseModification.anyOn(modifications, DayAssignment.class) &&
+                (!DatabaseModification.deletedIdsOf(modifications, ResourceAllocation.class).isEmpty() ||
+                        !DatabaseModification.deletedIdsOf(modifications, TaskElement.class).isEmpty()) ) {
+            return null;
+        }
+
+        Set<Long> result = new HashSet<>();
+        result.addAll(DatabaseModification.referencesOf(modifications, DayAssignment.class, "resource"));
+        result.addAll(DatabaseModification.referencesOf(modifications, SpecificResourceAllocation.class, "resource"));
+
+        return result;
+    }
+
+    public boolean hasBreakdownByResource() {
+        return assignedByResource != null;
+    }
+
+    /**
+     * Only the days with some effort are kept, so the chart spans the days with effort assigned. The efforts of the
+     * resources not found among the given ones are ignored, as they have been removed meanwhile.
+     */
+    private void addResourcesEfforts(Map<Long, EffortDaysLine> effortByResource, List<Resource> resources) {
+        Map<Long, Resource> resourcesById = new HashMap<>();
+        for (Resource each : resources) {
+            resourcesById.put(each.getId(), each);
+        }
+
+        for (Entry<Long, EffortDaysLine> each : effortByResource.entrySet()) {
+            Resource resource = resourcesById.get(each.getKey());
+            if ( resource == null || each.getValue().isNotValid() ) {
+                continue;
+            }
+
+            SortedMap<LocalDate, EffortDuration> assignedByDay = new TreeMap<>();
+            SortedMap<LocalDate, EffortDuration> overloadByDay = new TreeMap<>();
+            EffortDaysLine line = each.getValue();
+            for (LocalDate day = line.getStart(); day.isBefore(line.getEndExclusive()); day = day.plusDays(1)) {
+                EffortDuration assignedOnDay = line.get(day);
+                if ( assignedOnDay.isZero() ) {
+                    continue;
+                }
+                EffortDuration capacity = calendarCapacityFor(resource, PartialDay.wholeDay(day));
+                assignedByDay.put(day, assignedOnDay);
+                overloadByDay.put(day, assignedOnDay.minus(min(capacity, assignedOnDay)));
+            }
+
+            assignedByResource.put(resource.getId(), assignedByDay);
+            overloadByResource.put(resource.getId(), overloadByDay);
+            addAll(assigned, assignedByDay);
+            addAll(overloaded, overloadByDay);
+        }
+    }
+
+    private static void add(SortedMap<LocalDate, EffortDuration> byDay, LocalDate day, EffortDuration effort) {
+        EffortDuration previous = byDay.get(day);
+        byDay.put(day, previous == null ? effort : previous.plus(effort));
+    }
+
+    private static void addAll(SortedMap<LocalDate, EffortDuration> byDay,
+                               SortedMap<LocalDate, EffortDuration> toAdd) {
+
+        for (Entry<LocalDate, EffortDuration> each : toAdd.entrySet()) {
+            add(byDay, each.getKey(), each.getValue());
+        }
+    }
+
+    /**
+     * The days are kept even if they end up with a zero effort, they are ignored later if they are out of the
+     * interval of the day assignments.
+     */
+    private static void subtract(SortedMap<LocalDate, EffortDuration> byDay,
+                                 SortedMap<LocalDate, EffortDuration> toSubtract) {
+
+        if ( toSubtract == null ) {
+            return;
+        }
+        for (Entry<LocalDate, EffortDuration> each : toSubtract.entrySet()) {
+            byDay.put(each.getKey(), byDay.get(each.getKey()).minus(each.getValue()));
+        }
+    }
+
+    /**
+     * The chart goes from the first to the last day with some day assignment, as {@link ContiguousDaysLine#byDay}
+     * does.
+     */
+    private void calculateChartValues(EffortDaysLine previousAvailability, Supplier<List<Resource>> allResources) {
+
+        LocalDate first = null;
+        LocalDate last = null;
+        for (SortedMap<LocalDate, EffortDuration> each : assignedByResource.values()) {
+            if ( each.isEmpty() ) {
+                continue;
+            }
+            first = first == null || each.firstKey().isBefore(first) ? each.firstKey() : first;
+            last = last == null || each.lastKey().isAfter(last) ? each.lastKey() : last;
+        }
+        if ( first == null ) {
+            this.load = EffortDaysLine.invalid();
+            this.overload = EffortDaysLine.invalid();
+            this.availability = EffortDaysLine.invalid();
+            return;
+        }
+
+        EffortDaysLine days = EffortDaysLine.create(first, last.plusDays(1));
+        EffortDaysLine assignedLine = lineOf(days, assigned);
+        EffortDaysLine availabilityLine = availabilityOf(allResources, days.copy(), previousAvailability);
+
+        this.load = EffortDaysLine.min(assignedLine, availabilityLine);
+        this.overload = EffortDaysLine.sum(lineOf(days, overloaded), availabilityLine);
+        this.availability = availabilityLine;
+    }
+
+    private static EffortDaysLine lineOf(EffortDaysLine days, SortedMap<LocalDate, EffortDuration> byDay) {
+        EffortDaysLine result = days.copy();
+        for (Entry<LocalDate, EffortDuration> each : byDay.subMap(days.getStart(), days.getEndExclusive()).entrySet()) {
+            result.set(each.getKey(), each.getValue());
+        }
+        return result;
     }
 
     public static IValueTransformer<List<DayAssignment>, EffortDuration> extractOverload() {
@@ -157,28 +430,16 @@ public class ResourceLoadChartData implements ILoadChartData {
         };
     }
 
-    private IValueTransformer<List<DayAssignment>, EffortDuration> extractAvailabilityOnAllResources(
-            final List<Resource> resources) {
-
-        return new IValueTransformer<List<DayAssignment>, EffortDuration>() {
-
-            @Override
-            public EffortDuration transform(LocalDate day, List<DayAssignment> previousValue) {
-                return sumCalendarCapacitiesForDay(resources, day);
-            }
-        };
-    }
-
     public SortedMap<LocalDate, EffortDuration> getLoad() {
-        return load;
+        return load.toSortedMap();
     }
 
     public SortedMap<LocalDate, EffortDuration> getOverload() {
-        return overload;
+        return overload.toSortedMap();
     }
 
     public SortedMap<LocalDate, EffortDuration> getAvailability() {
-        return availability;
+        return availability.toSortedMap();
     }
 
     public ILoadChartData on(final LocalDate startInclusive, final LocalDate endExclusive) {
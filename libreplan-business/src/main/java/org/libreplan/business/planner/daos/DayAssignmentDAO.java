@@ -22,21 +22,33 @@
 package org.libreplan.business.planner.daos;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
 import org.hibernate.Query;
+import org.hibernate.SQLQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.type.DateType;
+import org.hibernate.type.LongType;
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.GenericDAOHibernate;
+import org.libreplan.business.planner.chart.EffortDaysLine;
 import org.libreplan.business.planner.entities.DayAssignment;
 import org.libreplan.business.planner.entities.DerivedDayAssignment;
 import org.libreplan.business.planner.entities.GenericDayAssignment;
 import org.libreplan.business.planner.entities.SpecificDayAssignment;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Repository;
@@ -52,7 +64,18 @@ import org.springframework.stereotype.Repository;
 @Scope(BeanDefinition.SCOPE_SINGLETON)
 public class DayAssignmentDAO extends GenericDAOHibernate<DayAssignment, Long> implements IDayAssignmentDAO {
 
-    private final String SCENARIO = "scenario";
+    private static final String SCENARIO = "scenario";
+
+    /**
+     * Prefixes of the tables and columns of each kind of day assignments
+     * container
+     */
+    private static final List<String> CONTAINER_KINDS = Arrays.asList("specific", "generic", "derived");
+
+    /**
+     * Maximum number of values in the <code>IN</code> clauses of the queries
+     */
+    private static final int IN_CLAUSE_SIZE = 500;
 
     @Override
     public void removeDerived(Collection<? extends DerivedDayAssignment> assignments) {
@@ -178,12 +201,6 @@ public class DayAssignmentDAO extends GenericDAOHibernate<DayAssignment, Long> i
         }
     }
 
-    @Override
-    public List<DayAssignment> findByResources(Scenario scenario, List<Resource> resources) {
-        // TODO incorporate scenario filtering to the query instead of doing it in memory
-        return DayAssignment.withScenario(scenario, findByResources(resources));
-    }
-
     @Override
     public List<DayAssignment> findByResources(List<Resource> resources) {
         return resources.isEmpty()
@@ -194,4 +211,165 @@ public class DayAssignmentDAO extends GenericDAOHibernate<DayAssignment, Long> i
                     .list();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Long, List<DayAssignment>> getAllForResources(
+            Scenario scenario, LocalDate startDateInclusive, LocalDate endDateInclusive,
+            Collection<? extends Resource> resources) {
+
+        Map<Long, List<DayAssignment>> result = new HashMap<>();
+        for (List<Long> chunk : chunksOfIds(resources)) {
+            String queryString = unionForAllContainers("d.*", startDateInclusive, endDateInclusive) +
+                    " order by resource_id, day";
+
+            SQLQuery query = getSession().createSQLQuery(queryString);
+            query.addEntity(DayAssignment.class);
+            addUnionParameters(query, scenario, startDateInclusive, endDateInclusive, chunk);
+
+            for (DayAssignment each : (List<DayAssignment>) query.list()) {
+                Long resourceId = each.getResource().getId();
+                List<DayAssignment> assignments = result.get(resourceId);
+                if ( assignments == null ) {
+                    assignments = new ArrayList<>();
+                    result.put(resourceId, assignments);
+                }
+                assignments.add(each);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Long, EffortDaysLine> getEffortPerResource(
+            Scenario scenario, LocalDate startDateInclusive, LocalDate endDateInclusive,
+            Collection<? extends Resource> resources) {
+
+        if ( startDateInclusive == null || endDateInclusive == null ) {
+            LocalDate[] firstAndLast = findFirstAndLastDays(scenario, startDateInclusive, endDateInclusive, resources);
+            if ( firstAndLast == null ) {
+                return new HashMap<>();
+            }
+            return getEffortPerResource(scenario,
+                    startDateInclusive != null ? startDateInclusive : firstAndLast[0],
+                    endDateInclusive != null ? endDateInclusive : firstAndLast[1],
+                    resources);
+        }
+        LocalDate endExclusive = endDateInclusive.plusDays(1);
+
+        Map<Long, EffortDaysLine> result = new HashMap<>();
+        for (List<Long> chunk : chunksOfIds(resources)) {
+            String queryString = "select u.resource_id as resource_id, u.day as day, sum(u.duration) as seconds " +
+                    "from (" + unionForAllContainers("d.resource_id, d.day, d.duration",
+                                                     startDateInclusive, endDateInclusive) + ") u " +
+                    "group by u.resource_id, u.day";
+
+            SQLQuery query = getSession().createSQLQuery(queryString);
+            query.addScalar("resource_id", LongType.INSTANCE)
+                    .addScalar("day", DateType.INSTANCE)
+                    .addScalar("seconds", LongType.INSTANCE);
+            addUnionParameters(query, scenario, startDateInclusive, endDateInclusive, chunk);
+
+            ScrollableResults rows = query.scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (rows.next()) {
+                    Long resourceId = rows.getLong(0);
+                    EffortDaysLine line = result.get(resourceId);
+                    if ( line == null ) {
+                        line = EffortDaysLine.create(startDateInclusive, endExclusive);
+                        result.put(resourceId, line);
+                    }
+                    line.add(LocalDate.fromDateFields(rows.getDate(1)),
+                            EffortDuration.seconds(rows.getLong(2).intValue()));
+                }
+            } finally {
+                rows.close();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the first and the last day with some day assignment of the
+     *         resources between the dates specified, or <code>null</code> if
+     *         there are none
+     */
+    private LocalDate[] findFirstAndLastDays(Scenario scenario,
+                                             LocalDate startDateInclusive, LocalDate endDateInclusive,
+                                             Collection<? extends Resource> resources) {
+
+        LocalDate[] result = null;
+        for (List<Long> chunk : chunksOfIds(resources)) {
+            String queryString = "select min(u.day) as first, max(u.day) as last " +
+                    "from (" + unionForAllContainers("d.day", startDateInclusive, endDateInclusive) + ") u";
+
+            SQLQuery query = getSession().createSQLQuery(queryString);
+            query.addScalar("first", DateType.INSTANCE)
+                    .addScalar("last", DateType.INSTANCE);
+            addUnionParameters(query, scenario, startDateInclusive, endDateInclusive, chunk);
+
+            Object[] row = (Object[]) query.uniqueResult();
+            if ( row == null || row[0] == null ) {
+                continue;
+            }
+            LocalDate first = LocalDate.fromDateFields((Date) row[0]);
+            LocalDate last = LocalDate.fromDateFields((Date) row[1]);
+            if ( result == null ) {
+                result = new LocalDate[] { first, last };
+            } else {
+                result[0] = first.isBefore(result[0]) ? first : result[0];
+                result[1] = last.isAfter(result[1]) ? last : result[1];
+            }
+        }
+        return result;
+    }
+
+    private static List<List<Long>> chunksOfIds(Collection<? extends Resource> resources) {
+        List<Long> ids = new ArrayList<>();
+        for (Resource each : resources) {
+            if ( each.getId() != null ) {
+                ids.add(each.getId());
+            }
+        }
+
+        List<List<Long>> result = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += IN_CLAUSE_SIZE) {
+            result.add(ids.subList(i, Math.min(i + IN_CLAUSE_SIZE, ids.size())));
+        }
+        return result;
+    }
+
+    /**
+     * SQL joining the day assignments of the resources with each kind of
+     * container in the scenario at once. It's not possible to express it in
+     * HQL, as the three kinds of day assignments share the same table but are
+     * mapped as different subclasses. The indexes on
+     * <code>(resource_id, day, &lt;kind&gt;_container_id)</code> let the
+     * database find the rows of each resource in the window directly.
+     */
+    private static String unionForAllContainers(String select, LocalDate initInclusive, LocalDate endInclusive) {
+        List<String> result = new ArrayList<>();
+        for (String kind : CONTAINER_KINDS) {
+            result.add("select " + select + " from day_assignment d " +
+                    "join " + kind + "_day_assignments_container c on d." + kind + "_container_id = c.id " +
+                    "where c.scenario = :scenario and d.resource_id in (:resourceIds)" +
+                    (initInclusive != null ? " and d.day >= :init" : "") +
+                    (endInclusive != null ? " and d.day <= :end" : ""));
+        }
+        return StringUtils.join(result, " union all ");
+    }
+
+    private static void addUnionParameters(SQLQuery query, Scenario scenario,
+                                           LocalDate initInclusive, LocalDate endInclusive,
+                                           List<Long> resourceIds) {
+
+        query.setParameter(SCENARIO, scenario.getId());
+        query.setParameterList("resourceIds", resourceIds);
+        if ( initInclusive != null ) {
+            query.setDate("init", initInclusive.toDate());
+        }
+        if ( endInclusive != null ) {
+            query.setDate("end", endInclusive.toDate());
+        }
+    }
+
 }
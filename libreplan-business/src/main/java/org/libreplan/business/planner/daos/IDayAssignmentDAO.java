@@ -23,9 +23,11 @@ package org.libreplan.business.planner.daos;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IGenericDAO;
+import org.libreplan.business.planner.chart.EffortDaysLine;
 import org.libreplan.business.planner.entities.DayAssignment;
 import org.libreplan.business.planner.entities.DerivedDayAssignment;
 import org.libreplan.business.resources.entities.Resource;
@@ -54,8 +56,28 @@ public interface IDayAssignmentDAO extends IGenericDAO<DayAssignment, Long> {
 
     List<DayAssignment> listFilteredByDate(LocalDate init, LocalDate end);
 
-    public List<DayAssignment> findByResources(Scenario scenario, List<Resource> resources);
-
     public List<DayAssignment> findByResources(List<Resource> resources);
 
+    /**
+     * Returns the day assignments of the resources passed between the dates
+     * specified in the scenario, indexed by the id of the resource and sorted
+     * by day. The dates are optional. The specific, generic and derived
+     * assignments are retrieved with a single query.
+     */
+    Map<Long, List<DayAssignment>> getAllForResources(Scenario scenario,
+            LocalDate startDateInclusive, LocalDate endDateInclusive,
+            Collection<? extends Resource> resources);
+
+    /**
+     * Returns the effort assigned to each of the resources passed on each day
+     * between the dates specified in the scenario, summed up in the database.
+     * The result is indexed by the id of the resource and the resources
+     * without effort assigned are not included. The dates are optional, the
+     * lines go from the first to the last day with effort assigned to any of
+     * the resources when they are not specified.
+     */
+    Map<Long, EffortDaysLine> getEffortPerResource(Scenario scenario,
+            LocalDate startDateInclusive, LocalDate endDateInclusive,
+            Collection<? extends Resource> resources);
+
 }
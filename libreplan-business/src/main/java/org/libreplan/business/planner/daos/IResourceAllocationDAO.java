@@ -27,9 +27,11 @@ import java.util.Map;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IGenericDAO;
+import org.libreplan.business.planner.entities.AssignedTaskSummary;
 import org.libreplan.business.planner.entities.GenericResourceAllocation;
 import org.libreplan.business.planner.entities.ResourceAllocation;
 import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.scenarios.entities.Scenario;
@@ -55,6 +57,22 @@ public interface IResourceAllocationDAO extends
             Scenario onScenario, List<Resource> resources,
             LocalDate intervalFilterStartDate, LocalDate intervalFilterEndDate);
 
+    /**
+     * Returns the data of the {@link Task tasks} with a
+     * {@link SpecificResourceAllocation} of the given <code>resource</code>
+     * that overlap the interval, without loading the tasks nor their
+     * allocations. All of them are read with a fixed number of queries,
+     * whatever the number of tasks.
+     *
+     * @param intervalFilterStartDate
+     *            It can be <code>null</code>
+     * @param intervalFilterEndDate
+     *            It can be <code>null</code>
+     */
+    List<AssignedTaskSummary> getAssignedTaskSummaries(
+            Scenario onScenario, Resource resource,
+            LocalDate intervalFilterStartDate, LocalDate intervalFilterEndDate);
+
     List<ResourceAllocation<?>> findAllocationsRelatedTo(Scenario onScenario,
             Resource resource,
             LocalDate intervalFilterStartDate, LocalDate intervalFilterEndDate);
@@ -21,8 +21,10 @@
 
 package org.libreplan.business.planner.daos;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 import org.libreplan.business.common.daos.IGenericDAO;
 import org.libreplan.business.planner.entities.TaskElement;
@@ -44,4 +46,15 @@ public interface ITaskElementDAO extends IGenericDAO<TaskElement, Long> {
 
     List<TaskElement> getTaskElementsWithParentsWithoutMilestones();
 
+    /**
+     * Returns the ids of the tasks owning the given resource allocations.
+     */
+    Set<Long> findTaskIdsByResourceAllocations(Collection<Long> resourceAllocationIds);
+
+    /**
+     * Returns the ids of the tasks owning the given specific and generic day assignments containers.
+     */
+    Set<Long> findTaskIdsByDayAssignmentsContainers(Collection<Long> specificContainerIds,
+                                                    Collection<Long> genericContainerIds);
+
 }
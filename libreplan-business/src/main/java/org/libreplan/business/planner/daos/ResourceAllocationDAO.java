@@ -21,6 +21,7 @@
 
 package org.libreplan.business.planner.daos;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -34,15 +35,23 @@ import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.hibernate.Query;
+import org.hibernate.SQLQuery;
 import org.hibernate.Session;
+import org.hibernate.type.LongType;
 import org.joda.time.LocalDate;
+import org.libreplan.business.advance.entities.AdvanceMeasurement;
 import org.libreplan.business.common.daos.GenericDAOHibernate;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.planner.entities.AssignedTaskSummary;
 import org.libreplan.business.planner.entities.GenericResourceAllocation;
 import org.libreplan.business.planner.entities.ResourceAllocation;
 import org.libreplan.business.planner.entities.SpecificResourceAllocation;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.scenarios.entities.OrderVersion;
 import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Repository;
@@ -58,6 +67,11 @@ public class ResourceAllocationDAO
         extends GenericDAOHibernate<ResourceAllocation, Long>
         implements IResourceAllocationDAO {
 
+    /**
+     * Maximum number of values in the <code>IN</code> clauses of the queries
+     */
+    private static final int IN_CLAUSE_SIZE = 500;
+
     @Override
     public List<ResourceAllocation<?>> findAllocationsRelatedToAnyOf(Scenario onScenario, List<Resource> resources) {
         List<ResourceAllocation<?>> result = new ArrayList<>();
@@ -159,6 +173,175 @@ public class ResourceAllocationDAO
         return (List<SpecificResourceAllocation>) queryBuilder.build(getSession()).list();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<AssignedTaskSummary> getAssignedTaskSummaries(
+            final Scenario onScenario,
+            final Resource resource,
+            final LocalDate intervalFilterStartDate,
+            final LocalDate intervalFilterEndDate) {
+
+        QueryBuilder queryBuilder = new QueryBuilder() {
+
+            @Override
+            protected String getBaseQuery() {
+                return "select distinct task.id, task.name, orderElement.infoComponent.code, "
+                        + "o.infoComponent.code, o.infoComponent.name, "
+                        + "orderElement.id, orderElement.infoComponent.description, "
+                        + "task.startDate.date, task.endDate.date, task.advancePercentage "
+                        + "from SpecificResourceAllocation specific "
+                        + "join specific.task task";
+            }
+
+            @Override
+            protected String getBaseConditions() {
+                return "where specific.resource = :resource";
+            }
+
+            @Override
+            protected void setBaseParameters(Query query) {
+                query.setParameter("resource", resource);
+            }
+
+            @Override
+            protected IQueryPart[] getExtraParts() {
+                return new IQueryPart[] {
+                        new DatesInterval("task", intervalFilterStartDate, intervalFilterEndDate),
+                        new OnScenario("task", onScenario),
+                        new OrderOfVersion("o") };
+            }
+        };
+        List<Object[]> rows = queryBuilder.build(getSession()).list();
+        if (rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> taskIds = new ArrayList<>();
+        List<Long> orderElementIds = new ArrayList<>();
+        for (Object[] each : rows) {
+            taskIds.add((Long) each[0]);
+            orderElementIds.add((Long) each[5]);
+        }
+        Map<Long, EffortDuration> assignedEfforts = getAssignedEffortByTask(onScenario, taskIds);
+        Map<Long, EffortDuration> chargedEfforts = getChargedEffortByOrderElement(orderElementIds);
+        Map<Long, AdvanceMeasurement> lastMeasurements = getLastAdvanceMeasurementByOrderElement(orderElementIds);
+
+        List<AssignedTaskSummary> result = new ArrayList<>();
+        for (Object[] each : rows) {
+            AdvanceMeasurement lastMeasurement = lastMeasurements.get(each[5]);
+            result.add(new AssignedTaskSummary((Long) each[0], (String) each[1], (String) each[2],
+                    (String) each[3], (String) each[4], (String) each[6],
+                    (LocalDate) each[7], (LocalDate) each[8],
+                    assignedEfforts.get(each[0]), chargedEfforts.get(each[5]), (BigDecimal) each[9],
+                    lastMeasurement != null ? lastMeasurement.getValue() : null,
+                    lastMeasurement != null ? lastMeasurement.getDate() : null));
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link ResourceAllocation#getAssignedEffort()} summed for all the
+     * allocations of each task, the derived allocations are not included
+     */
+    private Map<Long, EffortDuration> getAssignedEffortByTask(Scenario scenario, List<Long> taskIds) {
+        Map<Long, EffortDuration> result = new HashMap<>();
+        for (List<Long> chunk : chunks(taskIds)) {
+            List<String> unions = new ArrayList<>();
+            for (String kind : Arrays.asList("specific", "generic")) {
+                unions.add("select a.task as task_id, d.duration as duration from day_assignment d " +
+                        "join " + kind + "_day_assignments_container c on d." + kind + "_container_id = c.id " +
+                        "join resource_allocation a on c.resource_allocation_id = a.id " +
+                        "where c.scenario = :scenario and a.task in (:taskIds)");
+            }
+            String queryString = "select u.task_id as task_id, sum(u.duration) as seconds " +
+                    "from (" + StringUtils.join(unions, " union all ") + ") u " +
+                    "group by u.task_id";
+
+            SQLQuery query = getSession().createSQLQuery(queryString);
+            query.addScalar("task_id", LongType.INSTANCE)
+                    .addScalar("seconds", LongType.INSTANCE);
+            query.setParameter("scenario", scenario.getId())
+                    .setParameterList("taskIds", chunk);
+
+            for (Object each : query.list()) {
+                Object[] row = (Object[]) each;
+                result.put((Long) row[0], EffortDuration.seconds(((Long) row[1]).intValue()));
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, EffortDuration> getChargedEffortByOrderElement(List<Long> orderElementIds) {
+        Map<Long, EffortDuration> result = new HashMap<>();
+        for (List<Long> chunk : chunks(orderElementIds)) {
+            List<Object[]> rows = getSession()
+                    .createQuery("select charged.orderElement.id, "
+                            + "charged.directChargedEffort, charged.indirectChargedEffort "
+                            + "from SumChargedEffort charged where charged.orderElement.id in (:ids)")
+                    .setParameterList("ids", chunk)
+                    .list();
+
+            for (Object[] each : rows) {
+                result.put((Long) each[0], EffortDuration.sum(
+                        valueOrZero((EffortDuration) each[1]), valueOrZero((EffortDuration) each[2])));
+            }
+        }
+        return result;
+    }
+
+    private static EffortDuration valueOrZero(EffortDuration effort) {
+        return effort != null ? effort : EffortDuration.zero();
+    }
+
+    /**
+     * Like {@link OrderElement#getLastAdvanceMeasurement()}. The measurements
+     * of the direct assignments are read at once, the order elements
+     * reporting an indirect assignment are loaded to calculate it.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, AdvanceMeasurement> getLastAdvanceMeasurementByOrderElement(List<Long> orderElementIds) {
+        Map<Long, AdvanceMeasurement> result = new HashMap<>();
+        for (List<Long> chunk : chunks(orderElementIds)) {
+            List<Object[]> rows = getSession()
+                    .createQuery("select assignment.orderElement.id, measurement "
+                            + "from DirectAdvanceAssignment assignment "
+                            + "join assignment.advanceMeasurements measurement "
+                            + "where assignment.reportGlobalAdvance = true "
+                            + "and assignment.orderElement.id in (:ids) "
+                            + "and measurement.date = (select max(other.date) from AdvanceMeasurement other "
+                            + "where other.advanceAssignment = assignment)")
+                    .setParameterList("ids", chunk)
+                    .list();
+
+            for (Object[] each : rows) {
+                result.put((Long) each[0], (AdvanceMeasurement) each[1]);
+            }
+
+            List<OrderElement> withIndirect = getSession()
+                    .createQuery("select assignment.orderElement from IndirectAdvanceAssignment assignment "
+                            + "where assignment.reportGlobalAdvance = true "
+                            + "and assignment.orderElement.id in (:ids)")
+                    .setParameterList("ids", chunk)
+                    .list();
+
+            for (OrderElement each : withIndirect) {
+                if (!result.containsKey(each.getId())) {
+                    result.put(each.getId(), each.getLastAdvanceMeasurement());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> result = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += IN_CLAUSE_SIZE) {
+            result.add(ids.subList(i, Math.min(i + IN_CLAUSE_SIZE, ids.size())));
+        }
+        return result;
+    }
+
     @Override
     public List<ResourceAllocation<?>> findAllocationsRelatedTo(
             Scenario onScenario,
@@ -585,4 +768,33 @@ public class ResourceAllocationDAO
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Joins the {@link Order} of the <code>version</code> joined by
+     * {@link OnScenario}, so it must go after it. Each {@link OrderVersion}
+     * belongs to only one order.
+     */
+    private static class OrderOfVersion implements IQueryPart {
+
+        private final String orderAlias;
+
+        private OrderOfVersion(String orderAlias) {
+            this.orderAlias = orderAlias;
+        }
+
+        @Override
+        public String queryPart() {
+            return ", Order as " + orderAlias + " join " + orderAlias
+                    + ".schedulingDataForVersion as orderSchedulingData ";
+        }
+
+        @Override
+        public String wherePart() {
+            return "key(orderSchedulingData) = version";
+        }
+
+        @Override
+        public void injectParameters(Query query) {
+        }
+    }
+
+}
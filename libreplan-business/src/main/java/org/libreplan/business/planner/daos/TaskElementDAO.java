@@ -21,8 +21,11 @@
 
 package org.libreplan.business.planner.daos;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.hibernate.Criteria;
 import org.hibernate.Hibernate;
@@ -155,4 +158,34 @@ public class TaskElementDAO extends GenericDAOHibernate<TaskElement, Long> imple
         return query.list();
     }
 
+    @Override
+    public Set<Long> findTaskIdsByResourceAllocations(Collection<Long> resourceAllocationIds) {
+        return findIds("SELECT r.task.id FROM ResourceAllocation r WHERE r.id IN (:ids)", resourceAllocationIds);
+    }
+
+    @Override
+    public Set<Long> findTaskIdsByDayAssignmentsContainers(Collection<Long> specificContainerIds,
+                                                           Collection<Long> genericContainerIds) {
+        Set<Long> result = new HashSet<>();
+        result.addAll(findIds(
+                "SELECT c.resourceAllocation.task.id FROM SpecificDayAssignmentsContainer c WHERE c.id IN (:ids)",
+                specificContainerIds));
+
+        result.addAll(findIds(
+                "SELECT c.resourceAllocation.task.id FROM GenericDayAssignmentsContainer c WHERE c.id IN (:ids)",
+                genericContainerIds));
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> findIds(String strQuery, Collection<Long> ids) {
+        if ( ids.isEmpty() ) {
+            return new HashSet<>();
+        }
+        Query query = getSession().createQuery(strQuery);
+        query.setParameterList("ids", ids);
+        return new HashSet<>((List<Long>) query.list());
+    }
+
 }
@@ -0,0 +1,169 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.libreplan.business.planner.entities;
+
+import java.math.BigDecimal;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.LocalDate;
+import org.libreplan.business.advance.entities.AdvanceMeasurement;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Data of a {@link Task} allocated to a {@link Resource} needed to show it in
+ * the list of tasks of the resource, read without loading the entities. Once
+ * it is created it is not modified, so it can be shared.
+ */
+public class AssignedTaskSummary {
+
+    private final Long taskId;
+
+    private final String name;
+
+    private final String code;
+
+    private final String orderCode;
+
+    private final String orderName;
+
+    private final String description;
+
+    private final LocalDate startDate;
+
+    private final LocalDate endDate;
+
+    private final EffortDuration assignedEffort;
+
+    private final EffortDuration chargedEffort;
+
+    private final BigDecimal advancePercentage;
+
+    private final BigDecimal lastAdvanceValue;
+
+    private final LocalDate lastAdvanceDate;
+
+    public AssignedTaskSummary(Long taskId, String name, String code,
+                               String orderCode, String orderName, String description,
+                               LocalDate startDate, LocalDate endDate,
+                               EffortDuration assignedEffort, EffortDuration chargedEffort,
+                               BigDecimal advancePercentage,
+                               BigDecimal lastAdvanceValue, LocalDate lastAdvanceDate) {
+        Validate.notNull(taskId);
+        this.taskId = taskId;
+        this.name = name;
+        this.code = code;
+        this.orderCode = orderCode;
+        this.orderName = orderName;
+        this.description = description;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.assignedEffort = assignedEffort != null ? assignedEffort : EffortDuration.zero();
+        this.chargedEffort = chargedEffort != null ? chargedEffort : EffortDuration.zero();
+        this.advancePercentage = advancePercentage != null ? advancePercentage : BigDecimal.ZERO;
+        this.lastAdvanceValue = lastAdvanceValue;
+        this.lastAdvanceDate = lastAdvanceDate;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the code of the {@link OrderElement} of the task
+     */
+    public String getCode() {
+        return code;
+    }
+
+    public String getOrderCode() {
+        return orderCode;
+    }
+
+    /**
+     * @return the name of the {@link Order} of the task
+     */
+    public String getOrderName() {
+        return orderName;
+    }
+
+    /**
+     * @return the description of the {@link OrderElement} of the task
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * @see TaskElement#getSumOfAssignedEffort()
+     */
+    public EffortDuration getAssignedEffort() {
+        return assignedEffort;
+    }
+
+    /**
+     * @return the effort charged in timesheets to the {@link OrderElement} of
+     *         the task
+     */
+    public EffortDuration getChargedEffort() {
+        return chargedEffort;
+    }
+
+    /**
+     * @see TaskElement#getAdvancePercentage()
+     */
+    public BigDecimal getAdvancePercentage() {
+        return advancePercentage;
+    }
+
+    public boolean isFinished() {
+        return advancePercentage.compareTo(BigDecimal.ONE) >= 0;
+    }
+
+    /**
+     * @return the value of the last {@link AdvanceMeasurement} of the progress
+     *         reported by the {@link OrderElement} of the task, or
+     *         <code>null</code> if there isn't any
+     * @see OrderElement#getLastAdvanceMeasurement()
+     */
+    public BigDecimal getLastAdvanceValue() {
+        return lastAdvanceValue;
+    }
+
+    public LocalDate getLastAdvanceDate() {
+        return lastAdvanceDate;
+    }
+
+}
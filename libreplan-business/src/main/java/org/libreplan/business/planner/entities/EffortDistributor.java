@@ -26,8 +26,6 @@ import static org.libreplan.business.workingday.EffortDuration.seconds;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -35,7 +33,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import org.apache.commons.collections4.ComparatorUtils;
 import org.apache.commons.lang3.Validate;
 import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.Capacity;
@@ -214,7 +211,7 @@ public class EffortDistributor {
             this.calendar = generateCalendarFor(resource);
         }
 
-        ResourceWithAvailableCapacity withAvailableCapacityOn(PartialDay day, IAssignedEffortForResource assignedEffort) {
+        int getAvailableSecondsOn(PartialDay day, IAssignedEffortForResource assignedEffort) {
             EffortDuration allCapacityForDay = calendar.getCapacityOn(PartialDay.wholeDay(day.getDate()));
             EffortDuration capacity = calendar.getCapacityOn(day);
 
@@ -223,9 +220,7 @@ public class EffortDistributor {
             EffortDuration assigned = assignedEffort.getAssignedDurationAt(resource, day.getDate());
             EffortDuration assignedInterfering = assigned.minus(min(assigned, capacityForAlreadyAssigned));
 
-            EffortDuration available = capacity.minus(min(assignedInterfering, capacity));
-
-            return new ResourceWithAvailableCapacity(resource, available);
+            return capacity.minus(min(assignedInterfering, capacity)).getSeconds();
         }
 
         Capacity getAvailableCapacityOn(PartialDay day, IAssignedEffortForResource assignedEffort) {
@@ -236,51 +231,6 @@ public class EffortDistributor {
 
     }
 
-    /**
-     * Note: this class has a natural ordering that is inconsistent with equals.
-     */
-    private static class ResourceWithAvailableCapacity implements Comparable<ResourceWithAvailableCapacity> {
-
-        private final Resource resource;
-
-        private final EffortDuration available;
-
-        public ResourceWithAvailableCapacity(Resource resource, EffortDuration available) {
-            Validate.notNull(resource);
-            Validate.notNull(available);
-            this.resource = resource;
-            this.available = available;
-        }
-
-        public ResourceWithAssignedDuration doBiggestAssignationPossible(EffortDuration remaining) {
-            return new ResourceWithAssignedDuration(EffortDuration.min(remaining, available), resource);
-        }
-
-        @Override
-        public int compareTo(ResourceWithAvailableCapacity o) {
-            return available.compareTo(o.available);
-        }
-
-        @SuppressWarnings("unchecked")
-        static Comparator<ResourceWithAvailableCapacity> getComparatorConsidering(final Set<Resource> lastResourcesUsed) {
-            return ComparatorUtils.chainedComparator(
-                    new Comparator<ResourceWithAvailableCapacity>() {
-                        @Override
-                        public int compare(ResourceWithAvailableCapacity o1, ResourceWithAvailableCapacity o2) {
-                            boolean resource1Used = lastResourcesUsed.contains(o1.resource);
-                            boolean resource2Used = lastResourcesUsed.contains(o2.resource);
-                            return asInt(resource1Used) - asInt(resource2Used);
-                        }
-
-                        int asInt(boolean b) {
-                            return b ? 1 : 0;
-                        }
-                    },
-                    ComparatorUtils.naturalComparator());
-        }
-
-    }
-
     private final List<ResourceWithDerivedData> resources;
 
     private final IAssignedEffortForResource assignedEffortForResource;
@@ -289,6 +239,16 @@ public class EffortDistributor {
 
     private Set<Resource> resourcesAlreadyPicked = new HashSet<>();
 
+    /**
+     * Buffers reused by each day distributed, indexed by the position of the
+     * resource among the ones assignable that day
+     */
+    private final int[] assignable;
+
+    private final int[] availableSeconds;
+
+    private final long[] fromMoreToLessDesirable;
+
     public EffortDistributor(List<Resource> resources, IAssignedEffortForResource assignedHoursForResource) {
         this(resources, assignedHoursForResource, null);
     }
@@ -298,6 +258,9 @@ public class EffortDistributor {
         this.resources = ResourceWithDerivedData.from(resources);
         this.assignedEffortForResource = assignedEffortForResource;
         this.resourceSelector = selector != null ? new CompoundSelector(new OnlyCanWork(), selector) : new OnlyCanWork();
+        this.assignable = new int[resources.size()];
+        this.availableSeconds = new int[resources.size()];
+        this.fromMoreToLessDesirable = new long[resources.size()];
     }
 
     public Capacity getCapacityAt(PartialDay day) {
@@ -319,10 +282,10 @@ public class EffortDistributor {
     }
 
     private List<ResourceWithAssignedDuration> distributeForDay_(PartialDay day, EffortDuration totalDuration) {
-        List<ResourceWithDerivedData> resourcesAssignable = resourcesAssignableAt(day.getDate());
+        int assignableCount = findAssignableAt(day.getDate());
 
         List<ResourceWithAssignedDuration> withoutOvertime =
-                assignAllPossibleWithoutOvertime(day, totalDuration, resourcesAssignable);
+                assignAllPossibleWithoutOvertime(day, totalDuration, assignableCount);
 
         EffortDuration remaining = totalDuration.minus(ResourceWithAssignedDuration.sumDurations(withoutOvertime));
         if (remaining.isZero()) {
@@ -332,11 +295,35 @@ public class EffortDistributor {
                 day.getDate(),
                 remaining,
                 ResourceWithAssignedDuration.sumAssignedEffort(withoutOvertime, assignedEffortForResource),
-                resourcesAssignable);
+                assignableResources(assignableCount));
 
         return ResourceWithAssignedDuration.join(withoutOvertime, withOvertime);
     }
 
+    /**
+     * Stores in {@link #assignable} the positions of the resources assignable
+     * at the day
+     *
+     * @return the number of resources assignable
+     */
+    private int findAssignableAt(LocalDate day) {
+        int result = 0;
+        for (int i = 0; i < resources.size(); i++) {
+            if (resourceSelector.isSelectable(resources.get(i).resource, day)) {
+                assignable[result++] = i;
+            }
+        }
+        return result;
+    }
+
+    private List<ResourceWithDerivedData> assignableResources(int assignableCount) {
+        List<ResourceWithDerivedData> result = new ArrayList<>(assignableCount);
+        for (int i = 0; i < assignableCount; i++) {
+            result.add(resources.get(assignable[i]));
+        }
+        return result;
+    }
+
     private List<ResourceWithDerivedData> resourcesAssignableAt(LocalDate day) {
         List<ResourceWithDerivedData> result = new ArrayList<>();
         for (ResourceWithDerivedData each : resources) {
@@ -348,37 +335,45 @@ public class EffortDistributor {
     }
 
     private List<ResourceWithAssignedDuration> assignAllPossibleWithoutOvertime(
-            PartialDay day, EffortDuration totalDuration, List<ResourceWithDerivedData> resourcesAssignable) {
+            PartialDay day, EffortDuration totalDuration, int assignableCount) {
 
-        List<ResourceWithAvailableCapacity> fromMoreToLessCapacity =
-                resourcesFromMoreDesirableToLess(resourcesAssignable, day);
+        sortFromMoreDesirableToLess(day, assignableCount);
 
-        EffortDuration remaining = totalDuration;
+        int remaining = totalDuration.getSeconds();
         List<ResourceWithAssignedDuration> result = new ArrayList<>();
-        for (ResourceWithAvailableCapacity each : fromMoreToLessCapacity) {
-            if (!each.available.isZero()) {
-                ResourceWithAssignedDuration r = each.doBiggestAssignationPossible(remaining);
-                remaining = remaining.minus(r.duration);
-                if (!r.duration.isZero()) {
-                    result.add(r);
-                }
+        for (int i = 0; i < assignableCount && remaining > 0; i++) {
+            int position = (int) (fromMoreToLessDesirable[i] & POSITION_MASK);
+            int assigned = Math.min(remaining, availableSeconds[position]);
+            if (assigned > 0) {
+                result.add(new ResourceWithAssignedDuration(
+                        seconds(assigned), resources.get(assignable[position]).resource));
+
+                remaining -= assigned;
             }
         }
         return result;
     }
 
-    private List<ResourceWithAvailableCapacity> resourcesFromMoreDesirableToLess(
-            List<ResourceWithDerivedData> resourcesAssignable, PartialDay day) {
+    private static final int POSITION_BITS = 31;
 
-        List<ResourceWithAvailableCapacity> result = new ArrayList<>();
-        for (ResourceWithDerivedData each : resourcesAssignable) {
-            result.add(each.withAvailableCapacityOn(day, assignedEffortForResource));
-        }
-        Collections.sort(
-                result,
-                Collections.reverseOrder(ResourceWithAvailableCapacity.getComparatorConsidering(resourcesAlreadyPicked)));
+    private static final long POSITION_MASK = (1L << POSITION_BITS) - 1;
 
-        return result;
+    /**
+     * The resources already picked go first and then the ones with more
+     * available capacity. The ties keep the order of the resources. Each
+     * resource is encoded in a long that sorts in that order, so no objects
+     * are created for sorting them.
+     */
+    private void sortFromMoreDesirableToLess(PartialDay day, int assignableCount) {
+        for (int i = 0; i < assignableCount; i++) {
+            ResourceWithDerivedData each = resources.get(assignable[i]);
+            availableSeconds[i] = each.getAvailableSecondsOn(day, assignedEffortForResource);
+
+            long notPicked = resourcesAlreadyPicked.contains(each.resource) ? 0 : 1;
+            long lessAvailable = Integer.MAX_VALUE - availableSeconds[i];
+            fromMoreToLessDesirable[i] = notPicked << (2 * POSITION_BITS) | lessAvailable << POSITION_BITS | i;
+        }
+        Arrays.sort(fromMoreToLessDesirable, 0, assignableCount);
     }
 
     private List<ResourceWithAssignedDuration> distributeInOvertimeForDayRemainingEffort(
@@ -42,8 +42,7 @@ import org.libreplan.business.planner.entities.EffortDistributor.ResourceWithAss
 import org.libreplan.business.planner.entities.allocationalgorithms.ResourcesPerDayModification;
 import org.libreplan.business.resources.daos.IResourcesSearcher;
 import org.libreplan.business.resources.entities.Criterion;
-import org.libreplan.business.resources.entities.CriterionCompounder;
-import org.libreplan.business.resources.entities.ICriterion;
+import org.libreplan.business.resources.entities.CriterionsSatisfactionIndex;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.ResourceEnum;
 import org.libreplan.business.scenarios.entities.Scenario;
@@ -71,6 +70,9 @@ public class GenericResourceAllocation extends ResourceAllocation<GenericDayAssi
 
     private IAssignedEffortForResource assignedEffortForResource = null;
 
+    @OnCopy(Strategy.IGNORE)
+    private CriterionsSatisfactionIndex satisfactionIndex = null;
+
     /**
      * Constructor for Hibernate. DO NOT USE!
      */
@@ -181,12 +183,30 @@ public class GenericResourceAllocation extends ResourceAllocation<GenericDayAssi
         return Collections.unmodifiableSet(criterions);
     }
 
+    /**
+     * The index is kept between allocations, so only the resources that are
+     * new or whose satisfactions have been modified are indexed again.
+     */
+    private CriterionsSatisfactionIndex getSatisfactionIndex(List<Resource> resources) {
+        if ( satisfactionIndex == null || !satisfactionIndex.isFor(criterions) ) {
+            satisfactionIndex = CriterionsSatisfactionIndex.compile(criterions, resources);
+        } else {
+            satisfactionIndex.indexAll(resources);
+        }
+        return satisfactionIndex;
+    }
+
     private final class ResourcesSatisfyingCriterionsSelector implements IResourceSelector {
 
+        private final CriterionsSatisfactionIndex index;
+
+        private ResourcesSatisfyingCriterionsSelector(List<Resource> resources) {
+            index = getSatisfactionIndex(resources);
+        }
+
         @Override
         public boolean isSelectable(Resource resource, LocalDate day) {
-            ICriterion compoundCriterion = CriterionCompounder.buildAnd(criterions).getResult();
-            return compoundCriterion.isSatisfiedBy(resource, day);
+            return index.isSatisfiedBy(resource, day);
         }
     }
 
@@ -200,7 +220,7 @@ public class GenericResourceAllocation extends ResourceAllocation<GenericDayAssi
             this.resources = resources;
 
             hoursDistributor = new EffortDistributor(
-                    resources, getAssignedEffortForResource(), new ResourcesSatisfyingCriterionsSelector());
+                    resources, getAssignedEffortForResource(), new ResourcesSatisfyingCriterionsSelector(resources));
         }
 
         @Override
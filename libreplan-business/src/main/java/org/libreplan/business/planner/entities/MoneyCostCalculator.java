@@ -21,14 +21,19 @@ package org.libreplan.business.planner.entities;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.joda.time.LocalDate;
 import org.libreplan.business.costcategories.daos.IHourCostDAO;
+import org.libreplan.business.costcategories.entities.CostRateIndex;
 import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
-import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -41,7 +46,11 @@ import org.springframework.stereotype.Component;
  * the cost category of each resource in the different dates.<br />
  *
  * Money cost is stored in a map that will be cached in memeroy. This map could
- * be reseted when needed with method {@code resetMoneyCostMap}.
+ * be reseted when needed with method {@code resetMoneyCostMap}.<br />
+ *
+ * The hours reported for all the elements of a tree are retrieved at once,
+ * grouped, and their prices are resolved with the
+ * {@link IHourCostDAO#getCostRateIndex() index of price costs}.
  *
  * @author Manuel Rego Casasnovas <mrego@igalia.com>
  * @author Susana Montes Pedreira <smontes@wirelessgalicia.com>
@@ -107,22 +116,54 @@ public class MoneyCostCalculator implements IMoneyCostCalculator {
 
     @Override
     public BigDecimal getHoursMoneyCost(OrderElement orderElement) {
+        BigDecimal result = getCachedHoursMoneyCost(orderElement);
+        if (result != null) {
+            return result;
+        }
+
+        List<Long> ids = new ArrayList<Long>();
+        addIdsWithoutCachedHoursMoneyCost(orderElement, ids);
+        return calculateHoursMoneyCost(orderElement,
+                getMoneyCostFromOwnWorkReportLines(ids));
+    }
+
+    private BigDecimal getCachedHoursMoneyCost(OrderElement orderElement) {
         MoneyCost moneyCost = moneyCostTotalMap.get(orderElement);
-        if (moneyCost != null) {
-            BigDecimal result = moneyCost.getCostOfHours();
-            if (result != null) {
-                return result;
-            }
+        return moneyCost != null ? moneyCost.getCostOfHours() : null;
+    }
+
+    private void addIdsWithoutCachedHoursMoneyCost(OrderElement orderElement,
+            List<Long> ids) {
+        if (getCachedHoursMoneyCost(orderElement) != null) {
+            return;
+        }
+        if (orderElement.getId() != null) {
+            ids.add(orderElement.getId());
         }
+        for (OrderElement each : orderElement.getChildren()) {
+            addIdsWithoutCachedHoursMoneyCost(each, ids);
+        }
+    }
 
-        BigDecimal result = BigDecimal.ZERO.setScale(2);
+    private BigDecimal calculateHoursMoneyCost(OrderElement orderElement,
+            Map<Long, BigDecimal> ownMoneyCosts) {
+        BigDecimal result = getCachedHoursMoneyCost(orderElement);
+        if (result != null) {
+            return result;
+        }
+
+        result = BigDecimal.ZERO.setScale(2);
         for (OrderElement each : orderElement.getChildren()) {
-            result = result.add(getHoursMoneyCost(each));
+            result = result.add(calculateHoursMoneyCost(each, ownMoneyCosts));
         }
 
-        result = result.add(getMoneyCostFromOwnWorkReportLines(orderElement))
-                .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal own = ownMoneyCosts.get(orderElement.getId());
+        if (own != null) {
+            result = result.add(own);
+        }
+        result = result.setScale(2, RoundingMode.HALF_UP);
 
+        MoneyCost moneyCost = moneyCostTotalMap.get(orderElement);
         if (moneyCost == null) {
             moneyCost = new MoneyCost();
         }
@@ -131,27 +172,38 @@ public class MoneyCostCalculator implements IMoneyCostCalculator {
         return result;
     }
 
-    private BigDecimal getMoneyCostFromOwnWorkReportLines(OrderElement orderElement) {
-        List<WorkReportLine> workReportLines = workReportLineDAO
-                .findByOrderElement(orderElement);
-
-        BigDecimal result = BigDecimal.ZERO.setScale(2);
-        for (WorkReportLine workReportLine : workReportLines) {
-            BigDecimal priceCost = hourCostDAO
-                    .getPriceCostFromResourceDateAndType(
-                            workReportLine.getResource(),
-                            workReportLine.getLocalDate(),
-                            workReportLine.getTypeOfWorkHours());
+    /**
+     * Calculates the money cost of the hours reported directly to each of the
+     * elements with the ids passed, with a single query for all of them.
+     */
+    private Map<Long, BigDecimal> getMoneyCostFromOwnWorkReportLines(
+            Collection<Long> orderElementIds) {
+        Map<Long, BigDecimal> result = new HashMap<Long, BigDecimal>();
+        if (orderElementIds.isEmpty()) {
+            return result;
+        }
+
+        CostRateIndex costRateIndex = hourCostDAO.getCostRateIndex();
+        for (Object[] each : workReportLineDAO
+                .findEffortsGroupedByOrderElementResourceDateAndType(orderElementIds)) {
+            Long orderElementId = (Long) each[0];
+            Date date = (Date) each[2];
+            BigDecimal priceCost = costRateIndex.getPriceCost((Long) each[1],
+                    date != null ? LocalDate.fromDateFields(date) : null,
+                    (Long) each[3]);
 
             // If cost undefined via CostCategory get it from type
             if (priceCost == null) {
-                priceCost = workReportLine.getTypeOfWorkHours()
-                        .getDefaultPrice();
+                priceCost = (BigDecimal) each[4];
             }
 
-            BigDecimal cost = priceCost.multiply(workReportLine.getEffort()
-                    .toHoursAsDecimalWithScale(2));
-            result = result.add(cost);
+            BigDecimal cost = priceCost
+                    .multiply(((EffortDuration) each[5]).toHoursAsDecimalWithScale(2))
+                    .multiply(new BigDecimal((Long) each[6]));
+
+            BigDecimal previous = result.get(orderElementId);
+            result.put(orderElementId, (previous != null ? previous
+                    : BigDecimal.ZERO.setScale(2)).add(cost));
         }
 
         return result;
@@ -55,16 +55,23 @@ import org.libreplan.business.workingday.IntraDayDate.PartialDay;
  */
 public class Gap implements Comparable<Gap> {
 
+    private final Resource resource;
+
     private DateAndHour startTime;
 
     private DateAndHour endTime;
 
+    /**
+     * Calculated on demand, as it requires going through all the days of the gap
+     */
     private Integer hoursInGap;
 
+    private Integer allocatableHours;
+
     public Gap(Resource resource, DateAndHour startTime, DateAndHour endTime) {
+        this.resource = resource;
         this.startTime = startTime;
         this.endTime = endTime;
-        hoursInGap = calculateHoursInGap(resource, startTime, endTime);
     }
 
     public static class GapOnQueue {
@@ -179,6 +186,37 @@ public class Gap implements Comparable<Gap> {
         return new GapOnQueue(queue, this);
     }
 
+    private int getHoursInGap() {
+        if (hoursInGap == null) {
+            hoursInGap = calculateHoursInGap(resource, startTime, endTime);
+        }
+        return hoursInGap;
+    }
+
+    /**
+     * Returns the sum of the hours of each day of the gap, rounded per day as
+     * {@link #getHoursInGapUntilAllocatingAndGoingToTheEnd} does. No allocation
+     * inside this gap, or inside a part of it, can take more hours than these.
+     */
+    public int getAllocatableHours() {
+        if (allocatableHours == null) {
+            allocatableHours = calculateAllocatableHours();
+        }
+        return allocatableHours;
+    }
+
+    private int calculateAllocatableHours() {
+        if (startTime == null || endTime == null) {
+            return Integer.MAX_VALUE;
+        }
+        final ResourceCalendar calendar = resource.getCalendar();
+        long result = 0;
+        for (PartialDay each : startTime.toIntraDayDate().daysUntil(endTime.toIntraDayDate())) {
+            result += calendar.getCapacityOn(each).roundToHours();
+        }
+        return (int) Math.min(result, Integer.MAX_VALUE);
+    }
+
     private Integer calculateHoursInGap(Resource resource, DateAndHour startTime, DateAndHour endTime) {
         if (endTime == null || startTime == null) {
             // startTime is never null when hours in gap is really use
@@ -260,7 +298,7 @@ public class Gap implements Comparable<Gap> {
 
         return canSatisfyStartConstraint(startAfter) &&
                 canSatisfyEndConstraint(endsAfter) &&
-                hoursInGap >= candidate.getIntentedTotalHours();
+                getHoursInGap() >= candidate.getIntentedTotalHours();
     }
 
     private boolean canSatisfyStartConstraint(final LocalDate startsAfter) {
@@ -0,0 +1,229 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.limiting.entities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.libreplan.business.calendars.entities.CalendarAvailability;
+import org.libreplan.business.planner.limiting.entities.Gap.GapOnQueue;
+import org.libreplan.business.resources.entities.LimitingResourceQueue;
+import org.libreplan.business.resources.entities.Resource;
+
+/**
+ * Keeps the gaps of a {@link LimitingResourceQueue}.
+ *
+ * The gaps are kept by the element they precede, so when an element is added
+ * to or removed from the queue only the gaps around it are calculated again.
+ * The rest of gaps, and their hours, are kept.
+ *
+ * The gaps are disjoint and ordered, so their ends are ordered too. This allows
+ * to find with a binary search the first gap that could be valid for some
+ * {@link InsertionRequirements}. The {@link Gap#getAllocatableHours()} of the
+ * gaps are kept in a tree of maximums, so the gaps without enough hours for the
+ * element are skipped in logarithmic time.
+ *
+ * @see LimitingResourceQueue#getGaps()
+ */
+public class GapsIndex {
+
+    public static GapsIndex create(LimitingResourceQueue queue) {
+        GapsIndex result = new GapsIndex(queue);
+        LimitingResourceQueueElement previous = null;
+        for (LimitingResourceQueueElement each : queue.getLimitingResourceQueueElements()) {
+            result.gapsBefore.put(each, result.calculateGapsBetween(previous, each));
+            previous = each;
+        }
+        result.gapsAfterLast = result.calculateGapsAfter(previous);
+        return result;
+    }
+
+    private final LimitingResourceQueue queue;
+
+    private final Map<LimitingResourceQueueElement, List<GapOnQueue>> gapsBefore = new HashMap<>();
+
+    private List<GapOnQueue> gapsAfterLast;
+
+    /**
+     * All the gaps ordered, built again on demand after the queue has changed
+     */
+    private List<GapOnQueue> ordered;
+
+    /**
+     * Tree of maximums of the allocatable hours of the {@link #ordered} gaps.
+     * The node <code>i</code> has as children <code>2i</code> and
+     * <code>2i + 1</code>, and the leaves start at {@link #leaves}.
+     */
+    private int[] maxHours;
+
+    private int leaves;
+
+    private GapsIndex(LimitingResourceQueue queue) {
+        this.queue = queue;
+    }
+
+    /**
+     * Must be called after adding <code>element</code> to the queue
+     */
+    public void added(LimitingResourceQueueElement previous,
+                      LimitingResourceQueueElement element,
+                      LimitingResourceQueueElement next) {
+
+        gapsBefore.put(element, calculateGapsBetween(previous, element));
+        gapsAfter(element, next);
+    }
+
+    /**
+     * Must be called after removing <code>element</code> from the queue
+     */
+    public void removed(LimitingResourceQueueElement previous,
+                        LimitingResourceQueueElement element,
+                        LimitingResourceQueueElement next) {
+
+        gapsBefore.remove(element);
+        gapsAfter(previous, next);
+    }
+
+    private void gapsAfter(LimitingResourceQueueElement previous, LimitingResourceQueueElement next) {
+        if ( next != null ) {
+            gapsBefore.put(next, calculateGapsBetween(previous, next));
+        } else {
+            gapsAfterLast = calculateGapsAfter(previous);
+        }
+        ordered = null;
+        maxHours = null;
+    }
+
+    private List<GapOnQueue> calculateGapsBetween(LimitingResourceQueueElement previous,
+                                                  LimitingResourceQueueElement element) {
+
+        DateAndHour previousEnd = previous != null ? previous.getEndTime() : null;
+        DateAndHour startTime = element.getStartTime();
+        if ( previousEnd != null && !startTime.isAfter(previousEnd) ) {
+            return Collections.emptyList();
+        }
+        Resource resource = queue.getResource();
+        List<CalendarAvailability> activationPeriods = resource.getCalendar().getCalendarAvailabilities();
+        List<GapInterval> gapIntervals =
+                GapInterval.create(previousEnd, startTime).delimitByActivationPeriods(activationPeriods);
+
+        return GapOnQueue.onQueue(queue, GapInterval.gapsOn(gapIntervals, resource));
+    }
+
+    private List<GapOnQueue> calculateGapsAfter(LimitingResourceQueueElement last) {
+        DateAndHour lastEnd = last != null ? last.getEndTime() : null;
+        return GapOnQueue.onQueue(queue, Collections.singletonList(Gap.create(queue.getResource(), lastEnd, null)));
+    }
+
+    /**
+     * @return all the gaps of the queue ordered by start date
+     */
+    public List<GapOnQueue> getGaps() {
+        if ( ordered == null ) {
+            List<GapOnQueue> result = new ArrayList<>();
+            for (LimitingResourceQueueElement each : queue.getLimitingResourceQueueElements()) {
+                result.addAll(gapsBefore.get(each));
+            }
+            result.addAll(gapsAfterLast);
+            ordered = Collections.unmodifiableList(result);
+        }
+        return ordered;
+    }
+
+    /**
+     * @return the gaps that could potentially be valid for
+     *         <code>requirements</code> ordered by start date. The gaps without
+     *         enough hours for the element are not included.
+     */
+    public List<GapOnQueue> getGapsPotentiallyValidFor(InsertionRequirements requirements) {
+        List<GapOnQueue> gaps = getGaps();
+        Integer intendedHours = requirements.getElement().getIntentedTotalHours();
+        int hours = intendedHours != null ? intendedHours : 0;
+
+        List<GapOnQueue> result = new ArrayList<>();
+        int position = firstPotentiallyValid(gaps, requirements);
+        while (position < gaps.size()) {
+            position = firstWithAtLeast(position, hours);
+            if ( position < 0 ) {
+                break;
+            }
+            result.add(gaps.get(position++));
+        }
+        return result;
+    }
+
+    /**
+     * Being the ends of the gaps ordered, once a gap is potentially valid all
+     * the next ones are too
+     */
+    private static int firstPotentiallyValid(List<GapOnQueue> gaps, InsertionRequirements requirements) {
+        int low = 0;
+        int high = gaps.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if ( requirements.isPotentiallyValid(gaps.get(middle).getGap()) ) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the position of the first gap since <code>from</code> with at
+     *         least <code>hours</code> allocatable hours or <code>-1</code> if
+     *         there is none
+     */
+    private int firstWithAtLeast(int from, int hours) {
+        if ( maxHours == null ) {
+            buildMaxHours();
+        }
+        return firstWithAtLeast(1, 0, leaves, from, hours);
+    }
+
+    private int firstWithAtLeast(int node, int nodeStart, int nodeSize, int from, int hours) {
+        if ( nodeStart + nodeSize <= from || maxHours[node] < hours ) {
+            return -1;
+        }
+        if ( nodeSize == 1 ) {
+            return nodeStart;
+        }
+        int half = nodeSize / 2;
+        int result = firstWithAtLeast(2 * node, nodeStart, half, from, hours);
+        return result >= 0 ? result : firstWithAtLeast(2 * node + 1, nodeStart + half, half, from, hours);
+    }
+
+    private void buildMaxHours() {
+        List<GapOnQueue> gaps = getGaps();
+        leaves = Integer.highestOneBit(Math.max(1, gaps.size() * 2 - 1));
+        maxHours = new int[2 * leaves];
+        for (int i = 0; i < leaves; i++) {
+            maxHours[leaves + i] = i < gaps.size() ? gaps.get(i).getGap().getAllocatableHours() : -1;
+        }
+        for (int i = leaves - 1; i >= 1; i--) {
+            maxHours[i] = Math.max(maxHours[2 * i], maxHours[2 * i + 1]);
+        }
+    }
+
+}
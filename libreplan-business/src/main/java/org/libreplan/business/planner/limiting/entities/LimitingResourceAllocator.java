@@ -107,7 +107,7 @@ public class LimitingResourceAllocator {
     public static Gap getFirstValidGap(LimitingResourceQueue queue, LimitingResourceQueueElement element) {
 
         final Resource resource = queue.getResource();
-        final List<LimitingResourceQueueElement> elements = new LinkedList<>(queue.getLimitingResourceQueueElements());
+        final List<LimitingResourceQueueElement> elements = new ArrayList<>(queue.getLimitingResourceQueueElements());
         final int size = elements.size();
         final DateAndHour startTime = getStartTimeBecauseOfGantt(element);
 
@@ -167,7 +167,7 @@ public class LimitingResourceAllocator {
         List<Gap> result = new ArrayList<>();
 
         final Resource resource = queue.getResource();
-        final List<LimitingResourceQueueElement> elements = new LinkedList<>(queue.getLimitingResourceQueueElements());
+        final List<LimitingResourceQueueElement> elements = new ArrayList<>(queue.getLimitingResourceQueueElements());
         final int size = elements.size();
 
         int pos = moveUntil(elements, since);
@@ -187,26 +187,33 @@ public class LimitingResourceAllocator {
         return result;
     }
 
+    /**
+     * Returns the position of the first element starting at or after
+     * <code>until</code>, skipping the first element unless
+     * <code>until</code> is before it. As the elements are ordered by start
+     * time, it's found with a binary search.
+     */
     private static int moveUntil(List<LimitingResourceQueueElement> elements, DateAndHour until) {
-        int pos = 0;
-
-        if ( elements.size() > 0 ) {
-            // Space between until and first element start time
-            LimitingResourceQueueElement first = elements.get(0);
-            if (until.isBefore(first.getStartTime())) {
-                return 0;
-            }
+        if ( elements.isEmpty() ) {
+            return 0;
+        }
 
-            for (pos = 1; pos < elements.size(); pos++) {
-                final LimitingResourceQueueElement each = elements.get(pos);
-                final DateAndHour startTime = each.getStartTime();
+        // Space between until and first element start time
+        if ( until.isBefore(elements.get(0).getStartTime()) ) {
+            return 0;
+        }
 
-                if ( until.isBefore(startTime) || until.isEquals(startTime) ) {
-                    return pos;
-                }
+        int low = 1;
+        int high = elements.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if ( until.isAfter(elements.get(middle).getStartTime()) ) {
+                low = middle + 1;
+            } else {
+                high = middle;
             }
         }
-        return pos;
+        return low;
     }
 
     private static boolean isGeneric(LimitingResourceQueueElement element) {
@@ -20,14 +20,14 @@
 package org.libreplan.business.resources.daos;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.joda.time.LocalDate;
+import org.libreplan.business.planner.chart.EffortDaysLine;
 import org.libreplan.business.planner.daos.IDayAssignmentDAO;
-import org.libreplan.business.planner.entities.DayAssignment;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.workingday.EffortDuration;
@@ -119,19 +119,53 @@ public class ResourceLoadRatiosCalculator implements IResourceLoadRatiosCalculat
                                                    final LocalDate startDate,
                                                    final LocalDate endDate,
                                                    final Scenario scenario) {
-        resourceDAO.reattach(resource);
+        return calculateLoadRatios(Collections.singletonList(resource), startDate, endDate, scenario).get(resource);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Resource, ILoadRatiosDataType> calculateLoadRatios(Collection<? extends Resource> resources,
+                                                                  LocalDate startDate,
+                                                                  LocalDate endDate,
+                                                                  Scenario scenario) {
+        for (Resource each : resources) {
+            resourceDAO.reattach(each);
+        }
+
+        Map<Long, EffortDaysLine> effortPerResource =
+                dayAssignmentDAO.getEffortPerResource(scenario, startDate, endDate, resources);
 
+        Map<Resource, ILoadRatiosDataType> result = new HashMap<>();
+        for (Resource each : resources) {
+            result.put(each, calculateLoadRatios(each, startDate, endDate, effortPerResource.get(each.getId())));
+        }
+        return result;
+    }
+
+    /**
+     * @param effortPerDay
+     *            the effort assigned to the resource, <code>null</code> if it
+     *            has no effort assigned
+     */
+    private LoadRatiosDataType calculateLoadRatios(Resource resource,
+                                                   LocalDate startDate,
+                                                   LocalDate endDate,
+                                                   EffortDaysLine effortPerDay) {
         EffortDuration
                 totalLoad = EffortDuration.zero(),
                 totalOverload = EffortDuration.zero(),
                 totalCapacity;
 
-        Set<Map.Entry<LocalDate, EffortDuration>> efforts =
-                getAllEffortPerDateFor(scenario, startDate, endDate, resource).entrySet();
+        if ( effortPerDay != null ) {
+            for (LocalDate day = effortPerDay.getStart(); day.isBefore(effortPerDay.getEndExclusive());
+                 day = day.plusDays(1)) {
 
-        for (Map.Entry<LocalDate, EffortDuration> each : efforts) {
-            totalLoad = totalLoad.plus(each.getValue());
-            totalOverload = addOverload(totalOverload, resource, each.getValue(), each.getKey());
+                if ( effortPerDay.getSeconds(day) > 0 ) {
+                    EffortDuration loadAtDay = effortPerDay.get(day);
+                    totalLoad = totalLoad.plus(loadAtDay);
+                    totalOverload = addOverload(totalOverload, resource, loadAtDay, day);
+                }
+            }
         }
 
         totalCapacity = calculateTotalCapacity(resource, startDate, endDate);
@@ -139,27 +173,6 @@ public class ResourceLoadRatiosCalculator implements IResourceLoadRatiosCalculat
         return new LoadRatiosDataType(totalLoad, totalOverload, totalCapacity);
     }
 
-    private Map<LocalDate, EffortDuration> getAllEffortPerDateFor(
-            Scenario scenario, LocalDate startDate, LocalDate endDate, Resource resource) {
-
-        HashMap<LocalDate, EffortDuration> result;
-        result = new HashMap<>();
-
-        List<DayAssignment> l = dayAssignmentDAO.getAllFor(scenario, startDate, endDate, resource);
-
-        EffortDuration newValue;
-
-        for (DayAssignment each : l) {
-            if (result.containsKey(each.getDay())) {
-                newValue = result.get(each.getDay()).plus(each.getDuration());
-            } else {
-                newValue = each.getDuration();
-            }
-            result.put(each.getDay(), newValue);
-        }
-        return result;
-    }
-
     private EffortDuration calculateTotalCapacity(Resource resource, LocalDate startDate, LocalDate endDate) {
         return resource.getCalendar().getWorkableDuration(startDate, endDate);
     }
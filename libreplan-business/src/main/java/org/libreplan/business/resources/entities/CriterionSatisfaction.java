@@ -163,6 +163,7 @@ public class CriterionSatisfaction extends IntegrationEntity {
         if (finishDate != null) {
             this.finishDate = finishDate;
         }
+        modified();
     }
 
     @Override
@@ -200,6 +201,7 @@ public class CriterionSatisfaction extends IntegrationEntity {
 
     public void setCriterion(Criterion criterion) {
         this.criterion = criterion;
+        modified();
     }
 
 
@@ -209,7 +211,9 @@ public class CriterionSatisfaction extends IntegrationEntity {
     }
 
     public void setResource(Resource resource) {
+        modified();
         this.resource = resource;
+        modified();
     }
 
     public boolean isCurrent() {
@@ -233,10 +237,12 @@ public class CriterionSatisfaction extends IntegrationEntity {
                 finishDate == null || isNewObject() || getEndDate().equals(finish) || getEndDate().isBefore(finish));
 
         this.finishDate = finish;
+        modified();
     }
 
     public void noFinish() {
         this.finishDate = null;
+        modified();
     }
 
     public boolean isFinished() {
@@ -248,6 +254,7 @@ public class CriterionSatisfaction extends IntegrationEntity {
             finish(date);
         }
         this.finishDate = date;
+        modified();
     }
 
     public void setStartDate(LocalDate date) {
@@ -257,10 +264,21 @@ public class CriterionSatisfaction extends IntegrationEntity {
                     startDate == null || isNewObject() || getStartDate().equals(date) || getStartDate().isAfter(date));
         }
         startDate = date;
+        modified();
     }
 
     public void setIsDeleted(boolean isDeleted) {
         this.isDeleted = isDeleted;
+        modified();
+    }
+
+    /**
+     * The resource caches the days in which it satisfies its criteria
+     */
+    private void modified() {
+        if ( resource != null ) {
+            resource.satisfactionsModified();
+        }
     }
 
     public boolean isIsDeleted() {
@@ -0,0 +1,207 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.libreplan.business.resources.entities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
+
+/**
+ * Index of the days in which some resources satisfy all the criteria of a set.
+ * For each resource the days are kept as an {@link AvailabilityTimeLine} built
+ * from the sorted and merged intervals of its satisfactions, so checking if a
+ * resource satisfies the criteria at a day is a binary search instead of
+ * scanning all its satisfactions for each criterion.
+ *
+ * It gives the same results as the {@link ICriterion} built with
+ * {@link CriterionCompounder#buildAnd(Collection)}, so the satisfactions of
+ * the descendants of a criterion satisfy it too.
+ *
+ * The time line of a resource is built again if its satisfactions have been
+ * modified since it was indexed, so an index can be kept while the resources
+ * are used.
+ */
+public class CriterionsSatisfactionIndex {
+
+    public static CriterionsSatisfactionIndex compile(Collection<? extends Criterion> criterions,
+                                                      Collection<? extends Resource> resources) {
+
+        CriterionsSatisfactionIndex result = new CriterionsSatisfactionIndex(criterions);
+        result.indexAll(resources);
+        return result;
+    }
+
+    private static class IndexedResource {
+
+        private final int satisfactionsVersion;
+
+        private final AvailabilityTimeLine timeLine;
+
+        private IndexedResource(int satisfactionsVersion, AvailabilityTimeLine timeLine) {
+            this.satisfactionsVersion = satisfactionsVersion;
+            this.timeLine = timeLine;
+        }
+
+    }
+
+    private final Set<Criterion> criterions;
+
+    private final Map<Resource, IndexedResource> indexed = new IdentityHashMap<>();
+
+    private CriterionsSatisfactionIndex(Collection<? extends Criterion> criterions) {
+        this.criterions = new HashSet<>(criterions);
+    }
+
+    /**
+     * @return <code>true</code> if this index is for the same criteria
+     */
+    public boolean isFor(Collection<? extends Criterion> criterions) {
+        return this.criterions.equals(new HashSet<>(criterions));
+    }
+
+    /**
+     * Indexes the resources not indexed yet or modified since they were
+     */
+    public void indexAll(Collection<? extends Resource> resources) {
+        for (Resource each : resources) {
+            timeLineFor(each);
+        }
+    }
+
+    public boolean isSatisfiedBy(Resource resource, LocalDate day) {
+        return timeLineFor(resource).isValid(day);
+    }
+
+    private AvailabilityTimeLine timeLineFor(Resource resource) {
+        IndexedResource result = indexed.get(resource);
+        int version = resource.getSatisfactionsVersion();
+        if ( result == null || result.satisfactionsVersion != version ) {
+            result = new IndexedResource(version, buildTimeLine(resource));
+            indexed.put(resource, result);
+        }
+        return result.timeLine;
+    }
+
+    private AvailabilityTimeLine buildTimeLine(Resource resource) {
+        AvailabilityTimeLine result = AvailabilityTimeLine.allValid();
+        for (Criterion each : criterions) {
+            result = result.and(buildTimeLine(satisfiedDays(resource.getSatisfactionsFor(each))));
+        }
+        return result;
+    }
+
+    /**
+     * Days in which a satisfaction is enforced, from the first one inclusive
+     * to the last one exclusive. A <code>null</code> end means that it's never
+     * finished.
+     */
+    private static class SatisfiedDays {
+
+        private static final Comparator<SatisfiedDays> BY_START = new Comparator<SatisfiedDays>() {
+            @Override
+            public int compare(SatisfiedDays o1, SatisfiedDays o2) {
+                return o1.start.compareTo(o2.start);
+            }
+        };
+
+        private final LocalDate start;
+
+        private final LocalDate end;
+
+        private SatisfiedDays(LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private boolean isEmpty() {
+            return end != null && !start.isBefore(end);
+        }
+
+    }
+
+    private static List<SatisfiedDays> satisfiedDays(List<CriterionSatisfaction> satisfactions) {
+        List<SatisfiedDays> result = new ArrayList<>();
+        for (CriterionSatisfaction each : satisfactions) {
+            SatisfiedDays days = satisfiedDays(each);
+            if ( !days.isEmpty() ) {
+                result.add(days);
+            }
+        }
+        Collections.sort(result, SatisfiedDays.BY_START);
+        return result;
+    }
+
+    /**
+     * The bounds of the satisfaction are checked the same way
+     * {@link Criterion#isSatisfiedBy(Resource, LocalDate)} does, so the
+     * results don't change.
+     */
+    private static SatisfiedDays satisfiedDays(CriterionSatisfaction satisfaction) {
+        LocalDate start = satisfaction.getStartDate();
+        LocalDate end = satisfaction.getEndDate();
+
+        LocalDate first = enforcedAt(satisfaction, start) ? start : start.plusDays(1);
+        if ( end == null ) {
+            return new SatisfiedDays(first, null);
+        }
+        return new SatisfiedDays(first, enforcedAt(satisfaction, end) ? end.plusDays(1) : end);
+    }
+
+    private static boolean enforcedAt(CriterionSatisfaction satisfaction, LocalDate day) {
+        return satisfaction.isAlwaysEnforcedIn(Interval.point(day));
+    }
+
+    private static AvailabilityTimeLine buildTimeLine(List<SatisfiedDays> sortedByStart) {
+        AvailabilityTimeLine result = AvailabilityTimeLine.allValid();
+        if ( sortedByStart.isEmpty() ) {
+            result.allInvalid();
+            return result;
+        }
+
+        LocalDate previousEnd = null;
+        for (SatisfiedDays each : sortedByStart) {
+            if ( previousEnd == null ) {
+                result.invalidUntil(each.start);
+            } else if ( previousEnd.isBefore(each.start) ) {
+                result.invalidAt(previousEnd, each.start);
+            }
+
+            if ( each.end == null ) {
+                return result;
+            }
+            if ( previousEnd == null || previousEnd.isBefore(each.end) ) {
+                previousEnd = each.end;
+            }
+        }
+        result.invalidFrom(previousEnd);
+        return result;
+    }
+
+}
@@ -28,18 +28,16 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
-import org.libreplan.business.calendars.entities.CalendarAvailability;
-import org.libreplan.business.calendars.entities.ResourceCalendar;
 import org.libreplan.business.common.BaseEntity;
 import org.libreplan.business.planner.limiting.entities.DateAndHour;
-import org.libreplan.business.planner.limiting.entities.Gap;
 import org.libreplan.business.planner.limiting.entities.Gap.GapOnQueue;
-import org.libreplan.business.planner.limiting.entities.GapInterval;
+import org.libreplan.business.planner.limiting.entities.GapsIndex;
 import org.libreplan.business.planner.limiting.entities.InsertionRequirements;
 import org.libreplan.business.planner.limiting.entities.LimitingResourceQueueElement;
 /**
@@ -54,7 +52,7 @@ public class LimitingResourceQueue extends BaseEntity {
     private SortedSet<LimitingResourceQueueElement> limitingResourceQueueElements =
         new TreeSet<LimitingResourceQueueElement>(new LimitingResourceQueueElementComparator());
 
-    private List<GapOnQueue> cachedGaps;
+    private GapsIndex cachedGaps;
 
     public static Collection<LimitingResourceQueue> queuesOf(
             Collection<LimitingResourceQueueElement> queueElements) {
@@ -83,47 +81,53 @@ public class LimitingResourceQueue extends BaseEntity {
 
     public void addLimitingResourceQueueElement(LimitingResourceQueueElement element) {
         element.setLimitingResourceQueue(this);
-        limitingResourceQueueElements.add(element);
-        invalidCachedGaps();
+        if (limitingResourceQueueElements.add(element) && cachedGaps != null) {
+            cachedGaps.added(previousTo(element), element, nextTo(element));
+        }
     }
 
     public void removeLimitingResourceQueueElement(LimitingResourceQueueElement element) {
-        limitingResourceQueueElements.remove(element);
+        if (cachedGaps != null && isInQueue(element)) {
+            LimitingResourceQueueElement previous = previousTo(element);
+            LimitingResourceQueueElement next = nextTo(element);
+            limitingResourceQueueElements.remove(element);
+            cachedGaps.removed(previous, element, next);
+        } else {
+            limitingResourceQueueElements.remove(element);
+            invalidCachedGaps();
+        }
         element.detach();
-        invalidCachedGaps();
+    }
+
+    private boolean isInQueue(LimitingResourceQueueElement element) {
+        SortedSet<LimitingResourceQueueElement> since = limitingResourceQueueElements.tailSet(element);
+        return !since.isEmpty() && since.first() == element;
+    }
+
+    private LimitingResourceQueueElement previousTo(LimitingResourceQueueElement element) {
+        SortedSet<LimitingResourceQueueElement> previous = limitingResourceQueueElements.headSet(element);
+        return previous.isEmpty() ? null : previous.last();
+    }
+
+    private LimitingResourceQueueElement nextTo(LimitingResourceQueueElement element) {
+        Iterator<LimitingResourceQueueElement> iterator = limitingResourceQueueElements.tailSet(element).iterator();
+        iterator.next();
+        return iterator.hasNext() ? iterator.next() : null;
     }
 
     private void invalidCachedGaps() {
         cachedGaps = null;
     }
 
-    public List<GapOnQueue> getGaps() {
+    private GapsIndex getGapsIndex() {
         if (cachedGaps == null) {
-            cachedGaps = calculateGaps();
+            cachedGaps = GapsIndex.create(this);
         }
         return cachedGaps;
     }
 
-    private List<GapOnQueue> calculateGaps() {
-        List<Gap> result = new ArrayList<Gap>();
-        DateAndHour previousEnd = null;
-        ResourceCalendar calendar = resource.getCalendar();
-        List<CalendarAvailability> activationPeriods = calendar.getCalendarAvailabilities();
-
-        for (LimitingResourceQueueElement each : limitingResourceQueueElements) {
-            DateAndHour startTime = each.getStartTime();
-            if (previousEnd == null || startTime.isAfter(previousEnd)) {
-                List<GapInterval> gapIntervals = GapInterval.
-                        create(previousEnd, startTime).
-                        delimitByActivationPeriods(activationPeriods);
-                if (!gapIntervals.isEmpty()) {
-                    result.addAll(GapInterval.gapsOn(gapIntervals, resource));
-                }
-            }
-            previousEnd = each.getEndTime();
-        }
-        result.add(Gap.create(resource, previousEnd, null));
-        return GapOnQueue.onQueue(this, result);
+    public List<GapOnQueue> getGaps() {
+        return getGapsIndex().getGaps();
     }
 
     public SortedSet<LimitingResourceQueueElement> getLimitingResourceQueueElements() {
@@ -136,13 +140,7 @@ public class LimitingResourceQueue extends BaseEntity {
      */
     public List<GapOnQueue> getGapsPotentiallyValidFor(
             InsertionRequirements requirements) {
-        List<GapOnQueue> result = new ArrayList<GapOnQueue>();
-        for (GapOnQueue each : getGaps()) {
-            if (requirements.isPotentiallyValid(each.getGap())) {
-                result.add(each);
-            }
-        }
-        return result;
+        return getGapsIndex().getGapsPotentiallyValidFor(requirements);
     }
 
     public List<LimitingResourceQueueElement> getElementsAfter(
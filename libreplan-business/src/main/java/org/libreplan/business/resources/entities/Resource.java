@@ -135,6 +135,12 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
 
     private Map<LocalDate, List<DayAssignment>> assignmentsByDayCached = null;
 
+    /**
+     * Incremented each time the satisfactions are modified, so the data
+     * calculated from them can be invalidated. It isn't persisted.
+     */
+    private int satisfactionsVersion = 0;
+
     private Set<ResourcesCostCategoryAssignment> resourcesCostCategoryAssignments =
             new HashSet<ResourcesCostCategoryAssignment>();
 
@@ -403,6 +409,17 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
         return new Query();
     }
 
+    /**
+     * @see CriterionsSatisfactionIndex
+     */
+    public int getSatisfactionsVersion() {
+        return satisfactionsVersion;
+    }
+
+    void satisfactionsModified() {
+        satisfactionsVersion++;
+    }
+
     public Set<CriterionSatisfaction> getAllSatisfactions() {
         return new HashSet<CriterionSatisfaction>(criterionSatisfactions);
     }
@@ -484,6 +501,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
         if (canAddSatisfaction(criterionWithItsType, interval)) {
             newSatisfaction.validate();
             criterionSatisfactions.add(newSatisfaction);
+            satisfactionsModified();
             return newSatisfaction;
         }
         final String message = getReasonForNotAddingSatisfaction(type);
@@ -569,6 +587,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
                 }
                 original.validate();
                 criterionSatisfactions.add(original);
+                satisfactionsModified();
                 if(!canAdd){
                     throw new IllegalStateException(
                             "This interval "+original.getCriterion().getName()+" not is valid because exists overlap with other criterion satisfaction");
@@ -703,6 +722,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
 
     public void removeCriterionSatisfaction(CriterionSatisfaction satisfaction) {
         criterionSatisfactions.remove(satisfaction);
+        satisfactionsModified();
     }
 
     public boolean contains(CriterionSatisfaction satisfaction) {
@@ -941,7 +961,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
                                                    criterionSatisfaction) {
 
         criterionSatisfactions.add(criterionSatisfaction);
-
+        satisfactionsModified();
     }
 
     public void addSatisfactions(Set<CriterionSatisfaction> addlist) throws ValidationException {
@@ -964,6 +984,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
         validateSatisfactions(activeList);
         criterionSatisfactions.clear();
         criterionSatisfactions.addAll(newList);
+        satisfactionsModified();
     }
 
     private void validateSatisfactions(Set<CriterionSatisfaction> satisfactions) throws ValidationException {
@@ -27,6 +27,7 @@ import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
 import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.workreports.entities.PersonalTimesheetSummary;
 import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportType;
 
@@ -57,6 +58,17 @@ public interface IWorkReportDAO extends IIntegrationEntityDAO<WorkReport> {
     WorkReport getPersonalTimesheetWorkReport(Resource resource, LocalDate date,
             PersonalTimesheetsPeriodicityEnum periodicity);
 
+    /**
+     * Returns the totals of the personal timesheets of the given
+     * <code>resource</code> with lines between <code>start</code> and
+     * <code>end</code> (both inclusive), sorted by date. They're aggregated by
+     * the database with only one query, without loading the {@link WorkReport
+     * WorkReports}.<br />
+     *
+     * Personal timesheets without lines are not returned.
+     */
+    List<PersonalTimesheetSummary> getPersonalTimesheetsSummaries(Resource resource, LocalDate start, LocalDate end);
+
     boolean isAnyPersonalTimesheetAlreadySaved();
 
     List<WorkReport> findPersonalTimesheetsByResourceAndOrderElement(
@@ -21,14 +21,17 @@
 
 package org.libreplan.business.workreports.daos;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.reports.dtos.WorkReportLineDTO;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.util.Pair;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportLine;
 
@@ -74,6 +77,24 @@ public interface IWorkReportLineDAO extends
 
     Boolean isFinished(OrderElement orderElement);
 
+    /**
+     * Returns the effort and the id of the {@link OrderElement} saved in the
+     * database for each of the {@link WorkReportLine WorkReportLines} with the
+     * ids passed. The changes not flushed in the current session are ignored.
+     */
+    Map<Long, Pair<EffortDuration, Long>> findSavedEffortsAndOrderElements(
+            Collection<Long> ids);
+
+    /**
+     * Returns the {@link WorkReportLine WorkReportLines} of the
+     * {@link OrderElement OrderElements} with the ids passed grouped by
+     * element, resource, date, type of hours and effort. Each row has the id
+     * of the element, the id of the resource, the date, the id of the type,
+     * its default price, the effort and the number of lines.
+     */
+    List<Object[]> findEffortsGroupedByOrderElementResourceDateAndType(
+            Collection<Long> orderElementIds);
+
     List<WorkReportLine> findByOrderElementAndWorkReports(
             OrderElement orderElement, List<WorkReport> workReports);
     /**
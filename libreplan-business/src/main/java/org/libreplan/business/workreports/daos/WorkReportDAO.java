@@ -23,14 +23,17 @@ package org.libreplan.business.workreports.daos;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.apache.commons.lang3.Validate;
 import org.hibernate.Criteria;
 import org.hibernate.NonUniqueResultException;
 import org.hibernate.Query;
+import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.IAdHocTransactionService;
@@ -40,6 +43,8 @@ import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workreports.entities.PersonalTimesheetSummary;
 import org.libreplan.business.workreports.entities.PredefinedWorkReportTypes;
 import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportLine;
@@ -147,7 +152,8 @@ public class WorkReportDAO extends IntegrationEntityDAO<WorkReport> implements I
 
         Criteria criteria = getSession().createCriteria(WorkReport.class);
         criteria.add(Restrictions.eq(WORK_REPORT_TYPE_COLUMN, getPersonalTimesheetsWorkReportType()));
-        List<WorkReport> personalTimesheets = criteria.add(Restrictions.eq("resource", resource)).list();
+        criteria.add(Restrictions.eq("resource", resource)).addOrder(Order.asc("id"));
+        List<WorkReport> personalTimesheets = criteria.list();
 
         LocalDate start = periodicity.getStart(date);
         LocalDate end = periodicity.getEnd(date);
@@ -167,6 +173,41 @@ public class WorkReportDAO extends IntegrationEntityDAO<WorkReport> implements I
         return null;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<PersonalTimesheetSummary> getPersonalTimesheetsSummaries(
+            Resource resource, LocalDate start, LocalDate end) {
+
+        Validate.notNull(start);
+        Validate.notNull(end);
+        if ( resource.getId() == null ) {
+            return Collections.emptyList();
+        }
+
+        Query query = getSession().createQuery(
+                "SELECT line.workReport.id, MIN(line.date), SUM(line.effort), " +
+                "COUNT(DISTINCT CASE WHEN line.effort > 0 THEN line.orderElement.id END) " +
+                "FROM WorkReportLine line " +
+                "WHERE line.workReport.workReportType = :type AND line.workReport.resource = :resource " +
+                "AND line.date BETWEEN :start AND :end " +
+                "GROUP BY line.workReport.id " +
+                "ORDER BY MIN(line.date), line.workReport.id");
+        query.setParameter("type", getPersonalTimesheetsWorkReportType())
+                .setParameter("resource", resource)
+                .setParameter("start", start.toDateTimeAtStartOfDay().toDate())
+                .setParameter("end", end.toDateTimeAtStartOfDay().toDate());
+
+        List<PersonalTimesheetSummary> result = new ArrayList<>();
+        for (Object[] each : (List<Object[]>) query.list()) {
+            result.add(new PersonalTimesheetSummary(
+                    (Long) each[0],
+                    LocalDate.fromDateFields((Date) each[1]),
+                    EffortDuration.seconds(((Number) each[2]).intValue()),
+                    ((Number) each[3]).intValue()));
+        }
+        return result;
+    }
+
     private WorkReportType getPersonalTimesheetsWorkReportType() {
         WorkReportType workReportType;
         try {
@@ -25,9 +25,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.hibernate.Criteria;
+import org.hibernate.FlushMode;
 import org.hibernate.Query;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
@@ -35,6 +38,7 @@ import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.reports.dtos.WorkReportLineDTO;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.util.Pair;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.springframework.beans.factory.config.BeanDefinition;
@@ -55,6 +59,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class WorkReportLineDAO extends IntegrationEntityDAO<WorkReportLine>
         implements IWorkReportLineDAO {
 
+    /**
+     * Maximum number of values in the <code>IN</code> clauses of the queries
+     */
+    private static final int IN_CLAUSE_SIZE = 500;
+
     @SuppressWarnings("unchecked")
     @Override
     public List<WorkReportLine> findByOrderElement(OrderElement orderElement){
@@ -200,6 +209,52 @@ public class WorkReportLineDAO extends IntegrationEntityDAO<WorkReportLine>
         return criteria.uniqueResult() != null;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map<Long, Pair<EffortDuration, Long>> findSavedEffortsAndOrderElements(
+            Collection<Long> ids) {
+        Map<Long, Pair<EffortDuration, Long>> result = new HashMap<Long, Pair<EffortDuration, Long>>();
+        List<Long> list = new ArrayList<Long>(ids);
+
+        for (int i = 0; i < list.size(); i += IN_CLAUSE_SIZE) {
+            Query query = getSession().createQuery(
+                    "SELECT line.id, line.effort, line.orderElement.id "
+                            + "FROM WorkReportLine line WHERE line.id IN (:ids)");
+            query.setParameterList("ids",
+                    list.subList(i, Math.min(i + IN_CLAUSE_SIZE, list.size())));
+            query.setFlushMode(FlushMode.MANUAL);
+
+            for (Object[] each : (List<Object[]>) query.list()) {
+                result.put((Long) each[0], Pair.create((EffortDuration) each[1], (Long) each[2]));
+            }
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Object[]> findEffortsGroupedByOrderElementResourceDateAndType(
+            Collection<Long> orderElementIds) {
+        List<Object[]> result = new ArrayList<Object[]>();
+        List<Long> list = new ArrayList<Long>(orderElementIds);
+
+        for (int i = 0; i < list.size(); i += IN_CLAUSE_SIZE) {
+            Query query = getSession().createQuery(
+                    "SELECT line.orderElement.id, line.resource.id, line.date, "
+                            + "type.id, type.defaultPrice, line.effort, COUNT(line) "
+                            + "FROM WorkReportLine line JOIN line.typeOfWorkHours type "
+                            + "WHERE line.orderElement.id IN (:ids) "
+                            + "GROUP BY line.orderElement.id, line.resource.id, line.date, "
+                            + "type.id, type.defaultPrice, line.effort");
+            query.setParameterList("ids",
+                    list.subList(i, Math.min(i + IN_CLAUSE_SIZE, list.size())));
+            result.addAll(query.list());
+        }
+
+        return result;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<WorkReportLine> findByOrderElementAndWorkReports(
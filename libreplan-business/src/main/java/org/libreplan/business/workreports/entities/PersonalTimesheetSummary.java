@@ -0,0 +1,103 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.libreplan.business.workreports.entities;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.LocalDate;
+import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workreports.daos.IWorkReportDAO;
+
+/**
+ * Totals of a personal timesheet {@link WorkReport} read without loading it
+ * nor its lines. Once it is created it is not modified, so it can be shared.
+ */
+public class PersonalTimesheetSummary {
+
+    /**
+     * Like
+     * {@link IWorkReportDAO#getPersonalTimesheetWorkReport(org.libreplan.business.resources.entities.Resource, LocalDate, PersonalTimesheetsPeriodicityEnum)}
+     * only the first personal timesheet of each period is kept, the one
+     * created first if there are several.
+     *
+     * @return the summaries indexed by the start of their period
+     */
+    public static Map<LocalDate, PersonalTimesheetSummary> firstByPeriod(
+            Collection<? extends PersonalTimesheetSummary> summaries,
+            PersonalTimesheetsPeriodicityEnum periodicity) {
+
+        Map<LocalDate, PersonalTimesheetSummary> result = new HashMap<>();
+        for (PersonalTimesheetSummary each : summaries) {
+            LocalDate period = periodicity.getStart(each.getDate());
+            PersonalTimesheetSummary previous = result.get(period);
+            if ( previous == null || each.getWorkReportId() < previous.getWorkReportId() ) {
+                result.put(period, each);
+            }
+        }
+        return result;
+    }
+
+    private final Long workReportId;
+
+    private final LocalDate date;
+
+    private final EffortDuration totalEffort;
+
+    private final int orderElementsWithTrackedTime;
+
+    public PersonalTimesheetSummary(Long workReportId, LocalDate date,
+                                    EffortDuration totalEffort, int orderElementsWithTrackedTime) {
+        Validate.notNull(workReportId);
+        Validate.notNull(date);
+        this.workReportId = workReportId;
+        this.date = date;
+        this.totalEffort = totalEffort != null ? totalEffort : EffortDuration.zero();
+        this.orderElementsWithTrackedTime = orderElementsWithTrackedTime;
+    }
+
+    public Long getWorkReportId() {
+        return workReportId;
+    }
+
+    /**
+     * @return the first day with a {@link WorkReportLine}, all the lines of a
+     *         personal timesheet are in the same period
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public EffortDuration getTotalEffort() {
+        return totalEffort;
+    }
+
+    /**
+     * @return the number of different order elements with some effort tracked
+     */
+    public int getOrderElementsWithTrackedTime() {
+        return orderElementsWithTrackedTime;
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.libreplan.business.common.EntityCodeAllocator.IBlockReserver;
+import org.libreplan.business.common.entities.EntityNameEnum;
+import org.libreplan.business.common.entities.EntitySequence;
+
+/**
+ * Tests for {@link EntityCodeAllocator}.
+ */
+public class EntityCodeAllocatorTest {
+
+    /**
+     * Reserves the codes of a sequence in memory, skipping the ones already
+     * used.
+     */
+    private static class FakeReserver implements IBlockReserver {
+
+        private final EntitySequence sequence = EntitySequence.create("ORD", EntityNameEnum.ORDER, 6);
+
+        private final Set<String> used = new HashSet<>();
+
+        private final List<Integer> sizes = new ArrayList<>();
+
+        @Override
+        public synchronized List<String> reserve(EntityNameEnum entityName, int size) {
+            sizes.add(size);
+            List<String> result = new ArrayList<>();
+            for (String each : sequence.reserveCodes(size)) {
+                if ( !used.contains(each) ) {
+                    result.add(each);
+                }
+            }
+            return result;
+        }
+
+    }
+
+    @Test
+    public void theCodesAreTakenInOrder() {
+        FakeReserver reserver = new FakeReserver();
+        EntityCodeAllocator allocator = new EntityCodeAllocator(reserver);
+
+        assertEquals("ORD000001", allocator.nextCode(EntityNameEnum.ORDER));
+        assertEquals("ORD000002", allocator.nextCode(EntityNameEnum.ORDER));
+        assertEquals("ORD000003", allocator.nextCode(EntityNameEnum.ORDER));
+    }
+
+    @Test
+    public void theBlocksGrowWhileTheCodesAreConsumedQuickly() {
+        FakeReserver reserver = new FakeReserver();
+        EntityCodeAllocator allocator = new EntityCodeAllocator(reserver);
+
+        for (int i = 0; i < 2000; i++) {
+            allocator.nextCode(EntityNameEnum.ORDER);
+        }
+
+        assertEquals(Arrays.asList(1, 2, 4, 8, 16, 32, 64, 128), reserver.sizes.subList(0, 8));
+        assertTrue(reserver.sizes.size() < 20);
+        assertEquals(EntityCodeAllocator.MAX_BLOCK_SIZE, (int) Collections.max(reserver.sizes));
+    }
+
+    @Test
+    public void theCodesAlreadyUsedAreSkipped() {
+        FakeReserver reserver = new FakeReserver();
+        reserver.used.addAll(Arrays.asList("ORD000001", "ORD000002", "ORD000003", "ORD000005"));
+        EntityCodeAllocator allocator = new EntityCodeAllocator(reserver);
+
+        assertEquals("ORD000004", allocator.nextCode(EntityNameEnum.ORDER));
+        assertEquals("ORD000006", allocator.nextCode(EntityNameEnum.ORDER));
+    }
+
+    @Test
+    public void theDiscardedCodesAreNotHandedOut() {
+        FakeReserver reserver = new FakeReserver();
+        EntityCodeAllocator allocator = new EntityCodeAllocator(reserver);
+        for (int i = 0; i < 4; i++) {
+            allocator.nextCode(EntityNameEnum.ORDER);
+        }
+
+        allocator.discardReservedCodes();
+
+        assertEquals("ORD000008", allocator.nextCode(EntityNameEnum.ORDER));
+    }
+
+    @Test
+    public void theCodesAreUniqueWhenRequestedConcurrently() throws Exception {
+        FakeReserver reserver = new FakeReserver();
+        final EntityCodeAllocator allocator = new EntityCodeAllocator(reserver);
+
+        List<Callable<List<String>>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(new Callable<List<String>>() {
+                @Override
+                public List<String> call() {
+                    List<String> result = new ArrayList<>();
+                    for (int j = 0; j < 5000; j++) {
+                        result.add(allocator.nextCode(EntityNameEnum.ORDER));
+                    }
+                    return result;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<String> codes = new HashSet<>();
+        try {
+            for (Future<List<String>> each : executor.invokeAll(tasks)) {
+                codes.addAll(each.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(40000, codes.size());
+        assertTrue(reserver.sizes.size() < 40000 / 100);
+    }
+
+}
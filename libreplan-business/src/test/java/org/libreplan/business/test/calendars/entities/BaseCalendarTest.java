@@ -43,6 +43,7 @@ import org.libreplan.business.calendars.entities.CalendarException;
 import org.libreplan.business.calendars.entities.CalendarExceptionType;
 import org.libreplan.business.calendars.entities.CalendarExceptionTypeColor;
 import org.libreplan.business.calendars.entities.Capacity;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
 import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workingday.IntraDayDate.PartialDay;
 import org.libreplan.business.workingday.ResourcesPerDay;
@@ -838,4 +839,45 @@ public class BaseCalendarTest {
         AvailabilityTimeLine availability = calendar.getAvailability();
         assertFalse(availability.isValid(MONDAY_LOCAL_DATE));
     }
+
+    @Test
+    public void derivedCalendarSeesTheChangesDoneInItsParent() {
+        BaseCalendar parent = createBasicCalendar();
+        BaseCalendar calendar = parent.newDerivedCalendar();
+        assertThat(calendar.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(hours(8)));
+
+        parent.setCapacityAt(Days.MONDAY, withNormalDuration(hours(6)));
+        assertThat(calendar.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(hours(6)));
+
+        addExceptionOn(parent, MONDAY_LOCAL_DATE, withNormalDuration(hours(2)));
+        assertThat(calendar.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(hours(2)));
+
+        parent.removeExceptionDay(MONDAY_LOCAL_DATE);
+        assertThat(calendar.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(hours(6)));
+    }
+
+    @Test
+    public void derivedCalendarUsesTheParentOfEachVersion() {
+        BaseCalendar firstParent = createChristmasCalendar();
+        BaseCalendar secondParent = createBasicCalendar();
+        secondParent.setCapacityAt(Days.MONDAY, withNormalDuration(hours(4)));
+
+        BaseCalendar calendar = firstParent.newDerivedCalendar();
+        calendar.newVersion(MONDAY_LOCAL_DATE.plusWeeks(1));
+        calendar.setParent(secondParent);
+
+        assertThat(calendar.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(hours(8)));
+        assertThat(calendar.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE.plusWeeks(1))), equalTo(hours(4)));
+        assertThat(calendar.getExceptionDay(CHRISTMAS_DAY_LOCAL_DATE), nullValue());
+    }
+
+    @Test
+    public void inactiveDaysHaveNoCapacity() {
+        BaseCalendar calendar = ResourceCalendar.create();
+        calendar.getLastCalendarAvailability().setStartDate(MONDAY_LOCAL_DATE.plusWeeks(1));
+        calendar.setCapacityAt(Days.MONDAY, withNormalDuration(hours(8)));
+
+        assertThat(calendar.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(zero()));
+        assertThat(calendar.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE.plusWeeks(1))), equalTo(hours(8)));
+    }
 }
@@ -0,0 +1,365 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.libreplan.business.test.common.daos;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.common.BaseEntity;
+import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.IOnTransaction;
+import org.libreplan.business.common.daos.DirtyTracker;
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.labels.daos.ILabelTypeDAO;
+import org.libreplan.business.labels.entities.Label;
+import org.libreplan.business.labels.entities.LabelType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * Tests for {@link DirtyTracker} and {@link DirtyTrackingInterceptor}. The
+ * detached graph saved with a tracker must be written as if Hibernate had
+ * checked it against the loaded state.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class DirtyTrackingInterceptorTest {
+
+    @Autowired
+    private ILabelTypeDAO labelTypeDAO;
+
+    @Autowired
+    private IAdHocTransactionService transactionService;
+
+    private DirtyTracker tracker;
+
+    @Before
+    public void createTracker() {
+        tracker = new DirtyTracker();
+    }
+
+    private interface IModification {
+        void modify(LabelType labelType);
+    }
+
+    private static LabelType givenLabelType() {
+        LabelType result = LabelType.create(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+        result.addLabel(Label.create(UUID.randomUUID().toString(), "first"));
+        result.addLabel(Label.create(UUID.randomUUID().toString(), "second"));
+        return result;
+    }
+
+    /**
+     * Saves the detached label type as the saving of the planning does
+     */
+    private List<BaseEntity> trackedSave(final LabelType labelType) {
+        tracker.startTracking();
+        try {
+            transactionService.runOnTransaction(new IOnTransaction<Void>() {
+                @Override
+                public Void execute() {
+                    labelTypeDAO.save(labelType);
+                    return null;
+                }
+            });
+            List<BaseEntity> inserted = tracker.committed();
+            for (BaseEntity each : inserted) {
+                each.dontPoseAsTransientObjectAnymore();
+            }
+            return inserted;
+        } catch (RuntimeException e) {
+            tracker.discard();
+            throw e;
+        } finally {
+            tracker.stopTracking();
+        }
+    }
+
+    /**
+     * Applies the modification to the label type loaded in a transaction, so
+     * Hibernate checks it against the loaded state
+     */
+    private void defaultSave(final Long id, final IModification modification) {
+        transactionService.runOnTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                try {
+                    modification.modify(labelTypeDAO.find(id));
+                } catch (InstanceNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+                return null;
+            }
+        });
+    }
+
+    private void plainSave(final LabelType labelType) {
+        transactionService.runOnTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                labelTypeDAO.save(labelType);
+                return null;
+            }
+        });
+        labelType.dontPoseAsTransientObjectAnymore();
+        for (Label each : labelType.getLabels()) {
+            each.dontPoseAsTransientObjectAnymore();
+        }
+    }
+
+    private LabelType load(final Long id) {
+        return transactionService.runOnReadOnlyTransaction(new IOnTransaction<LabelType>() {
+            @Override
+            public LabelType execute() {
+                try {
+                    LabelType result = labelTypeDAO.find(id);
+                    result.getLabels().size();
+                    return result;
+                } catch (InstanceNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
+    private static Label labelNamed(LabelType labelType, String name) {
+        for (Label each : labelType.getLabels()) {
+            if ( each.getName().equals(name) ) {
+                return each;
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> labelNames(LabelType labelType) {
+        Set<String> result = new HashSet<>();
+        for (Label each : labelType.getLabels()) {
+            result.add(each.getName());
+        }
+        return result;
+    }
+
+    /**
+     * Applies the same modification to a tracked label type and to another one
+     * checked by Hibernate, and checks both end up with the same versions
+     */
+    private LabelType checkSameAsDefault(IModification modification) {
+        LabelType tracked = givenLabelType();
+        trackedSave(tracked);
+        long trackedVersion = tracked.getVersion();
+
+        LabelType checked = givenLabelType();
+        plainSave(checked);
+        long checkedVersion = load(checked.getId()).getVersion();
+
+        modification.modify(tracked);
+        trackedSave(tracked);
+        defaultSave(checked.getId(), modification);
+
+        LabelType trackedAfter = load(tracked.getId());
+        LabelType checkedAfter = load(checked.getId());
+        assertEquals(checkedAfter.getVersion() - checkedVersion, trackedAfter.getVersion() - trackedVersion);
+        assertEquals(trackedAfter.getVersion(), tracked.getVersion());
+        assertEquals(labelNames(checkedAfter), labelNames(trackedAfter));
+        for (Label each : checkedAfter.getLabels()) {
+            assertEquals(each.getVersion(), labelNamed(trackedAfter, each.getName()).getVersion());
+        }
+        return trackedAfter;
+    }
+
+    @Test
+    public void theUnmodifiedEntitiesAreNotUpdated() {
+        LabelType saved = checkSameAsDefault(new IModification() {
+            @Override
+            public void modify(LabelType labelType) {
+            }
+        });
+        assertTrue(tracker.isTracking());
+        assertEquals(0, (long) labelNamed(saved, "first").getVersion());
+    }
+
+    @Test
+    public void theModifiedEntitiesAreUpdated() {
+        LabelType saved = checkSameAsDefault(new IModification() {
+            @Override
+            public void modify(LabelType labelType) {
+                labelType.setName(labelType.getName() + " modified");
+            }
+        });
+        assertTrue(saved.getName().endsWith(" modified"));
+        assertEquals(1, (long) saved.getVersion());
+        assertEquals(0, (long) labelNamed(saved, "first").getVersion());
+    }
+
+    @Test
+    public void onlyTheModifiedChildIsUpdated() {
+        LabelType saved = checkSameAsDefault(new IModification() {
+            @Override
+            public void modify(LabelType labelType) {
+                labelNamed(labelType, "second").setCode(labelType.getCode() + "-modified");
+            }
+        });
+        assertEquals(0, (long) saved.getVersion());
+        assertEquals(saved.getCode() + "-modified", labelNamed(saved, "second").getCode());
+        assertEquals(1, (long) labelNamed(saved, "second").getVersion());
+        assertEquals(0, (long) labelNamed(saved, "first").getVersion());
+    }
+
+    @Test
+    public void theModifiedCollectionsAreUpdated() {
+        LabelType saved = checkSameAsDefault(new IModification() {
+            @Override
+            public void modify(LabelType labelType) {
+                labelType.removeLabel(labelNamed(labelType, "second"));
+                labelType.addLabel(Label.create(UUID.randomUUID().toString(), "third"));
+            }
+        });
+        assertEquals(new HashSet<>(asList("first", "third")), labelNames(saved));
+    }
+
+    @Test
+    public void theInsertedEntitiesAreReturned() {
+        LabelType labelType = givenLabelType();
+        Set<BaseEntity> inserted = new HashSet<BaseEntity>(trackedSave(labelType));
+        assertTrue(inserted.contains(labelType));
+        assertTrue(inserted.containsAll(labelType.getLabels()));
+
+        Label third = Label.create(UUID.randomUUID().toString(), "third");
+        labelType.addLabel(third);
+        assertEquals(asList(third), trackedSave(labelType));
+        assertTrue(trackedSave(labelType).isEmpty());
+    }
+
+    @Test
+    public void theEntitiesLoadedByQueriesAreNotTracked() {
+        final LabelType loaded = givenLabelType();
+        plainSave(loaded);
+        final LabelType labelType = givenLabelType();
+        final LabelType[] queried = new LabelType[1];
+
+        tracker.startTracking();
+        try {
+            transactionService.runOnTransaction(new IOnTransaction<Void>() {
+                @Override
+                public Void execute() {
+                    labelTypeDAO.save(labelType);
+                    try {
+                        queried[0] = labelTypeDAO.find(loaded.getId());
+                    } catch (InstanceNotFoundException e) {
+                        throw new RuntimeException(e);
+                    }
+                    labelTypeDAO.flush();
+                    return null;
+                }
+            });
+            for (BaseEntity each : tracker.committed()) {
+                each.dontPoseAsTransientObjectAnymore();
+            }
+        } finally {
+            tracker.stopTracking();
+        }
+
+        long version = queried[0].getVersion();
+        trackedSave(queried[0]);
+        // Without a known state the reattached entity is updated entirely
+        assertEquals(version + 1, (long) load(loaded.getId()).getVersion());
+    }
+
+    @Test
+    public void theEntitiesSavedOnAnotherTransactionAreNotTracked() {
+        final LabelType other = givenLabelType();
+        plainSave(other);
+        final LabelType labelType = givenLabelType();
+
+        tracker.startTracking();
+        try {
+            transactionService.runOnTransaction(new IOnTransaction<Void>() {
+                @Override
+                public Void execute() {
+                    labelTypeDAO.save(labelType);
+                    transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+                        @Override
+                        public Void execute() {
+                            labelTypeDAO.save(other);
+                            return null;
+                        }
+                    });
+                    return null;
+                }
+            });
+            for (BaseEntity each : tracker.committed()) {
+                each.dontPoseAsTransientObjectAnymore();
+            }
+        } finally {
+            tracker.stopTracking();
+        }
+        assertTrue(tracker.isTracking());
+
+        // The entities saved by the tracked transaction are known
+        long labelTypeVersion = labelType.getVersion();
+        trackedSave(labelType);
+        assertEquals(labelTypeVersion, (long) load(labelType.getId()).getVersion());
+
+        long version = other.getVersion();
+        trackedSave(other);
+        assertEquals(version + 1, (long) load(other.getId()).getVersion());
+    }
+
+    @Test
+    public void onlyTheEntitiesOfTheLastSaveAreKept() {
+        LabelType first = givenLabelType();
+        trackedSave(first);
+        trackedSave(givenLabelType());
+
+        long version = first.getVersion();
+        trackedSave(first);
+        assertEquals(version + 1, (long) load(first.getId()).getVersion());
+    }
+
+    @Test
+    public void theStatesAreForgottenIfTheSaveFails() {
+        LabelType labelType = givenLabelType();
+        trackedSave(labelType);
+        assertTrue(tracker.isTracking());
+
+        labelNamed(labelType, "second").setName("first");
+        try {
+            trackedSave(labelType);
+        } catch (RuntimeException e) {
+            // Expected, the label names are repeated
+        }
+        assertFalse(tracker.isTracking());
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.costcategories.entities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.costcategories.entities.CostRateIndex;
+
+/**
+ * Tests for {@link CostRateIndex}.
+ */
+public class CostRateIndexTest {
+
+    private static final Long RESOURCE = 1L;
+
+    private static final Long JUNIOR = 10L;
+
+    private static final Long SENIOR = 11L;
+
+    private static final Long NORMAL = 100L;
+
+    private static final Long EXTRA = 101L;
+
+    private static LocalDate date(int month, int day) {
+        return new LocalDate(2026, month, day);
+    }
+
+    private static CostRateIndex givenIndex() {
+        return new CostRateIndex()
+                .addAssignment(RESOURCE, JUNIOR, date(1, 1), date(5, 31))
+                .addAssignment(RESOURCE, SENIOR, date(6, 1), null)
+                .addHourCost(JUNIOR, NORMAL, date(1, 1), date(2, 28), new BigDecimal("10"))
+                .addHourCost(JUNIOR, NORMAL, date(3, 1), null, new BigDecimal("12"))
+                .addHourCost(SENIOR, NORMAL, date(1, 1), null, new BigDecimal("20"))
+                .addHourCost(SENIOR, EXTRA, date(7, 1), null, new BigDecimal("30"));
+    }
+
+    @Test
+    public void thePriceOfTheCategoryAssignedAtTheDateIsUsed() {
+        CostRateIndex index = givenIndex();
+
+        assertEquals(new BigDecimal("10"), index.getPriceCost(RESOURCE, date(1, 15), NORMAL));
+        assertEquals(new BigDecimal("12"), index.getPriceCost(RESOURCE, date(5, 31), NORMAL));
+        assertEquals(new BigDecimal("20"), index.getPriceCost(RESOURCE, date(6, 1), NORMAL));
+        assertEquals(new BigDecimal("20"), index.getPriceCost(RESOURCE, date(12, 31), NORMAL));
+    }
+
+    @Test
+    public void theLimitsOfTheIntervalsAreIncluded() {
+        CostRateIndex index = givenIndex();
+
+        assertEquals(new BigDecimal("10"), index.getPriceCost(RESOURCE, date(2, 28), NORMAL));
+        assertEquals(new BigDecimal("12"), index.getPriceCost(RESOURCE, date(3, 1), NORMAL));
+        assertEquals(new BigDecimal("30"), index.getPriceCost(RESOURCE, date(7, 1), EXTRA));
+    }
+
+    @Test
+    public void thereIsNoPriceOutOfTheIntervals() {
+        CostRateIndex index = givenIndex();
+
+        assertNull(index.getPriceCost(RESOURCE, new LocalDate(2025, 12, 31), NORMAL));
+        assertNull(index.getPriceCost(RESOURCE, date(6, 30), EXTRA));
+        assertNull(index.getPriceCost(RESOURCE, date(3, 1), EXTRA));
+        assertNull(index.getPriceCost(2L, date(3, 1), NORMAL));
+        assertNull(index.getPriceCost(null, date(3, 1), NORMAL));
+    }
+
+    @Test
+    public void theIntervalsWithoutInitDateAreIgnored() {
+        CostRateIndex index = new CostRateIndex()
+                .addAssignment(RESOURCE, JUNIOR, null, null)
+                .addAssignment(2L, JUNIOR, date(1, 1), null)
+                .addHourCost(JUNIOR, NORMAL, null, null, new BigDecimal("10"));
+
+        assertNull(index.getPriceCost(RESOURCE, date(3, 1), NORMAL));
+        assertNull(index.getPriceCost(2L, date(3, 1), NORMAL));
+    }
+
+}
@@ -20,16 +20,27 @@
 package org.libreplan.business.test.orders.daos;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+import static org.libreplan.business.workingday.EffortDuration.hours;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
+import org.hibernate.StaleStateException;
 import org.joda.time.LocalDate;
 import org.junit.Before;
 import org.junit.Test;
@@ -38,15 +49,51 @@ import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
 import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
+import org.libreplan.business.common.daos.IEntitySequenceDAO;
+import org.libreplan.business.common.entities.EntityNameEnum;
+import org.libreplan.business.common.entities.EntitySequence;
+import org.libreplan.business.common.entities.ProgressType;
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
 import org.libreplan.business.externalcompanies.entities.DeadlineCommunication;
+import org.libreplan.business.hibernate.notification.ISnapshotRefresherService;
+import org.libreplan.business.labels.daos.ILabelTypeDAO;
+import org.libreplan.business.labels.entities.Label;
+import org.libreplan.business.labels.entities.LabelType;
 import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.daos.ISumChargedEffortDAO;
+import org.libreplan.business.orders.entities.HoursGroup;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.OrderPlanningSummary;
+import org.libreplan.business.orders.entities.OrderStatusEnum;
+import org.libreplan.business.orders.entities.SumChargedEffort;
+import org.libreplan.business.orders.entities.TaskSource;
+import org.libreplan.business.orders.entities.TaskSource.TaskSourceSynchronization;
+import org.libreplan.business.planner.daos.ITaskElementDAO;
+import org.libreplan.business.planner.daos.ITaskSourceDAO;
+import org.libreplan.business.planner.entities.GenericResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.TaskGroup;
+import org.libreplan.business.resources.daos.ICriterionDAO;
+import org.libreplan.business.resources.daos.ICriterionTypeDAO;
+import org.libreplan.business.resources.daos.IResourceDAO;
+import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.scenarios.IScenarioManager;
 import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.scenarios.daos.IScenarioDAO;
 import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
 import org.libreplan.business.test.planner.daos.ResourceAllocationDAOTest;
+import org.libreplan.business.test.resources.daos.CriterionDAOTest;
+import org.libreplan.business.test.resources.daos.ResourceDAOTest;
+import org.libreplan.business.users.daos.IUserDAO;
+import org.libreplan.business.users.entities.User;
+import org.libreplan.business.users.entities.UserRole;
+import org.libreplan.business.workingday.ResourcesPerDay;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -87,6 +134,39 @@ public class OrderDAOTest {
     @Autowired
     private IAdHocTransactionService transactionService;
 
+    @Autowired
+    private ITaskSourceDAO taskSourceDAO;
+
+    @Autowired
+    private ITaskElementDAO taskElementDAO;
+
+    @Autowired
+    private IScenarioDAO scenarioDAO;
+
+    @Autowired
+    private ILabelTypeDAO labelTypeDAO;
+
+    @Autowired
+    private ISumChargedEffortDAO sumChargedEffortDAO;
+
+    @Autowired
+    private IUserDAO userDAO;
+
+    @Autowired
+    private ICriterionTypeDAO criterionTypeDAO;
+
+    @Autowired
+    private ICriterionDAO criterionDAO;
+
+    @Autowired
+    private IResourceDAO resourceDAO;
+
+    @Autowired
+    private ISnapshotRefresherService snapshotRefresherService;
+
+    @Autowired
+    private IEntitySequenceDAO entitySequenceDAO;
+
     @Test
     @Transactional
     public void testInSpringContainer() {
@@ -205,4 +285,317 @@ public class OrderDAOTest {
         });
     }
 
+    @Test
+    @Transactional
+    public void testSaveSeveralOrdersWithTheirLinesInTheSameTransaction() {
+        // The inserts are ordered and sent in JDBC batches
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Order order = createValidOrder("batched " + UUID.randomUUID());
+            for (int j = 0; j < 2; j++) {
+                OrderLine line = OrderLine.createOrderLineWithUnfixedPercentage(10);
+                line.setName(UUID.randomUUID().toString());
+                line.setCode(UUID.randomUUID().toString());
+                line.getHoursGroups().get(0).setCode(UUID.randomUUID().toString());
+                order.add(line);
+            }
+            orderDAO.save(order);
+            ids.add(order.getId());
+        }
+        orderDAO.flush();
+        orderDAO.clearSession();
+
+        for (Long id : ids) {
+            Order order = orderDAO.findExistingEntity(id);
+            assertThat(order.getChildren().size(), equalTo(2));
+            assertThat(order.getWorkHours(), equalTo(20));
+        }
+    }
+
+    @Test
+    public void testAStaleOrderIsDetectedWhenTheUpdatesAreBatched() {
+        final String name = "stale " + UUID.randomUUID();
+        final Long id = transactionService.runOnAnotherTransaction(new IOnTransaction<Long>() {
+            @Override
+            public Long execute() {
+                Order order = createValidOrder(name);
+                orderDAO.save(order);
+                return order.getId();
+            }
+        });
+
+        try {
+            transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+                @Override
+                public Void execute() {
+                    Order order = orderDAO.findExistingEntity(id);
+                    renameOnAnotherTransaction(id, name + " updated");
+
+                    order.setName(name + " stale");
+                    orderDAO.flush();
+                    return null;
+                }
+            });
+            fail("the update of a stale order must fail");
+        } catch (RuntimeException e) {
+            assertTrue(isCausedBy(e, StaleStateException.class));
+        }
+    }
+
+    @Test
+    @Transactional
+    public void theExistingCodesAreFoundIgnoringTheCase() {
+        Order order = createValidOrder("codes " + UUID.randomUUID());
+        String code = "ORDER-" + UUID.randomUUID();
+        order.setCode(code);
+        orderDAO.save(order);
+        orderDAO.flush();
+
+        List<String> existing =
+                orderDAO.findExistingCodes(Arrays.asList(code.toLowerCase(), "ORDER-" + UUID.randomUUID()));
+
+        assertThat(existing, equalTo(Collections.singletonList(code)));
+    }
+
+    @Test
+    @Transactional
+    public void theOrdersAreFoundByTheirCodesIgnoringTheCase() {
+        Order order = createValidOrder("found " + UUID.randomUUID());
+        orderDAO.save(order);
+        orderDAO.flush();
+
+        List<Order> found =
+                orderDAO.findByCodes(Arrays.asList(order.getCode().toUpperCase(), "ORDER-" + UUID.randomUUID()));
+
+        assertThat(found, equalTo(Collections.singletonList(order)));
+    }
+
+    @Test
+    public void theCodesOfTheOrdersAlreadyUsedAreSkippedWhenReservingThem() {
+        final EntitySequence sequence = givenActiveOrderSequence();
+        final String used = sequence.getPrefix() +
+                EntitySequence.formatValue(sequence.getNumberOfDigits(), sequence.getLastValue() + 1);
+        String expected = sequence.getPrefix() +
+                EntitySequence.formatValue(sequence.getNumberOfDigits(), sequence.getLastValue() + 2);
+
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                Order order = createValidOrder("reserved " + UUID.randomUUID());
+                order.setCode(used.toLowerCase());
+                orderDAO.save(order);
+                return null;
+            }
+        });
+
+        entitySequenceDAO.discardReservedCodes();
+        assertThat(entitySequenceDAO.getNextEntityCode(EntityNameEnum.ORDER), equalTo(expected));
+    }
+
+    private EntitySequence givenActiveOrderSequence() {
+        return transactionService.runOnAnotherTransaction(new IOnTransaction<EntitySequence>() {
+            @Override
+            public EntitySequence execute() {
+                try {
+                    return entitySequenceDAO.getActiveEntitySequence(EntityNameEnum.ORDER);
+                } catch (InstanceNotFoundException e) {
+                    EntitySequence result = EntitySequence.create("ORDER-" + UUID.randomUUID(), EntityNameEnum.ORDER);
+                    result.setActive(true);
+                    entitySequenceDAO.save(result);
+                    return result;
+                }
+            }
+        });
+    }
+
+    private Order givenScheduledOrder(Scenario scenario) {
+        OrderLine orderLine = OrderLine.create();
+        orderLine.setName("line-" + UUID.randomUUID());
+        orderLine.setCode("code-" + UUID.randomUUID());
+        HoursGroup hoursGroup = new HoursGroup();
+        hoursGroup.setCode("hours-group-code-" + UUID.randomUUID());
+        hoursGroup.setWorkingHours(10);
+        orderLine.addHoursGroup(hoursGroup);
+
+        Order order = Order.create();
+        order.setName("order-" + UUID.randomUUID());
+        order.setCode("code-" + UUID.randomUUID());
+        order.setInitDate(new Date());
+        BaseCalendar calendar = BaseCalendarTest.createBasicCalendar();
+        calendarDAO.save(calendar);
+        order.setCalendar(calendar);
+        OrderVersion orderVersion = OrderVersion.createInitialVersion(scenario);
+        order.setVersionForScenario(scenario, orderVersion);
+        order.useSchedulingDataFor(orderVersion);
+        order.add(orderLine);
+        orderDAO.save(order);
+
+        for (TaskSourceSynchronization each : order.calculateSynchronizationsNeeded()) {
+            each.apply(TaskSource.persistTaskSources(taskSourceDAO));
+        }
+        order.writeSchedulingDataChanges();
+        orderDAO.save(order);
+        orderDAO.flush();
+        return order;
+    }
+
+    private Label givenLabel(String name) {
+        LabelType labelType = LabelType.create("type-" + UUID.randomUUID());
+        Label result = Label.create(name);
+        labelType.addLabel(result);
+        labelTypeDAO.save(labelType);
+        return result;
+    }
+
+    private String givenSuperuser() {
+        final String loginName = "superuser-" + UUID.randomUUID();
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                userDAO.save(User.create(loginName, loginName, Collections.singleton(UserRole.ROLE_SUPERUSER)));
+                return null;
+            }
+        });
+        return loginName;
+    }
+
+    private static OrderPlanningSummary summaryOf(Order order, List<OrderPlanningSummary> summaries) {
+        for (OrderPlanningSummary each : summaries) {
+            if ( each.getOrderId().equals(order.getId()) ) {
+                return each;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    @Transactional
+    public void thePlanningSummariesAreReadFromTheRootTaskOfTheOrdersOfTheScenario() {
+        String loginName = givenSuperuser();
+        Scenario current = scenarioManager.getCurrent();
+        Scenario another = Scenario.create("scenario-" + UUID.randomUUID());
+        scenarioDAO.save(another);
+
+        Order order = givenScheduledOrder(current);
+        order.setState(OrderStatusEnum.STARTED);
+        order.setCustomerReference("reference");
+        order.addLabel(givenLabel("b-label"));
+        order.addLabel(givenLabel("a-label"));
+        order.setTotalHours(10);
+        SumChargedEffort sumChargedEffort = SumChargedEffort.create(order);
+        sumChargedEffort.addDirectChargedEffort(hours(3));
+        sumChargedEffort.addIndirectChargedEffort(hours(2));
+        order.setSumChargedEffort(sumChargedEffort);
+        sumChargedEffortDAO.save(sumChargedEffort);
+
+        TaskGroup rootTask = order.getAssociatedTaskElement();
+        rootTask.setAdvancePercentage(new BigDecimal("0.25"));
+        rootTask.setSumOfAssignedEffort(hours(8));
+        orderDAO.save(order);
+        orderDAO.flush();
+
+        Order onAnotherScenario = givenScheduledOrder(another);
+
+        List<OrderPlanningSummary> summaries = orderDAO.getPlanningSummariesByReadAuthorization(loginName, current);
+        assertNull(summaryOf(onAnotherScenario, summaries));
+
+        OrderPlanningSummary summary = summaryOf(order, summaries);
+        assertNotNull(summary);
+        assertThat(summary.getCode(), equalTo(order.getCode()));
+        assertThat(summary.getName(), equalTo(rootTask.getName()));
+        assertThat(summary.getState(), equalTo(OrderStatusEnum.STARTED));
+        assertThat(summary.getCustomerReference(), equalTo("reference"));
+        assertThat(summary.getIntraDayStartDate(), equalTo(rootTask.getIntraDayStartDate()));
+        assertThat(summary.getIntraDayEndDate(), equalTo(rootTask.getIntraDayEndDate()));
+        assertThat(summary.getAdvancePercentage().compareTo(new BigDecimal("0.25")), equalTo(0));
+        assertThat(summary.getAdvancePercentage(ProgressType.ALL_NUMHOURS).signum(), equalTo(0));
+        assertThat(summary.getAssignedEffort(), equalTo(hours(8)));
+        assertThat(summary.getChargedEffort(), equalTo(hours(5)));
+        assertThat(summary.getWorkHours(), equalTo(10));
+        assertThat(summary.getLabels(), equalTo(Arrays.asList("a-label", "b-label")));
+
+        List<OrderPlanningSummary> onAnother = orderDAO.getPlanningSummariesByReadAuthorization(loginName, another);
+        assertNull(summaryOf(order, onAnother));
+        assertNotNull(summaryOf(onAnotherScenario, onAnother));
+    }
+
+    @Test
+    @Transactional
+    public void theOrdersAllocatingACriterionOrAResourceAreFoundInTheScenario() {
+        Scenario current = scenarioManager.getCurrent();
+        Criterion criterion = CriterionDAOTest.createValidCriterion();
+        criterionTypeDAO.save(criterion.getType());
+        criterionDAO.save(criterion);
+        Worker worker = ResourceDAOTest.givenValidWorker();
+        resourceDAO.save(worker);
+
+        Order order = givenScheduledOrder(current);
+        Order another = givenScheduledOrder(current);
+
+        Task task = (Task) order.getAssociatedTaskElement().getChildren().get(0);
+        task.addResourceAllocation(GenericResourceAllocation.create(task, Collections.singleton(criterion)));
+        SpecificResourceAllocation specific = SpecificResourceAllocation.createForTesting(ResourcesPerDay.amount(1), task);
+        specific.setResource(worker);
+        task.addResourceAllocation(specific);
+        taskElementDAO.save(task);
+        orderDAO.flush();
+
+        assertThat(orderDAO.getOrdersIdsAllocatingCriterion(current, criterion),
+                equalTo(Collections.singletonList(order.getId())));
+        assertThat(orderDAO.getOrdersIdsAllocatingResource(current, worker),
+                equalTo(Collections.singletonList(order.getId())));
+        assertFalse(orderDAO.getOrdersIdsAllocatingCriterion(current, criterion).contains(another.getId()));
+    }
+
+    @Test
+    public void thePlanningSummariesAreKeptInReadOnlyTransactionsUntilAnOrderIsModified() {
+        final String loginName = givenSuperuser();
+        IOnTransaction<List<OrderPlanningSummary>> read = new IOnTransaction<List<OrderPlanningSummary>>() {
+            @Override
+            public List<OrderPlanningSummary> execute() {
+                return orderDAO.getPlanningSummariesByReadAuthorization(loginName, scenarioManager.getCurrent());
+            }
+        };
+
+        List<OrderPlanningSummary> first = transactionService.runOnReadOnlyTransaction(read);
+        assertSame(first, transactionService.runOnReadOnlyTransaction(read));
+
+        long workersVersion = snapshotRefresherService.getModificationsVersion(Worker.class);
+        try {
+            transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+                @Override
+                public Void execute() {
+                    orderDAO.save(createValidOrder("order-" + UUID.randomUUID()));
+                    orderDAO.flush();
+                    throw new RuntimeException("rolled back");
+                }
+            });
+            fail("the transaction must be rolled back");
+        } catch (RuntimeException e) {
+            // The modifications are noticed even if rolled back
+        }
+
+        assertThat(snapshotRefresherService.getModificationsVersion(Worker.class), equalTo(workersVersion));
+        assertNotSame(first, transactionService.runOnReadOnlyTransaction(read));
+    }
+
+    private void renameOnAnotherTransaction(final Long id, final String name) {
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                orderDAO.findExistingEntity(id).setName(name);
+                return null;
+            }
+        });
+    }
+
+    private static boolean isCausedBy(Throwable exception, Class<? extends Throwable> cause) {
+        for (Throwable each = exception; each != null; each = each.getCause()) {
+            if ( cause.isInstance(each) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -0,0 +1,452 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.orders.daos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+import static org.libreplan.business.workingday.EffortDuration.zero;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.annotation.Resource;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.IDataBootstrap;
+import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.IOnTransaction;
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.daos.IOrderElementDAO;
+import org.libreplan.business.orders.daos.ISumChargedEffortDAO;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.OrderLineGroup;
+import org.libreplan.business.orders.entities.SumChargedEffort;
+import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
+import org.libreplan.business.test.planner.daos.ResourceAllocationDAOTest;
+import org.libreplan.business.test.workreports.daos.AbstractWorkReportTest;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workreports.daos.IWorkReportDAO;
+import org.libreplan.business.workreports.entities.WorkReport;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * Tests for {@link ISumChargedEffortDAO}. The timesheets are saved as the
+ * work report model does, and the expected efforts are the ones the updates
+ * line by line used to leave.
+ *
+ * The project used has this structure:
+ *
+ * <pre>
+ * order
+ *  |- group
+ *  |   |- lineA: first timesheet line, 5 hours
+ *  |   |- lineB: second timesheet line, 3 hours, finished
+ *  |- lineC
+ * </pre>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class SumChargedEffortDAOTest extends AbstractWorkReportTest {
+
+    private static final Date FIRST_DATE = new LocalDate(2026, 3, 2).toDateTimeAtStartOfDay().toDate();
+
+    private static final Date SECOND_DATE = new LocalDate(2026, 3, 9).toDateTimeAtStartOfDay().toDate();
+
+    @Autowired
+    private ISumChargedEffortDAO sumChargedEffortDAO;
+
+    @Autowired
+    private IOrderDAO orderDAO;
+
+    @Autowired
+    private IOrderElementDAO orderElementDAO;
+
+    @Autowired
+    private IWorkReportDAO workReportDAO;
+
+    @Autowired
+    private IBaseCalendarDAO calendarDAO;
+
+    @Autowired
+    private IScenarioManager scenarioManager;
+
+    @Autowired
+    private IScenariosBootstrap scenariosBootstrap;
+
+    @Autowired
+    private IAdHocTransactionService transactionService;
+
+    @Resource
+    private IDataBootstrap configurationBootstrap;
+
+    private Long order;
+
+    private Long group;
+
+    private Long lineA;
+
+    private Long lineB;
+
+    private Long lineC;
+
+    private Long workReport;
+
+    private Long firstLine;
+
+    private Long secondLine;
+
+    private interface ITimesheetModification {
+
+        /**
+         * @return the lines removed from the work report
+         */
+        Set<WorkReportLine> modify(WorkReport workReport);
+
+    }
+
+    @Before
+    public void givenAProjectWithTimesheetLines() {
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                configurationBootstrap.loadRequiredData();
+                scenariosBootstrap.loadRequiredData();
+                return null;
+            }
+        });
+
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                givenProject();
+                return null;
+            }
+        });
+
+        workReport = transactionService.runOnAnotherTransaction(new IOnTransaction<Long>() {
+            @Override
+            public Long execute() {
+                return givenWorkReport();
+            }
+        });
+    }
+
+    private void givenProject() {
+        Order result = Order.create();
+        result.setName("charged effort " + UUID.randomUUID());
+        result.setCode(UUID.randomUUID().toString());
+        result.setInitDate(new Date());
+        BaseCalendar calendar = BaseCalendarTest.createBasicCalendar();
+        calendarDAO.save(calendar);
+        result.setCalendar(calendar);
+        result.useSchedulingDataFor(ResourceAllocationDAOTest.setupVersionUsing(scenarioManager, result));
+
+        OrderLineGroup orderLineGroup = OrderLineGroup.create();
+        orderLineGroup.setName(UUID.randomUUID().toString());
+        orderLineGroup.setCode(UUID.randomUUID().toString());
+        result.add(orderLineGroup);
+
+        OrderLine orderLineA = givenOrderLine(orderLineGroup);
+        OrderLine orderLineB = givenOrderLine(orderLineGroup);
+        OrderLine orderLineC = givenOrderLine(result);
+
+        orderDAO.save(result);
+
+        order = result.getId();
+        group = orderLineGroup.getId();
+        lineA = orderLineA.getId();
+        lineB = orderLineB.getId();
+        lineC = orderLineC.getId();
+    }
+
+    private static OrderLine givenOrderLine(OrderLineGroup parent) {
+        OrderLine result = OrderLine.createOrderLineWithUnfixedPercentage(10);
+        parent.add(result);
+        result.setName(UUID.randomUUID().toString());
+        result.setCode(UUID.randomUUID().toString());
+        result.getHoursGroups().get(0).setCode(UUID.randomUUID().toString());
+        return result;
+    }
+
+    private Long givenWorkReport() {
+        WorkReport result = createValidWorkReport();
+        org.libreplan.business.resources.entities.Resource resource = createValidWorker();
+
+        WorkReportLine first = givenWorkReportLine(result, resource, lineA, hours(5), FIRST_DATE);
+        WorkReportLine second = givenWorkReportLine(result, resource, lineB, hours(3), SECOND_DATE);
+        second.setFinished(true);
+
+        sumChargedEffortDAO.updateRelatedSumChargedEffortWithWorkReportLineSet(result.getWorkReportLines());
+        workReportDAO.save(result);
+
+        firstLine = first.getId();
+        secondLine = second.getId();
+        return result.getId();
+    }
+
+    private WorkReportLine givenWorkReportLine(WorkReport workReport,
+            org.libreplan.business.resources.entities.Resource resource,
+            Long orderElement, EffortDuration effort, Date date) {
+        WorkReportLine result = WorkReportLine.create(workReport);
+        workReport.addWorkReportLine(result);
+        result.setDate(date);
+        result.setEffort(effort);
+        result.setResource(resource);
+        result.setOrderElement(orderElementDAO.findExistingEntity(orderElement));
+        result.setTypeOfWorkHours(createValidTypeOfWorkHours());
+        return result;
+    }
+
+    /**
+     * Saves the modification of the timesheet as the work report model does
+     */
+    private void saveTimesheet(final ITimesheetModification modification) {
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                WorkReport found = workReportDAO.findExistingEntity(workReport);
+                Set<WorkReportLine> deleted = modification.modify(found);
+
+                sumChargedEffortDAO.updateRelatedSumChargedEffortWithDeletedWorkReportLineSet(deleted);
+                sumChargedEffortDAO.updateRelatedSumChargedEffortWithWorkReportLineSet(found.getWorkReportLines());
+                workReportDAO.save(found);
+                return null;
+            }
+        });
+    }
+
+    private static WorkReportLine findLine(WorkReport workReport, Long id) {
+        for (WorkReportLine each : workReport.getWorkReportLines()) {
+            if ( each.getId().equals(id) ) {
+                return each;
+            }
+        }
+        throw new RuntimeException(new InstanceNotFoundException(id, WorkReportLine.class.getName()));
+    }
+
+    private SumChargedEffort sumOf(final Long orderElement) {
+        return transactionService.runOnAnotherReadOnlyTransaction(new IOnTransaction<SumChargedEffort>() {
+            @Override
+            public SumChargedEffort execute() {
+                OrderElement found = orderElementDAO.findExistingEntity(orderElement);
+                SumChargedEffort result = sumChargedEffortDAO.findByOrderElement(found);
+                return result != null ? result : SumChargedEffort.create(found);
+            }
+        });
+    }
+
+    private void assertCharged(Long orderElement, EffortDuration direct, EffortDuration indirect) {
+        SumChargedEffort sumChargedEffort = sumOf(orderElement);
+        assertEquals(direct, sumChargedEffort.getDirectChargedEffort());
+        assertEquals(indirect, sumChargedEffort.getIndirectChargedEffort());
+    }
+
+    private static void assertSameDay(Date expected, Date actual) {
+        assertEquals(LocalDate.fromDateFields(expected), LocalDate.fromDateFields(actual));
+    }
+
+    @Test
+    public void theEffortOfTheNewLinesIsChargedToTheirElementsAndAncestors() {
+        assertCharged(lineA, hours(5), zero());
+        assertCharged(lineB, hours(3), zero());
+        assertCharged(lineC, zero(), zero());
+        assertCharged(group, zero(), hours(8));
+        assertCharged(order, zero(), hours(8));
+    }
+
+    @Test
+    public void aLineMovedToAnotherElementIsChargedToTheNewOneOnly() {
+        saveTimesheet(new ITimesheetModification() {
+            @Override
+            public Set<WorkReportLine> modify(WorkReport workReport) {
+                findLine(workReport, firstLine).setOrderElement(orderElementDAO.findExistingEntity(lineC));
+                return Collections.emptySet();
+            }
+        });
+
+        assertCharged(lineA, zero(), zero());
+        assertCharged(lineB, hours(3), zero());
+        assertCharged(lineC, hours(5), zero());
+        assertCharged(group, zero(), hours(3));
+        assertCharged(order, zero(), hours(8));
+    }
+
+    @Test
+    public void aLineMovedAndEditedSubtractsThePreviousEffortAndAddsTheNewOne() {
+        saveTimesheet(new ITimesheetModification() {
+            @Override
+            public Set<WorkReportLine> modify(WorkReport workReport) {
+                WorkReportLine line = findLine(workReport, firstLine);
+                line.setOrderElement(orderElementDAO.findExistingEntity(lineB));
+                line.setEffort(hours(2));
+                return Collections.emptySet();
+            }
+        });
+
+        assertCharged(lineA, zero(), zero());
+        assertCharged(lineB, hours(5), zero());
+        assertCharged(group, zero(), hours(5));
+        assertCharged(order, zero(), hours(5));
+    }
+
+    @Test
+    public void theDifferenceOfAnEditedLineIsChargedToItsElementAndAncestors() {
+        saveTimesheet(new ITimesheetModification() {
+            @Override
+            public Set<WorkReportLine> modify(WorkReport workReport) {
+                findLine(workReport, secondLine).setEffort(hours(1));
+                return Collections.emptySet();
+            }
+        });
+
+        assertCharged(lineA, hours(5), zero());
+        assertCharged(lineB, hours(1), zero());
+        assertCharged(group, zero(), hours(6));
+        assertCharged(order, zero(), hours(6));
+
+        saveTimesheet(new ITimesheetModification() {
+            @Override
+            public Set<WorkReportLine> modify(WorkReport workReport) {
+                findLine(workReport, secondLine).setEffort(hours(4));
+                return Collections.emptySet();
+            }
+        });
+
+        assertCharged(lineB, hours(4), zero());
+        assertCharged(group, zero(), hours(9));
+        assertCharged(order, zero(), hours(9));
+    }
+
+    @Test
+    public void theSavedEffortOfADeletedLineIsSubtracted() {
+        saveTimesheet(new ITimesheetModification() {
+            @Override
+            public Set<WorkReportLine> modify(WorkReport workReport) {
+                WorkReportLine line = findLine(workReport, firstLine);
+                // The changes not saved are ignored
+                line.setEffort(hours(1));
+                workReport.removeWorkReportLine(line);
+
+                Set<WorkReportLine> result = new HashSet<WorkReportLine>();
+                result.add(line);
+                return result;
+            }
+        });
+
+        assertCharged(lineA, zero(), zero());
+        assertCharged(lineB, hours(3), zero());
+        assertCharged(group, zero(), hours(3));
+        assertCharged(order, zero(), hours(3));
+    }
+
+    @Test
+    public void severalLinesOfTheSameElementAreChargedToAllTheAncestors() {
+        saveTimesheet(new ITimesheetModification() {
+            @Override
+            public Set<WorkReportLine> modify(WorkReport workReport) {
+                org.libreplan.business.resources.entities.Resource resource =
+                        findLine(workReport, firstLine).getResource();
+                givenWorkReportLine(workReport, resource, lineA, hours(2), SECOND_DATE);
+                givenWorkReportLine(workReport, resource, lineC, hours(7), FIRST_DATE);
+                findLine(workReport, secondLine).setEffort(hours(4));
+                return Collections.emptySet();
+            }
+        });
+
+        assertCharged(lineA, hours(7), zero());
+        assertCharged(lineB, hours(4), zero());
+        assertCharged(lineC, hours(7), zero());
+        assertCharged(group, zero(), hours(11));
+        assertCharged(order, zero(), hours(18));
+    }
+
+    @Test
+    public void theRecalculationReplacesTheExistingSums() {
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                for (Long each : new Long[] { order, group, lineA, lineC }) {
+                    SumChargedEffort sumChargedEffort =
+                            sumChargedEffortDAO.findByOrderElement(orderElementDAO.findExistingEntity(each));
+                    if ( sumChargedEffort == null ) {
+                        sumChargedEffort = SumChargedEffort.create(orderElementDAO.findExistingEntity(each));
+                    }
+                    sumChargedEffort.addDirectChargedEffort(hours(50));
+                    sumChargedEffort.addIndirectChargedEffort(hours(20));
+                    sumChargedEffort.setTimesheetDates(new Date(), new Date());
+                    sumChargedEffort.setFinishedTimesheets(true);
+                    sumChargedEffortDAO.save(sumChargedEffort);
+                }
+                return null;
+            }
+        });
+
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                sumChargedEffortDAO.recalculateSumChargedEfforts(order);
+                return null;
+            }
+        });
+
+        assertCharged(lineA, hours(5), zero());
+        assertCharged(lineB, hours(3), zero());
+        assertCharged(lineC, zero(), zero());
+        assertCharged(group, zero(), hours(8));
+        assertCharged(order, zero(), hours(8));
+
+        assertSameDay(FIRST_DATE, sumOf(lineA).getFirstTimesheetDate());
+        assertSameDay(FIRST_DATE, sumOf(lineA).getLastTimesheetDate());
+        assertSameDay(FIRST_DATE, sumOf(group).getFirstTimesheetDate());
+        assertSameDay(SECOND_DATE, sumOf(group).getLastTimesheetDate());
+        assertSameDay(FIRST_DATE, sumOf(order).getFirstTimesheetDate());
+        assertSameDay(SECOND_DATE, sumOf(order).getLastTimesheetDate());
+        assertNull(sumOf(lineC).getFirstTimesheetDate());
+        assertNull(sumOf(lineC).getLastTimesheetDate());
+
+        assertFalse(sumOf(lineA).isFinishedTimesheets());
+        assertTrue(sumOf(lineB).isFinishedTimesheets());
+        assertFalse(sumOf(lineC).isFinishedTimesheets());
+        assertFalse(sumOf(group).isFinishedTimesheets());
+        assertFalse(sumOf(order).isFinishedTimesheets());
+    }
+
+}
@@ -24,6 +24,7 @@ package org.libreplan.business.test.orders.entities;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
@@ -63,6 +64,7 @@ import org.libreplan.business.advance.entities.IndirectAdvanceAssignment;
 import org.libreplan.business.advance.exceptions.DuplicateAdvanceAssignmentForOrderElementException;
 import org.libreplan.business.advance.exceptions.DuplicateValueTrueReportGlobalAdvanceException;
 import org.libreplan.business.common.exceptions.ValidationException;
+import org.libreplan.business.orders.entities.AdvancePercentageSeries;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.orders.entities.OrderLine;
@@ -1075,6 +1077,146 @@ public class OrderElementTest {
         assertThat(orderLine.getReportGlobalAdvanceAssignment().getAdvanceType(), equalTo(advanceType2));
     }
 
+    @Test
+    @Transactional
+    public void checkAdvancePercentageChildrenAlongTheTime()
+            throws DuplicateValueTrueReportGlobalAdvanceException, DuplicateAdvanceAssignmentForOrderElementException {
+
+        OrderLineGroup orderLineGroup = givenOrderLineGroupWithTwoOrderLines(1000, 2000);
+        List<OrderElement> children = orderLineGroup.getChildren();
+
+        LocalDate one = new LocalDate(2009, 9, 1);
+        LocalDate two = new LocalDate(2009, 9, 2);
+        LocalDate three = new LocalDate(2009, 9, 3);
+        LocalDate four = new LocalDate(2009, 9, 4);
+        LocalDate five = new LocalDate(2009, 9, 5);
+
+        AdvanceType advanceType1 = AdvanceType.create("test1", new BigDecimal(10000), true, new BigDecimal(1), true, false);
+        addAdvanceAssignmentWithMeasurements(children.get(0), advanceType1, true, new BigDecimal(1000),
+                one, new BigDecimal(200), three, new BigDecimal(400), five, new BigDecimal(500));
+
+        AdvanceType advanceType2 = AdvanceType.create("test2", new BigDecimal(10000), true, new BigDecimal(1), true, false);
+        addAdvanceAssignmentWithMeasurements(children.get(1), advanceType2, true, new BigDecimal(1000),
+                two, new BigDecimal(100), three, new BigDecimal(350), four, new BigDecimal(400));
+
+        assertThat(orderLineGroup.getAdvancePercentageChildren(one.minusDays(1)), equalTo(new BigDecimal("0.0000")));
+        assertThat(orderLineGroup.getAdvancePercentageChildren(one), equalTo(new BigDecimal("0.0666")));
+        assertThat(orderLineGroup.getAdvancePercentageChildren(two), equalTo(new BigDecimal("0.1333")));
+        assertThat(orderLineGroup.getAdvancePercentageChildren(three), equalTo(new BigDecimal("0.3666")));
+        assertThat(orderLineGroup.getAdvancePercentageChildren(four), equalTo(new BigDecimal("0.4000")));
+        assertThat(orderLineGroup.getAdvancePercentageChildren(five.plusDays(10)), equalTo(new BigDecimal("0.4333")));
+        assertThat(orderLineGroup.getAdvancePercentageChildren(), equalTo(new BigDecimal("0.4333")));
+
+        DirectAdvanceAssignment fake = null;
+        for (IndirectAdvanceAssignment each : orderLineGroup.getIndirectAdvanceAssignments()) {
+            if ( each.getAdvanceType().getUnitName().equals(PredefinedAdvancedTypes.CHILDREN.getTypeName()) ) {
+                fake = orderLineGroup.calculateFakeDirectAdvanceAssignment(each);
+            }
+        }
+        assertThat(fake.getAdvanceMeasurements().size(), equalTo(5));
+        assertThat(fake.getAdvanceMeasurementAtExactDate(three).getValue(), sameValueAs(new BigDecimal("36.66")));
+    }
+
+    @Test
+    @Transactional
+    public void checkAdvancePercentageChildrenIsUpdatedWhenTheDescendantsChange()
+            throws DuplicateValueTrueReportGlobalAdvanceException, DuplicateAdvanceAssignmentForOrderElementException {
+
+        OrderLineGroup orderLineGroup_1 = OrderLineGroup.create();
+        orderLineGroup_1.setName("OrderLineGroup 1");
+        orderLineGroup_1.setCode("1");
+        orderLineGroup_1.useSchedulingDataFor(mockedOrderVersion);
+
+        OrderLineGroup orderLineGroup_1_1 = OrderLineGroup.create();
+        orderLineGroup_1_1.setName("OrderLineGroup 1.1");
+        orderLineGroup_1_1.setCode("1.1");
+
+        OrderLine orderLine_1_1_1 = givenOrderLine("OrderLine 1.1.1", "1.1.1", 1000);
+        OrderLine orderLine_1_2 = givenOrderLine("OrderLine 1.2", "1.2", 1000);
+
+        orderLineGroup_1.add(orderLineGroup_1_1);
+        orderLineGroup_1_1.add(orderLine_1_1_1);
+        orderLineGroup_1.add(orderLine_1_2);
+
+        LocalDate one = new LocalDate(2009, 9, 1);
+        LocalDate two = new LocalDate(2009, 9, 2);
+
+        AdvanceType advanceType = AdvanceType.create("test1", new BigDecimal(10000), true, new BigDecimal(1), true, false);
+        addAdvanceAssignmentWithMeasurement(orderLine_1_1_1, advanceType, new BigDecimal(100), new BigDecimal(50),
+                true, one);
+
+        assertThat(orderLineGroup_1.getAdvancePercentageChildren(two), equalTo(new BigDecimal("0.2500")));
+
+        AdvanceMeasurement advanceMeasurement = AdvanceMeasurement.create(two, new BigDecimal(100));
+        orderLine_1_1_1.getReportGlobalAdvanceAssignment().addAdvanceMeasurements(advanceMeasurement);
+
+        assertThat(orderLineGroup_1.getAdvancePercentageChildren(one), equalTo(new BigDecimal("0.2500")));
+        assertThat(orderLineGroup_1.getAdvancePercentageChildren(two), equalTo(new BigDecimal("0.5000")));
+
+        orderLine_1_2.setWorkHours(3000);
+
+        assertThat(orderLineGroup_1.getAdvancePercentageChildren(two), equalTo(new BigDecimal("0.2500")));
+        assertThat(orderLineGroup_1.getAdvancePercentage(), equalTo(new BigDecimal("0.2500")));
+    }
+
+    @Test
+    @Transactional
+    public void checkReadingTheProgressKeepsTheCalculatedSeries()
+            throws DuplicateValueTrueReportGlobalAdvanceException, DuplicateAdvanceAssignmentForOrderElementException {
+
+        OrderLineGroup orderLineGroup_1 = OrderLineGroup.create();
+        orderLineGroup_1.setName("OrderLineGroup 1");
+        orderLineGroup_1.setCode("1");
+        orderLineGroup_1.useSchedulingDataFor(mockedOrderVersion);
+
+        OrderLineGroup orderLineGroup_1_1 = OrderLineGroup.create();
+        orderLineGroup_1_1.setName("OrderLineGroup 1.1");
+        orderLineGroup_1_1.setCode("1.1");
+
+        OrderLine orderLine_1_1_1 = givenOrderLine("OrderLine 1.1.1", "1.1.1", 1000);
+        OrderLine orderLine_1_1_2 = givenOrderLine("OrderLine 1.1.2", "1.1.2", 1000);
+
+        orderLineGroup_1.add(orderLineGroup_1_1);
+        orderLineGroup_1_1.add(orderLine_1_1_1);
+        orderLineGroup_1_1.add(orderLine_1_1_2);
+
+        AdvanceType advanceType = givenAdvanceType("test");
+        addAdvanceAssignmentWithMeasurement(orderLine_1_1_1, advanceType, new BigDecimal(100), new BigDecimal(20),
+                true, new LocalDate(2009, 9, 1));
+        addAdvanceAssignmentWithMeasurement(orderLine_1_1_2, advanceType, new BigDecimal(100), new BigDecimal(40),
+                true, new LocalDate(2009, 9, 2));
+
+        AdvancePercentageSeries series_1 = orderLineGroup_1.getAdvancePercentageSeries();
+        AdvancePercentageSeries series_1_1 = orderLineGroup_1_1.getAdvancePercentageSeries();
+
+        for (IndirectAdvanceAssignment each : orderLineGroup_1_1.getIndirectAdvanceAssignments()) {
+            DirectAdvanceAssignment fake = orderLineGroup_1_1.calculateFakeDirectAdvanceAssignment(each);
+            assertTrue(fake.isFake());
+        }
+
+        assertSame(series_1, orderLineGroup_1.getAdvancePercentageSeries());
+        assertSame(series_1_1, orderLineGroup_1_1.getAdvancePercentageSeries());
+    }
+
+    @Test
+    @Transactional
+    public void checkAddingAnAdvanceAssignmentClearsTheCalculatedSeries()
+            throws DuplicateValueTrueReportGlobalAdvanceException, DuplicateAdvanceAssignmentForOrderElementException {
+
+        OrderLine orderLine = givenOrderLine("OrderLine", "1", 1000);
+        orderLine.useSchedulingDataFor(mockedOrderVersion);
+
+        LocalDate date = new LocalDate(2009, 9, 1);
+        assertThat(orderLine.getAdvancePercentageSeries().getValue(date), equalTo(BigDecimal.ZERO));
+
+        DirectAdvanceAssignment advanceAssignment = givenAdvanceAssignment(new BigDecimal(100),
+                givenAdvanceType("test"));
+        advanceAssignment.addAdvanceMeasurements(AdvanceMeasurement.create(date, new BigDecimal(50)));
+        orderLine.addAdvanceAssignment(advanceAssignment);
+
+        assertThat(orderLine.getAdvancePercentageSeries().getValue(date), equalTo(new BigDecimal("0.5000")));
+    }
+
     @Test
     @Transactional
     public void checkPositiveBudgetInOrderLine() {
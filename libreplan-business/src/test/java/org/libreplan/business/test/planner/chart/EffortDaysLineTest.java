@@ -0,0 +1,143 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.test.planner.chart;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.util.Arrays;
+
+import org.easymock.EasyMock;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.planner.chart.ContiguousDaysLine;
+import org.libreplan.business.planner.chart.EffortDaysLine;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.SpecificDayAssignment;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.workingday.EffortDuration;
+
+public class EffortDaysLineTest {
+
+    private static final LocalDate someDate = new LocalDate(2002, 2, 10);
+
+    private static EffortDaysLine lineWith(int... hours) {
+        EffortDaysLine result = EffortDaysLine.create(someDate, someDate.plusDays(hours.length));
+        for (int i = 0; i < hours.length; i++) {
+            result.set(someDate.plusDays(i), hours(hours[i]));
+        }
+        return result;
+    }
+
+    private static void assertHours(EffortDaysLine line, int... hours) {
+        assertThat(line.size(), equalTo(hours.length));
+        for (int i = 0; i < hours.length; i++) {
+            assertThat(line.get(someDate.plusDays(i)), equalTo(hours(hours[i])));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aLineCannotBeCreatedWithAStartBeforeTheEnd() {
+        EffortDaysLine.create(someDate, someDate.minusDays(1));
+    }
+
+    @Test
+    public void initiallyAllTheDaysHaveZeroEffort() {
+        assertHours(EffortDaysLine.create(someDate, someDate.plusDays(3)), 0, 0, 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void aDayBeyondTheLineCausesException() {
+        lineWith(1, 2).get(someDate.plusDays(2));
+    }
+
+    @Test
+    public void linesCanBeSummedUp() {
+        assertHours(EffortDaysLine.sum(lineWith(1, 2, 3), lineWith(4, 0, 1)), 5, 2, 4);
+    }
+
+    @Test
+    public void theMinimumOfEachDayCanBeCalculated() {
+        assertHours(EffortDaysLine.min(lineWith(1, 2, 3), lineWith(4, 0, 1)), 1, 0, 1);
+    }
+
+    @Test
+    public void theSubtractionIsNeverNegative() {
+        assertHours(EffortDaysLine.substract(lineWith(1, 2, 3), lineWith(4, 0, 1)), 0, 2, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyLinesWithTheSameIntervalCanBeJoined() {
+        EffortDaysLine.sum(lineWith(1, 2, 3), lineWith(1, 2));
+    }
+
+    @Test
+    public void theOperationsDontModifyTheOriginalLines() {
+        EffortDaysLine line = lineWith(1, 2);
+        EffortDaysLine.sum(line, lineWith(1, 1));
+        assertHours(line, 1, 2);
+    }
+
+    @Test
+    public void theAssignmentsAreAccumulatedOnTheirDays() {
+        Worker worker = EasyMock.createNiceMock(Worker.class);
+        DayAssignment first = SpecificDayAssignment.create(someDate.plusDays(1), hours(3), worker);
+        DayAssignment second = SpecificDayAssignment.create(someDate.plusDays(1), hours(2), worker);
+        DayAssignment third = SpecificDayAssignment.create(someDate.plusDays(3), hours(1), worker);
+
+        EffortDaysLine line = EffortDaysLine.spanning(Arrays.asList(first, second, third));
+        line.accumulate(Arrays.asList(first, second, third));
+
+        assertThat(line.getStart(), equalTo(someDate.plusDays(1)));
+        assertThat(line.getEndExclusive(), equalTo(someDate.plusDays(4)));
+        assertThat(line.get(someDate.plusDays(1)), equalTo(hours(5)));
+        assertThat(line.get(someDate.plusDays(2)), equalTo(EffortDuration.zero()));
+        assertThat(line.get(someDate.plusDays(3)), equalTo(hours(1)));
+    }
+
+    @Test
+    public void aSubIntervalKeepsTheValuesInside() {
+        EffortDaysLine subInterval = lineWith(1, 2, 3, 4).subInterval(someDate.plusDays(1), someDate.plusDays(10));
+        assertThat(subInterval.getStart(), equalTo(someDate.plusDays(1)));
+        assertThat(subInterval.size(), equalTo(3));
+        assertThat(subInterval.get(someDate.plusDays(3)), equalTo(hours(4)));
+    }
+
+    @Test
+    public void ifTheSubIntervalIsOutsideInvalidIsReturned() {
+        assertTrue(lineWith(1, 2).subInterval(someDate.minusDays(2), someDate.minusDays(1)).isNotValid());
+    }
+
+    @Test
+    public void anInvalidLineIsConvertedToAnEmptyMap() {
+        assertTrue(EffortDaysLine.invalid().toSortedMap().isEmpty());
+        assertFalse(EffortDaysLine.invalid().includes(someDate));
+    }
+
+    @Test
+    public void itCanBeConvertedFromAndToAContiguousDaysLine() {
+        ContiguousDaysLine<EffortDuration> line = lineWith(1, 2, 3).toContiguousDaysLine();
+        assertThat(line.get(someDate.plusDays(2)), equalTo(hours(3)));
+        assertThat(EffortDaysLine.from(line).toSortedMap(), equalTo(lineWith(1, 2, 3).toSortedMap()));
+    }
+
+}
@@ -0,0 +1,304 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.test.planner.chart;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.calendars.entities.CalendarException;
+import org.libreplan.business.calendars.entities.SameWorkHoursEveryDay;
+import org.libreplan.business.hibernate.notification.DatabaseModification;
+import org.libreplan.business.hibernate.notification.DatabaseModification.Operation;
+import org.libreplan.business.planner.chart.ContiguousDaysLine;
+import org.libreplan.business.planner.chart.ContiguousDaysLine.IValueTransformer;
+import org.libreplan.business.planner.chart.EffortDaysLine;
+import org.libreplan.business.planner.chart.ResourceLoadChartData;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.GenericDayAssignment;
+import org.libreplan.business.planner.entities.GenericResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificDayAssignment;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+
+public class ResourceLoadChartDataTest {
+
+    private static final LocalDate someDate = new LocalDate(2012, 3, 5);
+
+    private final Worker worker = createWorker(1L);
+
+    private final Worker anotherWorker = createWorker(2L);
+
+    private final List<Resource> resources = Arrays.<Resource> asList(worker, anotherWorker);
+
+    private static Worker createWorker(long id) {
+        Worker result = createNiceMock(Worker.class);
+        expect(result.getId()).andReturn(id).anyTimes();
+        expect(result.getCalendarOrDefault()).andReturn(SameWorkHoursEveryDay.getDefaultWorkingDay()).anyTimes();
+        replay(result);
+        return result;
+    }
+
+    private static DayAssignment assignment(int day, int hours, Resource resource) {
+        return SpecificDayAssignment.create(someDate.plusDays(day), hours(hours), resource);
+    }
+
+    /**
+     * The lines go from the first to the last day of all the assignments, as the ones got from the database.
+     */
+    private static Map<Long, EffortDaysLine> effortByResource(List<DayAssignment> assignments) {
+        EffortDaysLine days = EffortDaysLine.spanning(assignments);
+        Map<Long, EffortDaysLine> result = new HashMap<>();
+        for (DayAssignment each : assignments) {
+            EffortDaysLine line = result.get(each.getResource().getId());
+            if ( line == null ) {
+                line = days.copy();
+                result.put(each.getResource().getId(), line);
+            }
+            line.add(each.getDay(), each.getDuration());
+        }
+        return result;
+    }
+
+    private void assertSameChart(ResourceLoadChartData expected, ResourceLoadChartData actual) {
+        assertThat(actual.getLoad(), equalTo(expected.getLoad()));
+        assertThat(actual.getOverload(), equalTo(expected.getOverload()));
+        assertThat(actual.getAvailability(), equalTo(expected.getAvailability()));
+    }
+
+    @Test
+    public void theChartIsTheSameThanTheOneCalculatedDayByDay() {
+        List<DayAssignment> assignments = Arrays.asList(
+                assignment(0, 4, worker),
+                assignment(0, 6, worker),
+                assignment(1, 10, anotherWorker),
+                assignment(1, 5, worker),
+                assignment(9, 3, worker));
+
+        ResourceLoadChartData chart = new ResourceLoadChartData(assignments, resources);
+
+        ContiguousDaysLine<List<DayAssignment>> byDay = ContiguousDaysLine.byDay(assignments);
+        ContiguousDaysLine<EffortDuration> availability = byDay.transform(capacityOfAllResources());
+        assertThat(chart.getAvailability(), equalTo(ContiguousDaysLine.toSortedMap(availability)));
+        assertThat(chart.getLoad(), equalTo(ContiguousDaysLine.toSortedMap(
+                ContiguousDaysLine.min(byDay.transform(ResourceLoadChartData.extractLoad()), availability))));
+
+        assertThat(chart.getOverload(), equalTo(ContiguousDaysLine.toSortedMap(
+                ContiguousDaysLine.sum(byDay.transform(ResourceLoadChartData.extractOverload()), availability))));
+    }
+
+    @Test
+    public void theChartCanBeRestrictedToAnInterval() {
+        List<DayAssignment> assignments = Arrays.asList(assignment(0, 4, worker), assignment(9, 3, worker));
+
+        ResourceLoadChartData chart =
+                new ResourceLoadChartData(assignments, resources, someDate.plusDays(2), someDate.plusDays(20));
+
+        assertThat(chart.getLoad().firstKey(), equalTo(someDate.plusDays(2)));
+        assertThat(chart.getLoad().lastKey(), equalTo(someDate.plusDays(9)));
+        assertThat(chart.getLoad().get(someDate.plusDays(9)), equalTo(hours(3)));
+    }
+
+    private IValueTransformer<List<DayAssignment>, EffortDuration> capacityOfAllResources() {
+        return new IValueTransformer<List<DayAssignment>, EffortDuration>() {
+
+            @Override
+            public EffortDuration transform(LocalDate day, List<DayAssignment> previousValue) {
+                EffortDuration result = EffortDuration.zero();
+                for (Resource each : resources) {
+                    result = result.plus(each.getCalendarOrDefault().getCapacityOn(PartialDay.wholeDay(day)));
+                }
+                return result;
+            }
+        };
+    }
+
+    @Test
+    public void theBreakdownByResourceGivesTheSameChart() {
+        List<DayAssignment> assignments = Arrays.asList(
+                assignment(0, 4, worker),
+                assignment(0, 6, worker),
+                assignment(1, 10, anotherWorker),
+                assignment(5, 3, worker));
+
+        ResourceLoadChartData withBreakdown =
+                ResourceLoadChartData.withBreakdownByResource(effortByResource(assignments), resources);
+
+        assertTrue(withBreakdown.hasBreakdownByResource());
+        assertSameChart(new ResourceLoadChartData(assignments, resources), withBreakdown);
+    }
+
+    @Test
+    public void withoutAssignmentsTheChartIsEmpty() {
+        List<DayAssignment> assignments = Collections.emptyList();
+
+        assertSameChart(
+                new ResourceLoadChartData(assignments, resources),
+                ResourceLoadChartData.withBreakdownByResource(effortByResource(assignments), resources));
+    }
+
+    @Test
+    public void reloadingTheAssignmentsOfSomeResourcesGivesTheSameChartThanCalculatingItFromScratch() {
+        DayAssignment first = assignment(0, 4, worker);
+        DayAssignment second = assignment(3, 12, anotherWorker);
+        ResourceLoadChartData previous = ResourceLoadChartData.withBreakdownByResource(
+                effortByResource(Arrays.asList(first, second)), resources);
+
+        List<DayAssignment> reloaded = Arrays.asList(assignment(-2, 9, anotherWorker), assignment(7, 2, anotherWorker));
+        ResourceLoadChartData updated = previous.withAssignmentsReloaded(
+                Arrays.asList(anotherWorker.getId()), effortByResource(reloaded), resources, () -> resources);
+
+        List<DayAssignment> all = new ArrayList<>(reloaded);
+        all.add(first);
+        assertSameChart(new ResourceLoadChartData(all, resources), updated);
+        assertSameChart(
+                new ResourceLoadChartData(Arrays.asList(first, second), resources), previous);
+    }
+
+    @Test
+    public void theChartShrinksIfTheAssignmentsOfTheExtremesAreRemoved() {
+        DayAssignment first = assignment(0, 4, worker);
+        DayAssignment last = assignment(10, 4, anotherWorker);
+        ResourceLoadChartData previous = ResourceLoadChartData.withBreakdownByResource(
+                effortByResource(Arrays.asList(first, last)), resources);
+
+        ResourceLoadChartData updated = previous.withAssignmentsReloaded(
+                Arrays.asList(anotherWorker.getId()), Collections.<Long, EffortDaysLine> emptyMap(), resources,
+                () -> resources);
+
+        assertSameChart(new ResourceLoadChartData(Arrays.asList(first), resources), updated);
+    }
+
+    @Test
+    public void theResourcesAreOnlyRetrievedIfTheChartSpansNewDays() {
+        DayAssignment first = assignment(0, 4, worker);
+        DayAssignment second = assignment(3, 12, anotherWorker);
+        ResourceLoadChartData previous = ResourceLoadChartData.withBreakdownByResource(
+                effortByResource(Arrays.asList(first, second)), resources);
+
+        List<DayAssignment> inside = Arrays.asList(assignment(2, 5, anotherWorker));
+        ResourceLoadChartData updated = previous.withAssignmentsReloaded(
+                Arrays.asList(anotherWorker.getId()), effortByResource(inside), resources, () -> {
+                    throw new AssertionError("the availability of all the days was already calculated");
+                });
+
+        List<DayAssignment> all = new ArrayList<>(inside);
+        all.add(first);
+        assertSameChart(new ResourceLoadChartData(all, resources), updated);
+
+        final List<Resource> retrieved = new ArrayList<>();
+        List<DayAssignment> outside = Arrays.asList(assignment(5, 5, anotherWorker));
+        updated = previous.withAssignmentsReloaded(
+                Arrays.asList(anotherWorker.getId()), effortByResource(outside), resources, () -> {
+                    retrieved.addAll(resources);
+                    return resources;
+                });
+
+        all = new ArrayList<>(outside);
+        all.add(first);
+        assertSameChart(new ResourceLoadChartData(all, resources), updated);
+        assertThat(retrieved, equalTo(resources));
+    }
+
+    @Test
+    public void theChartDataCreatedFromTheConstructorHasNoBreakdown() {
+        List<DayAssignment> assignments = Arrays.asList(assignment(0, 4, worker));
+
+        assertFalse(new ResourceLoadChartData(assignments, resources).hasBreakdownByResource());
+    }
+
+    private static DatabaseModification modification(Class<?> entityClass, long id, Operation operation) {
+        return DatabaseModification.on(entityClass, id, operation).build();
+    }
+
+    private static DatabaseModification onResource(Class<?> entityClass, long id, Operation operation,
+                                                   long resourceId) {
+        return DatabaseModification.on(entityClass, id, operation).reference("resource", resourceId).build();
+    }
+
+    @Test
+    public void theResourcesOfTheModifiedDayAssignmentsAreReloaded() {
+        assertThat(ResourceLoadChartData.resourcesToReload(Arrays.asList(
+                onResource(SpecificDayAssignment.class, 10L, Operation.INSERT, 1L),
+                onResource(GenericDayAssignment.class, 11L, Operation.DELETE, 2L),
+                modification(Task.class, 20L, Operation.UPDATE))),
+                equalTo(new HashSet<>(Arrays.asList(1L, 2L))));
+    }
+
+    @Test
+    public void theResourceOfAModifiedSpecificAllocationIsReloaded() {
+        assertThat(ResourceLoadChartData.resourcesToReload(Arrays.asList(
+                onResource(SpecificResourceAllocation.class, 30L, Operation.UPDATE, 1L))),
+                equalTo(Collections.singleton(1L)));
+    }
+
+    @Test
+    public void nothingIsReloadedIfATaskIsModifiedWithoutItsDayAssignments() {
+        assertTrue(ResourceLoadChartData.resourcesToReload(Arrays.asList(
+                modification(Task.class, 20L, Operation.UPDATE),
+                modification(GenericResourceAllocation.class, 31L, Operation.UPDATE))).isEmpty());
+    }
+
+    @Test
+    public void theResourcesOfATaskRemovedAlongWithItsDayAssignmentsAreReloaded() {
+        assertThat(ResourceLoadChartData.resourcesToReload(Arrays.asList(
+                modification(Task.class, 20L, Operation.DELETE),
+                modification(GenericResourceAllocation.class, 31L, Operation.DELETE),
+                onResource(GenericDayAssignment.class, 11L, Operation.DELETE, 2L))),
+                equalTo(Collections.singleton(2L)));
+    }
+
+    @Test
+    public void theWholeChartIsReloadedIfAnAllocationIsRemovedWithoutItsDayAssignments() {
+        assertNull(ResourceLoadChartData.resourcesToReload(Arrays.asList(
+                modification(GenericResourceAllocation.class, 31L, Operation.DELETE))));
+        assertNull(ResourceLoadChartData.resourcesToReload(Arrays.asList(
+                modification(Task.class, 20L, Operation.DELETE))));
+    }
+
+    @Test
+    public void theWholeChartIsReloadedIfTheAvailabilityChanges() {
+        assertNull(ResourceLoadChartData.resourcesToReload(Arrays.asList(
+                onResource(SpecificDayAssignment.class, 10L, Operation.INSERT, 1L),
+                modification(CalendarException.class, 40L, Operation.UPDATE))));
+        assertNull(ResourceLoadChartData.resourcesToReload(Arrays.asList(
+                modification(Worker.class, 1L, Operation.UPDATE))));
+    }
+
+}
@@ -0,0 +1,411 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.libreplan.business.test.planner.daos;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.CalendarData.Days;
+import org.libreplan.business.calendars.entities.Capacity;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.entities.HoursGroup;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.TaskSource;
+import org.libreplan.business.planner.chart.EffortDaysLine;
+import org.libreplan.business.planner.daos.IDayAssignmentDAO;
+import org.libreplan.business.planner.daos.ITaskElementDAO;
+import org.libreplan.business.planner.daos.ITaskSourceDAO;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DerivedAllocation;
+import org.libreplan.business.planner.entities.DerivedDayAssignment;
+import org.libreplan.business.planner.entities.GenericDayAssignment;
+import org.libreplan.business.planner.entities.GenericResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificDayAssignment;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.resources.daos.IResourceDAO;
+import org.libreplan.business.resources.entities.Machine;
+import org.libreplan.business.resources.entities.MachineWorkersConfigurationUnit;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.scenarios.daos.IScenarioDAO;
+import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
+import org.libreplan.business.test.resources.daos.ResourceDAOTest;
+import org.libreplan.business.workingday.EffortDuration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Checks that the day assignments of several resources retrieved with a single
+ * query are the same as the ones retrieved for each resource and kind of
+ * container.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class DayAssignmentDAOTest {
+
+    private static final LocalDate MONDAY = new LocalDate(2026, 1, 5);
+
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private static final LocalDate WEDNESDAY = MONDAY.plusDays(2);
+
+    private static final LocalDate THURSDAY = MONDAY.plusDays(3);
+
+    private static final LocalDate NEXT_MONDAY = MONDAY.plusWeeks(1);
+
+    @Autowired
+    private IDayAssignmentDAO dayAssignmentDAO;
+
+    @Autowired
+    private IResourceDAO resourceDAO;
+
+    @Autowired
+    private IOrderDAO orderDAO;
+
+    @Autowired
+    private IBaseCalendarDAO calendarDAO;
+
+    @Autowired
+    private ITaskSourceDAO taskSourceDAO;
+
+    @Autowired
+    private ITaskElementDAO taskElementDAO;
+
+    @Autowired
+    private IScenarioDAO scenarioDAO;
+
+    @Autowired
+    private IScenariosBootstrap scenariosBootstrap;
+
+    @Autowired
+    private IScenarioManager scenarioManager;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    private Scenario current;
+
+    private Scenario another;
+
+    private Worker specificWorker;
+
+    private Worker genericWorker;
+
+    private Machine machine;
+
+    private Worker derivedWorker;
+
+    private Worker onAnotherScenario;
+
+    private Worker free;
+
+    @Before
+    public void loadRequiredData() {
+        scenariosBootstrap.loadRequiredData();
+    }
+
+    static ResourceCalendar givenCalendar() {
+        ResourceCalendar result = ResourceCalendar.create();
+        result.setName("calendar-" + UUID.randomUUID());
+        result.getCalendarAvailabilities().get(0).setStartDate(MONDAY);
+        for (Days each : Days.values()) {
+            boolean weekend = each == Days.SATURDAY || each == Days.SUNDAY;
+            result.setCapacityAt(each, weekend ? Capacity.zero() : Capacity.create(hours(8)));
+        }
+        return result;
+    }
+
+    private Worker givenWorker() {
+        Worker result = ResourceDAOTest.givenValidWorker();
+        result.setCalendar(givenCalendar());
+        resourceDAO.save(result);
+        return result;
+    }
+
+    private Machine givenMachineWithConfigurationUnit() {
+        Machine result = Machine.create();
+        result.setCode(UUID.randomUUID().toString());
+        result.setName("machine");
+        result.setDescription("description");
+        result.setCalendar(givenCalendar());
+        result.addMachineWorkersConfigurationUnit(
+                MachineWorkersConfigurationUnit.create(result, "unit", BigDecimal.ONE));
+        resourceDAO.save(result);
+        return result;
+    }
+
+    private Task givenTask() {
+        OrderLine orderLine = OrderLine.create();
+        orderLine.setName("line-" + UUID.randomUUID());
+        orderLine.setCode("code-" + UUID.randomUUID());
+        HoursGroup hoursGroup = new HoursGroup();
+        hoursGroup.setCode("hours-group-code-" + UUID.randomUUID());
+        orderLine.addHoursGroup(hoursGroup);
+
+        Order order = Order.create();
+        order.setName("order-" + UUID.randomUUID());
+        order.setCode("code-" + UUID.randomUUID());
+        order.setInitDate(MONDAY.toDateTimeAtStartOfDay().toDate());
+        BaseCalendar calendar = BaseCalendarTest.createBasicCalendar();
+        calendarDAO.save(calendar);
+        order.setCalendar(calendar);
+        OrderVersion orderVersion = ResourceAllocationDAOTest.setupVersionUsing(scenarioManager, order);
+        order.useSchedulingDataFor(orderVersion);
+        order.add(orderLine);
+        orderDAO.save(order);
+
+        TaskSource taskSource = TaskSource.create(
+                orderLine.getCurrentSchedulingDataForVersion(), orderLine.getHoursGroups());
+        TaskSource.mustAdd(taskSource).apply(TaskSource.persistTaskSources(taskSourceDAO));
+        return (Task) taskSource.getTask();
+    }
+
+    private static List<EffortDuration> hoursPerDay(int... hours) {
+        List<EffortDuration> result = new ArrayList<>();
+        for (int each : hours) {
+            result.add(hours(each));
+        }
+        return result;
+    }
+
+    private SpecificResourceAllocation allocate(Task task, Resource resource, Scenario scenario, int... hours) {
+        SpecificResourceAllocation result = SpecificResourceAllocation.create(task);
+        result.setResource(resource);
+        result.switchToScenario(scenario);
+        result.onInterval(MONDAY, NEXT_MONDAY).allocate(hoursPerDay(hours));
+        task.addResourceAllocation(result);
+        return result;
+    }
+
+    /**
+     * Creates specific, generic and derived assignments in the current
+     * scenario and specific ones in another scenario
+     */
+    private void givenAssignmentsOfAllKinds() {
+        current = scenarioManager.getCurrent();
+        another = Scenario.create("scenario-" + UUID.randomUUID());
+        scenarioDAO.save(another);
+
+        specificWorker = givenWorker();
+        genericWorker = givenWorker();
+        derivedWorker = givenWorker();
+        onAnotherScenario = givenWorker();
+        free = givenWorker();
+        machine = givenMachineWithConfigurationUnit();
+
+        Task task = givenTask();
+        Task anotherTask = givenTask();
+
+        allocate(task, specificWorker, current, 6, 6, 6, 6, 6);
+        allocate(anotherTask, specificWorker, current, 5, 5, 5, 5, 5);
+        allocate(task, onAnotherScenario, another, 8, 8, 8, 8, 8);
+        SpecificResourceAllocation onMachine = allocate(task, machine, current, 4, 4, 4, 4, 4);
+
+        GenericResourceAllocation generic = GenericResourceAllocation.create(task);
+        generic.switchToScenario(current);
+        generic.forResources(Collections.singletonList(genericWorker))
+                .onInterval(MONDAY, NEXT_MONDAY)
+                .allocate(hoursPerDay(3, 3, 3, 3, 3));
+        task.addResourceAllocation(generic);
+
+        taskElementDAO.save(task);
+        taskElementDAO.save(anotherTask);
+
+        DerivedAllocation derived = DerivedAllocation.create(
+                onMachine, machine.getConfigurationUnits().iterator().next());
+        derived.useScenario(current);
+        List<DerivedDayAssignment> derivedAssignments = new ArrayList<>();
+        for (LocalDate day = MONDAY; day.isBefore(NEXT_MONDAY); day = day.plusDays(1)) {
+            derivedAssignments.add(DerivedDayAssignment.create(day, hours(2), derivedWorker, derived));
+        }
+        derived.resetAssignmentsTo(derivedAssignments);
+        sessionFactory.getCurrentSession().save(derived);
+        sessionFactory.getCurrentSession().flush();
+    }
+
+    private List<Resource> allResources() {
+        return Arrays.<Resource> asList(
+                specificWorker, genericWorker, machine, derivedWorker, onAnotherScenario, free);
+    }
+
+    private void checkSameAsForEachResource(Map<Long, List<DayAssignment>> atOnce,
+                                            LocalDate start, LocalDate end) {
+
+        for (Resource each : allResources()) {
+            List<DayAssignment> expected = dayAssignmentDAO.getAllFor(current, start, end, each);
+            List<DayAssignment> actual = atOnce.get(each.getId());
+            if ( expected.isEmpty() ) {
+                assertFalse(atOnce.containsKey(each.getId()));
+                continue;
+            }
+
+            assertThat(new HashSet<>(actual), equalTo(new HashSet<>(expected)));
+            assertThat(actual.size(), equalTo(expected.size()));
+            assertThat(actual, equalTo(DayAssignment.orderedByDay(actual)));
+        }
+    }
+
+    @Test
+    @Transactional
+    public void theAssignmentsOfAllTheContainersAreRetrievedAtOnce() {
+        givenAssignmentsOfAllKinds();
+
+        Map<Long, List<DayAssignment>> atOnce =
+                dayAssignmentDAO.getAllForResources(current, TUESDAY, THURSDAY, allResources());
+        checkSameAsForEachResource(atOnce, TUESDAY, THURSDAY);
+
+        assertThat(atOnce.get(specificWorker.getId()).size(), equalTo(6));
+        assertThat(atOnce.get(genericWorker.getId()).get(0), instanceOf(GenericDayAssignment.class));
+        assertThat(atOnce.get(machine.getId()).get(0), instanceOf(SpecificDayAssignment.class));
+        assertThat(atOnce.get(derivedWorker.getId()).size(), equalTo(3));
+        assertThat(atOnce.get(derivedWorker.getId()).get(0), instanceOf(DerivedDayAssignment.class));
+        assertThat(atOnce.get(derivedWorker.getId()).get(0).getDay(), equalTo(TUESDAY));
+        assertFalse(atOnce.containsKey(onAnotherScenario.getId()));
+        assertFalse(atOnce.containsKey(free.getId()));
+    }
+
+    @Test
+    @Transactional
+    public void theDatesAreOptional() {
+        givenAssignmentsOfAllKinds();
+
+        Map<Long, List<DayAssignment>> atOnce =
+                dayAssignmentDAO.getAllForResources(current, null, null, allResources());
+        checkSameAsForEachResource(atOnce, null, null);
+        assertThat(atOnce.get(derivedWorker.getId()).size(), equalTo(7));
+
+        atOnce = dayAssignmentDAO.getAllForResources(current, WEDNESDAY, null, allResources());
+        checkSameAsForEachResource(atOnce, WEDNESDAY, null);
+        assertThat(atOnce.get(specificWorker.getId()).size(), equalTo(6));
+    }
+
+    @Test
+    @Transactional
+    public void theAssignmentsOfTheOtherScenariosAreNotRetrieved() {
+        givenAssignmentsOfAllKinds();
+
+        Map<Long, List<DayAssignment>> atOnce =
+                dayAssignmentDAO.getAllForResources(another, null, null, allResources());
+        assertThat(atOnce.keySet(), equalTo(Collections.singleton(onAnotherScenario.getId())));
+        assertThat(atOnce.get(onAnotherScenario.getId()).size(), equalTo(5));
+
+        Map<Long, EffortDaysLine> effort =
+                dayAssignmentDAO.getEffortPerResource(another, MONDAY, THURSDAY, allResources());
+        assertThat(effort.keySet(), equalTo(Collections.singleton(onAnotherScenario.getId())));
+    }
+
+    @Test
+    @Transactional
+    public void theEffortIsSummedPerResourceAndDay() {
+        givenAssignmentsOfAllKinds();
+
+        Map<Long, EffortDaysLine> effort =
+                dayAssignmentDAO.getEffortPerResource(current, TUESDAY, THURSDAY, allResources());
+
+        for (Resource each : allResources()) {
+            Map<LocalDate, EffortDuration> expected = new HashMap<>();
+            for (DayAssignment assignment : dayAssignmentDAO.getAllFor(current, TUESDAY, THURSDAY, each)) {
+                EffortDuration previous = expected.get(assignment.getDay());
+                expected.put(assignment.getDay(),
+                        previous == null ? assignment.getDuration() : previous.plus(assignment.getDuration()));
+            }
+
+            EffortDaysLine line = effort.get(each.getId());
+            if ( expected.isEmpty() ) {
+                assertFalse(effort.containsKey(each.getId()));
+                continue;
+            }
+            assertThat(line.getStart(), equalTo(TUESDAY));
+            assertThat(line.getEndExclusive(), equalTo(THURSDAY.plusDays(1)));
+            for (LocalDate day = TUESDAY; !day.isAfter(THURSDAY); day = day.plusDays(1)) {
+                EffortDuration expectedOnDay = expected.get(day);
+                assertThat(line.get(day), equalTo(expectedOnDay == null ? EffortDuration.zero() : expectedOnDay));
+            }
+        }
+
+        assertThat(effort.get(specificWorker.getId()).get(WEDNESDAY), equalTo(hours(11)));
+        assertThat(effort.get(genericWorker.getId()).get(WEDNESDAY), equalTo(hours(3)));
+        assertThat(effort.get(machine.getId()).get(WEDNESDAY), equalTo(hours(4)));
+        assertThat(effort.get(derivedWorker.getId()).get(WEDNESDAY), equalTo(hours(2)));
+        assertFalse(effort.containsKey(free.getId()));
+    }
+
+    @Test
+    @Transactional
+    public void withoutDatesTheEffortGoesFromTheFirstToTheLastDayAssigned() {
+        givenAssignmentsOfAllKinds();
+
+        LocalDate first = null;
+        LocalDate last = null;
+        for (List<DayAssignment> each : dayAssignmentDAO.getAllForResources(current, null, null, allResources())
+                .values()) {
+            for (DayAssignment assignment : each) {
+                first = first == null || assignment.getDay().isBefore(first) ? assignment.getDay() : first;
+                last = last == null || assignment.getDay().isAfter(last) ? assignment.getDay() : last;
+            }
+        }
+
+        Map<Long, EffortDaysLine> withoutDates =
+                dayAssignmentDAO.getEffortPerResource(current, null, null, allResources());
+        Map<Long, EffortDaysLine> withDates =
+                dayAssignmentDAO.getEffortPerResource(current, first, last, allResources());
+
+        assertThat(withoutDates.keySet(), equalTo(withDates.keySet()));
+        for (Long each : withDates.keySet()) {
+            assertThat(withoutDates.get(each).toSortedMap(), equalTo(withDates.get(each).toSortedMap()));
+        }
+        assertTrue(dayAssignmentDAO.getEffortPerResource(current, null, null,
+                Collections.singletonList(free)).isEmpty());
+    }
+
+}
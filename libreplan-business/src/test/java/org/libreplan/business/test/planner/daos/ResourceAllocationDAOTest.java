@@ -22,32 +22,53 @@
 package org.libreplan.business.test.planner.daos;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import org.hibernate.SessionFactory;
 import org.joda.time.LocalDate;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.libreplan.business.IDataBootstrap;
+import org.libreplan.business.advance.bootstrap.PredefinedAdvancedTypes;
+import org.libreplan.business.advance.entities.AdvanceMeasurement;
+import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
+import org.libreplan.business.advance.exceptions.DuplicateAdvanceAssignmentForOrderElementException;
+import org.libreplan.business.advance.exceptions.DuplicateValueTrueReportGlobalAdvanceException;
+import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
+import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.orders.daos.IHoursGroupDAO;
+import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.daos.IOrderElementDAO;
+import org.libreplan.business.orders.daos.ISumChargedEffortDAO;
 import org.libreplan.business.orders.entities.HoursGroup;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.OrderLineGroup;
+import org.libreplan.business.orders.entities.SumChargedEffort;
 import org.libreplan.business.orders.entities.TaskSource;
 import org.libreplan.business.orders.entities.TaskSource.TaskSourceSynchronization;
 import org.libreplan.business.planner.daos.IResourceAllocationDAO;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
 import org.libreplan.business.planner.daos.ITaskSourceDAO;
+import org.libreplan.business.planner.entities.AssignedTaskSummary;
 import org.libreplan.business.planner.entities.GenericResourceAllocation;
 import org.libreplan.business.planner.entities.ResourceAllocation;
 import org.libreplan.business.planner.entities.SpecificResourceAllocation;
@@ -58,8 +79,13 @@ import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.scenarios.IScenarioManager;
 import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.scenarios.daos.IScenarioDAO;
 import org.libreplan.business.scenarios.entities.OrderVersion;
 import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
+import org.libreplan.business.test.orders.entities.OrderElementTest;
+import org.libreplan.business.test.resources.daos.ResourceDAOTest;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workingday.ResourcesPerDay;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
@@ -301,4 +327,235 @@ public class ResourceAllocationDAOTest {
                 resources,
                 intervalInitDate, null).contains(resourceAllocation1));
   }
+
+    private static final LocalDate MONDAY = new LocalDate(2026, 1, 5);
+
+    private static final LocalDate NEXT_MONDAY = MONDAY.plusWeeks(1);
+
+    @Autowired
+    private IDataBootstrap defaultAdvanceTypesBootstrapListener;
+
+    @Autowired
+    private IOrderDAO orderDAO;
+
+    @Autowired
+    private IBaseCalendarDAO calendarDAO;
+
+    @Autowired
+    private IScenarioDAO scenarioDAO;
+
+    @Autowired
+    private ISumChargedEffortDAO sumChargedEffortDAO;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    private Worker givenWorkerWithCalendar() {
+        Worker result = ResourceDAOTest.givenValidWorker();
+        result.setCalendar(DayAssignmentDAOTest.givenCalendar());
+        resourceDAO.save(result);
+        return result;
+    }
+
+    private static OrderLine givenOrderLine(OrderLineGroup parent) {
+        OrderLine result = OrderLine.create();
+        result.setName("line-" + UUID.randomUUID());
+        result.setCode("code-" + UUID.randomUUID());
+        HoursGroup hoursGroup = new HoursGroup();
+        hoursGroup.setCode("hours-group-code-" + UUID.randomUUID());
+        result.addHoursGroup(hoursGroup);
+        parent.add(result);
+        return result;
+    }
+
+    private static void givenMeasurements(OrderElement orderElement, BigDecimal... values) {
+        try {
+            OrderElementTest.addAdvanceAssignmentWithMeasurement(orderElement,
+                    PredefinedAdvancedTypes.UNITS.getType(), new BigDecimal(100), values[0], true, MONDAY);
+        } catch (DuplicateValueTrueReportGlobalAdvanceException | DuplicateAdvanceAssignmentForOrderElementException e) {
+            throw new RuntimeException(e);
+        }
+        DirectAdvanceAssignment assignment = orderElement.getReportGlobalAdvanceAssignment();
+        for (int i = 1; i < values.length; i++) {
+            assignment.addAdvanceMeasurements(AdvanceMeasurement.create(MONDAY.plusDays(i), values[i]));
+        }
+    }
+
+    private void givenChargedEffort(OrderElement orderElement, EffortDuration direct, EffortDuration indirect) {
+        SumChargedEffort sumChargedEffort = SumChargedEffort.create(orderElement);
+        sumChargedEffort.addDirectChargedEffort(direct);
+        sumChargedEffort.addIndirectChargedEffort(indirect);
+        orderElement.setSumChargedEffort(sumChargedEffort);
+        sumChargedEffortDAO.save(sumChargedEffort);
+    }
+
+    private Task givenTaskFor(OrderElement orderElement) {
+        TaskSource taskSource = TaskSource.create(
+                orderElement.getCurrentSchedulingDataForVersion(), orderElement.getHoursGroups());
+        TaskSource.mustAdd(taskSource).apply(TaskSource.persistTaskSources(taskSourceDAO));
+        return (Task) taskSource.getTask();
+    }
+
+    private void allocate(Task task, Resource resource, int hours) {
+        SpecificResourceAllocation allocation = SpecificResourceAllocation.create(task);
+        allocation.setResource(resource);
+        allocation.switchToScenario(scenarioManager.getCurrent());
+        allocation.onInterval(MONDAY, NEXT_MONDAY).allocate(EffortDuration.hours(hours));
+        task.addResourceAllocation(allocation);
+    }
+
+    private void allocateGeneric(Task task, Resource resource, int hours) {
+        GenericResourceAllocation allocation = GenericResourceAllocation.create(task);
+        allocation.switchToScenario(scenarioManager.getCurrent());
+        allocation.forResources(Collections.singletonList(resource))
+                .onInterval(MONDAY, NEXT_MONDAY)
+                .allocate(EffortDuration.hours(hours));
+        task.addResourceAllocation(allocation);
+    }
+
+    /**
+     * Creates an order with four tasks allocated to the given worker: a line
+     * without progress but with charged effort, a line with several progress
+     * measurements, a finished line and a group scheduled as a single task
+     * whose progress is calculated from its children
+     */
+    private List<Task> givenTasksAllocatedTo(Worker worker) {
+        defaultAdvanceTypesBootstrapListener.loadRequiredData();
+
+        Order order = Order.create();
+        order.setName("order-" + UUID.randomUUID());
+        order.setCode("code-" + UUID.randomUUID());
+        order.setInitDate(MONDAY.toDateTimeAtStartOfDay().toDate());
+        BaseCalendar calendar = BaseCalendarTest.createBasicCalendar();
+        calendarDAO.save(calendar);
+        order.setCalendar(calendar);
+        order.useSchedulingDataFor(setupVersionUsing(scenarioManager, order));
+
+        OrderLine withoutProgress = givenOrderLine(order);
+        OrderLine withProgress = givenOrderLine(order);
+        givenMeasurements(withProgress, new BigDecimal(20), new BigDecimal(40), new BigDecimal(60));
+        OrderLine finished = givenOrderLine(order);
+        givenMeasurements(finished, new BigDecimal(50), new BigDecimal(100));
+
+        OrderLineGroup group = OrderLineGroup.create();
+        group.setName("group-" + UUID.randomUUID());
+        group.setCode("code-" + UUID.randomUUID());
+        order.add(group);
+        givenMeasurements(givenOrderLine(group), new BigDecimal(30));
+        givenMeasurements(givenOrderLine(group), new BigDecimal(10), new BigDecimal(70));
+        orderDAO.save(order);
+
+        givenChargedEffort(withoutProgress, EffortDuration.hours(5), EffortDuration.zero());
+        givenChargedEffort(group, EffortDuration.hours(1), EffortDuration.hours(7));
+
+        List<Task> result = new ArrayList<>();
+        for (OrderElement each : Arrays.asList(withoutProgress, withProgress, finished, group)) {
+            result.add(givenTaskFor(each));
+        }
+        Worker another = givenWorkerWithCalendar();
+        allocate(result.get(0), worker, 4);
+        allocateGeneric(result.get(0), worker, 2);
+        allocate(result.get(0), another, 8);
+        allocate(result.get(1), worker, 3);
+        allocate(result.get(2), worker, 1);
+        allocateGeneric(result.get(3), worker, 6);
+        allocate(result.get(3), worker, 2);
+        for (Task each : result) {
+            taskElementDAO.save(each);
+        }
+        sessionFactory.getCurrentSession().flush();
+        return result;
+    }
+
+    private static Map<Long, AssignedTaskSummary> byTaskId(List<AssignedTaskSummary> summaries) {
+        Map<Long, AssignedTaskSummary> result = new HashMap<>();
+        for (AssignedTaskSummary each : summaries) {
+            assertNull(result.put(each.getTaskId(), each));
+        }
+        return result;
+    }
+
+    private static void checkSameAsEntities(Task task, AssignedTaskSummary summary) {
+        OrderElement orderElement = task.getOrderElement();
+        assertEquals(task.getName(), summary.getName());
+        assertEquals(orderElement.getCode(), summary.getCode());
+        assertEquals(orderElement.getOrder().getCode(), summary.getOrderCode());
+        assertEquals(orderElement.getOrder().getName(), summary.getOrderName());
+        assertEquals(task.getStartAsLocalDate(), summary.getStartDate());
+        assertEquals(task.getEndAsLocalDate(), summary.getEndDate());
+        assertEquals(task.getSumOfAssignedEffort(), summary.getAssignedEffort());
+
+        SumChargedEffort sumChargedEffort = orderElement.getSumChargedEffort();
+        assertEquals(sumChargedEffort != null ? sumChargedEffort.getTotalChargedEffort() : EffortDuration.zero(),
+                summary.getChargedEffort());
+
+        assertEquals(0, task.getAdvancePercentage().compareTo(summary.getAdvancePercentage()));
+        assertEquals(task.getAdvancePercentage().compareTo(BigDecimal.ONE) >= 0, summary.isFinished());
+
+        AdvanceMeasurement lastMeasurement = orderElement.getLastAdvanceMeasurement();
+        if (lastMeasurement == null) {
+            assertNull(summary.getLastAdvanceValue());
+            assertNull(summary.getLastAdvanceDate());
+        } else {
+            assertEquals(0, lastMeasurement.getValue().compareTo(summary.getLastAdvanceValue()));
+            assertEquals(lastMeasurement.getDate(), summary.getLastAdvanceDate());
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testAssignedTaskSummariesAreTheSameAsTheEntities() {
+        Worker worker = givenWorkerWithCalendar();
+        List<Task> tasks = givenTasksAllocatedTo(worker);
+
+        Map<Long, AssignedTaskSummary> summaries = byTaskId(resourceAllocationDAO.getAssignedTaskSummaries(
+                scenarioManager.getCurrent(), worker, null, null));
+        assertEquals(tasks.size(), summaries.size());
+        for (Task each : tasks) {
+            checkSameAsEntities(each, summaries.get(each.getId()));
+        }
+
+        AssignedTaskSummary withoutProgress = summaries.get(tasks.get(0).getId());
+        assertEquals(EffortDuration.hours(14), withoutProgress.getAssignedEffort());
+        assertEquals(EffortDuration.hours(5), withoutProgress.getChargedEffort());
+        assertNull(withoutProgress.getLastAdvanceValue());
+
+        AssignedTaskSummary withProgress = summaries.get(tasks.get(1).getId());
+        assertEquals(EffortDuration.zero(), withProgress.getChargedEffort());
+        assertEquals(0, new BigDecimal(60).compareTo(withProgress.getLastAdvanceValue()));
+        assertEquals(MONDAY.plusDays(2), withProgress.getLastAdvanceDate());
+        assertFalse(withProgress.isFinished());
+
+        assertTrue(summaries.get(tasks.get(2).getId()).isFinished());
+
+        OrderElement group = tasks.get(3).getOrderElement();
+        assertTrue(group.getDirectAdvanceAssignments().isEmpty());
+        AssignedTaskSummary withIndirectProgress = summaries.get(tasks.get(3).getId());
+        assertEquals(EffortDuration.hours(8), withIndirectProgress.getChargedEffort());
+        assertNotNull(withIndirectProgress.getLastAdvanceValue());
+        assertFalse(withIndirectProgress.isFinished());
+    }
+
+    @Test
+    @Transactional
+    public void testAssignedTaskSummariesAreFilteredByDatesAndScenario() {
+        Worker worker = givenWorkerWithCalendar();
+        List<Task> tasks = givenTasksAllocatedTo(worker);
+        Scenario current = scenarioManager.getCurrent();
+        LocalDate lastEnd = null;
+        for (Task each : tasks) {
+            lastEnd = lastEnd == null || each.getEndAsLocalDate().isAfter(lastEnd) ? each.getEndAsLocalDate() : lastEnd;
+        }
+
+        assertEquals(tasks.size(),
+                resourceAllocationDAO.getAssignedTaskSummaries(current, worker, MONDAY, MONDAY).size());
+        assertTrue(resourceAllocationDAO.getAssignedTaskSummaries(
+                current, worker, null, MONDAY.minusDays(1)).isEmpty());
+        assertTrue(resourceAllocationDAO.getAssignedTaskSummaries(
+                current, worker, lastEnd.plusDays(1), null).isEmpty());
+
+        Scenario another = Scenario.create("scenario-" + UUID.randomUUID());
+        scenarioDAO.save(another);
+        assertTrue(resourceAllocationDAO.getAssignedTaskSummaries(another, worker, null, null).isEmpty());
+    }
 }
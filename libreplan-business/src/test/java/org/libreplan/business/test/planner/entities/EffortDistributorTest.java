@@ -0,0 +1,226 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.libreplan.business.test.planner.entities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+import static org.libreplan.business.workingday.EffortDuration.zero;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.planner.entities.AssignedEffortForResource.IAssignedEffortForResource;
+import org.libreplan.business.planner.entities.EffortDistributor;
+import org.libreplan.business.planner.entities.EffortDistributor.ResourceWithAssignedDuration;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+
+/**
+ * Tests for {@link EffortDistributor}
+ */
+public class EffortDistributorTest {
+
+    private static final LocalDate START = new LocalDate(2026, 3, 2);
+
+    private final Worker worker1 = Worker.create("first", "worker", "1");
+
+    private final Worker worker2 = Worker.create("second", "worker", "2");
+
+    private final Worker worker3 = Worker.create("third", "worker", "3");
+
+    private final List<Resource> workers = Arrays.<Resource> asList(worker1, worker2, worker3);
+
+    private static IAssignedEffortForResource withoutLoad() {
+        return new IAssignedEffortForResource() {
+            @Override
+            public EffortDuration getAssignedDurationAt(Resource resource, LocalDate day) {
+                return zero();
+            }
+        };
+    }
+
+    private static IAssignedEffortForResource withLoad(final Resource loaded, final EffortDuration load) {
+        return new IAssignedEffortForResource() {
+            @Override
+            public EffortDuration getAssignedDurationAt(Resource resource, LocalDate day) {
+                return resource == loaded ? load : zero();
+            }
+        };
+    }
+
+    private static PartialDay day(int plusDays) {
+        return PartialDay.wholeDay(START.plusDays(plusDays));
+    }
+
+    @Test
+    public void theResourcesWithMoreAvailableCapacityArePickedFirst() {
+        EffortDistributor distributor = new EffortDistributor(workers, withLoad(worker1, hours(2)));
+
+        List<ResourceWithAssignedDuration> result = distributor.distributeForDay(day(0), hours(10));
+
+        assertEquals(2, result.size());
+        assertSame(worker2, result.get(0).resource);
+        assertEquals(hours(8), result.get(0).duration);
+        assertSame(worker3, result.get(1).resource);
+        assertEquals(hours(2), result.get(1).duration);
+    }
+
+    @Test
+    public void theResourcesAlreadyPickedArePreferred() {
+        EffortDistributor distributor = new EffortDistributor(workers, withLoad(worker3, hours(2)));
+
+        List<ResourceWithAssignedDuration> first = distributor.distributeForDay(day(0), hours(4));
+        List<ResourceWithAssignedDuration> second = distributor.distributeForDay(day(1), hours(10));
+
+        assertSame(worker1, first.get(0).resource);
+        assertSame(worker1, second.get(0).resource);
+        assertEquals(hours(8), second.get(0).duration);
+        assertSame(worker2, second.get(1).resource);
+    }
+
+    @Test
+    public void theEffortBeyondTheCapacityIsDistributedInOvertime() {
+        EffortDistributor distributor = new EffortDistributor(workers, withoutLoad());
+
+        List<ResourceWithAssignedDuration> result = distributor.distributeForDay(day(0), hours(30));
+
+        assertEquals(hours(30), ResourceWithAssignedDuration.sumDurations(result));
+        for (ResourceWithAssignedDuration each : result) {
+            assertEquals(hours(10), each.duration);
+        }
+    }
+
+    private static PartialDay dayFrom(int plusDays, EffortDuration start) {
+        LocalDate date = START.plusDays(plusDays);
+        return new PartialDay(IntraDayDate.create(date, start), IntraDayDate.startOfDay(date.plusDays(1)));
+    }
+
+    private static PartialDay dayUntil(int plusDays, EffortDuration end) {
+        LocalDate date = START.plusDays(plusDays);
+        return new PartialDay(IntraDayDate.startOfDay(date), IntraDayDate.create(date, end));
+    }
+
+    /**
+     * @param loads
+     *            the hours already assigned to each resource, by day since
+     *            {@link #START}
+     */
+    private static IAssignedEffortForResource withLoads(final List<Resource> resources, final int[][] loads) {
+        return new IAssignedEffortForResource() {
+            @Override
+            public EffortDuration getAssignedDurationAt(Resource resource, LocalDate day) {
+                int plusDays = Days.daysBetween(START, day).getDays();
+                return hours(loads[plusDays][resources.indexOf(resource)]);
+            }
+        };
+    }
+
+    private static void assertAssigned(List<ResourceWithAssignedDuration> actual, Object... resourcesAndEfforts) {
+        assertEquals(resourcesAndEfforts.length / 2, actual.size());
+        for (int i = 0; i < actual.size(); i++) {
+            assertSame(resourcesAndEfforts[2 * i], actual.get(i).resource);
+            assertEquals(resourcesAndEfforts[2 * i + 1], actual.get(i).duration);
+        }
+    }
+
+    private static void assertAssignedInAnyOrder(List<ResourceWithAssignedDuration> actual,
+            Object... resourcesAndEfforts) {
+
+        Map<Resource, EffortDuration> byResource = new HashMap<>();
+        for (ResourceWithAssignedDuration each : actual) {
+            byResource.put(each.resource, each.duration);
+        }
+        assertEquals(resourcesAndEfforts.length / 2, byResource.size());
+        for (int i = 0; i < resourcesAndEfforts.length; i += 2) {
+            assertEquals(resourcesAndEfforts[i + 1], byResource.get(resourcesAndEfforts[i]));
+        }
+    }
+
+    /**
+     * The resources already picked go first, then the ones with more
+     * available capacity and, if the capacities are equal, the resources keep
+     * their order.
+     */
+    @Test
+    public void theTiesAreBrokenAsTheResourcesWithAvailableCapacityWereSorted() {
+        Worker worker4 = Worker.create("fourth", "worker", "4");
+        List<Resource> resources = Arrays.<Resource> asList(worker1, worker2, worker3, worker4);
+        int[][] loads = {
+                { 0, 0, 0, 0 },
+                { 6, 0, 0, 0 },
+                { 0, 6, 0, 0 },
+                { 0, 0, 2, 0 },
+                { 10, 0, 0, 0 },
+                { 0, 0, 7, 0 },
+                { 0, 0, 0, 0 } };
+
+        EffortDistributor distributor = new EffortDistributor(resources, withLoads(resources, loads));
+        List<PartialDay> days = Arrays.asList(
+                day(0),
+                day(1),
+                dayFrom(2, hours(5)),
+                day(3),
+                day(4),
+                dayUntil(5, hours(4)),
+                dayFrom(6, hours(6)));
+        List<EffortDuration> efforts =
+                Arrays.asList(hours(12), hours(10), hours(4), hours(21), hours(28), hours(10), hours(12));
+
+        List<List<ResourceWithAssignedDuration>> result = new ArrayList<>();
+        for (int i = 0; i < days.size(); i++) {
+            result.add(distributor.distributeForDay(days.get(i), efforts.get(i)));
+        }
+
+        // equal capacities and none picked yet
+        assertAssigned(result.get(0), worker1, hours(8), worker2, hours(4));
+
+        // the ones picked go before the ones with more capacity
+        assertAssigned(result.get(1), worker2, hours(8), worker1, hours(2));
+
+        // only three hours available from the fifth one, the load interferes in one hour
+        assertAssigned(result.get(2), worker1, hours(3), worker2, hours(1));
+
+        // equal capacities among the picked ones and the one with more capacity among the rest
+        assertAssigned(result.get(3), worker1, hours(8), worker2, hours(8), worker4, hours(5));
+
+        // the overtime goes to the less loaded ones
+        EffortDuration withOvertime = hours(9).plus(EffortDuration.minutes(20));
+        assertAssignedInAnyOrder(result.get(4), worker2, withOvertime, worker3, withOvertime, worker4, withOvertime);
+
+        // only four hours until the end, the load interferes in three hours
+        assertAssigned(result.get(5), worker1, hours(4), worker2, hours(4), worker4, hours(2));
+
+        // two hours available from the sixth one and the rest in overtime
+        assertAssignedInAnyOrder(result.get(6), worker1, hours(3), worker2, hours(3), worker3, hours(3),
+                worker4, hours(3));
+    }
+
+}
@@ -149,9 +149,7 @@ public class GenericResourceAllocationTest {
     private Set<Criterion> givenPredefinedCriterions() {
         Set<Criterion> result = new HashSet<>();
         Criterion criterion1 = createNiceMock(Criterion.class);
-        setupIsSatisfiedByAll(criterion1);
         Criterion criterion2 = createNiceMock(Criterion.class);
-        setupIsSatisfiedByAll(criterion2);
         replay(criterion1, criterion2);
         result.add(criterion1);
         result.add(criterion2);
@@ -160,15 +158,12 @@ public class GenericResourceAllocationTest {
         return result;
     }
 
-    private void setupIsSatisfiedByAll(Criterion criterion) {
-        expect(criterion.isSatisfiedBy(isA(Resource.class), isA(LocalDate.class))).andReturn(true).anyTimes();
-    }
-
     private void givenWorkersWithoutLoadAndWithoutCalendar() {
         worker1 = createNiceMock(Worker.class);
         worker2 = createNiceMock(Worker.class);
         worker3 = createNiceMock(Worker.class);
         mockZeroLoad(worker1, worker2, worker3);
+        mockSatisfactionsForPredefinedCriterions(worker1, worker2, worker3);
         buildWorkersList();
         replay(worker1, worker2, worker3);
     }
@@ -179,6 +174,19 @@ public class GenericResourceAllocationTest {
         }
     }
 
+    private void mockSatisfactionsForPredefinedCriterions(Resource... resources) {
+        for (final Resource each : resources) {
+            expect(each.getSatisfactionsFor(isA(Criterion.class)))
+                    .andAnswer(new IAnswer<List<CriterionSatisfaction>>() {
+                        @Override
+                        public List<CriterionSatisfaction> answer() throws Throwable {
+                            return satisfactionsForPredefinedCriterions(each);
+                        }
+                    })
+                    .anyTimes();
+        }
+    }
+
     private void buildWorkersList() {
         workers = new ArrayList<>();
         workers.add(worker1);
@@ -768,6 +776,7 @@ public class GenericResourceAllocationTest {
         expect(worker.getCalendar())
                 .andReturn(createCalendar(ResourceCalendar.class, capacityPerDayAndUnit, capacityUnits)).anyTimes();
 
+        mockSatisfactionsForPredefinedCriterions(worker);
         replay(worker);
         workers.add(worker);
     }
@@ -0,0 +1,175 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.planner.limiting.entities;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.calendars.entities.CalendarData.Days;
+import org.libreplan.business.calendars.entities.Capacity;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.libreplan.business.planner.entities.Dependency;
+import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.limiting.entities.DateAndHour;
+import org.libreplan.business.planner.limiting.entities.Gap.GapOnQueue;
+import org.libreplan.business.planner.limiting.entities.GapsIndex;
+import org.libreplan.business.planner.limiting.entities.InsertionRequirements;
+import org.libreplan.business.planner.limiting.entities.LimitingResourceQueueElement;
+import org.libreplan.business.resources.entities.LimitingResourceQueue;
+import org.libreplan.business.resources.entities.Worker;
+
+/**
+ * Tests for {@link GapsIndex}.
+ */
+public class GapsIndexTest {
+
+    private static final LocalDate MONDAY = new LocalDate(2026, 1, 5);
+
+    private LimitingResourceQueue queue;
+
+    @Before
+    public void createQueue() {
+        ResourceCalendar calendar = ResourceCalendar.create();
+        calendar.getCalendarAvailabilities().get(0).setStartDate(MONDAY);
+        for (Days each : Days.values()) {
+            boolean weekend = each == Days.SATURDAY || each == Days.SUNDAY;
+            calendar.setCapacityAt(each, weekend ? Capacity.zero() : Capacity.create(hours(8)));
+        }
+        Worker worker = Worker.create();
+        worker.setCalendar(calendar);
+
+        queue = LimitingResourceQueue.create();
+        queue.setResource(worker);
+    }
+
+    private LimitingResourceQueueElement givenElement(int startDay, int endDay) {
+        LimitingResourceQueueElement result = LimitingResourceQueueElement.create();
+        ResourceAllocation<?> allocation = createNiceMock(ResourceAllocation.class);
+        replay(allocation);
+        result.setResourceAllocation(allocation);
+        result.setStartDate(MONDAY.plusDays(startDay));
+        result.setEndDate(MONDAY.plusDays(endDay));
+        return result;
+    }
+
+    private static List<String> asStrings(List<GapOnQueue> gaps) {
+        List<String> result = new ArrayList<>();
+        for (GapOnQueue each : gaps) {
+            result.add(each.getGap().toString());
+        }
+        return result;
+    }
+
+    private List<String> calculatedFromScratch() {
+        return asStrings(GapsIndex.create(queue).getGaps());
+    }
+
+    @Test
+    public void theGapsAreTheOnesBetweenTheElements() {
+        queue.addLimitingResourceQueueElement(givenElement(7, 9));
+        queue.addLimitingResourceQueueElement(givenElement(14, 16));
+
+        List<GapOnQueue> gaps = queue.getGaps();
+
+        assertEquals(3, gaps.size());
+        assertEquals(new DateAndHour(MONDAY.plusDays(9), 0), gaps.get(1).getGap().getStartTime());
+        assertEquals(new DateAndHour(MONDAY.plusDays(14), 0), gaps.get(1).getGap().getEndTime());
+        assertEquals(24, gaps.get(1).getGap().getAllocatableHours());
+        assertEquals(null, gaps.get(2).getGap().getEndTime());
+    }
+
+    @Test
+    public void theGapsAreUpdatedWhenAddingAndRemovingElements() {
+        Random random = new Random(3);
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            starts.add(7 + i * 3);
+        }
+        Collections.shuffle(starts, random);
+        List<LimitingResourceQueueElement> added = new ArrayList<>();
+        queue.getGaps();
+
+        while (!starts.isEmpty()) {
+            if ( added.isEmpty() || random.nextInt(3) > 0 ) {
+                int start = starts.remove(starts.size() - 1);
+                LimitingResourceQueueElement element = givenElement(start, start + 1 + random.nextInt(2));
+                queue.addLimitingResourceQueueElement(element);
+                added.add(element);
+            } else {
+                LimitingResourceQueueElement removed = added.remove(random.nextInt(added.size()));
+                queue.removeLimitingResourceQueueElement(removed);
+            }
+
+            assertEquals(calculatedFromScratch(), asStrings(queue.getGaps()));
+        }
+    }
+
+    @Test
+    public void theGapsWithoutEnoughHoursAreSkipped() {
+        queue.addLimitingResourceQueueElement(givenElement(7, 9));
+        queue.addLimitingResourceQueueElement(givenElement(10, 14));
+        queue.addLimitingResourceQueueElement(givenElement(21, 23));
+
+        List<GapOnQueue> gaps = queue.getGapsPotentiallyValidFor(requirementsFor(20, MONDAY.plusDays(8)));
+
+        assertEquals(2, gaps.size());
+        for (GapOnQueue each : gaps) {
+            assertTrue(each.getGap().getAllocatableHours() >= 20);
+        }
+        assertEquals(new DateAndHour(MONDAY.plusDays(14), 0), gaps.get(0).getGap().getStartTime());
+    }
+
+    @Test
+    public void theGapsEndingBeforeTheEarliestStartAreSkipped() {
+        queue.addLimitingResourceQueueElement(givenElement(7, 9));
+        queue.addLimitingResourceQueueElement(givenElement(14, 16));
+
+        List<GapOnQueue> gaps = queue.getGapsPotentiallyValidFor(requirementsFor(8, MONDAY.plusDays(15)));
+
+        assertEquals(1, gaps.size());
+        assertEquals(null, gaps.get(0).getGap().getEndTime());
+    }
+
+    private InsertionRequirements requirementsFor(int hours, LocalDate earliestStart) {
+        Task task = createNiceMock(Task.class);
+        expect(task.getDependenciesWithThisOrigin()).andReturn(Collections.<Dependency> emptySet()).anyTimes();
+        LimitingResourceQueueElement element = createNiceMock(LimitingResourceQueueElement.class);
+        expect(element.getTask()).andReturn(task).anyTimes();
+        expect(element.getIntentedTotalHours()).andReturn(hours).anyTimes();
+        replay(task, element);
+
+        DateAndHour start = new DateAndHour(earliestStart, 0);
+        return InsertionRequirements.create(element, start, start);
+    }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.libreplan.business.test.resources.daos;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.Capacity;
+import org.libreplan.business.calendars.entities.CalendarData.Days;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.entities.HoursGroup;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.TaskSource;
+import org.libreplan.business.planner.daos.IDayAssignmentDAO;
+import org.libreplan.business.planner.daos.ITaskElementDAO;
+import org.libreplan.business.planner.daos.ITaskSourceDAO;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.GenericResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.resources.daos.IResourceDAO;
+import org.libreplan.business.resources.daos.IResourceLoadRatiosCalculator;
+import org.libreplan.business.resources.daos.IResourceLoadRatiosCalculator.ILoadRatiosDataType;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.scenarios.daos.IScenarioDAO;
+import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
+import org.libreplan.business.test.planner.daos.ResourceAllocationDAOTest;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Checks that the load ratios of several resources calculated at once match
+ * the ones calculated from the day assignments of each resource.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class ResourceLoadRatiosCalculatorTest {
+
+    private static final LocalDate MONDAY = new LocalDate(2026, 1, 5);
+
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private static final LocalDate THURSDAY = MONDAY.plusDays(3);
+
+    private static final LocalDate NEXT_MONDAY = MONDAY.plusWeeks(1);
+
+    @Autowired
+    private IResourceLoadRatiosCalculator resourceLoadRatiosCalculator;
+
+    @Autowired
+    private IDayAssignmentDAO dayAssignmentDAO;
+
+    @Autowired
+    private IResourceDAO resourceDAO;
+
+    @Autowired
+    private IOrderDAO orderDAO;
+
+    @Autowired
+    private IBaseCalendarDAO calendarDAO;
+
+    @Autowired
+    private ITaskSourceDAO taskSourceDAO;
+
+    @Autowired
+    private ITaskElementDAO taskElementDAO;
+
+    @Autowired
+    private IScenarioDAO scenarioDAO;
+
+    @Autowired
+    private IScenariosBootstrap scenariosBootstrap;
+
+    @Autowired
+    private IScenarioManager scenarioManager;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Before
+    public void loadRequiredData() {
+        scenariosBootstrap.loadRequiredData();
+    }
+
+    private Worker givenWorkerWithEightHoursFromMondayToFriday() {
+        ResourceCalendar calendar = ResourceCalendar.create();
+        calendar.setName("calendar-" + UUID.randomUUID());
+        calendar.getCalendarAvailabilities().get(0).setStartDate(MONDAY);
+        for (Days each : Days.values()) {
+            boolean weekend = each == Days.SATURDAY || each == Days.SUNDAY;
+            calendar.setCapacityAt(each, weekend ? Capacity.zero() : Capacity.create(hours(8)));
+        }
+
+        Worker result = ResourceDAOTest.givenValidWorker();
+        result.setCalendar(calendar);
+        resourceDAO.save(result);
+        return result;
+    }
+
+    private Task givenTask() {
+        OrderLine orderLine = OrderLine.create();
+        orderLine.setName("line-" + UUID.randomUUID());
+        orderLine.setCode("code-" + UUID.randomUUID());
+        HoursGroup hoursGroup = new HoursGroup();
+        hoursGroup.setCode("hours-group-code-" + UUID.randomUUID());
+        orderLine.addHoursGroup(hoursGroup);
+
+        Order order = Order.create();
+        order.setName("order-" + UUID.randomUUID());
+        order.setCode("code-" + UUID.randomUUID());
+        order.setInitDate(MONDAY.toDateTimeAtStartOfDay().toDate());
+        BaseCalendar calendar = BaseCalendarTest.createBasicCalendar();
+        calendarDAO.save(calendar);
+        order.setCalendar(calendar);
+        OrderVersion orderVersion = ResourceAllocationDAOTest.setupVersionUsing(scenarioManager, order);
+        order.useSchedulingDataFor(orderVersion);
+        order.add(orderLine);
+        orderDAO.save(order);
+
+        TaskSource taskSource = TaskSource.create(
+                orderLine.getCurrentSchedulingDataForVersion(), orderLine.getHoursGroups());
+        TaskSource.mustAdd(taskSource).apply(TaskSource.persistTaskSources(taskSourceDAO));
+        return (Task) taskSource.getTask();
+    }
+
+    private static List<EffortDuration> hoursPerDay(int... hours) {
+        List<EffortDuration> result = new ArrayList<>();
+        for (int each : hours) {
+            result.add(hours(each));
+        }
+        return result;
+    }
+
+    @Test
+    @Transactional
+    public void theLoadRatiosCalculatedAtOnceAreTheSameAsCalculatedForEachResource() {
+        Scenario current = scenarioManager.getCurrent();
+        Scenario another = Scenario.create("scenario-" + UUID.randomUUID());
+        scenarioDAO.save(another);
+
+        Worker overloaded = givenWorkerWithEightHoursFromMondayToFriday();
+        Worker shared = givenWorkerWithEightHoursFromMondayToFriday();
+        Worker onAnotherScenario = givenWorkerWithEightHoursFromMondayToFriday();
+        Worker free = givenWorkerWithEightHoursFromMondayToFriday();
+        Task task = givenTask();
+        Task anotherTask = givenTask();
+
+        SpecificResourceAllocation specific = SpecificResourceAllocation.create(task);
+        specific.setResource(overloaded);
+        specific.switchToScenario(current);
+        specific.onInterval(MONDAY, NEXT_MONDAY).allocate(hoursPerDay(6, 6, 6, 6, 6));
+        task.addResourceAllocation(specific);
+
+        SpecificResourceAllocation onAnotherTask = SpecificResourceAllocation.create(anotherTask);
+        onAnotherTask.setResource(overloaded);
+        onAnotherTask.switchToScenario(current);
+        onAnotherTask.onInterval(MONDAY, NEXT_MONDAY).allocate(hoursPerDay(5, 5, 5, 5, 5));
+        anotherTask.addResourceAllocation(onAnotherTask);
+
+        GenericResourceAllocation generic = GenericResourceAllocation.create(task);
+        generic.switchToScenario(current);
+        generic.forResources(Collections.singletonList(shared))
+                .onInterval(MONDAY, NEXT_MONDAY)
+                .allocate(hoursPerDay(4, 4, 4, 4, 4));
+        task.addResourceAllocation(generic);
+
+        SpecificResourceAllocation ignored = SpecificResourceAllocation.create(task);
+        ignored.setResource(onAnotherScenario);
+        ignored.switchToScenario(another);
+        ignored.onInterval(MONDAY, NEXT_MONDAY).allocate(hoursPerDay(8, 8, 8, 8, 8));
+        task.addResourceAllocation(ignored);
+
+        taskElementDAO.save(task);
+        taskElementDAO.save(anotherTask);
+        sessionFactory.getCurrentSession().flush();
+
+        List<Worker> resources = Arrays.asList(overloaded, shared, onAnotherScenario, free);
+        Map<Resource, ILoadRatiosDataType> atOnce =
+                resourceLoadRatiosCalculator.calculateLoadRatios(resources, TUESDAY, THURSDAY, current);
+
+        for (Worker each : resources) {
+            calculateFromDayAssignments(each, TUESDAY, THURSDAY, current).check(atOnce.get(each));
+        }
+
+        assertThat(atOnce.get(overloaded).getLoad(), equalTo(hours(33)));
+        assertThat(atOnce.get(overloaded).getOverload(), equalTo(hours(9)));
+        assertThat(atOnce.get(shared).getLoad(), equalTo(hours(12)));
+        assertThat(atOnce.get(shared).getOverload(), equalTo(EffortDuration.zero()));
+        assertThat(atOnce.get(onAnotherScenario).getLoad(), equalTo(EffortDuration.zero()));
+        assertThat(atOnce.get(free).getLoad(), equalTo(EffortDuration.zero()));
+    }
+
+    @Test
+    @Transactional
+    public void theLoadRatiosOfOneResourceAreTheSameAsCalculatedForSeveral() {
+        Worker worker = givenWorkerWithEightHoursFromMondayToFriday();
+        Task task = givenTask();
+
+        SpecificResourceAllocation specific = SpecificResourceAllocation.create(task);
+        specific.setResource(worker);
+        specific.switchToScenario(scenarioManager.getCurrent());
+        specific.onInterval(MONDAY, NEXT_MONDAY).allocate(hoursPerDay(4, 8, 6, 8, 2));
+        task.addResourceAllocation(specific);
+        taskElementDAO.save(task);
+        sessionFactory.getCurrentSession().flush();
+
+        ILoadRatiosDataType one = resourceLoadRatiosCalculator
+                .calculateLoadRatios(worker, MONDAY, NEXT_MONDAY, scenarioManager.getCurrent());
+
+        assertThat(one.getLoad(), equalTo(hours(28)));
+        calculateFromDayAssignments(worker, MONDAY, NEXT_MONDAY, scenarioManager.getCurrent()).check(one);
+    }
+
+    /**
+     * The calculation done for each resource before the load was summed in
+     * the database: the day assignments of the resource are loaded and summed
+     * by day.
+     */
+    private LoadFromDayAssignments calculateFromDayAssignments(Resource resource,
+                                                               LocalDate startDate,
+                                                               LocalDate endDate,
+                                                               Scenario scenario) {
+
+        Map<LocalDate, EffortDuration> effortPerDay = new HashMap<>();
+        for (DayAssignment each : dayAssignmentDAO.getAllFor(scenario, startDate, endDate, resource)) {
+            EffortDuration previous = effortPerDay.get(each.getDay());
+            effortPerDay.put(each.getDay(),
+                    previous == null ? each.getDuration() : previous.plus(each.getDuration()));
+        }
+
+        EffortDuration load = EffortDuration.zero();
+        EffortDuration overload = EffortDuration.zero();
+        for (Map.Entry<LocalDate, EffortDuration> each : effortPerDay.entrySet()) {
+            load = load.plus(each.getValue());
+            EffortDuration capacity = resource.getCalendar().getCapacityOn(PartialDay.wholeDay(each.getKey()));
+            if ( capacity.compareTo(each.getValue()) < 0 ) {
+                overload = overload.plus(each.getValue().minus(capacity));
+            }
+        }
+
+        return new LoadFromDayAssignments(
+                load, overload, resource.getCalendar().getWorkableDuration(startDate, endDate));
+    }
+
+    private static class LoadFromDayAssignments {
+
+        private final EffortDuration load;
+
+        private final EffortDuration overload;
+
+        private final EffortDuration capacity;
+
+        LoadFromDayAssignments(EffortDuration load, EffortDuration overload, EffortDuration capacity) {
+            this.load = load;
+            this.overload = overload;
+            this.capacity = capacity;
+        }
+
+        void check(ILoadRatiosDataType actual) {
+            assertThat(actual.getLoad(), equalTo(load));
+            assertThat(actual.getOverload(), equalTo(overload));
+            assertThat(actual.getCapacity(), equalTo(capacity));
+        }
+    }
+
+}
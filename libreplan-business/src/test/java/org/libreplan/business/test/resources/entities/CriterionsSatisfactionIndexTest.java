@@ -0,0 +1,171 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.libreplan.business.test.resources.entities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.CriterionCompounder;
+import org.libreplan.business.resources.entities.CriterionSatisfaction;
+import org.libreplan.business.resources.entities.CriterionsSatisfactionIndex;
+import org.libreplan.business.resources.entities.ICriterion;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.test.resources.daos.CriterionDAOTest;
+
+/**
+ * Tests for {@link CriterionsSatisfactionIndex}
+ */
+public class CriterionsSatisfactionIndexTest {
+
+    private static final LocalDate START = new LocalDate(2026, 1, 1);
+
+    private static Worker createWorker() {
+        return Worker.create("firstName", "surName", "2333232");
+    }
+
+    private static CriterionSatisfaction satisfy(Resource resource, Criterion criterion,
+                                                 LocalDate start, LocalDate end) {
+
+        CriterionSatisfaction result = CriterionSatisfaction.create(start, criterion, resource);
+        if ( end != null ) {
+            result.finish(end);
+        }
+        resource.addUnvalidatedSatisfaction(result);
+        return result;
+    }
+
+    private static Criterion childOf(Criterion parent) {
+        Criterion result = CriterionDAOTest.createValidCriterion();
+        result.setParent(parent);
+        parent.getChildren().add(result);
+        return result;
+    }
+
+    @Test
+    public void itIsSatisfiedTheSameDaysThanTheCompoundCriterion() {
+        Random random = new Random(7);
+        Criterion first = CriterionDAOTest.createValidCriterion();
+        Criterion child = childOf(first);
+        Criterion second = CriterionDAOTest.createValidCriterion();
+        List<Criterion> criterions = Arrays.asList(first, second);
+        List<Criterion> satisfied = Arrays.asList(first, child, second);
+
+        for (int i = 0; i < 50; i++) {
+            Worker worker = createWorker();
+            for (int j = 0; j < 6; j++) {
+                LocalDate start = START.plusDays(random.nextInt(100));
+                int length = random.nextInt(20) - 2;
+                satisfy(worker, satisfied.get(random.nextInt(satisfied.size())),
+                        start, length < 0 ? null : start.plusDays(length));
+            }
+
+            ICriterion compound = CriterionCompounder.buildAnd(criterions).getResult();
+            CriterionsSatisfactionIndex index =
+                    CriterionsSatisfactionIndex.compile(criterions, Collections.singletonList(worker));
+
+            for (LocalDate day = START.minusDays(1); day.isBefore(START.plusDays(130)); day = day.plusDays(1)) {
+                assertEquals(day.toString(), compound.isSatisfiedBy(worker, day), index.isSatisfiedBy(worker, day));
+            }
+        }
+    }
+
+    @Test
+    public void theSatisfactionsOfTheDescendantsAreIncluded() {
+        Criterion parent = CriterionDAOTest.createValidCriterion();
+        Criterion grandChild = childOf(childOf(parent));
+        Worker worker = createWorker();
+        satisfy(worker, grandChild, START, null);
+
+        CriterionsSatisfactionIndex index = CriterionsSatisfactionIndex.compile(
+                Collections.singletonList(parent), Collections.singletonList(worker));
+
+        assertTrue(index.isSatisfiedBy(worker, START.plusDays(10)));
+        assertFalse(index.isSatisfiedBy(worker, START.minusDays(1)));
+    }
+
+    @Test
+    public void withoutCriteriaAnyResourceIsSatisfied() {
+        Worker worker = createWorker();
+        CriterionsSatisfactionIndex index = CriterionsSatisfactionIndex.compile(
+                Collections.<Criterion> emptyList(), Collections.singletonList(worker));
+
+        assertTrue(index.isSatisfiedBy(worker, START));
+    }
+
+    @Test
+    public void theResourcesNotCompiledAreIndexedWhenFirstChecked() {
+        Criterion criterion = CriterionDAOTest.createValidCriterion();
+        Worker worker = createWorker();
+        satisfy(worker, criterion, START, START.plusDays(10));
+
+        CriterionsSatisfactionIndex index = CriterionsSatisfactionIndex.compile(
+                Collections.singletonList(criterion), Collections.<Resource> emptyList());
+
+        assertTrue(index.isSatisfiedBy(worker, START.plusDays(5)));
+        assertFalse(index.isSatisfiedBy(worker, START.plusDays(10)));
+    }
+
+    @Test
+    public void theResourcesAreIndexedAgainWhenTheirSatisfactionsAreModified() {
+        Criterion criterion = CriterionDAOTest.createValidCriterion();
+        Worker worker = createWorker();
+        CriterionSatisfaction satisfaction = satisfy(worker, criterion, START, null);
+        CriterionsSatisfactionIndex index = CriterionsSatisfactionIndex.compile(
+                Collections.singletonList(criterion), Collections.singletonList(worker));
+
+        assertTrue(index.isSatisfiedBy(worker, START.plusDays(20)));
+
+        satisfaction.finish(START.plusDays(10));
+        assertFalse(index.isSatisfiedBy(worker, START.plusDays(20)));
+        assertTrue(index.isSatisfiedBy(worker, START.plusDays(5)));
+
+        satisfaction.setIsDeleted(true);
+        assertFalse(index.isSatisfiedBy(worker, START.plusDays(5)));
+
+        satisfaction.setIsDeleted(false);
+        assertTrue(index.isSatisfiedBy(worker, START.plusDays(5)));
+
+        worker.removeCriterionSatisfaction(satisfaction);
+        assertFalse(index.isSatisfiedBy(worker, START.plusDays(5)));
+    }
+
+    @Test
+    public void itKnowsTheCriteriaItIsFor() {
+        Criterion first = CriterionDAOTest.createValidCriterion();
+        Criterion second = CriterionDAOTest.createValidCriterion();
+        CriterionsSatisfactionIndex index = CriterionsSatisfactionIndex.compile(
+                Arrays.asList(first, second), Collections.<Resource> emptyList());
+
+        assertTrue(index.isFor(Arrays.asList(second, first)));
+        assertFalse(index.isFor(Collections.singletonList(first)));
+    }
+
+}
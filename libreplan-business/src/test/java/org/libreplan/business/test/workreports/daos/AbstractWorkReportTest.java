@@ -93,7 +93,7 @@ public abstract class AbstractWorkReportTest {
         return workReportLine;
     }
 
-    private TypeOfWorkHours createValidTypeOfWorkHours() {
+    protected TypeOfWorkHours createValidTypeOfWorkHours() {
         TypeOfWorkHours typeOfWorkHours =
                 TypeOfWorkHours.create(UUID.randomUUID().toString(), UUID.randomUUID().toString());
 
@@ -104,7 +104,7 @@ public abstract class AbstractWorkReportTest {
 
     }
 
-    private Resource createValidWorker() {
+    protected Resource createValidWorker() {
         Worker worker = Worker.create();
         worker.setFirstName(UUID.randomUUID().toString());
         worker.setSurname(UUID.randomUUID().toString());
@@ -114,7 +114,7 @@ public abstract class AbstractWorkReportTest {
         return worker;
     }
 
-    private OrderElement createValidOrderElement() {
+    protected OrderElement createValidOrderElement() {
         OrderLine orderLine = OrderLine.create();
         orderLine.setName(UUID.randomUUID().toString());
         orderLine.setCode(UUID.randomUUID().toString());
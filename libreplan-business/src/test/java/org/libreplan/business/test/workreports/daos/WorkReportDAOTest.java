@@ -28,13 +28,32 @@ import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.joda.time.LocalDate;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.costcategories.entities.TypeOfWorkHours;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.users.daos.IUserDAO;
+import org.libreplan.business.users.entities.User;
+import org.libreplan.business.users.entities.UserRole;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.daos.IWorkReportDAO;
+import org.libreplan.business.workreports.entities.PersonalTimesheetSummary;
+import org.libreplan.business.workreports.entities.PredefinedWorkReportTypes;
 import org.libreplan.business.workreports.entities.WorkReport;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.entities.WorkReportType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -48,9 +67,15 @@ import org.springframework.transaction.annotation.Transactional;
  */
 public class WorkReportDAOTest extends AbstractWorkReportTest {
 
+    private static final LocalDate MONDAY = new LocalDate(2026, 1, 5);
+
     @Autowired
     private IWorkReportDAO workReportDAO;
 
+    @Autowired
+    private IUserDAO userDAO;
+
+
     @Test
     @Transactional
     public void testInSpringContainer() {
@@ -89,4 +114,129 @@ public class WorkReportDAOTest extends AbstractWorkReportTest {
                 .list(WorkReport.class);
         assertEquals(previous + 2, list.size());
     }
+
+    private Resource givenWorkerBoundToUser() {
+        Worker result = (Worker) createValidWorker();
+        User user = User.create(UUID.randomUUID().toString(), "password", new HashSet<UserRole>());
+        userDAO.save(user);
+        result.setUser(user);
+        return result;
+    }
+
+    /**
+     * The predefined type is saved by the bootstrap, it's created here as the
+     * test data is rolled back
+     */
+    private WorkReportType givenPersonalTimesheetsType() {
+        WorkReportType result = WorkReportType.create(
+                PredefinedWorkReportTypes.PERSONAL_TIMESHEETS.getName(), UUID.randomUUID().toString());
+        result.setResourceIsSharedInLines(true);
+        workReportTypeDAO.save(result);
+        return result;
+    }
+
+    private WorkReport givenPersonalTimesheet(WorkReportType type, Resource resource) {
+        WorkReport result = WorkReport.create(type);
+        result.setResource(resource);
+        workReportDAO.save(result);
+        return result;
+    }
+
+    private void givenLine(WorkReport workReport, LocalDate date, OrderElement orderElement,
+                           TypeOfWorkHours typeOfWorkHours, int hours) {
+
+        WorkReportLine line = WorkReportLine.create(workReport);
+        line.setDate(date.toDateTimeAtStartOfDay().toDate());
+        line.setResource(workReport.getResource());
+        line.setOrderElement(orderElement);
+        line.setTypeOfWorkHours(typeOfWorkHours);
+        line.setEffort(EffortDuration.hours(hours));
+        workReport.addWorkReportLine(line);
+    }
+
+    private static EffortDuration totalEffort(WorkReport workReport) {
+        EffortDuration result = EffortDuration.zero();
+        for (WorkReportLine each : workReport.getWorkReportLines()) {
+            result = result.plus(each.getEffort());
+        }
+        return result;
+    }
+
+    private static int orderElementsWithTrackedTime(WorkReport workReport) {
+        Set<OrderElement> result = new HashSet<>();
+        for (WorkReportLine each : workReport.getWorkReportLines()) {
+            if ( !each.getEffort().isZero() ) {
+                result.add(each.getOrderElement());
+            }
+        }
+        return result.size();
+    }
+
+    @Test
+    @Transactional
+    public void testPersonalTimesheetsSummaries() throws InstanceNotFoundException {
+        WorkReportType type = givenPersonalTimesheetsType();
+        Resource worker = givenWorkerBoundToUser();
+        Resource anotherWorker = givenWorkerBoundToUser();
+        OrderElement first = createValidOrderElement();
+        OrderElement second = createValidOrderElement();
+        OrderElement third = createValidOrderElement();
+        TypeOfWorkHours typeOfWorkHours = createValidTypeOfWorkHours();
+
+        WorkReport firstWeek = givenPersonalTimesheet(type, worker);
+        givenLine(firstWeek, MONDAY.plusDays(1), first, typeOfWorkHours, 2);
+        givenLine(firstWeek, MONDAY.plusDays(2), first, typeOfWorkHours, 3);
+        givenLine(firstWeek, MONDAY.plusDays(3), second, typeOfWorkHours, 0);
+        givenLine(firstWeek, MONDAY.plusDays(4), third, typeOfWorkHours, 1);
+
+        // Created after the other one of the same week, though its lines are earlier
+        WorkReport repeatedWeek = givenPersonalTimesheet(type, worker);
+        givenLine(repeatedWeek, MONDAY, second, typeOfWorkHours, 4);
+
+        WorkReport secondWeek = givenPersonalTimesheet(type, worker);
+        givenLine(secondWeek, MONDAY.plusWeeks(1), second, typeOfWorkHours, 8);
+
+        WorkReport outOfRange = givenPersonalTimesheet(type, worker);
+        givenLine(outOfRange, MONDAY.plusWeeks(3), first, typeOfWorkHours, 8);
+
+        givenPersonalTimesheet(type, worker);
+
+        WorkReport ofAnotherWorker = givenPersonalTimesheet(type, anotherWorker);
+        givenLine(ofAnotherWorker, MONDAY, first, typeOfWorkHours, 8);
+
+        WorkReport ofAnotherType = createValidWorkReport();
+        ofAnotherType.getWorkReportType().setResourceIsSharedInLines(true);
+        ofAnotherType.setResource(worker);
+        workReportDAO.save(ofAnotherType);
+        givenLine(ofAnotherType, MONDAY, first, typeOfWorkHours, 8);
+
+        workReportDAO.flush();
+
+        List<PersonalTimesheetSummary> summaries =
+                workReportDAO.getPersonalTimesheetsSummaries(worker, MONDAY, MONDAY.plusWeeks(2).minusDays(1));
+
+        assertEquals(3, summaries.size());
+        assertEquals(repeatedWeek.getId(), summaries.get(0).getWorkReportId());
+        assertEquals(firstWeek.getId(), summaries.get(1).getWorkReportId());
+        assertEquals(secondWeek.getId(), summaries.get(2).getWorkReportId());
+        assertEquals(MONDAY.plusDays(1), summaries.get(1).getDate());
+        assertEquals(EffortDuration.hours(6), summaries.get(1).getTotalEffort());
+        assertEquals(2, summaries.get(1).getOrderElementsWithTrackedTime());
+
+        for (PersonalTimesheetSummary each : summaries) {
+            WorkReport workReport = workReportDAO.find(each.getWorkReportId());
+            assertEquals(totalEffort(workReport), each.getTotalEffort());
+            assertEquals(orderElementsWithTrackedTime(workReport), each.getOrderElementsWithTrackedTime());
+        }
+
+        PersonalTimesheetsPeriodicityEnum weekly = PersonalTimesheetsPeriodicityEnum.WEEKLY;
+        Map<LocalDate, PersonalTimesheetSummary> byPeriod = PersonalTimesheetSummary.firstByPeriod(summaries, weekly);
+        assertEquals(2, byPeriod.size());
+        for (LocalDate week : byPeriod.keySet()) {
+            assertEquals(workReportDAO.getPersonalTimesheetWorkReport(worker, week, weekly).getId(),
+                    byPeriod.get(week).getWorkReportId());
+        }
+        assertEquals(firstWeek.getId(), byPeriod.get(MONDAY).getWorkReportId());
+    }
+
 }
@@ -27,7 +27,9 @@ import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Resource;
 
@@ -36,6 +38,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.libreplan.business.IDataBootstrap;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.util.Pair;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
 import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -93,4 +97,19 @@ public class WorkReportLineDAOTest extends AbstractWorkReportTest {
         List<WorkReportLine> list = workReportLineDAO.list(WorkReportLine.class);
         assertEquals(previous + 2, list.size());
     }
+
+    @Test
+    @Transactional
+    public void testFindSavedEffortsIgnoresTheChangesNotFlushed() {
+        WorkReportLine workReportLine = createValidWorkReportLine();
+        workReportLineDAO.save(workReportLine);
+        workReportLineDAO.flush();
+
+        workReportLine.setEffort(EffortDuration.hours(10));
+
+        Map<Long, Pair<EffortDuration, Long>> saved = workReportLineDAO
+                .findSavedEffortsAndOrderElements(Collections.singletonList(workReportLine.getId()));
+        assertEquals(EffortDuration.hours(100), saved.get(workReportLine.getId()).getFirst());
+        assertEquals(workReportLine.getOrderElement().getId(), saved.get(workReportLine.getId()).getSecond());
+    }
 }
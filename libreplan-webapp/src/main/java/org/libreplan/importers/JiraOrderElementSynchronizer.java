@@ -31,6 +31,11 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
@@ -80,6 +85,11 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
     private static final Log LOG = LogFactory
             .getLog(JiraOrderElementSynchronizer.class);
 
+    /**
+     * Max number of orders whose issues are requested to JIRA at the same time
+     */
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+
     private SynchronizationInfo synchronizationInfo;
 
     @Autowired
@@ -145,7 +155,24 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
      * @return a list of {@link IssueDTO}
      */
     private List<IssueDTO> getJiraIssues(String label, Connector connector) {
-        Map<String, String> properties = connector.getPropertiesAsMap();
+        return getJiraIssues(label, null, connector.getPropertiesAsMap());
+    }
+
+    /**
+     * Gets the jira issues for the specified <code>label</code> updated since
+     * <code>updatedSince</code>. It does not access the database, so it can
+     * be called from other threads.
+     *
+     * @param label
+     *            the search criteria
+     * @param updatedSince
+     *            if <code>null</code> all the issues are returned
+     * @param properties
+     *            the configuration parameters of the connector
+     * @return a list of {@link IssueDTO}
+     */
+    private static List<IssueDTO> getJiraIssues(String label,
+            Date updatedSince, Map<String, String> properties) {
         String url = properties.get(PredefinedConnectorProperties.SERVER_URL);
 
         String username = properties
@@ -155,7 +182,8 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
                 .get(PredefinedConnectorProperties.PASSWORD);
 
         String path = JiraRESTClient.PATH_SEARCH;
-        String query = "labels=" + label;
+        String query = JiraRESTClient.updatedSince("labels=" + label,
+                updatedSince);
 
         List<IssueDTO> issues = JiraRESTClient.getIssues(url, username, password,
                 path, query);
@@ -472,6 +500,11 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
     @Override
     @Transactional
     public void saveSyncInfo(final String key, final Order order) {
+        saveSyncInfo(key, order, new Date());
+    }
+
+    private void saveSyncInfo(final String key, final Order order,
+            final Date syncDate) {
         adHocTransactionService
                 .runOnAnotherTransaction(new IOnTransaction<Void>() {
                     @Override
@@ -483,7 +516,7 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
                             orderSyncInfo = OrderSyncInfo.create(key, order,
                                     PredefinedConnectors.JIRA.getName());
                         }
-                        orderSyncInfo.setLastSyncDate(new Date());
+                        orderSyncInfo.setLastSyncDate(syncDate);
                         orderSyncInfoDAO.save(orderSyncInfo);
                         return null;
                     }
@@ -526,15 +559,42 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
             return syncInfos;
         }
 
-        for (OrderSyncInfo orderSyncInfo : orderSyncInfos) {
+        // Only the issues updated since the last synchronization of each
+        // order are requested, from the moment before requesting them
+        Date syncDate = new Date();
+        List<Future<List<IssueDTO>>> requests = requestUpdatedJiraIssues(
+                orderSyncInfos, connector.getPropertiesAsMap());
+
+        for (int i = 0; i < orderSyncInfos.size(); i++) {
+            OrderSyncInfo orderSyncInfo = orderSyncInfos.get(i);
             Order order = orderSyncInfo.getOrder();
             LOG.info("Synchronizing '" + order.getName() + "'");
             synchronizationInfo = new SynchronizationInfo(_(
                     "Synchronization order {0}", order.getName()));
 
-            List<IssueDTO> issueDTOs = getJiraIssues(orderSyncInfo.getKey(),
-                    connector);
+            List<IssueDTO> issueDTOs;
+            try {
+                issueDTOs = requests.get(i).get();
+            } catch (ExecutionException e) {
+                LOG.error("Error getting JIRA issues for '"
+                        + orderSyncInfo.getKey() + "'", e.getCause());
+                synchronizationInfo.addFailedReason(_(
+                        "Unable to get JIRA issues for key {0}: {1}",
+                        orderSyncInfo.getKey(), e.getCause().getMessage()));
+                syncInfos.add(synchronizationInfo);
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+
             if (issueDTOs == null || issueDTOs.isEmpty()) {
+                if (orderSyncInfo.getLastSyncDate() != null) {
+                    LOG.info("No JIRA issues updated for '"
+                            + orderSyncInfo.getKey() + "'");
+                    saveSyncInfo(orderSyncInfo.getKey(), order, syncDate);
+                    continue;
+                }
                 LOG.warn("No JIRA issues found for '" + orderSyncInfo.getKey()
                         + "'");
                 synchronizationInfo.addFailedReason(_(
@@ -552,7 +612,7 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
             }
             orderModel.save(false);
 
-            saveSyncInfo(orderSyncInfo.getKey(), order);
+            saveSyncInfo(orderSyncInfo.getKey(), order, syncDate);
 
             jiraTimesheetSynchronizer.syncJiraTimesheetWithJiraIssues(
                     issueDTOs, order);
@@ -562,4 +622,39 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
         }
         return syncInfos;
     }
+
+    /**
+     * Requests to JIRA the issues of each {@link OrderSyncInfo} updated since
+     * its last synchronization, several of them at the same time. The orders
+     * are synchronized afterwards in this thread, as they are bound to the
+     * current session.
+     *
+     * @return the issues of each {@link OrderSyncInfo}, in the same order
+     */
+    private List<Future<List<IssueDTO>>> requestUpdatedJiraIssues(
+            List<OrderSyncInfo> orderSyncInfos,
+            final Map<String, String> properties) {
+        List<Callable<List<IssueDTO>>> requests = new ArrayList<Callable<List<IssueDTO>>>();
+        for (OrderSyncInfo each : orderSyncInfos) {
+            final String key = each.getKey();
+            final Date lastSyncDate = each.getLastSyncDate();
+            requests.add(new Callable<List<IssueDTO>>() {
+                @Override
+                public List<IssueDTO> call() {
+                    return getJiraIssues(key, lastSyncDate, properties);
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(
+                MAX_CONCURRENT_REQUESTS, orderSyncInfos.size()));
+        try {
+            return executor.invokeAll(requests);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -19,8 +19,11 @@
 
 package org.libreplan.importers;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -59,10 +62,17 @@ public class JiraRESTClient {
     private static final String FIELDS_TO_INCLUDE_IN_RESPONSE = "summary,status,timetracking,worklog";
 
     /**
-     * Max number of issues to return(default is 50)
+     * Max number of issues to return in each page(default is 50). The server
+     * could return less issues if it has a lower limit configured.
      */
     private static final long MAX_RESULTS = 1000;
 
+    /**
+     * Minutes subtracted to the last synchronization date when asking for the
+     * updated issues, to not miss the ones updated meanwhile
+     */
+    private static final long UPDATED_SINCE_MARGIN_MINUTES = 1;
+
     private static final MediaType[] mediaTypes = new MediaType[] {
             MediaType.valueOf(MediaType.APPLICATION_JSON),
             MediaType.valueOf(MediaType.APPLICATION_XML) };
@@ -82,7 +92,8 @@ public class JiraRESTClient {
     }
 
     /**
-     * Query Jira for all issues with the specified query parameter
+     * Query Jira for all issues with the specified query parameter. The
+     * issues are requested page by page until all of them are received.
      *
      * @param url
      *            the url(end point)
@@ -114,9 +125,48 @@ public class JiraRESTClient {
         client.query("maxResults", MAX_RESULTS);
         client.query("fields", StringUtils.deleteWhitespace(FIELDS_TO_INCLUDE_IN_RESPONSE));
 
-        SearchResultDTO searchResult = client.get(SearchResultDTO.class);
+        List<IssueDTO> result = new ArrayList<>();
+        while (true) {
+            client.replaceQueryParam("startAt", result.size());
+            SearchResultDTO searchResult = client.get(SearchResultDTO.class);
+
+            List<IssueDTO> issues = searchResult.getIssues();
+            if ( issues == null || issues.isEmpty() ) {
+                return result;
+            }
+            result.addAll(issues);
+
+            if ( searchResult.getTotal() == null || result.size() >= searchResult.getTotal() ) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Restricts <code>query</code> to the issues updated since
+     * <code>date</code>.
+     *
+     * The date is sent as the minutes elapsed since then, so it does not
+     * depend on the time zone of the JIRA server.
+     *
+     * @param query
+     *            the query, it could be empty
+     * @param date
+     *            date of the last synchronization, if <code>null</code> the
+     *            query is not modified
+     * @return the query restricted
+     */
+    public static String updatedSince(String query, Date date) {
+        if ( date == null ) {
+            return query;
+        }
+
+        long minutes = TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis() - date.getTime()) +
+                UPDATED_SINCE_MARGIN_MINUTES;
+
+        String updated = "updated >= -" + Math.max(minutes, UPDATED_SINCE_MARGIN_MINUTES) + "m";
 
-        return searchResult.getIssues();
+        return query.isEmpty() ? updated : "(" + query + ") AND " + updated;
     }
 
     /**
@@ -0,0 +1,326 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.importers.notifications;
+
+import com.sun.mail.smtp.SMTPAddressFailedException;
+import com.sun.mail.smtp.SMTPSendFailedException;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends a batch of E-mails reusing the SMTP connections, instead of opening one connection per E-mail as
+ * {@link Transport#send(javax.mail.Message)} does.
+ *
+ * The messages are grouped by recipient, so the ones for the same user are sent in order through the same
+ * connection. The groups are shared among a bounded number of connections, each one used by its own thread and kept
+ * open for the whole batch. The messages that fail because of a transient error, like a lost connection or a 4xx
+ * reply of the server, are sent again after the rest of the batch, up to {@link #MAX_ATTEMPTS} times. The following
+ * messages for the same recipient wait for them, so they keep being sent in order. The messages that fail because of
+ * a permanent error are not sent, nor their keys returned.
+ *
+ * @param <T> the key that identifies each message, returned when the message has been sent
+ */
+public class BatchEmailSender<T> {
+
+    public static final int MAX_ATTEMPTS = 3;
+
+    private static final Log LOG = LogFactory.getLog(BatchEmailSender.class);
+
+    private final Session session;
+
+    private final int connections;
+
+    private final long retryDelayMillis;
+
+    /**
+     * The threads that send through the connections, reused by all the attempts. They end when they have been idle for
+     * a while, so the sender doesn't need to be closed.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param retryDelayMillis
+     *            the time to wait before the first retry. It grows with each attempt.
+     */
+    public BatchEmailSender(Session session, int connections, long retryDelayMillis) {
+        Validate.notNull(session);
+        Validate.isTrue(connections > 0, "at least one connection is needed");
+        this.session = session;
+        this.connections = connections;
+        this.retryDelayMillis = retryDelayMillis;
+        this.executor = new ThreadPoolExecutor(connections, connections, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), runnable -> {
+                    Thread result = new Thread(runnable, "email-sender");
+                    result.setDaemon(true);
+                    return result;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    private static class Pending<T> {
+
+        private final T key;
+
+        private final MimeMessage message;
+
+        Pending(T key, MimeMessage message) {
+            this.key = key;
+            this.message = message;
+        }
+
+    }
+
+    /**
+     * @return the keys of the messages that have been sent, in the same order than <code>messages</code>
+     */
+    public List<T> send(Map<T, MimeMessage> messages) {
+        Set<T> sent = Collections.newSetFromMap(new ConcurrentHashMap<T, Boolean>());
+        List<List<Pending<T>>> pending = groupByRecipient(messages);
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            if ( attempt > 1 ) {
+                waitBeforeRetrying(attempt);
+            }
+            pending = groupByRecipient(sendAll(pending, sent));
+        }
+
+        for (List<Pending<T>> each : pending) {
+            LOG.error("E-mails to " + recipientOf(each.get(0).message) + " not sent after " + MAX_ATTEMPTS +
+                    " attempts, they will be sent the next time");
+        }
+
+        List<T> result = new ArrayList<>();
+        for (T each : messages.keySet()) {
+            if ( sent.contains(each) ) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    private List<List<Pending<T>>> groupByRecipient(Map<T, MimeMessage> messages) {
+        List<Pending<T>> result = new ArrayList<>();
+        for (Map.Entry<T, MimeMessage> each : messages.entrySet()) {
+            result.add(new Pending<>(each.getKey(), each.getValue()));
+        }
+        return groupByRecipient(result);
+    }
+
+    private List<List<Pending<T>>> groupByRecipient(List<Pending<T>> messages) {
+        Map<String, List<Pending<T>>> result = new LinkedHashMap<>();
+        for (Pending<T> each : messages) {
+            String recipient = recipientOf(each.message);
+            if ( !result.containsKey(recipient) ) {
+                result.put(recipient, new ArrayList<Pending<T>>());
+            }
+            result.get(recipient).add(each);
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    private static String recipientOf(MimeMessage message) {
+        try {
+            return InternetAddress.toString(message.getAllRecipients());
+        } catch (MessagingException e) {
+            return "";
+        }
+    }
+
+    private void waitBeforeRetrying(int attempt) {
+        try {
+            Thread.sleep(retryDelayMillis * (attempt - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the messages that must be retried
+     */
+    private List<Pending<T>> sendAll(List<List<Pending<T>>> groups, Set<T> sent) {
+        Queue<List<Pending<T>>> queue = new ConcurrentLinkedQueue<>(groups);
+        Queue<Pending<T>> toRetry = new ConcurrentLinkedQueue<>();
+
+        int threads = Math.min(connections, groups.size());
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Connection(queue, sent, toRetry));
+        }
+        try {
+            for (Future<Void> each : executor.invokeAll(workers)) {
+                each.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return new ArrayList<>(toRetry);
+    }
+
+    /**
+     * Sends the groups of the queue through one connection until the queue is empty.
+     */
+    private class Connection implements Callable<Void> {
+
+        private final Queue<List<Pending<T>>> queue;
+
+        private final Set<T> sent;
+
+        private final Queue<Pending<T>> toRetry;
+
+        private Transport transport;
+
+        private boolean unreachable = false;
+
+        Connection(Queue<List<Pending<T>>> queue, Set<T> sent, Queue<Pending<T>> toRetry) {
+            this.queue = queue;
+            this.sent = sent;
+            this.toRetry = toRetry;
+        }
+
+        @Override
+        public Void call() {
+            try {
+                List<Pending<T>> group;
+                while ((group = queue.poll()) != null) {
+                    send(group);
+                }
+            } finally {
+                disconnect();
+            }
+            return null;
+        }
+
+        /**
+         * Once a message of the group must be retried, the following ones are left for the next attempt too
+         */
+        private void send(List<Pending<T>> group) {
+            for (int i = 0; i < group.size(); i++) {
+                if ( !send(group.get(i)) ) {
+                    toRetry.addAll(group.subList(i + 1, group.size()));
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return <code>false</code> if the message must be retried
+         */
+        private boolean send(Pending<T> pending) {
+            if ( unreachable ) {
+                toRetry.add(pending);
+                return false;
+            }
+            try {
+                if ( transport == null ) {
+                    connect();
+                }
+                pending.message.saveChanges();
+                transport.sendMessage(pending.message, pending.message.getAllRecipients());
+                sent.add(pending.key);
+            } catch (MessagingException e) {
+                if ( isTransient(e) ) {
+                    LOG.warn("E-mail to " + recipientOf(pending.message) + " will be retried", e);
+                    toRetry.add(pending);
+                    disconnect();
+                    return false;
+                }
+                LOG.error("E-mail to " + recipientOf(pending.message) + " cannot be sent", e);
+            }
+            return true;
+        }
+
+        /**
+         * If the server cannot be reached the rest of the messages are left for the next attempt
+         */
+        private void connect() throws MessagingException {
+            transport = session.getTransport("smtp");
+            try {
+                transport.connect();
+            } catch (MessagingException e) {
+                transport = null;
+                unreachable = true;
+                throw e;
+            }
+        }
+
+        private void disconnect() {
+            if ( transport != null ) {
+                try {
+                    transport.close();
+                } catch (MessagingException e) {
+                    LOG.debug("Error closing SMTP connection", e);
+                }
+                transport = null;
+            }
+        }
+
+    }
+
+    /**
+     * The failures of the SMTP server with a 4xx reply are transient, the ones with a 5xx reply or with invalid
+     * addresses are not. Any other error, like a lost connection, is considered transient.
+     */
+    static boolean isTransient(MessagingException e) {
+        if ( e instanceof SMTPSendFailedException ) {
+            return isTransientReply(((SMTPSendFailedException) e).getReturnCode());
+        }
+        if ( e instanceof SMTPAddressFailedException ) {
+            return isTransientReply(((SMTPAddressFailedException) e).getReturnCode());
+        }
+        if ( e instanceof SendFailedException ) {
+            SendFailedException failed = (SendFailedException) e;
+            if ( failed.getNextException() instanceof MessagingException ) {
+                return isTransient((MessagingException) failed.getNextException());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isTransientReply(int returnCode) {
+        return returnCode >= 400 && returnCode < 500;
+    }
+
+}
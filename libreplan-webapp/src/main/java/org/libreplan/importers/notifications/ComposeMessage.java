@@ -25,7 +25,6 @@ import org.libreplan.business.common.entities.ConnectorProperty;
 import org.libreplan.business.email.entities.EmailNotification;
 import org.libreplan.business.email.entities.EmailTemplate;
 import org.libreplan.business.email.entities.EmailTemplateEnum;
-import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.settings.entities.Language;
 import org.libreplan.business.users.entities.UserRole;
@@ -45,8 +44,12 @@ import javax.mail.Session;
 import javax.mail.Transport;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 
 import static org.libreplan.web.I18nHelper._;
@@ -87,60 +90,32 @@ public class ComposeMessage {
 
     private static final Log LOG = LogFactory.getLog(ComposeMessage.class);
 
+    /**
+     * SMTP connections opened at the same time by {@link #sendAll(List)}
+     */
+    private static final int CONNECTIONS = 4;
 
-    public boolean composeMessageForUser(EmailNotification notification) {
-        // Gather data about EmailTemplate needs to be used
-        Resource resource = notification.getResource();
-        EmailTemplateEnum type = notification.getType();
-        Locale locale;
-        Worker currentWorker = getCurrentWorker(resource.getId());
-
-        UserRole currentUserRole = getCurrentUserRole(notification.getType());
-
-        if (currentWorker != null && currentWorker.getUser().isInRole(currentUserRole)) {
-            if (currentWorker.getUser().getApplicationLanguage().equals(Language.BROWSER_LANGUAGE)) {
-                locale = new Locale(System.getProperty("user.language"));
-            } else {
-                locale = new Locale(currentWorker.getUser().getApplicationLanguage().getLocale().getLanguage());
-            }
-
-            EmailTemplate currentEmailTemplate = findCurrentEmailTemplate(type, locale);
+    private static final long RETRY_DELAY_MILLIS = 5000;
 
-            if (currentEmailTemplate == null) {
-                LOG.error("Email template is null");
-                return false;
-            }
-
-            // Modify text that will be composed
-            String text = currentEmailTemplate.getContent();
-            text = replaceKeywords(text, currentWorker, notification);
 
-            String receiver = currentWorker.getUser().getEmail();
+    public boolean composeMessageForUser(EmailNotification notification) {
+        Worker currentWorker = getCurrentWorker(notification.getResource().getId());
 
+        if (canReceive(currentWorker, notification)) {
             setupConnectionProperties();
+            Session mailSession = createSession();
 
-            final String username = usrnme;
-            final String password = psswrd;
-
-            // It is very important to use Session.getInstance() instead of Session.getDefaultInstance()
-            Session mailSession = Session.getInstance(properties, new javax.mail.Authenticator() {
-                @Override
-                protected PasswordAuthentication getPasswordAuthentication() {
-                    return new PasswordAuthentication(username, password);
-                }
-            });
+            String receiver = currentWorker.getUser().getEmail();
 
             // Send message
             try {
-                MimeMessage message = new MimeMessage(mailSession);
+                MimeMessage message =
+                        createMessage(notification, currentWorker, emailTemplateModel.getAll(), mailSession);
 
-                message.setFrom(new InternetAddress(sender));
-                message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(receiver));
-
-                String subject = currentEmailTemplate.getSubject();
-                message.setSubject(subject);
-
-                message.setText(text);
+                if (message == null) {
+                    LOG.error("Email template is null");
+                    return false;
+                }
 
                 Transport.send(message);
 
@@ -159,6 +134,106 @@ public class ComposeMessage {
         return false;
     }
 
+    /**
+     * Sends all the notifications at once. The workers, the templates and the mail session are loaded only once, and
+     * the messages are sent by a {@link BatchEmailSender}, so the SMTP connections are reused between them.
+     *
+     * @return the notifications whose E-mail has been sent, that can be removed
+     */
+    public List<EmailNotification> sendAll(List<EmailNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        setupConnectionProperties();
+        Session mailSession = createSession();
+
+        Map<Long, Worker> workers = new HashMap<>();
+        for (Worker each : workerModel.getWorkers()) {
+            workers.put(each.getId(), each);
+        }
+        List<EmailTemplate> emailTemplates = emailTemplateModel.getAll();
+
+        Map<EmailNotification, MimeMessage> messages = new LinkedHashMap<>();
+        for (EmailNotification each : notifications) {
+            Worker currentWorker = workers.get(each.getResource().getId());
+            if (!canReceive(currentWorker, each)) {
+                continue;
+            }
+            if (currentWorker.getUser().getEmail() == null) {
+                LOG.error(currentWorker.getUser().getLoginName() + " - this user have not filled E-mail");
+                continue;
+            }
+            try {
+                MimeMessage message = createMessage(each, currentWorker, emailTemplates, mailSession);
+                if (message == null) {
+                    LOG.error("Email template is null");
+                } else {
+                    messages.put(each, message);
+                }
+            } catch (MessagingException e) {
+                LOG.error("E-mail for " + currentWorker.getUser().getLoginName() + " cannot be composed", e);
+            }
+        }
+
+        return new BatchEmailSender<EmailNotification>(mailSession, CONNECTIONS, RETRY_DELAY_MILLIS).send(messages);
+    }
+
+    private boolean canReceive(Worker worker, EmailNotification notification) {
+        return worker != null && worker.getUser().isInRole(getCurrentUserRole(notification.getType()));
+    }
+
+    /**
+     * @return <code>null</code> if there is no template for the type of the notification in the language of the user
+     */
+    private MimeMessage createMessage(EmailNotification notification, Worker currentWorker,
+                                      List<EmailTemplate> emailTemplates, Session mailSession)
+            throws MessagingException {
+
+        // Gather data about EmailTemplate needs to be used
+        Locale locale;
+        if (currentWorker.getUser().getApplicationLanguage().equals(Language.BROWSER_LANGUAGE)) {
+            locale = new Locale(System.getProperty("user.language"));
+        } else {
+            locale = new Locale(currentWorker.getUser().getApplicationLanguage().getLocale().getLanguage());
+        }
+
+        EmailTemplate currentEmailTemplate = findCurrentEmailTemplate(notification.getType(), locale, emailTemplates);
+
+        if (currentEmailTemplate == null) {
+            return null;
+        }
+
+        // Modify text that will be composed
+        String text = currentEmailTemplate.getContent();
+        text = replaceKeywords(text, currentWorker, notification);
+
+        MimeMessage message = new MimeMessage(mailSession);
+
+        message.setFrom(new InternetAddress(sender));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(currentWorker.getUser().getEmail()));
+
+        String subject = currentEmailTemplate.getSubject();
+        message.setSubject(subject);
+
+        message.setText(text);
+
+        return message;
+    }
+
+    private Session createSession() {
+        final String username = usrnme;
+        final String password = psswrd;
+
+        // It is very important to use Session.getInstance() instead of Session.getDefaultInstance()
+        return Session.getInstance(properties, new javax.mail.Authenticator() {
+            @Override
+            protected PasswordAuthentication getPasswordAuthentication() {
+                return new PasswordAuthentication(username, password);
+            }
+        });
+    }
+
     private Worker getCurrentWorker(Long resourceID){
         List<Worker> workerList = workerModel.getWorkers();
 
@@ -171,9 +246,8 @@ public class ComposeMessage {
         return null;
     }
 
-    private EmailTemplate findCurrentEmailTemplate(EmailTemplateEnum templateEnum, Locale locale) {
-        List<EmailTemplate> emailTemplates;
-        emailTemplates = emailTemplateModel.getAll();
+    private EmailTemplate findCurrentEmailTemplate(EmailTemplateEnum templateEnum, Locale locale,
+                                                   List<EmailTemplate> emailTemplates) {
 
         for (EmailTemplate item : emailTemplates) {
             if ( item.getType().equals(templateEnum) && item.getLanguage().getLocale().equals(locale) ) {
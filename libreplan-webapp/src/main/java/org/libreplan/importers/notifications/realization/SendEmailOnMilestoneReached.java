@@ -93,11 +93,7 @@ public class SendEmailOnMilestoneReached implements IEmailNotificationJob {
                 List<EmailNotification> notifications =
                         emailNotificationModel.getAllByType(EmailTemplateEnum.TEMPLATE_MILESTONE_REACHED);
 
-                for (EmailNotification notification : notifications) {
-                    if ( composeMessageForUser(notification) ) {
-                        deleteSingleNotification(notification);
-                    }
-                }
+                emailNotificationModel.deleteAll(composeMessage.sendAll(notifications));
             }
         }
     }
@@ -107,10 +103,6 @@ public class SendEmailOnMilestoneReached implements IEmailNotificationJob {
         return composeMessage.composeMessageForUser(notification);
     }
 
-    private void deleteSingleNotification(EmailNotification notification){
-        emailNotificationModel.deleteById(notification);
-    }
-
     private void sendEmailNotificationToManager(TaskElement item) {
         emailNotificationModel.setNewObject();
         emailNotificationModel.setType(EmailTemplateEnum.TEMPLATE_MILESTONE_REACHED);
@@ -66,11 +66,7 @@ public class SendEmailOnTaskAssignedToResource implements IEmailNotificationJob
                 List<EmailNotification> notifications =
                         emailNotificationModel.getAllByType(EmailTemplateEnum.TEMPLATE_TASK_ASSIGNED_TO_RESOURCE);
 
-                for (EmailNotification notification : notifications) {
-                    if (composeMessageForUser(notification)) {
-                        deleteSingleNotification(notification);
-                    }
-                }
+                emailNotificationModel.deleteAll(composeMessage.sendAll(notifications));
             }
         }
     }
@@ -80,8 +76,4 @@ public class SendEmailOnTaskAssignedToResource implements IEmailNotificationJob
         return composeMessage.composeMessageForUser(notification);
     }
 
-    private void deleteSingleNotification(EmailNotification notification){
-        emailNotificationModel.deleteById(notification);
-    }
-
 }
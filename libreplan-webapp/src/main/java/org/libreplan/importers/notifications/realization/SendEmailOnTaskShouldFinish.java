@@ -87,11 +87,7 @@ public class SendEmailOnTaskShouldFinish implements IEmailNotificationJob {
                 List<EmailNotification> notifications =
                         emailNotificationModel.getAllByType(EmailTemplateEnum.TEMPLATE_TODAY_TASK_SHOULD_FINISH);
 
-                for (int i = 0; i < notifications.size(); i++) {
-                    if ( composeMessageForUser(notifications.get(i)) ) {
-                        deleteSingleNotification(notifications.get(i));
-                    }
-                }
+                emailNotificationModel.deleteAll(composeMessage.sendAll(notifications));
             }
         }
     }
@@ -101,10 +97,6 @@ public class SendEmailOnTaskShouldFinish implements IEmailNotificationJob {
         return composeMessage.composeMessageForUser(notification);
     }
 
-    private void deleteSingleNotification(EmailNotification notification){
-        emailNotificationModel.deleteById(notification);
-    }
-
     @Transactional
     public void taskShouldFinish() {
         // Check if current date equals with item date
@@ -88,10 +88,7 @@ public class SendEmailOnTaskShouldStart implements IEmailNotificationJob {
                 List<EmailNotification> notifications =
                         emailNotificationModel.getAllByType(EmailTemplateEnum.TEMPLATE_TODAY_TASK_SHOULD_START);
 
-                for (EmailNotification notification : notifications)
-                    if ( composeMessageForUser(notification) ) {
-                        deleteSingleNotification(notification);
-                    }
+                emailNotificationModel.deleteAll(composeMessage.sendAll(notifications));
             }
         }
     }
@@ -101,10 +98,6 @@ public class SendEmailOnTaskShouldStart implements IEmailNotificationJob {
         return composeMessage.composeMessageForUser(notification);
     }
 
-    private void deleteSingleNotification(EmailNotification notification){
-        emailNotificationModel.deleteById(notification);
-    }
-
     @Transactional
     public void taskShouldStart() {
         // Check if current date equals with item date
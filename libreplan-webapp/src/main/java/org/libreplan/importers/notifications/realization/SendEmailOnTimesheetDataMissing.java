@@ -99,11 +99,7 @@ public class SendEmailOnTimesheetDataMissing implements IEmailNotificationJob {
                 List<EmailNotification> notifications =
                         emailNotificationModel.getAllByType(EmailTemplateEnum.TEMPLATE_ENTER_DATA_IN_TIMESHEET);
 
-                for (int i = 0; i < notifications.size(); i++) {
-                    if ( composeMessageForUser(notifications.get(i)) ) {
-                        deleteSingleNotification(notifications.get(i));
-                    }
-                }
+                emailNotificationModel.deleteAll(composeMessage.sendAll(notifications));
             }
         }
     }
@@ -113,10 +109,6 @@ public class SendEmailOnTimesheetDataMissing implements IEmailNotificationJob {
         return composeMessage.composeMessageForUser(notification);
     }
 
-    private void deleteSingleNotification(EmailNotification notification) {
-        emailNotificationModel.deleteById(notification);
-    }
-
 
     public void checkTimesheet() {
         List<User> list = getPersonalTimesheets();
@@ -271,6 +271,7 @@ public class ConfigurationModel implements IConfigurationModel {
         for (EntitySequence entitySequence : toSaveAfter) {
             entitySequenceDAO.save(entitySequence);
         }
+        entitySequenceDAO.discardReservedCodes();
     }
 
     @Override
@@ -32,6 +32,7 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -85,6 +86,12 @@ public class EmailNotificationModel implements IEmailNotificationModel {
         return emailNotificationDAO.deleteById(notification);
     }
 
+    @Override
+    @Transactional
+    public int deleteAll(Collection<EmailNotification> notifications) {
+        return emailNotificationDAO.deleteAll(notifications);
+    }
+
     @Override
     public void setType(EmailTemplateEnum type) {
         this.emailNotification.setType(type);
@@ -25,6 +25,7 @@ import org.libreplan.business.email.entities.EmailNotification;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.resources.entities.Resource;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -47,6 +48,8 @@ public interface IEmailNotificationModel {
 
     boolean deleteById(EmailNotification notification);
 
+    int deleteAll(Collection<EmailNotification> notifications);
+
     void setType(EmailTemplateEnum type);
 
     void setUpdated(Date date);
@@ -38,6 +38,13 @@ public interface IMonteCarloModel {
     Map<LocalDate, BigDecimal> calculateMonteCarlo(List<MonteCarloTask> tasks,
             int times, IDesktopUpdatesEmitter<Integer> iterationProgress);
 
+    /**
+     * If <code>simulateAllTasks</code> is true, all the tasks of the order are simulated following their dependencies,
+     * instead of only the tasks of the critical path one after the other.
+     */
+    Map<LocalDate, BigDecimal> calculateMonteCarlo(List<MonteCarloTask> tasks, boolean simulateAllTasks,
+            int times, IDesktopUpdatesEmitter<Integer> iterationProgress);
+
     void setCriticalPath(List<TaskElement> criticalPath);
 
     String getOrderName();
@@ -75,7 +75,7 @@ public class MonteCarloController extends GenericForwardComposer {
 
     private static final Integer DEFAULT_ITERATIONS = 10000;
 
-    private static final Integer MAX_NUMBER_ITERATIONS = 100000;
+    private static final Integer MAX_NUMBER_ITERATIONS = 1000000;
 
     private final RowRenderer gridCriticalPathTasksRender = new CriticalPathTasksRender();
 
@@ -87,6 +87,8 @@ public class MonteCarloController extends GenericForwardComposer {
 
     private Checkbox cbGroupByWeeks;
 
+    private Checkbox cbSimulateAllTasks;
+
     private Listbox lbCriticalPaths;
 
     private Progressmeter progressMonteCarloCalculation;
@@ -120,6 +122,7 @@ public class MonteCarloController extends GenericForwardComposer {
 
                     final Map<LocalDate, BigDecimal> monteCarloData = monteCarloModel
                             .calculateMonteCarlo(getSelectedCriticalPath(),
+                                    cbSimulateAllTasks.isChecked(),
                                     iterations,
                                     percentageCompletedNotifier(updatesEmitter));
 
@@ -27,21 +27,20 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 
 import org.apache.commons.lang3.Validate;
 import org.hibernate.Hibernate;
+import org.joda.time.Days;
 import org.joda.time.LocalDate;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
 import org.libreplan.business.planner.entities.Dependency;
+import org.libreplan.business.planner.entities.Dependency.Type;
 import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -75,6 +74,8 @@ public class MonteCarloModel implements IMonteCarloModel {
 
     private List<Task> tasksInCriticalPath;
 
+    private List<Task> allTasks = new ArrayList<>();
+
     @Override
     @Transactional(readOnly = true)
     public void setCriticalPath(List<TaskElement> tasksInCriticalPath) {
@@ -126,6 +127,7 @@ public class MonteCarloModel implements IMonteCarloModel {
      * @param root
      */
     private void initializeTasksInOrder(Order root) {
+        allTasks = new ArrayList<>();
         initializeTask(root);
         for (OrderElement each: root.getAllChildren()) {
             Hibernate.initialize(each);
@@ -140,6 +142,9 @@ public class MonteCarloModel implements IMonteCarloModel {
             taskDAO.reattach(task);
             task.getCalendar();
             initializeDependenciesFor(task);
+            if (task instanceof Task) {
+                allTasks.add((Task) task);
+            }
         }
     }
 
@@ -199,157 +204,164 @@ public class MonteCarloModel implements IMonteCarloModel {
                                                           int iterations,
                                                           IDesktopUpdatesEmitter<Integer> iterationProgress) {
 
-        MonteCarloCalculation monteCarloCalculation = new MonteCarloCalculation(
-                copyOf(tasks), iterations, iterationProgress);
-        Map<LocalDate, BigDecimal> monteCarloValues = monteCarloCalculation.doCalculation();
+        return calculateMonteCarlo(tasks, false, iterations, iterationProgress);
+    }
+
+    @Override
+    public Map<LocalDate, BigDecimal> calculateMonteCarlo(List<MonteCarloTask> tasks,
+                                                          boolean simulateAllTasks,
+                                                          int iterations,
+                                                          IDesktopUpdatesEmitter<Integer> iterationProgress) {
+
+        List<MonteCarloTask> simulated = simulateAllTasks ? allTasksWith(tasks) : copyOf(tasks);
+        Validate.notEmpty(simulated);
+        adjustDurationDays(simulated);
+
+        LocalDate start;
+        MonteCarloSimulation simulation;
+        if ( simulateAllTasks ) {
+            start = earliestStartOf(simulated);
+            simulation = asGraph(simulated, start);
+        } else {
+            start = simulated.get(0).getStartDate();
+            simulation = asChain(simulated);
+        }
+        long[] timesByDay = simulation.run(iterations, System.currentTimeMillis(), iterationProgress);
 
         // Convert number of times to probability
-        for (LocalDate key : monteCarloValues.keySet()) {
-            BigDecimal times = monteCarloValues.get(key);
-            BigDecimal probability = times.divide(BigDecimal.valueOf(iterations), 8, RoundingMode.HALF_UP);
-            monteCarloValues.put(key, probability);
+        Map<LocalDate, BigDecimal> result = new HashMap<>();
+        for (int i = 0; i < timesByDay.length; i++) {
+            if ( timesByDay[i] > 0 ) {
+                BigDecimal probability = BigDecimal.valueOf(timesByDay[i])
+                        .divide(BigDecimal.valueOf(iterations), 8, RoundingMode.HALF_UP);
+                result.put(start.plusDays(i), probability);
+            }
         }
 
-        return monteCarloValues;
+        return result;
     }
 
-    private List<MonteCarloTask> copyOf(List<MonteCarloTask> tasks) {
-        List<MonteCarloTask> result = new ArrayList<>();
+    /**
+     * The tasks of the critical path keep the estimations done by the user, the rest of the tasks of the order use the
+     * default ones.
+     */
+    private List<MonteCarloTask> allTasksWith(List<MonteCarloTask> estimated) {
+        Map<Task, MonteCarloTask> byTask = new HashMap<>();
+        for (MonteCarloTask each : estimated) {
+            byTask.put(each.getTask(), each);
+        }
 
-        for (MonteCarloTask each: tasks) {
-            result.add(MonteCarloTask.copy(each));
+        List<MonteCarloTask> result = new ArrayList<>();
+        for (Task each : allTasks) {
+            MonteCarloTask task = byTask.get(each);
+            result.add(task != null ? MonteCarloTask.copy(task) : MonteCarloTask.create(each));
         }
 
         return result;
     }
 
-    @Override
-    public String getOrderName() {
-        return orderName;
-    }
-
-    private static class MonteCarloCalculation {
-
-        private Map<MonteCarloTask, Set<EstimationRange>> estimationRangesForTasks = new HashMap<>();
-
-        private List<MonteCarloTask> tasks;
-
-        private int iterations;
-
-        private IDesktopUpdatesEmitter<Integer> iterationProgress;
-
-        public MonteCarloCalculation(List<MonteCarloTask> tasks,
-                                     int iterations,
-                                     IDesktopUpdatesEmitter<Integer> iterationProgress) {
-
-            adjustDurationDays(tasks);
-            initializeEstimationRanges(tasks);
-            this.tasks = tasks;
-            this.iterations = iterations;
-            this.iterationProgress = iterationProgress;
+    private LocalDate earliestStartOf(List<MonteCarloTask> tasks) {
+        LocalDate result = null;
+        for (MonteCarloTask each : tasks) {
+            LocalDate start = each.getStartDate();
+            result = result == null || start.isBefore(result) ? start : result;
         }
 
-        public Map<LocalDate, BigDecimal> doCalculation() {
-            Map<LocalDate, BigDecimal> result = new HashMap<>();
-
-            final int onePercent = iterations / 100;
-            Random randomGenerator = new Random((new Date()).getTime());
-
-            // Calculate number of times a date is repeated
-            for (int i = 0; i < iterations; i++) {
-                LocalDate endDate = calculateEndDateFor(tasks, randomGenerator);
-                BigDecimal times = result.get(endDate);
-
-                times = times != null ? times.add(BigDecimal.ONE) : BigDecimal.ONE;
-
-                result.put(endDate, times);
+        return result;
+    }
 
-                if (i % onePercent == 0) {
-                    increaseProgressMeter((i * 100) / iterations);
-                }
+    /**
+     * Each task starts just when the previous one finishes, so the durations are summed up.
+     */
+    private MonteCarloSimulation asChain(List<MonteCarloTask> tasks) {
+        MonteCarloSimulation.Builder builder = MonteCarloSimulation.builder();
+        int previous = -1;
+        for (MonteCarloTask each : tasks) {
+            int current = addTask(builder, each, 0);
+            if ( previous >= 0 ) {
+                builder.addDependency(previous, current, Type.END_START);
             }
-
-            return result;
-        }
-
-        private void increaseProgressMeter(int completedPercent) {
-            iterationProgress.doUpdate(completedPercent);
+            previous = current;
         }
 
-        private LocalDate calculateEndDateFor(List<MonteCarloTask> tasks, Random randomGenerator) {
-            Validate.notEmpty(tasks);
-            BigDecimal durationDays = BigDecimal.ZERO;
-            MonteCarloTask first = tasks.get(0);
+        return builder.build();
+    }
 
-            for (MonteCarloTask each : tasks) {
-                BigDecimal randomNumber = generate(randomGenerator);
-                durationDays = durationDays.add(getDuration(each, randomNumber));
-            }
+    private int addTask(MonteCarloSimulation.Builder builder, MonteCarloTask task, int earliestStart) {
+        return builder.addTask(earliestStart,
+                task.getOptimisticDuration().intValue(),
+                task.getNormalDuration().intValue(),
+                task.getPessimisticDuration().intValue(),
+                task.getPessimisticDurationPercentage(),
+                task.getNormalDurationPercentage());
+    }
 
-            return first.getStartDate().plusDays(durationDays.intValue());
+    /**
+     * The dependencies of the task and of its parents are followed. When a dependency comes from a group of tasks, the
+     * task depends on all the tasks of the group. The tasks without dependencies start at their current start date.
+     */
+    private MonteCarloSimulation asGraph(List<MonteCarloTask> tasks, LocalDate start) {
+        Map<Task, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            indexes.put(tasks.get(i).getTask(), i);
         }
 
-        private BigDecimal generate(Random randomGenerator) {
-            return BigDecimal.valueOf(randomGenerator.nextDouble());
+        List<List<Dependency>> dependencies = new ArrayList<>();
+        for (MonteCarloTask each : tasks) {
+            dependencies.add(new ArrayList<>(each.getTask().getDependenciesWithThisDestinationAndAllParents()));
         }
 
-        private BigDecimal getDuration(MonteCarloTask each, BigDecimal random) {
-            ESTIMATION_TYPE type = getEstimationType(each, random);
-            Validate.notNull(type);
-            switch (type) {
-
-                case PESSIMISTIC:
-                    return each.getPessimisticDuration();
-
-                case NORMAL:
-                    return each.getNormalDuration();
-
-                case OPTIMISTIC:
-                    return each.getOptimisticDuration();
-
-                default:
-                    break;
-            }
-
-            return BigDecimal.ZERO;
+        MonteCarloSimulation.Builder builder = MonteCarloSimulation.builder();
+        for (int i = 0; i < tasks.size(); i++) {
+            MonteCarloTask each = tasks.get(i);
+            int earliestStart = dependencies.get(i).isEmpty()
+                    ? Days.daysBetween(start, each.getStartDate()).getDays()
+                    : 0;
+            addTask(builder, each, earliestStart);
         }
-
-        private void adjustDurationDays(List<MonteCarloTask> tasks) {
-            for (MonteCarloTask each : tasks) {
-                each.setPessimisticDuration(MonteCarloTask.calculateRealDurationFor(each, each.getPessimisticDuration()));
-                each.setNormalDuration(MonteCarloTask.calculateRealDurationFor(each, each.getNormalDuration()));
-                each.setOptimisticDuration(MonteCarloTask.calculateRealDurationFor(each, each.getOptimisticDuration()));
+        for (int i = 0; i < tasks.size(); i++) {
+            for (Dependency each : dependencies.get(i)) {
+                for (Task origin : tasksOf(each.getOrigin())) {
+                    Integer originIndex = indexes.get(origin);
+                    if ( originIndex != null && originIndex != i ) {
+                        builder.addDependency(originIndex, i, each.getType());
+                    }
+                }
             }
         }
 
-        private void initializeEstimationRanges(List<MonteCarloTask> tasks) {
-            estimationRangesForTasks.clear();
+        return builder.build();
+    }
 
-            for (MonteCarloTask each : tasks) {
-                createEstimationRangesFor(each);
-            }
+    private List<Task> tasksOf(TaskElement taskElement) {
+        if ( taskElement instanceof Task ) {
+            return Collections.singletonList((Task) taskElement);
         }
 
-        private void createEstimationRangesFor(MonteCarloTask task) {
-            Set<EstimationRange> estimationRanges = new HashSet<>();
-            estimationRanges.add(EstimationRange.pessimisticRangeFor(task));
-            estimationRanges.add(EstimationRange.normalRangeFor(task));
-            estimationRanges.add(EstimationRange.optimisticRangeFor(task));
-            estimationRangesForTasks.put(task, estimationRanges);
-        }
+        return onlyTasks(taskElement.getAllChildren());
+    }
 
-        public ESTIMATION_TYPE getEstimationType(MonteCarloTask task, BigDecimal random) {
-            Set<EstimationRange> estimationRanges = estimationRangesForTasks.get(task);
+    private void adjustDurationDays(List<MonteCarloTask> tasks) {
+        for (MonteCarloTask each : tasks) {
+            each.setPessimisticDuration(MonteCarloTask.calculateRealDurationFor(each, each.getPessimisticDuration()));
+            each.setNormalDuration(MonteCarloTask.calculateRealDurationFor(each, each.getNormalDuration()));
+            each.setOptimisticDuration(MonteCarloTask.calculateRealDurationFor(each, each.getOptimisticDuration()));
+        }
+    }
 
-            for (EstimationRange each : estimationRanges) {
-                if (each.contains(random)) {
-                    return each.getEstimationType();
-                }
-            }
+    private List<MonteCarloTask> copyOf(List<MonteCarloTask> tasks) {
+        List<MonteCarloTask> result = new ArrayList<>();
 
-            return null;
+        for (MonteCarloTask each: tasks) {
+            result.add(MonteCarloTask.copy(each));
         }
 
+        return result;
+    }
+
+    @Override
+    public String getOrderName() {
+        return orderName;
     }
 
 }
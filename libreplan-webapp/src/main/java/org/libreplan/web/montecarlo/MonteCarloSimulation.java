@@ -0,0 +1,368 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.Validate;
+import org.libreplan.business.planner.entities.Dependency.Type;
+import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
+
+/**
+ * Simulates the end of a graph of tasks, whose durations are chosen randomly among their optimistic, normal and
+ * pessimistic durations.
+ *
+ * Each task starts when its dependencies allow it, or at its earliest start if it has no dependencies. A critical path
+ * is simulated as a chain of tasks. The durations are days and the results are kept in a histogram indexed by the
+ * days from the start of the simulation, so no objects are created per iteration.
+ *
+ * The iterations are split in chunks that are run in a bounded {@link ForkJoinPool}, each one with its own
+ * {@link SplittableRandom}, and their histograms are summed up at the end. The random generators are split in a fixed
+ * way, so the same seed gives the same results regardless of the threads used.
+ */
+public class MonteCarloSimulation {
+
+    private static final int ITERATIONS_PER_CHUNK = 10000;
+
+    private static final long PROGRESS_INTERVAL_MILLIS = 200;
+
+    /**
+     * The simulations of all the users share this pool, so they don't take all the processors of the server nor
+     * compete with other users of the common pool of the container. Its threads are daemon ones and end when they
+     * have been idle for a while.
+     */
+    private static final ForkJoinPool pool =
+            new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final List<int[]> durations = new ArrayList<>();
+
+        private final List<double[]> limits = new ArrayList<>();
+
+        private final List<Integer> earliestStarts = new ArrayList<>();
+
+        private final List<int[]> dependencies = new ArrayList<>();
+
+        private final List<Type> types = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @param pessimisticPercentage
+         *            the probability in percentage of the pessimistic duration
+         * @param normalPercentage
+         *            the probability in percentage of the normal duration. The rest is the probability of the
+         *            optimistic duration
+         * @return the index of the task, to be used to add its dependencies
+         */
+        public int addTask(int earliestStart,
+                           int optimisticDuration, int normalDuration, int pessimisticDuration,
+                           int pessimisticPercentage, int normalPercentage) {
+
+            Validate.isTrue(earliestStart >= 0, "earliestStart cannot be negative");
+            Validate.isTrue(optimisticDuration >= 0 && normalDuration >= 0 && pessimisticDuration >= 0,
+                    "durations cannot be negative");
+            Validate.isTrue(pessimisticPercentage >= 0 && normalPercentage >= 0
+                    && pessimisticPercentage + normalPercentage <= 100, "wrong percentages");
+
+            durations.add(new int[] { optimisticDuration, normalDuration, pessimisticDuration });
+            limits.add(new double[] {
+                    pessimisticPercentage / 100.0,
+                    (pessimisticPercentage + normalPercentage) / 100.0 });
+            earliestStarts.add(earliestStart);
+            return durations.size() - 1;
+        }
+
+        public Builder addDependency(int origin, int destination, Type type) {
+            Validate.isTrue(origin >= 0 && origin < durations.size(), "unknown origin");
+            Validate.isTrue(destination >= 0 && destination < durations.size(), "unknown destination");
+            dependencies.add(new int[] { origin, destination });
+            types.add(type);
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException
+         *             if the dependencies have a cycle
+         */
+        public MonteCarloSimulation build() {
+            return new MonteCarloSimulation(this);
+        }
+
+    }
+
+    private final int size;
+
+    private final int[] optimistic;
+
+    private final int[] normal;
+
+    private final int[] pessimistic;
+
+    private final double[] pessimisticLimit;
+
+    private final double[] normalLimit;
+
+    private final int[] earliestStart;
+
+    /**
+     * The dependencies of the task <code>i</code> are the positions from <code>predecessorsStart[i]</code> to
+     * <code>predecessorsStart[i + 1]</code> of {@link #predecessors} and {@link #types}.
+     */
+    private final int[] predecessorsStart;
+
+    private final int[] predecessors;
+
+    private final Type[] types;
+
+    private final int[] topologicalOrder;
+
+    /**
+     * The end of the simulation with the biggest durations, used as the initial size of the histograms.
+     */
+    private final int expectedLatestEnd;
+
+    private MonteCarloSimulation(Builder builder) {
+        size = builder.durations.size();
+        optimistic = new int[size];
+        normal = new int[size];
+        pessimistic = new int[size];
+        pessimisticLimit = new double[size];
+        normalLimit = new double[size];
+        earliestStart = new int[size];
+        for (int i = 0; i < size; i++) {
+            optimistic[i] = builder.durations.get(i)[0];
+            normal[i] = builder.durations.get(i)[1];
+            pessimistic[i] = builder.durations.get(i)[2];
+            pessimisticLimit[i] = builder.limits.get(i)[0];
+            normalLimit[i] = builder.limits.get(i)[1];
+            earliestStart[i] = builder.earliestStarts.get(i);
+        }
+
+        predecessorsStart = new int[size + 1];
+        for (int[] each : builder.dependencies) {
+            predecessorsStart[each[1] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            predecessorsStart[i + 1] += predecessorsStart[i];
+        }
+        predecessors = new int[builder.dependencies.size()];
+        types = new Type[builder.dependencies.size()];
+        int[] next = Arrays.copyOf(predecessorsStart, size);
+        for (int i = 0; i < builder.dependencies.size(); i++) {
+            int[] each = builder.dependencies.get(i);
+            int position = next[each[1]]++;
+            predecessors[position] = each[0];
+            types[position] = builder.types.get(i);
+        }
+
+        topologicalOrder = calculateTopologicalOrder(builder.dependencies);
+        expectedLatestEnd = simulateOnce(null, new int[size], new int[size]);
+    }
+
+    private int[] calculateTopologicalOrder(List<int[]> dependencies) {
+        int[] pending = new int[size];
+        List<List<Integer>> successors = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            successors.add(new ArrayList<Integer>());
+        }
+        for (int[] each : dependencies) {
+            pending[each[1]]++;
+            successors.get(each[0]).add(each[1]);
+        }
+
+        int[] result = new int[size];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            if ( pending[i] == 0 ) {
+                result[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            for (Integer each : successors.get(result[head++])) {
+                if ( --pending[each] == 0 ) {
+                    result[tail++] = each;
+                }
+            }
+        }
+        if ( tail < size ) {
+            throw new IllegalArgumentException("the dependencies between the tasks have cycles");
+        }
+        return result;
+    }
+
+    public int getNumberOfTasks() {
+        return size;
+    }
+
+    /**
+     * Runs the iterations in the pool of the simulations. The calling thread waits for them, notifying the
+     * completed percentage to the progress emitter from time to time.
+     *
+     * @return how many iterations have ended each day, indexed by the days from the start of the simulation
+     */
+    public long[] run(int iterations, long seed, IDesktopUpdatesEmitter<Integer> progress) {
+        Validate.isTrue(iterations > 0, "iterations must be positive");
+        if ( size == 0 ) {
+            return new long[] { iterations };
+        }
+        AtomicInteger completed = new AtomicInteger();
+        ForkJoinTask<long[]> task = pool.submit(
+                new Chunk(new SplittableRandom(seed), iterations, completed));
+        while (true) {
+            try {
+                long[] result = task.get(PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                notify(progress, 100);
+                return result;
+            } catch (TimeoutException e) {
+                notify(progress, (int) ((completed.get() * 100L) / iterations));
+            } catch (InterruptedException e) {
+                task.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    private static void notify(IDesktopUpdatesEmitter<Integer> progress, int percentage) {
+        if ( progress != null ) {
+            progress.doUpdate(percentage);
+        }
+    }
+
+    private class Chunk extends RecursiveTask<long[]> {
+
+        private final SplittableRandom random;
+
+        private final int iterations;
+
+        private final AtomicInteger completed;
+
+        Chunk(SplittableRandom random, int iterations, AtomicInteger completed) {
+            this.random = random;
+            this.iterations = iterations;
+            this.completed = completed;
+        }
+
+        @Override
+        protected long[] compute() {
+            if ( iterations <= ITERATIONS_PER_CHUNK ) {
+                return simulate();
+            }
+            int half = iterations / 2;
+            Chunk left = new Chunk(random.split(), half, completed);
+            Chunk right = new Chunk(random, iterations - half, completed);
+            left.fork();
+            return merge(right.compute(), left.join());
+        }
+
+        private long[] simulate() {
+            int[] start = new int[size];
+            int[] finish = new int[size];
+            long[] result = new long[expectedLatestEnd + 1];
+            for (int i = 0; i < iterations; i++) {
+                int end = simulateOnce(random, start, finish);
+                if ( end >= result.length ) {
+                    result = Arrays.copyOf(result, Math.max(end + 1, result.length * 2));
+                }
+                result[end]++;
+            }
+            completed.addAndGet(iterations);
+            return result;
+        }
+
+    }
+
+    private static long[] merge(long[] a, long[] b) {
+        long[] result = a.length >= b.length ? a : b;
+        long[] other = result == a ? b : a;
+        for (int i = 0; i < other.length; i++) {
+            result[i] += other[i];
+        }
+        return result;
+    }
+
+    /**
+     * If no random generator is provided the biggest duration of each task is used.
+     *
+     * @return the days from the start of the simulation to the end of the last task
+     */
+    private int simulateOnce(SplittableRandom random, int[] start, int[] finish) {
+        int result = 0;
+        for (int task : topologicalOrder) {
+            int duration = random != null ? chooseDuration(random, task) : biggestDuration(task);
+            int taskStart = earliestStart[task];
+            for (int e = predecessorsStart[task]; e < predecessorsStart[task + 1]; e++) {
+                int predecessor = predecessors[e];
+                switch (types[e]) {
+                case START_START:
+                    taskStart = Math.max(taskStart, start[predecessor]);
+                    break;
+                case END_END:
+                    taskStart = Math.max(taskStart, finish[predecessor] - duration);
+                    break;
+                case START_END:
+                    taskStart = Math.max(taskStart, start[predecessor] - duration);
+                    break;
+                case END_START:
+                default:
+                    taskStart = Math.max(taskStart, finish[predecessor]);
+                    break;
+                }
+            }
+            start[task] = taskStart;
+            finish[task] = taskStart + duration;
+            result = Math.max(result, finish[task]);
+        }
+        return result;
+    }
+
+    private int chooseDuration(SplittableRandom random, int task) {
+        double value = random.nextDouble();
+        if ( value < pessimisticLimit[task] ) {
+            return pessimistic[task];
+        }
+        return value < normalLimit[task] ? normal[task] : optimistic[task];
+    }
+
+    private int biggestDuration(int task) {
+        return Math.max(optimistic[task], Math.max(normal[task], pessimistic[task]));
+    }
+
+}
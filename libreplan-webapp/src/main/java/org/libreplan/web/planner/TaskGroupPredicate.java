@@ -21,28 +21,21 @@ package org.libreplan.web.planner;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
-import org.libreplan.business.externalcompanies.entities.ExternalCompany;
-import org.libreplan.business.labels.entities.Label;
-import org.libreplan.business.orders.entities.Order;
-import org.libreplan.business.orders.entities.OrderElement;
-import org.libreplan.business.orders.entities.OrderStatusEnum;
-import org.libreplan.business.planner.entities.GenericResourceAllocation;
-import org.libreplan.business.planner.entities.ResourceAllocation;
-import org.libreplan.business.planner.entities.SpecificResourceAllocation;
-import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.orders.entities.OrderPlanningSummary;
 import org.libreplan.business.planner.entities.TaskGroup;
-import org.libreplan.business.resources.entities.Criterion;
-import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.web.common.components.finders.FilterPair;
 import org.libreplan.web.common.components.finders.TaskGroupFilterEnum;
 import org.zkoss.ganttz.IPredicate;
 
 /**
- * Checks if {@link TaskGroup} in company Gantt view matches with the different
- * filters.
+ * Checks if the root {@link TaskGroup} of an order in company Gantt view
+ * matches with the different filters, looking at the
+ * {@link OrderPlanningSummary} of the order.
+ *
+ * The filters by label, criterion, customer and resource are not checked
+ * here, the orders matching them are searched in the database before.
  *
  * @author Manuel Rego Casasnovas <rego@igalia.com>
  */
@@ -66,143 +59,52 @@ public class TaskGroupPredicate implements IPredicate {
 
     @Override
     public boolean accepts(Object object) {
-        final TaskGroup taskGroup = (TaskGroup) object;
-        return accepts(taskGroup);
+        final OrderPlanningSummary summary = (OrderPlanningSummary) object;
+        return accepts(summary);
     }
 
-    private boolean accepts(TaskGroup taskGroup) {
-        if (taskGroup == null) {
+    private boolean accepts(OrderPlanningSummary summary) {
+        if (summary == null) {
             return false;
         }
-        if (acceptFilters(taskGroup) && acceptFiltersDates(taskGroup)
-                && acceptFilterName(taskGroup)) {
+        if (acceptFilters(summary) && acceptFiltersDates(summary)
+                && acceptFilterName(summary)) {
             return true;
         }
         return false;
     }
 
-    private boolean acceptFilters(TaskGroup taskGroup) {
+    private boolean acceptFilters(OrderPlanningSummary summary) {
         if ((filters == null) || (filters.isEmpty())) {
             return true;
         }
         for (FilterPair filter : filters) {
-            if (!acceptFilter(filter, taskGroup)) {
+            if (!acceptFilter(filter, summary)) {
                 return false;
             }
         }
         return true;
     }
 
-    private boolean acceptFilter(FilterPair filter, TaskGroup taskGroup) {
+    private boolean acceptFilter(FilterPair filter, OrderPlanningSummary summary) {
         switch ((TaskGroupFilterEnum) filter.getType()) {
-        case Criterion:
-            return acceptCriterion(filter, taskGroup);
-        case Label:
-            return acceptLabel(filter, taskGroup);
-        case ExternalCompany:
-            return acceptExternalCompany(filter, taskGroup);
         case State:
-            return acceptState(filter, taskGroup);
+            return filter.getValue().equals(summary.getState());
         case Code:
-            return acceptCode(filter, taskGroup);
+            return filter.getValue().equals(summary.getCode());
         case CustomerReference:
-            return acceptCustomerReference(filter, taskGroup);
+            return filter.getValue().equals(summary.getCustomerReference());
+        case Criterion:
+        case Label:
+        case ExternalCompany:
         case Resource:
-            return acceptResource(filter, taskGroup);
-        }
-        return false;
-    }
-
-    private boolean acceptCriterion(FilterPair filter, TaskElement taskElement) {
-        Criterion filterCriterion = (Criterion) filter.getValue();
-        if (existCriterionInTaskElementResourceAllocations(filterCriterion,
-                taskElement)) {
             return true;
         }
         return false;
     }
 
-    private boolean existCriterionInTaskElementResourceAllocations(
-            Criterion filterCriterion, TaskElement taskElement) {
-        for (ResourceAllocation<?> each : taskElement
-                .getAllResourceAllocations()) {
-            if (acceptsCriterionInResourceAllocation(filterCriterion, each)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean acceptsCriterionInResourceAllocation(
-            Criterion filterCriterion, ResourceAllocation<?> resourceAllocation) {
-        if (resourceAllocation instanceof GenericResourceAllocation) {
-            Set<Criterion> criteria = ((GenericResourceAllocation) resourceAllocation)
-                    .getCriterions();
-            for (Criterion criterion : criteria) {
-                if (criterion.getId().equals(filterCriterion.getId())) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private boolean acceptLabel(FilterPair filter, TaskGroup taskGroup) {
-        Label filterLabel = (Label) filter.getValue();
-        Order order = (Order) taskGroup.getOrderElement();
-        if (existLabelInOrderElement(filterLabel, order)) {
-            return true;
-        }
-        return false;
-    }
-
-    private boolean existLabelInOrderElement(Label filterLabel,
-            OrderElement order) {
-        for (Label label : order.getLabels()) {
-            if (label.getId().equals(filterLabel.getId())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean acceptExternalCompany(FilterPair filter, TaskGroup taskGroup) {
-        Order order = (Order) taskGroup.getOrderElement();
-        ExternalCompany filterCustomer = (ExternalCompany) filter.getValue();
-        if ((order.getCustomer() != null)
-                && (order.getCustomer().getId().equals(filterCustomer.getId()))) {
-            return true;
-        }
-        return false;
-    }
-
-    private boolean acceptState(FilterPair filter, TaskGroup taskGroup) {
-        Order order = (Order) taskGroup.getOrderElement();
-        OrderStatusEnum filterState = (OrderStatusEnum) filter.getValue();
-        if ((order.getState() != null)
-                && (order.getState().equals(filterState))) {
-            return true;
-        }
-        return false;
-    }
-
-    private boolean acceptCode(FilterPair filter, TaskGroup taskGroup) {
-        Order order = (Order) taskGroup.getOrderElement();
-        String filterCode = (String) filter.getValue();
-        return order.getCode().equals(filterCode);
-    }
-
-    private boolean acceptCustomerReference(FilterPair filter,
-            TaskGroup taskGroup) {
-        Order order = (Order) taskGroup.getOrderElement();
-        String filterCustomerReference = (String) filter.getValue();
-        return order.getCustomerReference().equals(filterCustomerReference);
-    }
-
-    protected boolean acceptFiltersDates(TaskGroup taskGroup) {
-        // Check if exist work report items into interval between the start date
-        // and finish date.
-        return (acceptStartDate(taskGroup.getStartDate()) && (acceptFinishDate(taskGroup
+    protected boolean acceptFiltersDates(OrderPlanningSummary summary) {
+        return (acceptStartDate(summary.getStartDate()) && (acceptFinishDate(summary
                 .getEndDate())));
     }
 
@@ -241,35 +143,6 @@ public class TaskGroupPredicate implements IPredicate {
         return false;
     }
 
-    private boolean acceptResource(FilterPair filter, TaskElement taskElement) {
-        Resource filterResource = (Resource) filter.getValue();
-        return existResourceInTaskElementResourceAllocations(filterResource,
-                taskElement);
-    }
-
-    private boolean existResourceInTaskElementResourceAllocations(
-            Resource filterResource, TaskElement taskElement) {
-        for (ResourceAllocation<?> each : taskElement
-                .getAllResourceAllocations()) {
-            if (acceptsResourceInResourceAllocation(filterResource, each)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean acceptsResourceInResourceAllocation(
-            Resource filterResource, ResourceAllocation<?> resourceAllocation) {
-        if (resourceAllocation instanceof SpecificResourceAllocation) {
-            Resource resource = ((SpecificResourceAllocation) resourceAllocation)
-                    .getResource();
-            if (resource.getId().equals(filterResource.getId())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     public List<FilterPair> getFilters() {
         if (filters == null) {
             return Collections.emptyList();
@@ -289,15 +162,15 @@ public class TaskGroupPredicate implements IPredicate {
         filters = listFilters;
     }
 
-    protected boolean acceptFilterName(TaskGroup taskGroup) {
+    protected boolean acceptFilterName(OrderPlanningSummary summary) {
         if (name == null) {
             return true;
         }
-        if ((taskGroup.getName() != null)
-                && (StringUtils.containsIgnoreCase(taskGroup.getName(), name))) {
+        if ((summary.getName() != null)
+                && (StringUtils.containsIgnoreCase(summary.getName(), name))) {
             return true;
         }
         return false;
     }
 
-}
\ No newline at end of file
+}
@@ -32,7 +32,7 @@ import java.util.Map;
 import org.apache.commons.lang3.Validate;
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.entities.ProgressType;
-import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.orders.entities.OrderPlanningSummary;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
 import org.libreplan.web.common.FilterUtils;
@@ -79,7 +79,7 @@ public class CompanyPlanningController implements Composer {
     @Autowired
     private ICompanyPlanningModel model;
 
-    private List<ICommandOnTask<TaskElement>> additional = new ArrayList<>();
+    private List<ICommandOnTask<OrderPlanningSummary>> additional = new ArrayList<>();
 
     private Planner planner;
 
@@ -93,7 +93,7 @@ public class CompanyPlanningController implements Composer {
 
     private BandboxMultipleSearch bdFilters;
 
-    private ICommandOnTask<TaskElement> doubleClickCommand;
+    private ICommandOnTask<OrderPlanningSummary> doubleClickCommand;
 
     private Map<String, String[]> parameters;
 
@@ -124,6 +124,7 @@ public class CompanyPlanningController implements Composer {
 
         planner.setAreShownReportedHoursByDefault(Planner.guessShowReportedHoursByDefault(parameters));
         planner.setAreShownMoneyCostBarByDefault(Planner.guessShowMoneyCostBarByDefault(parameters));
+        planner.setPrinting(Planner.guessPrinting(parameters));
 
         orderFilter = (Vbox) planner.getFellow("orderFilter");
 
@@ -257,13 +258,13 @@ public class CompanyPlanningController implements Composer {
         planner.invalidate();
     }
 
-    public void setAdditional(List<ICommandOnTask<TaskElement>> additional) {
+    public void setAdditional(List<ICommandOnTask<OrderPlanningSummary>> additional) {
         Validate.notNull(additional);
         Validate.noNullElements(additional);
         this.additional = additional;
     }
 
-    public void setDoubleClickCommand(ICommandOnTask<TaskElement> doubleClickCommand) {
+    public void setDoubleClickCommand(ICommandOnTask<OrderPlanningSummary> doubleClickCommand) {
         this.doubleClickCommand = doubleClickCommand;
     }
 
@@ -48,15 +48,13 @@ import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.externalcompanies.entities.ExternalCompany;
 import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.orders.daos.IOrderDAO;
-import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderPlanningSummary;
 import org.libreplan.business.orders.entities.OrderStatusEnum;
 import org.libreplan.business.planner.chart.ILoadChartData;
 import org.libreplan.business.planner.chart.ResourceLoadChartData;
 import org.libreplan.business.planner.entities.ICompanyEarnedValueCalculator;
-import org.libreplan.business.planner.entities.TaskElement;
-import org.libreplan.business.planner.entities.TaskGroup;
-import org.libreplan.business.planner.entities.TaskMilestone;
 import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.scenarios.IScenarioManager;
 import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.users.daos.IUserDAO;
@@ -64,7 +62,6 @@ import org.libreplan.business.users.entities.User;
 import org.libreplan.web.common.FilterUtils;
 import org.libreplan.web.common.components.finders.FilterPair;
 import org.libreplan.web.common.components.finders.TaskGroupFilterEnum;
-import org.libreplan.web.planner.TaskElementAdapter;
 import org.libreplan.web.planner.TaskGroupPredicate;
 import org.libreplan.web.planner.chart.Chart;
 import org.libreplan.web.planner.chart.EarnedValueChartFiller;
@@ -72,7 +69,6 @@ import org.libreplan.web.planner.chart.EarnedValueChartFiller.EarnedValueType;
 import org.libreplan.web.planner.chart.IChartFiller;
 import org.libreplan.web.planner.chart.StandardLoadChartFiller;
 import org.libreplan.web.planner.order.BankHolidaysMarker;
-import org.libreplan.web.planner.order.OrderPlanningModel;
 import org.libreplan.web.planner.tabs.MultipleTabsPlannerController;
 import org.libreplan.web.print.CutyPrint;
 import org.libreplan.web.security.SecurityUtils;
@@ -147,7 +143,7 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
     private IScenarioManager scenarioManager;
 
     @Autowired
-    private TaskElementAdapter taskElementAdapterCreator;
+    private OrderPlanningSummaryAdapter orderPlanningSummaryAdapter;
 
     @Autowired
     private PredefinedDatabaseSnapshots databaseSnapshots;
@@ -164,21 +160,21 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
 
     private LocalDate filterFinishDate;
 
-    private static final class TaskElementNavigator implements IStructureNavigator<TaskElement> {
+    private static final class OrderPlanningSummaryNavigator implements IStructureNavigator<OrderPlanningSummary> {
 
         @Override
-        public List<TaskElement> getChildren(TaskElement object) {
+        public List<OrderPlanningSummary> getChildren(OrderPlanningSummary object) {
             return null;
         }
 
         @Override
-        public boolean isLeaf(TaskElement object) {
+        public boolean isLeaf(OrderPlanningSummary object) {
             return true;
         }
 
         @Override
-        public boolean isMilestone(TaskElement object) {
-            return object != null && object instanceof TaskMilestone;
+        public boolean isMilestone(OrderPlanningSummary object) {
+            return false;
         }
     }
 
@@ -188,12 +184,13 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
 
     @Override
     @Transactional(readOnly = true)
-    public void setConfigurationToPlanner(final Planner planner, Collection<ICommandOnTask<TaskElement>> additional,
-                                          ICommandOnTask<TaskElement> doubleClickCommand,
+    public void setConfigurationToPlanner(final Planner planner,
+                                          Collection<ICommandOnTask<OrderPlanningSummary>> additional,
+                                          ICommandOnTask<OrderPlanningSummary> doubleClickCommand,
                                           TaskGroupPredicate predicate) {
 
         currentScenario = scenarioManager.getCurrent();
-        final PlannerConfiguration<TaskElement> configuration = createConfiguration(predicate);
+        final PlannerConfiguration<OrderPlanningSummary> configuration = createConfiguration(predicate);
 
         User user;
         try {
@@ -247,14 +244,31 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
         }
     }
 
-    private ZoomLevel getZoomLevel(PlannerConfiguration<TaskElement> configuration) {
+    private ZoomLevel getZoomLevel(PlannerConfiguration<OrderPlanningSummary> configuration) {
         ZoomLevel sessionZoom = FilterUtils.readZoomLevelCompanyView();
 
         if ( sessionZoom != null ) {
             return sessionZoom;
         }
 
-        return OrderPlanningModel.calculateDefaultLevel(configuration);
+        return calculateDefaultLevel(configuration.getData());
+    }
+
+    private static ZoomLevel calculateDefaultLevel(List<OrderPlanningSummary> summaries) {
+        if ( summaries.isEmpty() ) {
+            return ZoomLevel.DETAIL_ONE;
+        }
+
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        for (OrderPlanningSummary each : summaries) {
+            startDate = Collections.min(notNull(startDate, each.getStartAsLocalDate()));
+
+            LocalDate deadline = each.getDeadline() != null ? LocalDate.fromDateFields(each.getDeadline()) : null;
+            endDate = Collections.max(notNull(endDate, each.getEndAsLocalDate(), deadline));
+        }
+
+        return ZoomLevel.getDefaultZoomByDates(startDate, endDate);
     }
 
     private void setupZoomLevelListener(Planner planner) {
@@ -566,7 +580,7 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
         }
     }
 
-    private void disableSomeFeatures(PlannerConfiguration<TaskElement> configuration) {
+    private void disableSomeFeatures(PlannerConfiguration<OrderPlanningSummary> configuration) {
         configuration.setAddingDependenciesEnabled(false);
         configuration.setMovingTasksEnabled(false);
         configuration.setResizingTasksEnabled(false);
@@ -579,15 +593,15 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
         configuration.setMoneyCostBarEnabled(false);
     }
 
-    private void addAdditionalCommands(Collection<ICommandOnTask<TaskElement>> additional,
-                                       PlannerConfiguration<TaskElement> configuration) {
+    private void addAdditionalCommands(Collection<ICommandOnTask<OrderPlanningSummary>> additional,
+                                       PlannerConfiguration<OrderPlanningSummary> configuration) {
 
-        for (ICommandOnTask<TaskElement> t : additional) {
+        for (ICommandOnTask<OrderPlanningSummary> t : additional) {
             configuration.addCommandOnTask(t);
         }
     }
 
-    private void addPrintSupport(PlannerConfiguration<TaskElement> configuration) {
+    private void addPrintSupport(PlannerConfiguration<OrderPlanningSummary> configuration) {
         configuration.setPrintAction(new IPrintAction() {
             @Override
             public void doPrint() {
@@ -656,30 +670,25 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
         return zoomListener;
     }
 
-    private PlannerConfiguration<TaskElement> createConfiguration(TaskGroupPredicate predicate) {
+    private PlannerConfiguration<OrderPlanningSummary> createConfiguration(TaskGroupPredicate predicate) {
         return new PlannerConfiguration<>(
-                taskElementAdapterCreator.createForCompany(currentScenario),
-                new TaskElementNavigator(),
-                retainOnlyTopLevel(predicate));
+                orderPlanningSummaryAdapter.createForCompany(currentScenario, getProgressTypeFromConfiguration()),
+                new OrderPlanningSummaryNavigator(),
+                getSummaries(predicate));
     }
 
-    private List<TaskElement> retainOnlyTopLevel(TaskGroupPredicate predicate) {
-        List<TaskElement> result = new ArrayList<>();
-
-        List<Order> list = getOrders(predicate);
-        for (Order order : list) {
-            order.useSchedulingDataFor(currentScenario, false);
-            TaskGroup associatedTaskElement = order.getAssociatedTaskElement();
+    /**
+     * The orders are shown from their {@link OrderPlanningSummary}, an order
+     * is only loaded when it is opened.
+     */
+    private List<OrderPlanningSummary> getSummaries(TaskGroupPredicate predicate) {
+        String username = SecurityUtils.getSessionUserLoginName();
+        Set<Long> ordersIds = getOrdersIds(username, predicate);
 
-            if (associatedTaskElement != null) {
-                if (predicate != null) {
-                    if (!predicate.accepts(associatedTaskElement)) {
-                        // If predicate doesn't accept the element we move on to the next order
-                        continue;
-                    }
-                }
-                associatedTaskElement.setSimplifiedAssignedStatusCalculationEnabled(true);
-                result.add(associatedTaskElement);
+        List<OrderPlanningSummary> result = new ArrayList<>();
+        for (OrderPlanningSummary each : orderDAO.getPlanningSummariesByReadAuthorization(username, currentScenario)) {
+            if ( ordersIds.contains(each.getOrderId()) && predicate.accepts(each) ) {
+                result.add(each);
             }
         }
         Collections.sort(result, (arg0, arg1) -> arg0.getStartDate().compareTo(arg1.getStartDate()));
@@ -687,13 +696,12 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
         return result;
     }
 
-    private List<Order> getOrders(TaskGroupPredicate predicate) {
-        String username = SecurityUtils.getSessionUserLoginName();
-
+    private Set<Long> getOrdersIds(String username, TaskGroupPredicate predicate) {
         Date startDate = predicate.getStartDate();
         Date endDate = predicate.getFinishDate();
         List<org.libreplan.business.labels.entities.Label> labels = new ArrayList<>();
         List<Criterion> criteria = new ArrayList<>();
+        List<Resource> resources = new ArrayList<>();
         ExternalCompany customer = null;
         OrderStatusEnum state = null;
 
@@ -710,10 +718,14 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
                     criteria.add((Criterion) filterPair.getValue());
                     break;
 
+                case Resource:
+                    resources.add((Resource) filterPair.getValue());
+                    break;
+
                 case ExternalCompany:
                     if (customer != null) {
                         // It's impossible to have an Order associated to more than 1 customer
-                        return Collections.emptyList();
+                        return Collections.emptySet();
                     }
                     customer = (ExternalCompany) filterPair.getValue();
                     break;
@@ -721,7 +733,7 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
                 case State:
                     if (state != null) {
                         // It's impossible to have an Order associated with more than 1 state
-                        return Collections.emptyList();
+                        return Collections.emptySet();
                     }
                     state = (OrderStatusEnum) filterPair.getValue();
                     break;
@@ -731,8 +743,19 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
             }
         }
 
-        return orderDAO.getOrdersByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
-                username, currentScenario, startDate, endDate, labels, criteria, customer, state);
+        Set<Long> result = new HashSet<>(
+                orderDAO.getOrdersIdsByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
+                        username, startDate, endDate, labels, criteria, customer, state));
+
+        // Besides being required, the criteria have to be allocated in some task of the order
+        for (Criterion each : criteria) {
+            result.retainAll(orderDAO.getOrdersIdsAllocatingCriterion(currentScenario, each));
+        }
+        for (Resource each : resources) {
+            result.retainAll(orderDAO.getOrdersIdsAllocatingResource(currentScenario, each));
+        }
+
+        return result;
     }
 
     @Override
@@ -753,23 +776,18 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
                 currentScenario = scenarioManager.getCurrent();
             }
 
-            List<Order> list = orderDAO.getOrdersByReadAuthorizationByScenario(
+            List<OrderPlanningSummary> list = orderDAO.getPlanningSummariesByReadAuthorization(
                     SecurityUtils.getSessionUserLoginName(), currentScenario);
 
-            for (Order each : list) {
-                each.useSchedulingDataFor(currentScenario, false);
-                TaskGroup associatedTaskElement = each.getAssociatedTaskElement();
-
-                if ( associatedTaskElement != null && STATUS_VISUALIZED.contains(each.getState()) ) {
+            for (OrderPlanningSummary each : list) {
+                if ( STATUS_VISUALIZED.contains(each.getState()) ) {
 
                     if ( calculateStartDate ) {
-                        startDate = Collections.min(
-                                notNull(startDate, each.getInitDate(), associatedTaskElement.getStartDate()));
+                        startDate = Collections.min(notNull(startDate, each.getInitDate(), each.getStartDate()));
                     }
 
                     if ( calculateEndDate ) {
-                        endDate = Collections.max(
-                                notNull(endDate, each.getDeadline(), associatedTaskElement.getEndDate()));
+                        endDate = Collections.max(notNull(endDate, each.getDeadline(), each.getEndDate()));
                     }
                 }
             }
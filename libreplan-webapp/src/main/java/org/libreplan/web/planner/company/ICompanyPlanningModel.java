@@ -25,7 +25,7 @@ import java.util.Collection;
 import java.util.Date;
 
 import org.libreplan.business.common.entities.ProgressType;
-import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.orders.entities.OrderPlanningSummary;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.web.planner.TaskGroupPredicate;
 import org.libreplan.web.planner.tabs.MultipleTabsPlannerController;
@@ -40,8 +40,8 @@ import org.zkoss.ganttz.extensions.ICommandOnTask;
 public interface ICompanyPlanningModel {
 
     void setConfigurationToPlanner(Planner planner,
-                                   Collection<ICommandOnTask<TaskElement>> additional,
-                                   ICommandOnTask<TaskElement> doubleClickCommand,
+                                   Collection<ICommandOnTask<OrderPlanningSummary>> additional,
+                                   ICommandOnTask<OrderPlanningSummary> doubleClickCommand,
                                    TaskGroupPredicate predicate);
 
     void setTabsController(MultipleTabsPlannerController tabsController);
@@ -0,0 +1,495 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.libreplan.web.planner.company;
+
+import static org.libreplan.web.I18nHelper._;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.entities.ProgressType;
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderPlanningSummary;
+import org.libreplan.business.orders.entities.OrderStatusEnum;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate;
+import org.libreplan.web.planner.TaskElementAdapter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import org.zkoss.ganttz.ProjectStatusEnum;
+import org.zkoss.ganttz.adapters.DomainDependency;
+import org.zkoss.ganttz.adapters.IAdapterToTaskFundamentalProperties;
+import org.zkoss.ganttz.data.GanttDate;
+import org.zkoss.ganttz.data.ITaskFundamentalProperties;
+import org.zkoss.ganttz.data.constraint.Constraint;
+
+/**
+ * Shows an {@link OrderPlanningSummary} as a read-only task of the company
+ * planning, so the orders are only loaded when they are opened.
+ */
+@Component
+@Scope(BeanDefinition.SCOPE_SINGLETON)
+public class OrderPlanningSummaryAdapter {
+
+    private static final EnumSet<OrderStatusEnum> OPEN_STATES = EnumSet.of(
+            OrderStatusEnum.ACCEPTED, OrderStatusEnum.OFFERED, OrderStatusEnum.STARTED, OrderStatusEnum.OUTSOURCED);
+
+    private static final EnumSet<OrderStatusEnum> CLOSED_STATES = EnumSet.of(
+            OrderStatusEnum.CANCELLED, OrderStatusEnum.FINISHED, OrderStatusEnum.STORED);
+
+    @Autowired
+    private IAdHocTransactionService transactionService;
+
+    @Autowired
+    private IOrderDAO orderDAO;
+
+    @Autowired
+    private TaskElementAdapter taskElementAdapter;
+
+    public IAdapterToTaskFundamentalProperties<OrderPlanningSummary> createForCompany(Scenario currentScenario,
+                                                                                      ProgressType progressType) {
+        return new Adapter(currentScenario, progressType);
+    }
+
+    private class Adapter implements IAdapterToTaskFundamentalProperties<OrderPlanningSummary> {
+
+        private final Scenario scenario;
+
+        private final ProgressType progressType;
+
+        private Adapter(Scenario scenario, ProgressType progressType) {
+            this.scenario = scenario;
+            this.progressType = progressType;
+        }
+
+        @Override
+        public ITaskFundamentalProperties adapt(OrderPlanningSummary summary) {
+            return new OrderPlanningSummaryWrapper(scenario, progressType, summary);
+        }
+
+        @Override
+        public List<DomainDependency<OrderPlanningSummary>> getOutcomingDependencies(OrderPlanningSummary summary) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<DomainDependency<OrderPlanningSummary>> getIncomingDependencies(OrderPlanningSummary summary) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void doRemovalOf(OrderPlanningSummary summary) {
+            throw new UnsupportedOperationException("the company planning is read only");
+        }
+
+        @Override
+        public boolean canAddDependency(DomainDependency<OrderPlanningSummary> dependency) {
+            return false;
+        }
+
+        @Override
+        public void addDependency(DomainDependency<OrderPlanningSummary> dependency) {
+            throw new UnsupportedOperationException("the company planning is read only");
+        }
+
+        @Override
+        public void removeDependency(DomainDependency<OrderPlanningSummary> dependency) {
+            throw new UnsupportedOperationException("the company planning is read only");
+        }
+    }
+
+    private class OrderPlanningSummaryWrapper implements ITaskFundamentalProperties {
+
+        private final Scenario scenario;
+
+        private final ProgressType progressType;
+
+        private final OrderPlanningSummary summary;
+
+        private ProjectStatusEnum projectHoursStatus;
+
+        private ProjectStatusEnum projectBudgetStatus;
+
+        private OrderPlanningSummaryWrapper(Scenario scenario, ProgressType progressType,
+                                            OrderPlanningSummary summary) {
+            this.scenario = scenario;
+            this.progressType = progressType;
+            this.summary = summary;
+        }
+
+        @Override
+        public void doPositionModifications(IModifications modifications) {
+            modifications.doIt(new IUpdatablePosition() {
+
+                @Override
+                public void setBeginDate(GanttDate beginDate) {
+                }
+
+                @Override
+                public void setEndDate(GanttDate endDate) {
+                }
+
+                @Override
+                public void resizeTo(GanttDate endDate) {
+                }
+
+                @Override
+                public void moveTo(GanttDate newStart) {
+                }
+            });
+        }
+
+        @Override
+        public String getName() {
+            return summary.getName();
+        }
+
+        @Override
+        public void setName(String name) {
+            throw new UnsupportedOperationException("the company planning is read only");
+        }
+
+        @Override
+        public String getCode() {
+            return summary.getCode();
+        }
+
+        @Override
+        public String getProjectCode() {
+            return summary.getCode();
+        }
+
+        @Override
+        public String getNotes() {
+            return "";
+        }
+
+        @Override
+        public void setNotes(String notes) {
+            throw new UnsupportedOperationException("the company planning is read only");
+        }
+
+        @Override
+        public GanttDate getBeginDate() {
+            return TaskElementAdapter.toGantt(summary.getIntraDayStartDate());
+        }
+
+        @Override
+        public GanttDate getEndDate() {
+            return TaskElementAdapter.toGantt(summary.getIntraDayEndDate());
+        }
+
+        @Override
+        public Date getDeadline() {
+            return summary.getDeadline();
+        }
+
+        @Override
+        public void setDeadline(Date date) {
+            throw new UnsupportedOperationException("the company planning is read only");
+        }
+
+        @Override
+        public GanttDate getConsolidatedline() {
+            return null;
+        }
+
+        @Override
+        public GanttDate getHoursAdvanceBarEndDate() {
+            return calculateLimitDateProportionalToTaskSize(getHoursAdvanceBarPercentage());
+        }
+
+        @Override
+        public BigDecimal getHoursAdvanceBarPercentage() {
+            EffortDuration estimatedEffort = summary.getAssignedEffort();
+
+            if ( estimatedEffort.isZero() ) {
+                estimatedEffort = EffortDuration.hours(summary.getWorkHours());
+
+                if ( estimatedEffort.isZero() ) {
+                    return BigDecimal.ZERO;
+                }
+            }
+
+            return BigDecimal
+                    .valueOf(summary.getChargedEffort().divivedBy(estimatedEffort).doubleValue())
+                    .setScale(2, RoundingMode.HALF_UP);
+        }
+
+        @Override
+        public GanttDate getMoneyCostBarEndDate() {
+            return getBeginDate();
+        }
+
+        @Override
+        public BigDecimal getMoneyCostBarPercentage() {
+            return BigDecimal.ZERO;
+        }
+
+        @Override
+        public GanttDate getAdvanceBarEndDate() {
+            return calculateLimitDateProportionalToTaskSize(getAdvancePercentage());
+        }
+
+        @Override
+        public GanttDate getAdvanceBarEndDate(String progressType) {
+            return calculateLimitDateProportionalToTaskSize(
+                    summary.getAdvancePercentage(ProgressType.asEnum(progressType)));
+        }
+
+        private GanttDate calculateLimitDateProportionalToTaskSize(BigDecimal proportion) {
+            if ( proportion.compareTo(BigDecimal.ZERO) == 0 ) {
+                return getBeginDate();
+            }
+
+            IntraDayDate start = summary.getIntraDayStartDate();
+            IntraDayDate end = summary.getIntraDayEndDate();
+
+            EffortDuration effortBetween = start.effortUntil(end);
+            int seconds = new BigDecimal(effortBetween.getSeconds()).multiply(proportion).toBigInteger().intValue();
+
+            return TaskElementAdapter.toGantt(start.addEffort(EffortDuration.seconds(seconds)), EffortDuration.hours(8));
+        }
+
+        @Override
+        public BigDecimal getAdvancePercentage() {
+            return summary.getAdvancePercentage(progressType);
+        }
+
+        @Override
+        public String getTooltipText() {
+            return buildTooltipText(summary.getAdvancePercentage(progressType));
+        }
+
+        @Override
+        public String updateTooltipText() {
+            return getTooltipText();
+        }
+
+        @Override
+        public String updateTooltipText(String progressType) {
+            return buildTooltipText(summary.getAdvancePercentage(ProgressType.asEnum(progressType)));
+        }
+
+        private String buildTooltipText(BigDecimal advancePercentage) {
+            StringBuilder result = new StringBuilder();
+
+            result
+                    .append("<strong>")
+                    .append(getName())
+                    .append("</strong><br/>");
+
+            result
+                    .append(_("Progress"))
+                    .append(": ")
+                    .append(advancePercentage.multiply(BigDecimal.valueOf(100)).setScale(2, RoundingMode.DOWN))
+                    .append("% , ");
+
+            result
+                    .append(_("Hours invested"))
+                    .append(": ")
+                    .append(getHoursAdvanceBarPercentage().multiply(new BigDecimal(100)))
+                    .append("% <br/>");
+
+            result
+                    .append(_("State"))
+                    .append(": ")
+                    .append(getOrderState());
+
+            String labels = getLabelsText();
+            if ( !"".equals(labels) ) {
+
+                result
+                        .append("<div class='tooltip-labels'>")
+                        .append(_("Labels"))
+                        .append(": ")
+                        .append(labels)
+                        .append("</div>");
+            }
+
+            return result.toString();
+        }
+
+        private String getOrderState() {
+            String cssClass;
+            OrderStatusEnum state = summary.getState();
+
+            if ( OPEN_STATES.contains(state) ) {
+                cssClass = "assigned".equals(getAssignedStatus()) ? "order-open-assigned" : "order-open-unassigned";
+            } else {
+                cssClass = "order-closed";
+            }
+            return "<font class='" + cssClass + "'>" + _(state.toString()) + "</font>";
+        }
+
+        @Override
+        public String getLabelsText() {
+            return StringUtils.join(summary.getLabels(), ", ");
+        }
+
+        @Override
+        public String getResourcesText() {
+            return "";
+        }
+
+        @Override
+        public List<Constraint<GanttDate>> getStartConstraints() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Constraint<GanttDate>> getEndConstraints() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Constraint<GanttDate>> getCurrentLengthConstraint() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isSubcontracted() {
+            return false;
+        }
+
+        @Override
+        public boolean isLimiting() {
+            return false;
+        }
+
+        @Override
+        public boolean isLimitingAndHasDayAssignments() {
+            return false;
+        }
+
+        @Override
+        public boolean hasConsolidations() {
+            return false;
+        }
+
+        @Override
+        public boolean canBeExplicitlyResized() {
+            return false;
+        }
+
+        @Override
+        public String getAssignedStatus() {
+            return summary.getAssignedEffort().isZero() ? "unassigned" : "assigned";
+        }
+
+        @Override
+        public boolean isFixed() {
+            return false;
+        }
+
+        @Override
+        public boolean isManualAnyAllocation() {
+            return false;
+        }
+
+        @Override
+        public boolean belongsClosedProject() {
+            return CLOSED_STATES.contains(summary.getState());
+        }
+
+        @Override
+        public boolean isRoot() {
+            return true;
+        }
+
+        @Override
+        public boolean isUpdatedFromTimesheets() {
+            return false;
+        }
+
+        @Override
+        public Date getFirstTimesheetDate() {
+            return summary.getFirstTimesheetDate();
+        }
+
+        @Override
+        public Date getLastTimesheetDate() {
+            return summary.getLastTimesheetDate();
+        }
+
+        @Override
+        public ProjectStatusEnum getProjectHoursStatus() {
+            calculateProjectStatusIfNeeded();
+            return projectHoursStatus;
+        }
+
+        @Override
+        public ProjectStatusEnum getProjectBudgetStatus() {
+            calculateProjectStatusIfNeeded();
+            return projectBudgetStatus;
+        }
+
+        /**
+         * The status of a project depends on all its tasks, so the order is
+         * only loaded for the rows that are drawn and just once.
+         */
+        private void calculateProjectStatusIfNeeded() {
+            if ( projectHoursStatus != null ) {
+                return;
+            }
+            transactionService.runOnReadOnlyTransaction(() -> {
+                Order order;
+                try {
+                    order = orderDAO.find(summary.getOrderId());
+                } catch (InstanceNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+                order.useSchedulingDataFor(scenario, false);
+
+                ITaskFundamentalProperties rootTask = taskElementAdapter
+                        .createForCompany(scenario)
+                        .adapt(order.getAssociatedTaskElement());
+
+                projectHoursStatus = rootTask.getProjectHoursStatus();
+                projectBudgetStatus = rootTask.getProjectBudgetStatus();
+
+                return null;
+            });
+        }
+
+        @Override
+        public String getTooltipTextForProjectHoursStatus() {
+            return null;
+        }
+
+        @Override
+        public String getTooltipTextForProjectBudgetStatus() {
+            return null;
+        }
+    }
+
+}
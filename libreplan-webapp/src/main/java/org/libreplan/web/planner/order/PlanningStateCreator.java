@@ -35,6 +35,7 @@ import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
 import org.libreplan.business.advance.entities.IndirectAdvanceAssignment;
 import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.daos.DirtyTracker;
 import org.libreplan.business.common.daos.IEntitySequenceDAO;
 import org.libreplan.business.common.entities.EntityNameEnum;
 import org.libreplan.business.labels.entities.Label;
@@ -737,6 +738,8 @@ public class PlanningStateCreator {
 
         private PlannerConfiguration<TaskElement> cachedConfiguration;
 
+        private final DirtyTracker dirtyTracker = new DirtyTracker();
+
         public PlanningState(Order order, Collection<? extends Resource> initialResources) {
             Validate.notNull(order);
             this.order = order;
@@ -848,6 +851,14 @@ public class PlanningStateCreator {
             return cachedConfiguration;
         }
 
+        /**
+         * Keeps the state saved of the entities of the planning, so the saves
+         * only update the ones modified since the previous save
+         */
+        public DirtyTracker getDirtyTracker() {
+            return dirtyTracker;
+        }
+
         public ISaveCommand getSaveCommand() {
             if (cachedCommand != null) {
                 return cachedCommand;
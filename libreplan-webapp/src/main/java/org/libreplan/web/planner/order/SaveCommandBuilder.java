@@ -33,7 +33,9 @@ import org.libreplan.business.advance.exceptions.DuplicateValueTrueReportGlobalA
 import org.libreplan.business.common.BaseEntity;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
+import org.libreplan.business.common.IntegrationEntity;
 import org.libreplan.business.common.Registry;
+import org.libreplan.business.common.daos.DirtyTracker;
 import org.libreplan.business.common.daos.IEntitySequenceDAO;
 import org.libreplan.business.common.entities.EntityNameEnum;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
@@ -104,7 +106,9 @@ import org.zkoss.zul.Messagebox;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 
@@ -235,6 +239,12 @@ public class SaveCommandBuilder {
 
         private boolean disabled = false;
 
+        /**
+         * Codes of the order elements and hours groups already checked against
+         * the database in a committed save
+         */
+        private final Map<IntegrationEntity, String> checkedCodes = new IdentityHashMap<>();
+
         public SaveCommand(PlanningState planningState, PlannerConfiguration<TaskElement> configuration) {
             this.state = planningState;
             this.configuration = configuration;
@@ -277,17 +287,38 @@ public class SaveCommandBuilder {
         public void save(final IBeforeSaveActions beforeSaveActions, IAfterSaveActions afterSaveActions) {
             try {
                 if ( state.getScenarioInfo().isUsingTheOwnerScenario() || userAcceptsCreateANewOrderVersion() ) {
-                    transactionService.runOnTransaction((IOnTransaction<Void>) () -> {
-                        if (beforeSaveActions != null) {
-                            beforeSaveActions.doActions();
-                        }
-                        doTheSaving();
+                    // After a committed save only the modified entities are
+                    // updated, see DirtyTracker
+                    final DirtyTracker tracker = state.getDirtyTracker();
+                    final boolean incremental = tracker.isTracking();
+                    List<BaseEntity> inserted;
 
-                        return null;
-                    });
+                    tracker.startTracking();
+                    try {
+                        transactionService.runOnTransaction((IOnTransaction<Void>) () -> {
+                            if (beforeSaveActions != null) {
+                                beforeSaveActions.doActions();
+                            }
+                            doTheSaving(incremental);
+
+                            return null;
+                        });
+                        inserted = tracker.committed();
+                    } catch (RuntimeException e) {
+                        tracker.discard();
+                        checkedCodes.clear();
+                        throw e;
+                    } finally {
+                        tracker.stopTracking();
+                    }
 
-                    dontPoseAsTransientObjectAnymore(state.getOrder());
-                    dontPoseAsTransientObjectAnymore(state.getOrder().getEndDateCommunicationToCustomer());
+                    if ( incremental ) {
+                        dontPoseAsTransientObjectAnymore(inserted);
+                    } else {
+                        dontPoseAsTransientObjectAnymore(state.getOrder());
+                        dontPoseAsTransientObjectAnymore(state.getOrder().getEndDateCommunicationToCustomer());
+                    }
+                    rememberCheckedCodes(state.getOrder());
                     state.getScenarioInfo().afterCommit();
 
                     if ( state.getOrder().isNeededToRecalculateSumChargedEfforts() )
@@ -358,13 +389,13 @@ public class SaveCommandBuilder {
 
         }
 
-        private void doTheSaving() {
+        private void doTheSaving(boolean incremental) {
             Order order = state.getOrder();
             generateOrderElementCodes(order);
             createAdvancePercentagesIfRequired(order);
             order.calculateAndSetTotalHours();
-            checkConstraintOrderUniqueCode(order);
-            checkConstraintHoursGroupUniqueCode(order);
+            checkConstraintOrderUniqueCode(order, incremental);
+            checkConstraintHoursGroupUniqueCode(order, incremental);
             state.synchronizeTrees();
 
             TaskGroup rootTask = state.getRootTask();
@@ -384,11 +415,17 @@ public class SaveCommandBuilder {
 
             updateTasksRelatedData();
             removeTasksToRemove();
-            loadDataAccessedWithNotPosedAsTransientInOrder(state.getOrder());
-            loadDataAccessedWithNotPosedAsTransient(state.getOrder());
 
-            if ( state.getRootTask() != null )
-                loadDependenciesCollectionsForTaskRoot(state.getRootTask());
+            // When the save is incremental the inserted entities are the only
+            // ones marked as not new after the commit, so there is no need to
+            // load the rest of the graph
+            if ( !incremental ) {
+                loadDataAccessedWithNotPosedAsTransientInOrder(state.getOrder());
+                loadDataAccessedWithNotPosedAsTransient(state.getOrder());
+
+                if ( state.getRootTask() != null )
+                    loadDependenciesCollectionsForTaskRoot(state.getRootTask());
+            }
 
             subcontractedTaskDataDAO.removeOrphanedSubcontractedTaskData();
 
@@ -483,7 +520,7 @@ public class SaveCommandBuilder {
             order.generateOrderElementCodes(entitySequenceDAO.getNumberOfDigitsCode(EntityNameEnum.ORDER));
         }
 
-        private void checkConstraintOrderUniqueCode(OrderElement order) {
+        private void checkConstraintOrderUniqueCode(OrderElement order, boolean incremental) {
             OrderElement repeatedOrder;
 
             // Check no code is repeated in this order
@@ -497,7 +534,12 @@ public class SaveCommandBuilder {
             }
 
             // Check no code is repeated within the DB
-            repeatedOrder = Registry.getOrderElementDAO().findRepeatedOrderCodeInDB(order);
+            if ( !incremental ) {
+                repeatedOrder = Registry.getOrderElementDAO().findRepeatedOrderCodeInDB(order);
+            } else {
+                List<OrderElement> toCheck = withCodesNotChecked(getOrderAndAllChildren(order));
+                repeatedOrder = toCheck.isEmpty() ? null : Registry.getOrderElementDAO().findRepeatedOrderCodeInDB(toCheck);
+            }
 
             if (repeatedOrder != null)
                 throw new ValidationException(_(
@@ -505,7 +547,7 @@ public class SaveCommandBuilder {
 
         }
 
-        private void checkConstraintHoursGroupUniqueCode(Order order) {
+        private void checkConstraintHoursGroupUniqueCode(Order order, boolean incremental) {
             HoursGroup repeatedHoursGroup;
 
             if (order != null) {
@@ -519,7 +561,8 @@ public class SaveCommandBuilder {
 
             }
 
-            repeatedHoursGroup = Registry.getHoursGroupDAO().findRepeatedHoursGroupCodeInDB(order.getHoursGroups());
+            List<HoursGroup> toCheck = incremental ? withCodesNotChecked(order.getHoursGroups()) : order.getHoursGroups();
+            repeatedHoursGroup = toCheck.isEmpty() ? null : Registry.getHoursGroupDAO().findRepeatedHoursGroupCodeInDB(toCheck);
 
             if (repeatedHoursGroup != null)
                 throw new ValidationException(_(
@@ -529,6 +572,34 @@ public class SaveCommandBuilder {
 
         }
 
+        private List<OrderElement> getOrderAndAllChildren(OrderElement order) {
+            List<OrderElement> result = new ArrayList<>();
+            result.add(order);
+            result.addAll(order.getAllChildren());
+            return result;
+        }
+
+        private <T extends IntegrationEntity> List<T> withCodesNotChecked(List<T> entities) {
+            List<T> result = new ArrayList<>();
+            for (T each : entities) {
+                String checked = checkedCodes.get(each);
+                if ( checked == null || !checked.equals(each.getCode()) ) {
+                    result.add(each);
+                }
+            }
+            return result;
+        }
+
+        private void rememberCheckedCodes(Order order) {
+            checkedCodes.clear();
+            for (OrderElement each : getOrderAndAllChildren(order)) {
+                checkedCodes.put(each, each.getCode());
+            }
+            for (HoursGroup each : order.getHoursGroups()) {
+                checkedCodes.put(each, each.getCode());
+            }
+        }
+
         private void saveDerivedScenarios(Order order) {
             List<Scenario> derivedScenarios = scenarioDAO.getDerivedScenarios(state.getCurrentScenario());
             for (Scenario scenario : derivedScenarios) {
@@ -23,8 +23,7 @@ package org.libreplan.web.planner.tabs;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.Order;
-import org.libreplan.business.orders.entities.OrderElement;
-import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.orders.entities.OrderPlanningSummary;
 import org.libreplan.web.common.FilterUtils;
 import org.libreplan.web.common.Util;
 import org.libreplan.web.planner.company.CompanyPlanningController;
@@ -112,11 +111,11 @@ public class PlanningTabCreator {
 
             @Override
             public org.zkoss.zk.ui.Component create(org.zkoss.zk.ui.Component parent) {
-                List<ICommandOnTask<TaskElement>> commands = new ArrayList<>();
+                List<ICommandOnTask<OrderPlanningSummary>> commands = new ArrayList<>();
 
-                ICommandOnTask<TaskElement> scheduleCommand = buildScheduleCommand();
+                ICommandOnTask<OrderPlanningSummary> scheduleCommand = buildScheduleCommand();
                 commands.add(scheduleCommand);
-                ICommandOnTask<TaskElement> orderDetailsCommand = buildOrderDetailsCommand();
+                ICommandOnTask<OrderPlanningSummary> orderDetailsCommand = buildOrderDetailsCommand();
                 commands.add(orderDetailsCommand);
 
                 // TODO: Revert removal of ResourcesLoad and AdvancedAllocation
@@ -133,17 +132,13 @@ public class PlanningTabCreator {
                 return Executions.createComponents("/planner/_company.zul", parent, args);
             }
 
-            private ICommandOnTask<TaskElement> buildScheduleCommand() {
-                return new ICommandOnTask<TaskElement>() {
+            private ICommandOnTask<OrderPlanningSummary> buildScheduleCommand() {
+                return new ICommandOnTask<OrderPlanningSummary>() {
 
                     @Override
-                    public void doAction(IContextWithPlannerTask<TaskElement> context, TaskElement task) {
-                        OrderElement orderElement = task.getOrderElement();
-
-                        if (orderElement instanceof Order) {
-                            Order order = (Order) orderElement;
-                            mode.goToOrderMode(order);
-                        }
+                    public void doAction(IContextWithPlannerTask<OrderPlanningSummary> context,
+                                         OrderPlanningSummary summary) {
+                        mode.goToOrderMode(find(summary.getOrderId()));
                     }
 
                     @Override
@@ -157,23 +152,19 @@ public class PlanningTabCreator {
                     }
 
                     @Override
-                    public boolean isApplicableTo(TaskElement task) {
+                    public boolean isApplicableTo(OrderPlanningSummary summary) {
                         return true;
                     }
                 };
             }
 
-            private ICommandOnTask<TaskElement> buildOrderDetailsCommand() {
-                return new ICommandOnTask<TaskElement>() {
+            private ICommandOnTask<OrderPlanningSummary> buildOrderDetailsCommand() {
+                return new ICommandOnTask<OrderPlanningSummary>() {
 
                     @Override
-                    public void doAction(IContextWithPlannerTask<TaskElement> context, TaskElement task) {
-                        OrderElement orderElement = task.getOrderElement();
-
-                        if (orderElement instanceof Order) {
-                            Order order = (Order) orderElement;
-                            tabsController.goToOrderDetails(order);
-                        }
+                    public void doAction(IContextWithPlannerTask<OrderPlanningSummary> context,
+                                         OrderPlanningSummary summary) {
+                        tabsController.goToOrderDetails(find(summary.getOrderId()));
                     }
 
                     @Override
@@ -187,7 +178,7 @@ public class PlanningTabCreator {
                     }
 
                     @Override
-                    public boolean isApplicableTo(TaskElement task) {
+                    public boolean isApplicableTo(OrderPlanningSummary summary) {
                         return true;
                     }
                 };
@@ -277,8 +268,12 @@ public class PlanningTabCreator {
     }
 
     protected Order reload(Order order) {
+        return find(order.getId());
+    }
+
+    private Order find(Long orderId) {
         try {
-            return orderDAO.find(order.getId());
+            return orderDAO.find(orderId);
         } catch (InstanceNotFoundException e) {
             throw new RuntimeException(e);
         }
@@ -193,6 +193,9 @@ public class CutyPrint {
                 result = result.queryParam(entry.getKey(), entry.getValue());
             }
 
+            // So the planner renders all its rows, see Planner#guessPrinting
+            result = result.queryParam("print", "true");
+
             return result.build().toASCIIString();
         }
 
@@ -0,0 +1,85 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.libreplan.web.reports;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import net.sf.jasperreports.engine.JRDataSource;
+
+/**
+ * Generates the PDF and ODT reports in a bounded pool of threads, out of the
+ * request that asked for them. The generated files are kept on disk, so asking
+ * again for the same report with the same data returns the file generated
+ * before.
+ */
+public interface IReportJobService {
+
+    /**
+     * Retrieves the data of a report. It's called from the thread that
+     * generates the report, so it must not access the components of the
+     * desktop.
+     */
+    interface IReportData {
+
+        JRDataSource getDataSource();
+
+    }
+
+    enum Status {
+        QUEUED, RUNNING, FINISHED, FAILED
+    }
+
+    interface IReportJob {
+
+        Status getStatus();
+
+        /**
+         * Waits for the report to be generated
+         *
+         * @throws TimeoutException
+         *             if the report is not generated in the given time
+         * @throws ExecutionException
+         *             if the generation of the report has failed
+         */
+        File getResult(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException;
+
+        String getContentType();
+
+    }
+
+    /**
+     * @param type
+     *            <code>pdf</code> or <code>odt</code>
+     * @param dataKey
+     *            the values the data of the report depends on besides the
+     *            parameters, like the selected filters. If it's
+     *            <code>null</code> the report is always generated.
+     */
+    IReportJob submit(String reportName, String type, Map<String, Object> parameters,
+                      List<Object> dataKey, IReportData data);
+
+}
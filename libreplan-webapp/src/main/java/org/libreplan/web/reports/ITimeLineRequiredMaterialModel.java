@@ -38,10 +38,15 @@ import org.zkoss.zul.TreeModel;
  */
 public interface ITimeLineRequiredMaterialModel {
 
+    /**
+     * The orders, categories and materials are loaded from their ids, so it
+     * can be called from a thread other than the one of the request. If no
+     * order is given, the orders the logged user can read are used.
+     */
     JRDataSource getTimeLineRequiredMaterial(Date startingDate,
             Date endingDate, MaterialStatusEnum lbStatus,
-            List<Order> listOrders, List<MaterialCategory> categories,
-            List<Material> materials);
+            List<Long> orderIds, List<Long> categoryIds,
+            List<Long> materialIds);
 
     void init();
 
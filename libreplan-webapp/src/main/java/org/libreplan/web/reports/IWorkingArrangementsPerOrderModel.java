@@ -36,9 +36,13 @@ import org.libreplan.business.resources.entities.Criterion;
  */
 public interface IWorkingArrangementsPerOrderModel {
 
-    JRDataSource getWorkingArrangementsPerOrderReportReport(Order order,
+    /**
+     * The order, labels and criterions are loaded from their ids, so it can be
+     * called from a thread other than the one of the request.
+     */
+    JRDataSource getWorkingArrangementsPerOrderReportReport(Long orderId,
             TaskStatusEnum taskStatus, boolean showDependencies,
-            List<Label> labels, List<Criterion> criterions);
+            List<Long> labelIds, List<Long> criterionIds);
 
     void init();
 
@@ -21,23 +21,47 @@
 
 package org.libreplan.web.reports;
 
+import static org.libreplan.web.I18nHelper._;
+
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import net.sf.jasperreports.engine.JRDataSource;
 import net.sf.jasperreports.engine.JRParameter;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.libreplan.business.common.BaseEntity;
 import org.libreplan.business.common.Registry;
+import org.libreplan.web.reports.IReportJobService.IReportData;
+import org.libreplan.web.reports.IReportJobService.IReportJob;
+import org.libreplan.web.reports.IReportJobService.Status;
 import org.springframework.web.context.ContextLoaderListener;
+import org.zkoss.ganttz.util.LongOperationFeedback;
+import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdate;
+import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
 import org.zkoss.util.Locales;
-import org.zkoss.zk.au.out.AuDownload;
+import org.zkoss.util.media.AMedia;
 import org.zkoss.zk.ui.Component;
 import org.zkoss.zk.ui.Executions;
+import org.zkoss.zk.ui.event.Events;
+import org.zkoss.zk.ui.util.Clients;
 import org.zkoss.zk.ui.util.GenericForwardComposer;
+import org.zkoss.zkplus.spring.SpringUtil;
 import org.zkoss.zul.A;
+import org.zkoss.zul.Filedownload;
 import org.zkoss.zul.Hbox;
+import org.zkoss.zul.Messagebox;
 
 import com.libreplan.java.zk.components.JasperreportComponent;
 
@@ -50,40 +74,195 @@ import com.libreplan.java.zk.components.JasperreportComponent;
  * The method showReport takes care of this behaviour.
  * In addition, when a new report is shown, a link to the report shows up as well.
  *
+ * The PDF and ODT reports are generated by {@link IReportJobService}, out of
+ * the request, while the desktop shows the progress. The HTML reports are
+ * still generated by the {@link JasperreportComponent}, as it serves the
+ * images they use.
+ *
  * @author Diego Pino Garcia <dpino@igalia.com>
  * @author Manuel Rego Casasnovas <rego@igalia.com>
  * @author Vova Perebykivskyi <vova@libreplan-enterprise.com>
  */
 public abstract class LibrePlanReportController extends GenericForwardComposer<Component> {
 
+    private static final Log LOG = LogFactory.getLog(LibrePlanReportController.class);
+
     private static final String HTML = "html";
 
+    private static final long POLLING_MILLISECONDS = 500;
+
     protected ComboboxOutputFormat outputFormat;
 
     protected Hbox URItext;
 
     protected A URIlink;
 
+    private final IReportJobService reportJobService =
+            (IReportJobService) SpringUtil.getBean("reportJobService");
+
+    private File lastReport;
+
+    private String lastReportFileName;
+
+    private String lastReportType;
+
+    private String lastReportContentType;
+
+    /**
+     * Generates the last report again, <code>null</code> if its data can't be
+     * retrieved again
+     */
+    private Runnable lastReportGeneration;
+
+    private boolean listeningLink = false;
+
     public void showReport(JasperreportComponent jasperreport) {
         final String type = outputFormat.getOutputFormat();
 
-        jasperreport.setSrc(getReportName());
-        jasperreport.setDatasource(getDataSource());
-        jasperreport.setParameters(getParameters());
-        jasperreport.setType(type);
-
         if ( type.equals(HTML) ) {
+            jasperreport.setSrc(getReportName());
+            jasperreport.setDatasource(getDataSource());
+            jasperreport.setParameters(getParameters());
+            jasperreport.setType(type);
+
             URItext.setStyle("display: none");
             Executions.getCurrent().sendRedirect(jasperreport.getReportUrl(), "_blank");
         } else {
-            /*
-             * We cant use FileDownload.save(<url>) as it creates a new url
-             * where the resource can't be find so we have to create ourselves the download request
-             */
-            Executions.getCurrent().addAuResponse(new AuDownload(jasperreport.getReportUrl()));
+            URItext.setStyle("display: none");
+            generate(getReportName(), type, getParameters(), getDataKey(), getReportData());
+        }
+    }
+
+    private void generate(final String reportName, final String type, final Map<String, Object> parameters,
+                          final List<Object> dataKey, final IReportData reportData) {
+
+        final IReportJob job = reportJobService.submit(reportName, type, parameters, dataKey, reportData);
+
+        final Map<Status, String> messages = new HashMap<>();
+        messages.put(Status.QUEUED, _("Waiting for other reports to finish..."));
+        messages.put(Status.RUNNING, _("Generating report..."));
+        final String errorMessage = _("The report could not be generated");
+        final String errorTitle = _("Error");
+        final String fileName = reportName + "." + type;
+
+        /* Without a data key the data source has already been consumed */
+        final Runnable generation = dataKey != null
+                ? () -> generate(reportName, type, parameters, dataKey, reportData)
+                : null;
+
+        LongOperationFeedback.progressive(self.getDesktop(), updatesEmitter -> {
+            try {
+                File report = waitFor(job, messages, updatesEmitter);
+                updatesEmitter.doUpdate(download(report, fileName, type, job.getContentType(), generation));
+            } catch (ExecutionException e) {
+                LOG.error("error generating report " + reportName, e);
+                updatesEmitter.doUpdate(
+                        () -> Messagebox.show(errorMessage, errorTitle, Messagebox.OK, Messagebox.ERROR));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                updatesEmitter.doUpdate(Clients::clearBusy);
+            }
+        });
+    }
+
+    private static File waitFor(IReportJob job, Map<Status, String> messages,
+                                IDesktopUpdatesEmitter<IDesktopUpdate> updatesEmitter)
+            throws InterruptedException, ExecutionException {
+
+        Status shown = null;
+        while (true) {
+            final Status status = job.getStatus();
+            if ( status != shown && messages.containsKey(status) ) {
+                updatesEmitter.doUpdate(() -> Clients.showBusy(messages.get(status)));
+                shown = status;
+            }
+            try {
+                return job.getResult(POLLING_MILLISECONDS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Still being generated
+            }
+        }
+    }
+
+    private IDesktopUpdate download(File report, String fileName, String type, String contentType,
+                                    Runnable generation) {
+        return () -> {
+            lastReport = report;
+            lastReportFileName = fileName;
+            lastReportType = type;
+            lastReportContentType = contentType;
+            lastReportGeneration = generation;
+            saveLastReport();
+
+            if ( !listeningLink ) {
+                URIlink.addEventListener(Events.ON_CLICK, event -> onClickLastReport());
+                listeningLink = true;
+            }
+            URIlink.setHref(null);
             URItext.setStyle("display: inline");
-            URIlink.setHref(jasperreport.getReportUrl());
+        };
+    }
+
+    /**
+     * The last report may have been removed by {@link IReportJobService} to
+     * make room for newer ones, then it's generated again if possible.
+     */
+    private void onClickLastReport() {
+        if ( saveLastReport() ) {
+            return;
+        }
+        if ( lastReportGeneration != null ) {
+            lastReportGeneration.run();
+        } else {
+            URItext.setStyle("display: none");
+            Messagebox.show(_("The report is no longer available, please generate it again"),
+                    _("Information"), Messagebox.OK, Messagebox.INFORMATION);
+        }
+    }
+
+    private boolean saveLastReport() {
+        if ( !lastReport.exists() ) {
+            return false;
         }
+        try {
+            Filedownload.save(new AMedia(lastReportFileName, lastReportType, lastReportContentType, lastReport, true));
+
+            return true;
+        } catch (FileNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The values, besides the {@link #getParameters() parameters}, the data
+     * of the report depends on, so a report generated before with the same
+     * ones is reused if the data of the application hasn't been modified. By
+     * default the reports are not reused.
+     */
+    protected List<Object> getDataKey() {
+        return null;
+    }
+
+    /**
+     * By default the data of the report is retrieved before generating it,
+     * from the request, as {@link #getDataSource()} usually reads the
+     * components. Override it when the data can be retrieved from the thread
+     * that generates the report.
+     */
+    protected IReportData getReportData() {
+        final JRDataSource dataSource = getDataSource();
+
+        return () -> dataSource;
+    }
+
+    protected static List<Long> getIds(Collection<? extends BaseEntity> entities) {
+        List<Long> result = new ArrayList<>();
+        for (BaseEntity each : entities) {
+            result.add(each.getId());
+        }
+
+        return result;
     }
 
     protected Map<String, Object> getParameters() {
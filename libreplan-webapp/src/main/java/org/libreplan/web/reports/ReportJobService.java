@@ -0,0 +1,320 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.libreplan.web.reports;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.export.JRPdfExporter;
+import net.sf.jasperreports.engine.export.oasis.JROdtExporter;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.libreplan.business.hibernate.notification.ISnapshotRefresherService;
+import org.libreplan.business.scenarios.IScenarioManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Scope;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.zkoss.util.Locales;
+
+/**
+ * The reports are stored in a directory created when the application starts,
+ * keyed by their name, type, parameters and data, and by the
+ * {@link ISnapshotRefresherService#getModificationsVersion() version} of the
+ * data of the application. So any modification done since a report was
+ * generated makes it to be generated again. The key also includes the user
+ * and its scenario, as the data shown depends on the projects the user can
+ * read and on the scenario. Only the last {@link #MAX_STORED_REPORTS} reports
+ * used are kept.
+ *
+ * The same report being generated is not generated twice at the same time,
+ * the job in progress is returned instead.
+ */
+@Service
+@Scope(BeanDefinition.SCOPE_SINGLETON)
+public class ReportJobService implements IReportJobService {
+
+    private static final Log LOG = LogFactory.getLog(ReportJobService.class);
+
+    /**
+     * Filling a report takes a whole processor and a lot of memory, so only a
+     * few ones are filled at the same time. The rest wait in the queue.
+     */
+    private static final int WORKERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    static final int MAX_STORED_REPORTS = 200;
+
+    private static final String PDF = "pdf";
+
+    private static final String ODT = "odt";
+
+    private static final Map<String, String> CONTENT_TYPES = new HashMap<>();
+
+    static {
+        CONTENT_TYPES.put(PDF, "application/pdf");
+        CONTENT_TYPES.put(ODT, "application/vnd.oasis.opendocument.text");
+    }
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(WORKERS);
+
+    private final ConcurrentMap<String, ReportJob> inProgress = new ConcurrentHashMap<>();
+
+    private File directory;
+
+    @Autowired
+    private ISnapshotRefresherService snapshotRefresherService;
+
+    @Autowired
+    private IScenarioManager scenarioManager;
+
+    public ReportJobService() {
+    }
+
+    ReportJobService(ISnapshotRefresherService snapshotRefresherService, IScenarioManager scenarioManager) {
+        this.snapshotRefresherService = snapshotRefresherService;
+        this.scenarioManager = scenarioManager;
+    }
+
+    private static class ReportJob extends FutureTask<File> implements IReportJob {
+
+        private static ReportJob finished(File file, String contentType) {
+            ReportJob result = new ReportJob(() -> file, contentType);
+            result.run();
+
+            return result;
+        }
+
+        private final String contentType;
+
+        private volatile Status status = Status.QUEUED;
+
+        ReportJob(Callable<File> generation, String contentType) {
+            super(generation);
+            this.contentType = contentType;
+        }
+
+        @Override
+        public void run() {
+            status = Status.RUNNING;
+            super.run();
+        }
+
+        @Override
+        protected void set(File file) {
+            status = Status.FINISHED;
+            super.set(file);
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            status = Status.FAILED;
+            super.setException(t);
+        }
+
+        @Override
+        public Status getStatus() {
+            return status;
+        }
+
+        @Override
+        public File getResult(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+
+            return get(timeout, unit);
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+    }
+
+    @PostConstruct
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("libreplan-reports").toFile();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        FileUtils.deleteQuietly(directory);
+    }
+
+    @Override
+    public IReportJob submit(String reportName, String type, Map<String, Object> parameters,
+                             List<Object> dataKey, IReportData data) {
+
+        final String contentType = CONTENT_TYPES.get(type);
+        Validate.notNull(contentType, "not supported report type: " + type);
+
+        final String key = dataKey != null ? key(reportName, type, parameters, dataKey) : UUID.randomUUID().toString();
+        final File file = new File(directory, key + "." + type);
+        if ( file.exists() ) {
+            file.setLastModified(System.currentTimeMillis());
+
+            return ReportJob.finished(file, contentType);
+        }
+
+        final Locale locale = Locales.getCurrent();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+
+        ReportJob job = new ReportJob(() -> {
+            Locale previousLocale = Locales.setThreadLocal(locale);
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                return generate(reportName, type, parameters, data, file);
+            } finally {
+                inProgress.remove(key);
+                SecurityContextHolder.clearContext();
+                Locales.setThreadLocal(previousLocale);
+            }
+        }, contentType);
+
+        ReportJob previous = inProgress.putIfAbsent(key, job);
+        if ( previous != null ) {
+            return previous;
+        }
+        executor.execute(job);
+
+        return job;
+    }
+
+    private String key(String reportName, String type, Map<String, Object> parameters, List<Object> dataKey) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        StringBuilder description = new StringBuilder();
+        description.append(reportName).append('\n');
+        description.append(type).append('\n');
+        description.append(snapshotRefresherService.getModificationsVersion()).append('\n');
+        description.append(authentication != null ? authentication.getName() : null).append('\n');
+        description.append(scenarioManager.getCurrent().getId()).append('\n');
+        for (Entry<String, Object> each : new TreeMap<>(parameters).entrySet()) {
+            description.append(each.getKey()).append('=').append(each.getValue()).append('\n');
+        }
+        description.append(dataKey);
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(
+                    description.toString().getBytes(StandardCharsets.UTF_8));
+
+            return String.format("%040x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private File generate(String reportName, String type, Map<String, Object> parameters,
+                          IReportData data, File file) throws JRException, IOException {
+
+        long start = System.currentTimeMillis();
+        File generated = File.createTempFile("report", ".tmp", directory);
+        try {
+            write(reportName, type, parameters, data, generated);
+            Files.move(generated.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            FileUtils.deleteQuietly(generated);
+        }
+        LOG.debug(reportName + " generated in " + (System.currentTimeMillis() - start) + " ms");
+
+        removeOldReports();
+
+        return file;
+    }
+
+    /**
+     * Fills the report and exports it to <code>file</code>
+     */
+    void write(String reportName, String type, Map<String, Object> parameters,
+               IReportData data, File file) throws JRException, IOException {
+
+        JasperPrint print;
+        try (InputStream report = getClass().getResourceAsStream("/" + reportName + ".jasper")) {
+            Validate.notNull(report, "report not found: " + reportName);
+            print = JasperFillManager.fillReport(report, parameters, data.getDataSource());
+        }
+        export(print, type, file);
+    }
+
+    private static void export(JasperPrint print, String type, File file) throws JRException {
+        if ( PDF.equals(type) ) {
+            JRPdfExporter exporter = new JRPdfExporter();
+            exporter.setExporterInput(new SimpleExporterInput(print));
+            exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(file));
+            exporter.exportReport();
+        } else {
+            JROdtExporter exporter = new JROdtExporter();
+            exporter.setExporterInput(new SimpleExporterInput(print));
+            exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(file));
+            exporter.exportReport();
+        }
+    }
+
+    private void removeOldReports() {
+        File[] reports = directory.listFiles((dir, name) -> name.endsWith("." + PDF) || name.endsWith("." + ODT));
+        if ( reports == null || reports.length <= MAX_STORED_REPORTS ) {
+            return;
+        }
+        Arrays.sort(reports, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (int i = 0; i < reports.length - MAX_STORED_REPORTS; i++) {
+            FileUtils.deleteQuietly(reports[i]);
+        }
+    }
+
+}
@@ -29,6 +29,7 @@ import org.libreplan.business.materials.entities.MaterialStatusEnum;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.web.common.Util;
 import org.libreplan.web.common.components.bandboxsearch.BandboxSearch;
+import org.libreplan.web.reports.IReportJobService.IReportData;
 import org.zkoss.zk.ui.Component;
 import org.zkoss.zk.ui.WrongValueException;
 import org.zkoss.zkplus.spring.SpringUtil;
@@ -44,6 +45,7 @@ import org.zkoss.zul.TreeitemRenderer;
 import org.zkoss.zul.Treerow;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
@@ -129,13 +131,38 @@ public class TimeLineRequiredMaterialController extends LibrePlanReportControlle
 
     @Override
     protected JRDataSource getDataSource() {
-        return timeLineRequiredMaterialModel.getTimeLineRequiredMaterial(
+        return getReportData().getDataSource();
+    }
+
+    /**
+     * The data is retrieved by a new model, as the one of the controller is
+     * still used by the desktop while the report is generated.
+     */
+    @Override
+    protected IReportData getReportData() {
+        final ITimeLineRequiredMaterialModel model =
+                (ITimeLineRequiredMaterialModel) SpringUtil.getBean("timeLineRequiredMaterialModel");
+
+        final Date startingDate = getStartingDate();
+        final Date endingDate = getEndingDate();
+        final MaterialStatusEnum status = getCorrespondentStatus(selectedStatus);
+        final List<Long> orderIds = getIds(getSelectedOrders());
+        final List<Long> categoryIds = getIds(getSelectedCategories());
+        final List<Long> materialIds = getIds(getSelectedMaterials());
+
+        return () -> model.getTimeLineRequiredMaterial(
+                startingDate, endingDate, status, orderIds, categoryIds, materialIds);
+    }
+
+    @Override
+    protected List<Object> getDataKey() {
+        return Arrays.asList(
                 getStartingDate(),
                 getEndingDate(),
                 getCorrespondentStatus(selectedStatus),
-                getSelectedOrders(),
-                getSelectedCategories(),
-                getSelectedMaterials());
+                getIds(getSelectedOrders()),
+                getIds(getSelectedCategories()),
+                getIds(getSelectedMaterials()));
     }
 
     public Date getStartingDate() {
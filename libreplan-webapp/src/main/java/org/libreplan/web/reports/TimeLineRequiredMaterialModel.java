@@ -147,28 +147,33 @@ public class TimeLineRequiredMaterialModel implements
         return selectedOrders;
     }
 
-    private void reattachmentOrder(Order order) {
-        orderDAO.reattachUnmodifiedEntity(order);
-        initializeOrderElements(order.getAllOrderElements());
-    }
-
     @Override
     @Transactional(readOnly = true)
     public JRDataSource getTimeLineRequiredMaterial(Date startingDate,
-            Date endingDate, MaterialStatusEnum status, List<Order> listOrders,
-            List<MaterialCategory> categories, List<Material> materials) {
+            Date endingDate, MaterialStatusEnum status, List<Long> orderIds,
+            List<Long> categoryIds, List<Long> materialIds) {
 
-        List<Order> orders = listOrders;
-        if (listOrders.isEmpty()) {
-            orders = allOrders;
+        Scenario currentScenario = scenarioManager.getCurrent();
+        List<Order> orders = new ArrayList<Order>();
+        if (orderIds.isEmpty()) {
+            orders = orderDAO.getOrdersByReadAuthorizationByScenario(
+                    SecurityUtils.getLoggedUser().getUsername(),
+                    currentScenario);
         }
-
-        for (Order each : orders) {
-            reattachmentOrder(each);
+        for (Long each : orderIds) {
+            orders.add(orderDAO.findExistingEntity(each));
+        }
+        List<MaterialCategory> categories = new ArrayList<MaterialCategory>();
+        for (Long each : categoryIds) {
+            categories.add(categoryDAO.findExistingEntity(each));
+        }
+        List<Material> materials = new ArrayList<Material>();
+        for (Long each : materialIds) {
+            materials.add(materialDAO.findExistingEntity(each));
         }
 
-        Scenario currentScenario = scenarioManager.getCurrent();
         for (Order each : orders) {
+            initializeOrderElements(each.getAllOrderElements());
             each.useSchedulingDataFor(currentScenario);
         }
 
@@ -29,6 +29,7 @@ import org.libreplan.business.planner.entities.TaskStatusEnum;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.web.common.Util;
 import org.libreplan.web.common.components.bandboxsearch.BandboxSearch;
+import org.libreplan.web.reports.IReportJobService.IReportData;
 import org.zkoss.zk.ui.Component;
 import org.zkoss.zk.ui.WrongValueException;
 import org.zkoss.zkplus.spring.SpringUtil;
@@ -106,12 +107,37 @@ public class WorkingArrangementsPerOrderController extends LibrePlanReportContro
     }
 
     protected JRDataSource getDataSource() {
-        return workingArrangementsPerOrderModel.getWorkingArrangementsPerOrderReportReport(
-                getSelectedOrder(),
+        return getReportData().getDataSource();
+    }
+
+    /**
+     * The data is retrieved by a new model, as the one of the controller is
+     * still used by the desktop while the report is generated.
+     */
+    @Override
+    protected IReportData getReportData() {
+        final IWorkingArrangementsPerOrderModel model =
+                (IWorkingArrangementsPerOrderModel) SpringUtil.getBean("workingArrangementsPerOrderModel");
+
+        final Order order = getSelectedOrder();
+        final Long orderId = order != null ? order.getId() : null;
+        final TaskStatusEnum taskStatus = getSelectedTaskStatus();
+        final boolean showDependencies = showDependencies();
+        final List<Long> labelIds = getIds(getSelectedLabels());
+        final List<Long> criterionIds = getIds(getSelectedCriterions());
+
+        return () -> model.getWorkingArrangementsPerOrderReportReport(
+                orderId, taskStatus, showDependencies, labelIds, criterionIds);
+    }
+
+    @Override
+    protected List<Object> getDataKey() {
+        return Arrays.asList(
+                getSelectedOrder().getId(),
                 getSelectedTaskStatus(),
                 showDependencies(),
-                getSelectedLabels(),
-                getSelectedCriterions());
+                getIds(getSelectedLabels()),
+                getIds(getSelectedCriterions()));
     }
 
     private boolean showDependencies() {
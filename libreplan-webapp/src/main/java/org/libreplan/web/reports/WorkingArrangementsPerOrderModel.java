@@ -49,6 +49,7 @@ import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.planner.entities.TaskStatusEnum;
 import org.libreplan.business.reports.dtos.WorkingArrangementPerOrderDTO;
 import org.libreplan.business.reports.dtos.WorkingArrangementPerOrderDTO.DependencyWorkingArrangementDTO;
+import org.libreplan.business.resources.daos.ICriterionDAO;
 import org.libreplan.business.resources.daos.ICriterionTypeDAO;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.CriterionType;
@@ -94,6 +95,9 @@ public class WorkingArrangementsPerOrderModel implements
     @Autowired
     private ICriterionTypeDAO criterionTypeDAO;
 
+    @Autowired
+    private ICriterionDAO criterionDAO;
+
     private List<Label> selectedLabels = new ArrayList<Label>();
 
     private List<Criterion> selectedCriterions = new ArrayList<Criterion>();
@@ -153,20 +157,27 @@ public class WorkingArrangementsPerOrderModel implements
     @Override
     @Transactional(readOnly = true)
     public JRDataSource getWorkingArrangementsPerOrderReportReport(
-Order order,
+            Long orderId,
             TaskStatusEnum taskStatus, boolean showDependencies,
-            List<Label> labels, List<Criterion> criterions) {
-        if (order == null) {
+            List<Long> labelIds, List<Long> criterionIds) {
+        if (orderId == null) {
             return new JREmptyDataSource();
         }
 
-        reattachmentOrder(order);
+        Order order = orderDAO.findExistingEntity(orderId);
         order.useSchedulingDataFor(scenarioManager.getCurrent());
 
         List<WorkingArrangementPerOrderDTO> workingArrangementPerOrderList =
             new ArrayList<WorkingArrangementPerOrderDTO>();
 
-        reattachLabels();
+        List<Label> labels = new ArrayList<Label>();
+        for (Long each : labelIds) {
+            labels.add(labelDAO.findExistingEntity(each));
+        }
+        List<Criterion> criterions = new ArrayList<Criterion>();
+        for (Long each : criterionIds) {
+            criterions.add(criterionDAO.findExistingEntity(each));
+        }
         final List<Task> tasks = commonQueries.filteredTaskElements(order,
                 labels, criterions);
 
@@ -199,10 +210,6 @@ Order order,
 
     }
 
-    private void reattachmentOrder(Order order) {
-        orderDAO.reattachUnmodifiedEntity(order);
-    }
-
     private List<Task> sortTasks(Order order, List<Task> tasks) {
         List<Task> sortTasks = new ArrayList<Task>();
         final List<OrderElement> orderElements = order.getAllChildren();
@@ -378,12 +385,6 @@ Order order,
         return result;
     }
 
-    private void reattachLabels() {
-        for (Label label : getAllLabels()) {
-            labelDAO.reattach(label);
-        }
-    }
-
     @Override
     public List<Label> getAllLabels() {
         return allLabels;
@@ -23,8 +23,8 @@ import java.util.List;
 
 import org.libreplan.business.common.entities.Configuration;
 import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
+import org.libreplan.business.planner.entities.AssignedTaskSummary;
 import org.libreplan.business.planner.entities.SpecificResourceAllocation;
-import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.users.entities.User;
 
@@ -36,10 +36,11 @@ import org.libreplan.business.users.entities.User;
 public interface IMyTasksAreaModel {
 
     /**
-     * Returns the list of {@link TaskElement TaskElements} assigned to the
-     * resource bound to current {@link User} through a {@link SpecificResourceAllocation}.
+     * Returns the data of the unfinished {@link TaskElement TaskElements}
+     * assigned to the resource bound to current {@link User} through a
+     * {@link SpecificResourceAllocation}.
      */
-    List<Task> getTasks();
+    List<AssignedTaskSummary> getTasks();
 
     /**
      * Returns the {@link PersonalTimesheetsPeriodicityEnum} from {@link Configuration}.
@@ -35,18 +35,31 @@ import org.libreplan.business.workreports.entities.WorkReport;
 public interface IPersonalTimesheetsAreaModel {
 
     /**
-     * Returns the list of {@link PersonalTimesheetDTO PersonalTimesheetDTOs}
+     * Returns the number of {@link PersonalTimesheetDTO PersonalTimesheetDTOs}
      * for the resource bound to current {@link User}.
      * <br />
      * There's no need that a {@link WorkReport} is saved in order to a
      * {@link PersonalTimesheetDTO} exists for a period.
      * <br />
-     * The list of {@link PersonalTimesheetDTO PersonalTimesheetDTOs} will be
+     * The {@link PersonalTimesheetDTO PersonalTimesheetDTOs} will be
      * since the date the resource is activated in the system
      * (checking {@link CalendarAvailability} for the resource)
      * to next month of current date.
      */
-    List<PersonalTimesheetDTO> getPersonalTimesheets();
+    int getNumberOfPersonalTimesheets();
+
+    /**
+     * Returns <code>count</code> {@link PersonalTimesheetDTO
+     * PersonalTimesheetDTOs} for the resource bound to current {@link User},
+     * starting at the position <code>first</code> of the list sorted with the
+     * more recent ones at the beginning.
+     * <br />
+     * The totals of the personal timesheets are retrieved with only one query
+     * for all of them.
+     *
+     * @see #getNumberOfPersonalTimesheets()
+     */
+    List<PersonalTimesheetDTO> getPersonalTimesheets(int first, int count);
 
     /**
      * Returns the number of different {@link OrderElement OrderElements} with
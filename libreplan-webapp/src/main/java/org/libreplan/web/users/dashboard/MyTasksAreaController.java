@@ -20,10 +20,8 @@
 package org.libreplan.web.users.dashboard;
 
 import org.joda.time.LocalDate;
-import org.libreplan.business.advance.entities.AdvanceMeasurement;
 import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
-import org.libreplan.business.orders.entities.OrderElement;
-import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.AssignedTaskSummary;
 import org.libreplan.web.common.Util;
 import org.zkoss.zk.ui.Component;
 import org.zkoss.zk.ui.event.Event;
@@ -58,35 +56,29 @@ public class MyTasksAreaController extends GenericForwardComposer {
         @Override
         public void render(Row row, Object data, int i) throws Exception {
 
-            Task task = (Task) data;
+            AssignedTaskSummary task = (AssignedTaskSummary) data;
             row.setValue(task);
 
-            OrderElement orderElement = task.getOrderElement();
-
-            Util.appendLabel(row, orderElement.getOrder().getName());
+            Util.appendLabel(row, task.getOrderName());
             Util.appendLabel(row, task.getName());
-            Util.appendLabel(row, orderElement.getDescription());
+            Util.appendLabel(row, task.getDescription());
 
-            Util.appendLabel(row, task.getStartAsLocalDate().toString());
-            Util.appendLabel(row, task.getEndAsLocalDate().toString());
+            Util.appendLabel(row, task.getStartDate().toString());
+            Util.appendLabel(row, task.getEndDate().toString());
 
-            Util.appendLabel(row, _("{0} h", task.getSumOfAssignedEffort().toHoursAsDecimalWithScale(0).toString()));
-            Util.appendLabel(row, _("{0} h", orderElement.getEffortAsString()));
-            Util.appendLabel(row, getProgress(orderElement));
+            Util.appendLabel(row, _("{0} h", task.getAssignedEffort().toHoursAsDecimalWithScale(0).toString()));
+            Util.appendLabel(row, _("{0} h", task.getChargedEffort().toFormattedString()));
+            Util.appendLabel(row, getProgress(task));
             appendTimeTrackingButton(row, task);
         }
 
-        private String getProgress(OrderElement orderElement) {
-
-            AdvanceMeasurement lastAdvanceMeasurement = orderElement.getLastAdvanceMeasurement();
-
-            return lastAdvanceMeasurement != null
-                    ? MessageFormat.format(
-                    "[{0} %] ({1})", lastAdvanceMeasurement.getValue(), lastAdvanceMeasurement.getDate())
+        private String getProgress(AssignedTaskSummary task) {
+            return task.getLastAdvanceValue() != null
+                    ? MessageFormat.format("[{0} %] ({1})", task.getLastAdvanceValue(), task.getLastAdvanceDate())
                     : "";
         }
 
-        private void appendTimeTrackingButton(Row row, final Task task) {
+        private void appendTimeTrackingButton(Row row, final AssignedTaskSummary task) {
 
             EventListener trackTimeButtonListener = new EventListener() {
                 @Override
@@ -94,9 +86,9 @@ public class MyTasksAreaController extends GenericForwardComposer {
                     personalTimesheetController.goToCreateOrEditForm(getPersonalTimesheetDateForTask(task));
                 }
 
-                private LocalDate getPersonalTimesheetDateForTask(Task task) {
-                    LocalDate start = task.getStartAsLocalDate();
-                    LocalDate end = task.getEndAsLocalDate();
+                private LocalDate getPersonalTimesheetDateForTask(AssignedTaskSummary task) {
+                    LocalDate start = task.getStartDate();
+                    LocalDate end = task.getEndDate();
 
                     LocalDate currentDate = new LocalDate();
                     PersonalTimesheetsPeriodicityEnum periodicity = myTasksAreaModel.getPersonalTimesheetsPeriodicity();
@@ -160,7 +152,7 @@ public class MyTasksAreaController extends GenericForwardComposer {
         }
     }
 
-    public List<Task> getTasks() {
+    public List<AssignedTaskSummary> getTasks() {
         return myTasksAreaModel.getTasks();
     }
 
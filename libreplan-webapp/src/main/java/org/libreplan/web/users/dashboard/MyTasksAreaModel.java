@@ -25,13 +25,10 @@ import java.util.Comparator;
 import java.util.List;
 
 import org.joda.time.LocalDate;
-import org.libreplan.business.advance.entities.AdvanceMeasurement;
-import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
 import org.libreplan.business.common.daos.IConfigurationDAO;
 import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
 import org.libreplan.business.planner.daos.IResourceAllocationDAO;
-import org.libreplan.business.planner.entities.SpecificResourceAllocation;
-import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.AssignedTaskSummary;
 import org.libreplan.business.scenarios.IScenarioManager;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.web.UserUtil;
@@ -62,10 +59,10 @@ public class MyTasksAreaModel implements IMyTasksAreaModel {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Task> getTasks() {
+    public List<AssignedTaskSummary> getTasks() {
         User user = UserUtil.getUserFromSession();
         if (!user.isBound()) {
-            return new ArrayList<Task>();
+            return new ArrayList<AssignedTaskSummary>();
         }
 
         /*
@@ -82,23 +79,18 @@ public class MyTasksAreaModel implements IMyTasksAreaModel {
         if (user.getResourcesLoadFilterPeriodTo() != null) {
             to = user.getResourcesLoadFilterPeriodTo();
         }
-        
-        List<SpecificResourceAllocation> resourceAllocations = resourceAllocationDAO
-                .findSpecificAllocationsRelatedTo(scenarioManager.getCurrent(),
-                        UserDashboardUtil.getBoundResourceAsList(user),
+
+        List<AssignedTaskSummary> summaries = resourceAllocationDAO
+                .getAssignedTaskSummaries(scenarioManager.getCurrent(),
+                        user.getWorker(),
                         myTodayDate.minusMonths(since),
                         myTodayDate.plusMonths(to));
 
-        List<Task> tasks = new ArrayList<Task>();
-        for (SpecificResourceAllocation each : resourceAllocations) {
-            Task task = each.getTask();
-            if (task != null) {
-                forceLoad(task);
-
+        List<AssignedTaskSummary> tasks = new ArrayList<AssignedTaskSummary>();
+        for (AssignedTaskSummary each : summaries) {
             /* mvanmiddelkoop jan 2015 - show only unfinished tasks */
-                if (task.getAdvancePercentage().intValue() < 1) {
-                    tasks.add(task);
-                }
+            if (!each.isFinished()) {
+                tasks.add(each);
             }
         }
 
@@ -112,47 +104,16 @@ public class MyTasksAreaModel implements IMyTasksAreaModel {
     }
 
     /* mvanmiddelkoop jan 2015 - Sort Ascending instead of Descending */
-    private void sortTasksAscendingByStartDate(List<Task> tasks) {
-        Collections.sort(tasks, new Comparator<Task>() {
+    private void sortTasksAscendingByStartDate(List<AssignedTaskSummary> tasks) {
+        Collections.sort(tasks, new Comparator<AssignedTaskSummary>() {
 
             @Override
-            public int compare(Task o1, Task o2) {
-                return o1.getIntraDayStartDate().compareTo(
-                        o2.getIntraDayStartDate());
+            public int compare(AssignedTaskSummary o1, AssignedTaskSummary o2) {
+                return o1.getStartDate().compareTo(o2.getStartDate());
             }
         });
     }
 
-    private void sortTasksDescendingByStartDate(List<Task> tasks) {
-        Collections.sort(tasks, new Comparator<Task>() {
-
-            @Override
-            public int compare(Task o1, Task o2) {
-                return o2.getIntraDayStartDate().compareTo(
-                        o1.getIntraDayStartDate());
-            }
-        });
-    }
-
-    private void forceLoad(Task task) {
-        task.getName();
-        task.getOrderElement().getOrder().getName();
-        DirectAdvanceAssignment advanceAssignment = task.getOrderElement()
-                .getReportGlobalAdvanceAssignment();
-        if (advanceAssignment != null) {
-            AdvanceMeasurement advanceMeasurement = advanceAssignment
-                    .getLastAdvanceMeasurement();
-            if (advanceMeasurement != null) {
-                advanceMeasurement.getValue();
-            }
-        }
-
-        // MvanMiddelkoop feb 2015 - to show the budgeted hours, prevent
-        // LazyLoad errors
-        task.getSumOfAssignedEffort();
-        task.getOrderElement().getDescription();
-    }
-
     @Override
     @Transactional(readOnly = true)
     public PersonalTimesheetsPeriodicityEnum getPersonalTimesheetsPeriodicity() {
@@ -71,10 +71,25 @@ public class PersonalTimesheetDTO {
         this.tasksNumber = tasksNumber;
     }
 
+    /**
+     * Creates a personal timesheet with its totals but without its
+     * {@link WorkReport}, for the lists that only show the totals.
+     *
+     * @see #PersonalTimesheetDTO(LocalDate, WorkReport, EffortDuration, EffortDuration, int)
+     */
+    public PersonalTimesheetDTO(LocalDate date, EffortDuration resourceCapacity,
+                                EffortDuration totalHours, int tasksNumber) {
+        this(date, null, resourceCapacity, totalHours, tasksNumber);
+    }
+
     public LocalDate getDate() {
         return date;
     }
 
+    /**
+     * @return the {@link WorkReport} of the personal timesheet, or
+     *         <code>null</code> if it doesn't exist yet or it wasn't loaded
+     */
     public WorkReport getWorkReport() {
         return workReport;
     }
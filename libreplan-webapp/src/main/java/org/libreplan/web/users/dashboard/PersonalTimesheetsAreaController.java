@@ -23,9 +23,16 @@ import org.libreplan.web.common.Util;
 import org.zkoss.zk.ui.Component;
 import org.zkoss.zk.ui.util.GenericForwardComposer;
 import org.zkoss.zkplus.spring.SpringUtil;
+import org.zkoss.zul.AbstractListModel;
+import org.zkoss.zul.ListModel;
 import org.zkoss.zul.Row;
 import org.zkoss.zul.RowRenderer;
+import org.zkoss.zul.event.ListDataEvent;
+import org.zkoss.zul.ext.Sortable;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -83,12 +90,74 @@ public class PersonalTimesheetsAreaController extends GenericForwardComposer {
         }
     }
 
-    public List<PersonalTimesheetDTO> getPersonalTimesheets() {
-        return personalTimesheetsAreaModel.getPersonalTimesheets();
+    public ListModel<PersonalTimesheetDTO> getPersonalTimesheets() {
+        return new PersonalTimesheetsListModel();
     }
 
     public RowRenderer getPersonalTimesheetsRenderer() {
         return personalTimesheetsRenderer;
     }
 
+    /**
+     * Retrieves the personal timesheets from the model a block at a time, as
+     * the user goes back in time through the pages of the grid. When the grid
+     * is sorted by a column all of them are retrieved.
+     */
+    private class PersonalTimesheetsListModel extends AbstractListModel<PersonalTimesheetDTO>
+            implements Sortable<PersonalTimesheetDTO> {
+
+        private static final int BLOCK_SIZE = 20;
+
+        private final int size = personalTimesheetsAreaModel.getNumberOfPersonalTimesheets();
+
+        private List<PersonalTimesheetDTO> sorted;
+
+        private PersonalTimesheetDTO[] retrieved = new PersonalTimesheetDTO[size];
+
+        private Comparator<PersonalTimesheetDTO> sortComparator;
+
+        private boolean sortAscending;
+
+        @Override
+        public PersonalTimesheetDTO getElementAt(int index) {
+            if ( sorted != null ) {
+                return sorted.get(index);
+            }
+            if ( retrieved[index] == null ) {
+                retrieveBlock(index - index % BLOCK_SIZE, BLOCK_SIZE);
+            }
+            return retrieved[index];
+        }
+
+        private void retrieveBlock(int first, int count) {
+            List<PersonalTimesheetDTO> block = personalTimesheetsAreaModel.getPersonalTimesheets(first, count);
+            for (int i = 0; i < block.size() && first + i < size; i++) {
+                retrieved[first + i] = block.get(i);
+            }
+        }
+
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public void sort(Comparator<PersonalTimesheetDTO> comparator, boolean ascending) {
+            sorted = new ArrayList<>(personalTimesheetsAreaModel.getPersonalTimesheets(0, size));
+            Collections.sort(sorted, comparator);
+            sortComparator = comparator;
+            sortAscending = ascending;
+            fireEvent(ListDataEvent.CONTENTS_CHANGED, -1, -1);
+        }
+
+        @Override
+        public String getSortDirection(Comparator<PersonalTimesheetDTO> comparator) {
+            if ( comparator.equals(sortComparator) ) {
+                return sortAscending ? "ascending" : "descending";
+            }
+            return "natural";
+        }
+
+    }
+
 }
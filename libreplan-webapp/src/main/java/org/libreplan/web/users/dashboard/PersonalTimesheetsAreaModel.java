@@ -22,20 +22,19 @@ package org.libreplan.web.users.dashboard;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IConfigurationDAO;
 import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.resources.entities.Resource;
-import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.workingday.EffortDuration;
-import org.libreplan.business.workingday.IntraDayDate.PartialDay;
 import org.libreplan.business.workreports.daos.IWorkReportDAO;
+import org.libreplan.business.workreports.entities.PersonalTimesheetSummary;
 import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportLine;
-import org.libreplan.business.workreports.entities.WorkReportType;
 import org.libreplan.web.UserUtil;
 import org.libreplan.web.calendars.BaseCalendarModel;
 import org.libreplan.web.common.Util;
@@ -62,45 +61,60 @@ public class PersonalTimesheetsAreaModel implements IPersonalTimesheetsAreaModel
 
     @Override
     @Transactional(readOnly = true)
-    public List<PersonalTimesheetDTO> getPersonalTimesheets() {
+    public int getNumberOfPersonalTimesheets() {
         User user = UserUtil.getUserFromSession();
         if (!user.isBound()) {
-            return Collections.emptyList();
+            return 0;
         }
         Resource resource = user.getWorker();
         BaseCalendarModel.forceLoadBaseCalendar(resource.getCalendar());
 
-        LocalDate activationDate = getActivationDate(user.getWorker());
-        LocalDate currentDate = new LocalDate();
+        PersonalTimesheetsPeriodicityEnum periodicity = getPersonalTimesheetsPeriodicity();
+        LocalDate start = getFirstDate(resource, periodicity);
+        LocalDate end = getLastDate(periodicity);
 
-        return getPersonalTimesheets(
-                user.getWorker(), activationDate, currentDate.plusMonths(1), getPersonalTimesheetsPeriodicity());
+        return periodicity.getItemsBetween(start, end) + 1;
     }
 
-    private List<PersonalTimesheetDTO> getPersonalTimesheets(Resource resource,
-            LocalDate start, LocalDate end,
-            PersonalTimesheetsPeriodicityEnum periodicity) {
-
-        start = periodicity.getStart(start);
-        end = periodicity.getEnd(end);
-        int items = periodicity.getItemsBetween(start, end);
+    @Override
+    @Transactional(readOnly = true)
+    public List<PersonalTimesheetDTO> getPersonalTimesheets(int first, int count) {
+        User user = UserUtil.getUserFromSession();
+        if (!user.isBound() || count <= 0) {
+            return Collections.emptyList();
+        }
+        Resource resource = user.getWorker();
+        BaseCalendarModel.forceLoadBaseCalendar(resource.getCalendar());
 
-        List<PersonalTimesheetDTO> result = new ArrayList<>();
+        PersonalTimesheetsPeriodicityEnum periodicity = getPersonalTimesheetsPeriodicity();
+        LocalDate start = getFirstDate(resource, periodicity);
+        int items = periodicity.getItemsBetween(start, getLastDate(periodicity));
 
         // In decreasing order to provide a list sorted with the more recent personal timesheets at the beginning
-        for (int i = items; i >= 0; i--) {
-            LocalDate date = periodicity.getDateForItemFromDate(i, start);
+        int newest = items - first;
+        if (newest < 0) {
+            return Collections.emptyList();
+        }
+        int oldest = Math.max(newest - count + 1, 0);
+
+        Map<LocalDate, PersonalTimesheetSummary> summaries = getSummariesByPeriod(resource,
+                periodicity.getDateForItemFromDate(oldest, start),
+                periodicity.getEnd(periodicity.getDateForItemFromDate(newest, start)),
+                periodicity);
 
-            WorkReport workReport = getWorkReport(resource, date, periodicity);
+        List<PersonalTimesheetDTO> result = new ArrayList<>();
+        for (int i = newest; i >= oldest; i--) {
+            LocalDate date = periodicity.getDateForItemFromDate(i, start);
 
             EffortDuration hours = EffortDuration.zero();
             int tasksNumber = 0;
-            if (workReport != null) {
-                hours = workReport.getTotalEffortDuration();
-                tasksNumber = getNumberOfOrderElementsWithTrackedTime(workReport);
+            PersonalTimesheetSummary summary = summaries.get(date);
+            if (summary != null) {
+                hours = summary.getTotalEffort();
+                tasksNumber = summary.getOrderElementsWithTrackedTime();
             }
 
-            result.add(new PersonalTimesheetDTO(date, workReport,
+            result.add(new PersonalTimesheetDTO(date,
                     getResourceCapacity(resource, date, periodicity), hours,
                     tasksNumber));
         }
@@ -108,36 +122,30 @@ public class PersonalTimesheetsAreaModel implements IPersonalTimesheetsAreaModel
         return result;
     }
 
-    private WorkReport getWorkReport(Resource resource, LocalDate date, PersonalTimesheetsPeriodicityEnum periodicity) {
-        WorkReport workReport = workReportDAO.getPersonalTimesheetWorkReport(resource, date, periodicity);
-        forceLoad(workReport);
-        return workReport;
+    private LocalDate getFirstDate(Resource resource, PersonalTimesheetsPeriodicityEnum periodicity) {
+        return periodicity.getStart(getActivationDate(resource));
     }
 
-    private EffortDuration getResourceCapacity(Resource resource, LocalDate date,
-                                               PersonalTimesheetsPeriodicityEnum periodicity) {
+    private LocalDate getLastDate(PersonalTimesheetsPeriodicityEnum periodicity) {
+        return periodicity.getEnd(new LocalDate().plusMonths(1));
+    }
 
-        LocalDate start = periodicity.getStart(date);
-        LocalDate end = periodicity.getEnd(date);
+    private Map<LocalDate, PersonalTimesheetSummary> getSummariesByPeriod(Resource resource,
+            LocalDate start, LocalDate end,
+            PersonalTimesheetsPeriodicityEnum periodicity) {
 
-        EffortDuration capacity = EffortDuration.zero();
-        for (LocalDate day = start; day.compareTo(end) <= 0; day = day.plusDays(1)) {
-            capacity = capacity.plus(resource.getCalendar().getCapacityOn(PartialDay.wholeDay(day)));
-        }
-        return capacity;
+        return PersonalTimesheetSummary.firstByPeriod(
+                workReportDAO.getPersonalTimesheetsSummaries(resource, start, end), periodicity);
     }
 
-    private void forceLoad(WorkReport workReport) {
-        if (workReport != null) {
-            WorkReportType workReportType = workReport.getWorkReportType();
-            workReportType.getLineFields().size();
-            workReportType.getWorkReportLabelTypeAssignments().size();
-            workReportType.getHeadingFields().size();
-        }
+    private EffortDuration getResourceCapacity(Resource resource, LocalDate date,
+                                               PersonalTimesheetsPeriodicityEnum periodicity) {
+
+        return resource.getCalendar().getWorkableDuration(periodicity.getStart(date), periodicity.getEnd(date));
     }
 
-    private LocalDate getActivationDate(Worker worker) {
-        return worker.getCalendar().getFistCalendarAvailability().getStartDate();
+    private LocalDate getActivationDate(Resource resource) {
+        return resource.getCalendar().getFistCalendarAvailability().getStartDate();
     }
 
     @Override
@@ -19,14 +19,11 @@
 
 package org.libreplan.ws.boundusers.impl;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
-import org.joda.time.LocalDate;
-import org.libreplan.business.advance.entities.AdvanceMeasurement;
-import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.planner.entities.AssignedTaskSummary;
 import org.libreplan.business.planner.entities.Task;
 import org.libreplan.ws.boundusers.api.TaskDTO;
 import org.libreplan.ws.boundusers.api.TaskListDTO;
@@ -42,30 +39,18 @@ public final class TaskConverter {
     private TaskConverter() {
     }
 
-    public final static TaskDTO toDTO(Task task) {
-        OrderElement orderElement = task.getOrderElement();
-
-        AdvanceMeasurement lastAdvanceMeasurement = orderElement
-                .getLastAdvanceMeasurement();
-        BigDecimal progressValue = null;
-        LocalDate progressDate = null;
-        if (lastAdvanceMeasurement != null) {
-            progressValue = lastAdvanceMeasurement.getValue();
-            progressDate = lastAdvanceMeasurement.getDate();
-        }
-
-        return new TaskDTO(task.getName(), orderElement.getCode(), orderElement
-                .getOrder().getCode(), orderElement.getOrder().getName(),
+    public final static TaskDTO toDTO(AssignedTaskSummary task) {
+        return new TaskDTO(task.getName(), task.getCode(), task.getOrderCode(), task.getOrderName(),
                 DateConverter.toXMLGregorianCalendar(task.getStartDate()),
                 DateConverter.toXMLGregorianCalendar(task.getEndDate()),
-                progressValue,
-                DateConverter.toXMLGregorianCalendar(progressDate),
-                orderElement.getEffortAsString());
+                task.getLastAdvanceValue(),
+                DateConverter.toXMLGregorianCalendar(task.getLastAdvanceDate()),
+                task.getChargedEffort().toFormattedString());
     }
 
-    public final static TaskListDTO toDTO(Collection<Task> tasks) {
+    public final static TaskListDTO toDTO(Collection<AssignedTaskSummary> tasks) {
         List<TaskDTO> dtos = new ArrayList<TaskDTO>();
-        for (Task each : tasks) {
+        for (AssignedTaskSummary each : tasks) {
             dtos.add(toDTO(each));
         }
         return new TaskListDTO(dtos);
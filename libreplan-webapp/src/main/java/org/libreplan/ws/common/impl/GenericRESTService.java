@@ -21,12 +21,34 @@
 
 package org.libreplan.ws.common.impl;
 
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
-
+import javax.ws.rs.core.StreamingOutput;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.IntegrationEntity;
@@ -36,6 +58,7 @@ import org.libreplan.business.common.exceptions.ValidationException;
 import org.libreplan.ws.common.api.InstanceConstraintViolationsDTO;
 import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
 import org.libreplan.ws.common.api.IntegrationEntityDTO;
+import org.libreplan.ws.common.api.WSCommonGlobalNames;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -47,6 +70,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 public abstract class GenericRESTService<E extends IntegrationEntity,
     DTO extends IntegrationEntityDTO> {
 
+    private static final Log LOG = LogFactory.getLog(GenericRESTService.class);
+
+    private static final int SAVE_CHUNK_SIZE = 100;
+
+    private static final int STREAMING_PAGE_SIZE = 100;
+
+    private static final ConcurrentMap<Class<?>, JAXBContext> jaxbContexts =
+        new ConcurrentHashMap<Class<?>, JAXBContext>();
+
     @Autowired
     protected IAdHocTransactionService transactionService;
 
@@ -58,15 +90,206 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
     }
 
     /**
-     * It saves (inserts or updates) a list of entities. Each entity is
-     * saved in a separate transaction.
+     * It retrieves the entities ordered by code like {@link #findAll()}, but
+     * writing them to the response as they are retrieved from the database.
+     * The entities are loaded by pages on their own read-only transaction and
+     * the session is cleared after each page, so they are never all in
+     * memory. The first page is read before returning the response, so the
+     * errors reading the entities are reported with an error status.
+     *
+     * The response has the same XML than the marshalling of
+     * <code>listDTOClass</code>.
+     *
+     * @param since
+     *            if not <code>null</code>, only the entities with a code after
+     *            it are retrieved. Clients can fetch the entities in several
+     *            requests passing the code of the last entity received.
+     * @param limit
+     *            if not <code>null</code>, the maximum number of entities
+     *            retrieved
+     * @param listDTOClass
+     *            the DTO of the list of entities
+     * @param itemElementName
+     *            the element name of each entity in <code>listDTOClass</code>
+     */
+    protected Response findAllStreaming(final String since, final Integer limit,
+            final Class<?> listDTOClass, final String itemElementName) {
+
+        if (limit != null && limit < 0) {
+            return Response.status(Status.BAD_REQUEST).build();
+        }
+
+        final JAXBContext jaxbContext = getJAXBContext(listDTOClass);
+        final String listElementName =
+            listDTOClass.getAnnotation(XmlRootElement.class).name();
+        final int maxResults = limit != null ? limit : Integer.MAX_VALUE;
+
+        /*
+         * The first page is read before the response is committed, so if the
+         * entities cannot be retrieved the client receives an error status
+         * instead of a truncated document.
+         */
+        final List<DTO> firstPage = transactionService
+                .runOnReadOnlyTransaction(new IOnTransaction<List<DTO>>() {
+
+                    @Override
+                    public List<DTO> execute() {
+                        return findPage(since,
+                                Math.min(STREAMING_PAGE_SIZE, maxResults));
+                    }
+
+                });
+
+        StreamingOutput output = new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream outputStream) {
+                try {
+                    transactionService.runOnReadOnlyTransaction(new IOnTransaction<Void>() {
+
+                        @Override
+                        public Void execute() {
+                            try {
+                                writeAll(outputStream, jaxbContext, firstPage,
+                                        maxResults, listElementName,
+                                        itemElementName);
+                            } catch (JAXBException | XMLStreamException e) {
+                                throw new RuntimeException(e);
+                            }
+                            return null;
+                        }
+
+                    });
+                } catch (RuntimeException e) {
+                    /*
+                     * The status has already been sent. The document is left
+                     * unclosed, so the client cannot parse it as complete.
+                     */
+                    LOG.error("The streaming of " + listElementName
+                            + " has failed after sending the status", e);
+                    throw e;
+                }
+            }
+
+        };
+
+        return Response.ok(output, MediaType.APPLICATION_XML).build();
+    }
+
+    private List<DTO> findPage(String after, int pageSize) {
+        if (pageSize == 0) {
+            return new ArrayList<DTO>();
+        }
+        return toDTO(getIntegrationEntityDAO().findAfterCode(after, pageSize));
+    }
+
+    private static JAXBContext getJAXBContext(Class<?> listDTOClass) {
+        JAXBContext result = jaxbContexts.get(listDTOClass);
+        if (result == null) {
+            try {
+                result = JAXBContext.newInstance(listDTOClass);
+            } catch (JAXBException e) {
+                throw new RuntimeException(e);
+            }
+            jaxbContexts.putIfAbsent(listDTOClass, result);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeAll(OutputStream outputStream, JAXBContext jaxbContext,
+            List<DTO> firstPage, int maxResults, String listElementName,
+            String itemElementName) throws JAXBException, XMLStreamException {
+
+        XMLStreamWriter writer = XMLOutputFactory.newInstance()
+                .createXMLStreamWriter(outputStream, "UTF-8");
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.setDefaultNamespace(WSCommonGlobalNames.REST_NAMESPACE);
+        writer.writeStartElement(WSCommonGlobalNames.REST_NAMESPACE,
+                listElementName);
+        writer.writeDefaultNamespace(WSCommonGlobalNames.REST_NAMESPACE);
+
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        QName itemName = new QName(WSCommonGlobalNames.REST_NAMESPACE,
+                itemElementName);
+
+        List<DTO> page = firstPage;
+        int pageSize = Math.min(STREAMING_PAGE_SIZE, maxResults);
+        int remaining = maxResults;
+
+        while (true) {
+
+            for (DTO dto : page) {
+                marshaller.marshal(new JAXBElement<DTO>(itemName,
+                        (Class<DTO>) dto.getClass(), dto), writer);
+            }
+            writer.flush();
+
+            remaining -= page.size();
+            if (page.size() < pageSize || remaining == 0) {
+                break;
+            }
+            getIntegrationEntityDAO().clearSession();
+
+            String after = page.get(page.size() - 1).code;
+            pageSize = Math.min(STREAMING_PAGE_SIZE, remaining);
+            page = findPage(after, pageSize);
+
+        }
+
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+    }
+
+    /**
+     * It saves (inserts or updates) a list of entities. The entities are
+     * saved in chunks, each chunk in a separate transaction, retrieving the
+     * existing entities of the chunk with a single query. If some entity of a
+     * chunk cannot be saved, the entities of that chunk are saved again one by
+     * one, each entity in a separate transaction, so the result is the same
+     * as saving every entity on its own. The same is done with the chunks
+     * that repeat a code or some of the {@link #getUniqueValues(IntegrationEntityDTO)},
+     * and with the ones whose new entities cannot be inserted together, see
+     * {@link #canInsertTogether(int)}.
      */
     protected InstanceConstraintViolationsListDTO save(
         List<? extends DTO> entityDTOs) {
 
         List<InstanceConstraintViolationsDTO> instanceConstraintViolationsList =
             new ArrayList<InstanceConstraintViolationsDTO>();
-        long numItem = 1;
+        int chunkSize = getSaveChunkSize();
+
+        for (int start = 0; start < entityDTOs.size(); start += chunkSize) {
+
+            List<? extends DTO> chunk = entityDTOs.subList(start,
+                    Math.min(start + chunkSize, entityDTOs.size()));
+
+            if (chunk.size() == 1 || !insertOrUpdateAll(chunk)) {
+                saveOneByOne(chunk, start + 1,
+                        instanceConstraintViolationsList);
+            }
+
+        }
+
+        return new InstanceConstraintViolationsListDTO(
+            instanceConstraintViolationsList);
+
+    }
+
+    /**
+     * It returns the number of entities saved in the same transaction by
+     * {@link #save(List)}.
+     */
+    protected int getSaveChunkSize() {
+        return SAVE_CHUNK_SIZE;
+    }
+
+    private void saveOneByOne(List<? extends DTO> entityDTOs, long firstNumItem,
+            List<InstanceConstraintViolationsDTO> instanceConstraintViolationsList) {
+
+        long numItem = firstNumItem;
 
         for (DTO entityDTO : entityDTOs) {
 
@@ -101,11 +324,159 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
 
         }
 
-        return new InstanceConstraintViolationsListDTO(
-            instanceConstraintViolationsList);
+    }
+
+    /**
+     * It saves (inserts or updates) all the entity DTOs by using a new
+     * transaction.
+     *
+     * @return <code>false</code> if some entity cannot be saved, so none of
+     *         them has been saved
+     */
+    private boolean insertOrUpdateAll(final List<? extends DTO> entityDTOs) {
+
+        if (hasRepeatedCodes(entityDTOs)) {
+            /* The later ones must update the earlier ones */
+            return false;
+        }
+
+        if (hasRepeatedUniqueValues(entityDTOs)) {
+            /* The validations would not see the conflict */
+            return false;
+        }
+
+        IOnTransaction<Boolean> save = new IOnTransaction<Boolean>() {
+
+            @Override
+            public Boolean execute() {
+
+                Map<String, E> existing = findExisting(entityDTOs);
+
+                if (!canInsertTogether(countNew(entityDTOs, existing))) {
+                    /* The validations would not count the other new ones */
+                    return false;
+                }
+
+                for (DTO entityDTO : entityDTOs) {
+
+                    /* Insert or update? */
+                    E entity = existing.get(toKey(entityDTO.code));
+                    if (entity != null) {
+                        updateEntity(entity, entityDTO);
+                    } else {
+                        entity = toEntity(entityDTO);
+                    }
+
+                    entity.validate();
+                    saveEntity(entity);
+
+                }
+
+                return true;
+
+            }
+
+        };
+
+        try {
+            return transactionService.runOnAnotherTransaction(save);
+        } catch (ValidationException | RecoverableErrorException e) {
+            LOG.debug("Some entity of the chunk is not valid, "
+                    + "saving its entities one by one", e);
+            return false;
+        } catch (RuntimeException e) {
+            LOG.warn("The chunk could not be saved, "
+                    + "saving its entities one by one", e);
+            return false;
+        }
 
     }
 
+    private boolean hasRepeatedCodes(List<? extends DTO> entityDTOs) {
+        Set<String> codes = new HashSet<String>();
+        for (DTO entityDTO : entityDTOs) {
+            String key = toKey(entityDTO.code);
+            if (key != null && !codes.add(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasRepeatedUniqueValues(List<? extends DTO> entityDTOs) {
+        Set<String> values = new HashSet<String>();
+        for (DTO entityDTO : entityDTOs) {
+            for (String each : getUniqueValues(entityDTO)) {
+                String key = toKey(each);
+                if (key != null && !values.add(key)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * It returns the values of the entity DTO, other than its code, that must
+     * be unique but are only checked by validations that query the database
+     * on another transaction. These validations cannot see the other entities
+     * saved in the same chunk by {@link #save(List)}, so the chunks where some
+     * of these values is repeated are saved one by one. Subclasses must
+     * prefix the values so different kinds of values are never equal.
+     *
+     * Default implementation returns an empty list.
+     */
+    protected List<String> getUniqueValues(DTO entityDTO) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * It returns whether the given number of new entities can be inserted in
+     * the same transaction by {@link #save(List)}. Subclasses must return
+     * <code>false</code> when some validation of the new entities counts the
+     * entities in the database on another transaction, since it cannot count
+     * the other new entities of the chunk. The chunk is then saved one by one.
+     *
+     * Default implementation returns <code>true</code>.
+     */
+    protected boolean canInsertTogether(int newEntities) {
+        return true;
+    }
+
+    private int countNew(List<? extends DTO> entityDTOs, Map<String, E> existing) {
+        int result = 0;
+        for (DTO entityDTO : entityDTOs) {
+            if (!existing.containsKey(toKey(entityDTO.code))) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private Map<String, E> findExisting(List<? extends DTO> entityDTOs) {
+        Set<String> codes = new HashSet<String>();
+        for (DTO entityDTO : entityDTOs) {
+            String key = toKey(entityDTO.code);
+            if (key != null) {
+                codes.add(key);
+            }
+        }
+
+        Map<String, E> result = new HashMap<String, E>();
+        for (E entity : getIntegrationEntityDAO().findByCodes(codes)) {
+            result.put(toKey(entity.getCode()), entity);
+        }
+        return result;
+    }
+
+    /**
+     * The codes are compared ignoring the case, as
+     * {@link IIntegrationEntityDAO#findByCode(String)} does.
+     */
+    private static String toKey(String code) {
+        return StringUtils.isBlank(code) ? null : code.trim().toLowerCase();
+    }
+
     /**
      * It saves (inserts or updates) an entity DTO by using a new transaction.
      *
@@ -141,9 +512,7 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
                  * Validate and save (insert or update) the entity.
                  */
                 entity.validate();
-                beforeSaving(entity);
-                entityDAO.saveWithoutValidating(entity);
-                afterSaving(entity);
+                saveEntity(entity);
 
                 return null;
 
@@ -155,6 +524,22 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
 
     }
 
+    /**
+     * It saves an already validated entity, running
+     * {@link #beforeSaving(IntegrationEntity)} and
+     * {@link #afterSaving(IntegrationEntity)} around it.
+     *
+     * It is called once per entity, also when {@link #save(List)} saves
+     * several entities in the same transaction. So subclasses that need to
+     * pass something from before saving to after saving must override this
+     * method and keep it in local variables, never in fields of the service.
+     */
+    protected void saveEntity(E entity) {
+        beforeSaving(entity);
+        getIntegrationEntityDAO().saveWithoutValidating(entity);
+        afterSaving(entity);
+    }
+
     /**
      * It allows to add operations that must be done before saving.
      *
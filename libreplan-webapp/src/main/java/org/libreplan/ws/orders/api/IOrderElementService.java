@@ -35,7 +35,15 @@ public interface IOrderElementService {
 
     InstanceConstraintViolationsListDTO addOrders(OrderListDTO orderListDTO);
 
-    OrderListDTO getOrders();
+    /**
+     * @param since
+     *            if not <code>null</code>, only the orders with a code after it
+     *            are returned
+     * @param limit
+     *            if not <code>null</code>, the maximum number of orders
+     *            returned
+     */
+    Response getOrders(String since, Integer limit);
 
     Response getOrderElement(String code);
 
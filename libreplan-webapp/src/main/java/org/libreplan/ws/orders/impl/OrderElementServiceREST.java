@@ -21,6 +21,8 @@
 
 package org.libreplan.ws.orders.impl;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import javax.ws.rs.Consumes;
@@ -30,9 +32,11 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
+import org.apache.commons.lang3.StringUtils;
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
@@ -76,11 +80,14 @@ public class OrderElementServiceREST
     @Autowired
     private IOrderModel orderModel;
 
+    /**
+     * The entities are written to the response while they are retrieved, see
+     * {@link #findAllStreaming(String, Integer, Class, String)}.
+     */
     @Override
     @GET
-    @Transactional(readOnly = true)
-    public OrderListDTO getOrders() {
-        return new OrderListDTO(findAll());
+    public Response getOrders(@QueryParam("since") String since, @QueryParam("limit") Integer limit) {
+        return findAllStreaming(since, limit, OrderListDTO.class, "order");
     }
 
     @Override
@@ -112,6 +119,18 @@ public class OrderElementServiceREST
             OrderElementConverter.update(entity, entityDTO, ConfigurationOrderElementConverter.all());
     }
 
+    /**
+     * The name of the projects is only checked on another transaction, see
+     * {@link Order#isProjectUniqueNameConstraint()}.
+     */
+    @Override
+    protected List<String> getUniqueValues(OrderDTO entityDTO) {
+        if (StringUtils.isBlank(entityDTO.name)) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList("name " + entityDTO.name);
+    }
+
     @Override
     @GET
     @Path("/{code}/")
@@ -22,6 +22,7 @@
 package org.libreplan.ws.resources.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.List;
 
@@ -35,8 +36,10 @@ import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang3.StringUtils;
 import org.libreplan.business.common.IntegrationEntity;
+import org.libreplan.business.common.daos.IConfigurationDAO;
 import org.libreplan.business.common.daos.IEntitySequenceDAO;
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
+import org.libreplan.business.common.entities.Configuration;
 import org.libreplan.business.common.entities.EntityNameEnum;
 import org.libreplan.business.common.exceptions.ValidationException;
 import org.libreplan.business.costcategories.entities.ResourcesCostCategoryAssignment;
@@ -51,6 +54,7 @@ import org.libreplan.ws.common.impl.RecoverableErrorException;
 import org.libreplan.ws.resources.api.IResourceService;
 import org.libreplan.ws.resources.api.ResourceDTO;
 import org.libreplan.ws.resources.api.ResourceListDTO;
+import org.libreplan.ws.resources.api.WorkerDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -73,6 +77,9 @@ public class ResourceServiceREST
     @Autowired
     private IEntitySequenceDAO entitySequenceDAO;
 
+    @Autowired
+    private IConfigurationDAO configurationDAO;
+
     @Override
     @POST
     @Consumes("application/xml")
@@ -118,6 +125,35 @@ public class ResourceServiceREST
         generateCodes(entity);
     }
 
+    /**
+     * The ID of the workers is only checked on another transaction, see
+     * {@link org.libreplan.business.resources.entities.Worker#isUniqueFiscalCodeConstraint()}.
+     */
+    @Override
+    protected List<String> getUniqueValues(ResourceDTO entityDTO) {
+        if (entityDTO instanceof WorkerDTO
+                && !StringUtils.isBlank(((WorkerDTO) entityDTO).nif)) {
+            return Collections.singletonList("nif " + ((WorkerDTO) entityDTO).nif);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * The limit of resources is checked counting the resources in the
+     * database on another transaction, see
+     * {@link Resource#isMaxResourcesConstraint()}, so the new resources are
+     * inserted one by one when there is a limit.
+     */
+    @Override
+    protected boolean canInsertTogether(int newEntities) {
+        if (newEntities <= 1) {
+            return true;
+        }
+        Configuration configuration = configurationDAO.getConfiguration();
+        return configuration == null || configuration.getMaxResources() == null
+                || configuration.getMaxResources() <= 0;
+    }
+
     @Autowired
     private IWorkerDAO workerDAO;
 
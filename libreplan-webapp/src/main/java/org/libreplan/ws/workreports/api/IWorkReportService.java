@@ -32,7 +32,15 @@ import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
  */
 public interface IWorkReportService {
 
-    public WorkReportListDTO getWorkReports();
+    /**
+     * @param since
+     *            if not <code>null</code>, only the work reports with a code
+     *            after it are returned
+     * @param limit
+     *            if not <code>null</code>, the maximum number of work reports
+     *            returned
+     */
+    public Response getWorkReports(String since, Integer limit);
 
     public InstanceConstraintViolationsListDTO addWorkReports(
             WorkReportListDTO workReportListDTO);
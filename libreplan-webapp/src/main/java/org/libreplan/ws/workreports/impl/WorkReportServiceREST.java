@@ -32,6 +32,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
@@ -63,8 +64,6 @@ import org.springframework.transaction.annotation.Transactional;
 @Service("workReportServiceREST")
 public class WorkReportServiceREST extends GenericRESTService<WorkReport, WorkReportDTO> implements IWorkReportService {
 
-    private Set<OrderElement> orderElements;
-
     @Autowired
     private IWorkReportDAO workReportDAO;
 
@@ -74,11 +73,14 @@ public class WorkReportServiceREST extends GenericRESTService<WorkReport, WorkRe
     @Autowired
     private ISumChargedEffortDAO sumChargedEffortDAO;
 
+    /**
+     * The entities are written to the response while they are retrieved, see
+     * {@link #findAllStreaming(String, Integer, Class, String)}.
+     */
     @Override
     @GET
-    @Transactional(readOnly = true)
-    public WorkReportListDTO getWorkReports() {
-        return new WorkReportListDTO(findAll());
+    public Response getWorkReports(@QueryParam("since") String since, @QueryParam("limit") Integer limit) {
+        return findAllStreaming(since, limit, WorkReportListDTO.class, "work-report");
     }
 
     @Override
@@ -115,18 +117,19 @@ public class WorkReportServiceREST extends GenericRESTService<WorkReport, WorkRe
 
     }
 
+    /**
+     * The {@link OrderElement OrderElements} to recalculate are kept for each
+     * work report, as several ones are saved in the same transaction.
+     */
     @Override
-    protected void beforeSaving(WorkReport entity) {
-        orderElements = sumChargedEffortDAO
+    protected void saveEntity(WorkReport entity) {
+        Set<OrderElement> orderElements = sumChargedEffortDAO
                 .getOrderElementsToRecalculateTimsheetDates(
                         entity.getWorkReportLines(), null);
         sumChargedEffortDAO
                 .updateRelatedSumChargedEffortWithWorkReportLineSet(entity
                         .getWorkReportLines());
-    }
-
-    @Override
-    protected void afterSaving(WorkReport entity) {
+        workReportDAO.saveWithoutValidating(entity);
         sumChargedEffortDAO.recalculateTimesheetData(orderElements);
     }
 
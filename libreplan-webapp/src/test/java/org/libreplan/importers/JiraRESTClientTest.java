@@ -19,13 +19,23 @@
 
 package org.libreplan.importers;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.ProcessingException;
 
@@ -35,6 +45,10 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.libreplan.importers.jira.IssueDTO;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
 /**
  * Test for {@link JiraRESTClient }
  *
@@ -58,6 +72,129 @@ public class JiraRESTClientTest {
         return "labels=" + label;
     }
 
+    /**
+     * Local server answering as JIRA does, with pages of at most
+     * <code>PAGE_SIZE</code> issues.
+     */
+    private static class StubJiraServer {
+
+        private static final int PAGE_SIZE = 100;
+
+        private final HttpServer server;
+
+        private final int totalIssues;
+
+        private final List<Map<String, String>> searches = new ArrayList<>();
+
+        StubJiraServer(int totalIssues) throws IOException {
+            this.totalIssues = totalIssues;
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/" + JiraRESTClient.PATH_AUTH_SESSION, new HttpHandler() {
+                @Override
+                public void handle(HttpExchange exchange) throws IOException {
+                    respond(exchange, "{}");
+                }
+            });
+            server.createContext("/" + JiraRESTClient.PATH_SEARCH, new HttpHandler() {
+                @Override
+                public void handle(HttpExchange exchange) throws IOException {
+                    respond(exchange, search(parameters(exchange.getRequestURI().getRawQuery())));
+                }
+            });
+            server.start();
+        }
+
+        String getUrl() {
+            return "http://localhost:" + server.getAddress().getPort() + "/";
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private synchronized String search(Map<String, String> parameters) {
+            searches.add(parameters);
+            int startAt = Integer.parseInt(parameters.get("startAt"));
+            int end = Math.min(totalIssues,
+                    startAt + Math.min(PAGE_SIZE, Integer.parseInt(parameters.get("maxResults"))));
+
+            StringBuilder issues = new StringBuilder();
+            for (int i = startAt; i < end; i++) {
+                if ( i > startAt ) {
+                    issues.append(",");
+                }
+                issues.append("{\"id\":").append(i).append(",\"key\":\"LP-").append(i)
+                        .append("\",\"fields\":{\"summary\":\"Issue ").append(i).append("\"}}");
+            }
+            return "{\"startAt\":" + startAt + ",\"maxResults\":" + PAGE_SIZE +
+                    ",\"total\":" + totalIssues + ",\"issues\":[" + issues + "]}";
+        }
+
+        private static Map<String, String> parameters(String query) throws IOException {
+            Map<String, String> result = new HashMap<>();
+            for (String each : query.split("&")) {
+                String[] parameter = each.split("=", 2);
+                result.put(parameter[0], URLDecoder.decode(parameter[1], StandardCharsets.UTF_8.name()));
+            }
+            return result;
+        }
+
+        private static void respond(HttpExchange exchange, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        }
+
+    }
+
+    @Test
+    public void testGetIssuesRequestsAllThePages() throws IOException {
+        StubJiraServer server = new StubJiraServer(250);
+        try {
+            List<IssueDTO> issues = JiraRESTClient.getIssues(server.getUrl(), "user", "password",
+                    JiraRESTClient.PATH_SEARCH, getJiraLabel("libreplan"));
+
+            assertEquals(250, issues.size());
+            assertEquals("LP-0", issues.get(0).getKey());
+            assertEquals("LP-249", issues.get(249).getKey());
+
+            assertEquals(3, server.searches.size());
+            assertEquals("0", server.searches.get(0).get("startAt"));
+            assertEquals("100", server.searches.get(1).get("startAt"));
+            assertEquals("200", server.searches.get(2).get("startAt"));
+            assertEquals(getJiraLabel("libreplan"), server.searches.get(2).get("jql"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testGetIssuesWithoutResults() throws IOException {
+        StubJiraServer server = new StubJiraServer(0);
+        try {
+            List<IssueDTO> issues = JiraRESTClient.getIssues(server.getUrl(), "user", "password",
+                    JiraRESTClient.PATH_SEARCH, getJiraLabel("libreplan"));
+
+            assertTrue(issues.isEmpty());
+            assertEquals(1, server.searches.size());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testUpdatedSinceRestrictsTheQuery() {
+        Date tenMinutesAgo = new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(10));
+
+        assertEquals("(labels=libreplan) AND updated >= -11m",
+                JiraRESTClient.updatedSince(getJiraLabel("libreplan"), tenMinutesAgo));
+        assertEquals("updated >= -11m", JiraRESTClient.updatedSince("", tenMinutesAgo));
+        assertEquals(getJiraLabel("libreplan"), JiraRESTClient.updatedSince(getJiraLabel("libreplan"), null));
+    }
+
     @Test
     @Ignore("Only working if you have a JIRA server configured")
     public void testGetAllLablesFromValidLabelUrl() {
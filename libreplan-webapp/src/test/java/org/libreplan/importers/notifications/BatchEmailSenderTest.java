@@ -0,0 +1,257 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.importers.notifications;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link BatchEmailSender}, sending to a minimal SMTP server that runs in the same process.
+ */
+public class BatchEmailSenderTest {
+
+    /**
+     * Accepts every message, except the first {@link #rejectFirst} ones that are rejected with <code>rejectCode</code>.
+     */
+    private static class FakeSmtpServer implements Runnable {
+
+        private final ServerSocket serverSocket;
+
+        private final AtomicInteger connections = new AtomicInteger();
+
+        private final AtomicInteger received = new AtomicInteger();
+
+        private final AtomicInteger rejected = new AtomicInteger();
+
+        private final List<String> subjects = Collections.synchronizedList(new ArrayList<String>());
+
+        private volatile int rejectFirst;
+
+        private volatile int rejectCode;
+
+        FakeSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread thread = new Thread(this);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void reject(int messages, int code) {
+            rejectFirst = messages;
+            rejectCode = code;
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            talk(socket);
+                        }
+                    });
+                    thread.setDaemon(true);
+                    thread.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void talk(Socket socket) {
+            try (Socket closed = socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
+
+                reply(out, "220 localhost");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    if ( "DATA".equals(command) ) {
+                        reply(out, "354 go ahead");
+                        String subject = null;
+                        while ((line = in.readLine()) != null && !".".equals(line)) {
+                            if ( subject == null && line.startsWith("Subject: ") ) {
+                                subject = line.substring("Subject: ".length());
+                            }
+                        }
+                        if ( rejected.incrementAndGet() <= rejectFirst ) {
+                            reply(out, rejectCode + " rejected");
+                        } else {
+                            received.incrementAndGet();
+                            subjects.add(subject);
+                            reply(out, "250 ok");
+                        }
+                    } else if ( "QUIT".equals(command) ) {
+                        reply(out, "221 bye");
+                        return;
+                    } else {
+                        reply(out, "250 ok");
+                    }
+                }
+            } catch (IOException e) {
+                // The client has gone
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        void stop() throws IOException {
+            serverSocket.close();
+        }
+
+    }
+
+    private FakeSmtpServer server;
+
+    private Session session;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new FakeSmtpServer();
+        Properties properties = new Properties();
+        properties.put("mail.smtp.host", "localhost");
+        properties.put("mail.smtp.port", Integer.toString(server.getPort()));
+        session = Session.getInstance(properties);
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        server.stop();
+    }
+
+    private Map<Integer, MimeMessage> givenMessages(int count, int recipients) throws MessagingException {
+        Map<Integer, MimeMessage> result = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = new MimeMessage(session);
+            message.setFrom(new InternetAddress("libreplan@example.com"));
+            message.setRecipients(Message.RecipientType.TO,
+                    InternetAddress.parse("user" + (i % recipients) + "@example.com"));
+            message.setSubject("Notification " + i);
+            message.setText("Text " + i);
+            result.put(i, message);
+        }
+        return result;
+    }
+
+    private static List<Integer> upTo(int count) {
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    @Test
+    public void allTheMessagesAreSentReusingTheConnections() throws MessagingException {
+        List<Integer> sent = new BatchEmailSender<Integer>(session, 3, 0).send(givenMessages(60, 10));
+
+        assertEquals(upTo(60), sent);
+        assertEquals(60, server.received.get());
+        assertTrue(server.connections.get() <= 3);
+    }
+
+    @Test
+    public void theMessagesWithTransientErrorsAreRetried() throws MessagingException {
+        server.reject(4, 451);
+
+        List<Integer> sent = new BatchEmailSender<Integer>(session, 2, 1).send(givenMessages(20, 5));
+
+        assertEquals(upTo(20), sent);
+        assertEquals(20, server.received.get());
+    }
+
+    @Test
+    public void theMessagesForTheSameRecipientKeepTheirOrderWhenOneIsRetried() throws MessagingException {
+        server.reject(1, 451);
+
+        List<Integer> sent = new BatchEmailSender<Integer>(session, 1, 1).send(givenMessages(5, 1));
+
+        assertEquals(upTo(5), sent);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add("Notification " + i);
+        }
+        assertEquals(expected, server.subjects);
+    }
+
+    @Test
+    public void theSenderCanBeUsedForSeveralBatches() throws MessagingException {
+        BatchEmailSender<Integer> sender = new BatchEmailSender<>(session, 2, 1);
+
+        assertEquals(upTo(6), sender.send(givenMessages(6, 3)));
+        assertEquals(upTo(6), sender.send(givenMessages(6, 3)));
+        assertEquals(12, server.received.get());
+    }
+
+    @Test
+    public void theMessagesWithPermanentErrorsAreNotSent() throws MessagingException {
+        server.reject(3, 554);
+
+        List<Integer> sent = new BatchEmailSender<Integer>(session, 1, 1).send(givenMessages(10, 1));
+
+        assertEquals(upTo(10).subList(3, 10), sent);
+        assertEquals(7, server.received.get());
+    }
+
+    @Test
+    public void theMessagesAreNotSentIfTheServerIsNotAvailable() throws Exception {
+        server.stop();
+
+        List<Integer> sent = new BatchEmailSender<Integer>(session, 2, 1).send(givenMessages(4, 2));
+
+        assertTrue(sent.isEmpty());
+    }
+
+}
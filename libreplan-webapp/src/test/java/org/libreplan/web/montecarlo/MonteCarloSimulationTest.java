@@ -0,0 +1,151 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.libreplan.business.planner.entities.Dependency.Type;
+import org.libreplan.web.montecarlo.MonteCarloSimulation.Builder;
+import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
+
+/**
+ * Tests for {@link MonteCarloSimulation}.
+ */
+public class MonteCarloSimulationTest {
+
+    private static final long SEED = 7L;
+
+    /**
+     * A task that always lasts the same.
+     */
+    private static int addFixedTask(Builder builder, int earliestStart, int duration) {
+        return builder.addTask(earliestStart, duration, duration, duration, 30, 50);
+    }
+
+    private static long total(long[] histogram) {
+        long result = 0;
+        for (long each : histogram) {
+            result += each;
+        }
+        return result;
+    }
+
+    @Test
+    public void theDurationsOfAChainAreSummedUp() {
+        Builder builder = MonteCarloSimulation.builder();
+        int first = addFixedTask(builder, 0, 3);
+        int second = addFixedTask(builder, 0, 4);
+        int third = addFixedTask(builder, 0, 5);
+        builder.addDependency(first, second, Type.END_START).addDependency(second, third, Type.END_START);
+
+        long[] histogram = builder.build().run(1000, SEED, null);
+
+        assertEquals(1000, histogram[12]);
+        assertEquals(1000, total(histogram));
+    }
+
+    @Test
+    public void aTaskStartsWhenTheLatestOfItsPredecessorsFinishes() {
+        Builder builder = MonteCarloSimulation.builder();
+        int shortOne = addFixedTask(builder, 0, 2);
+        int longOne = addFixedTask(builder, 1, 6);
+        int last = addFixedTask(builder, 0, 1);
+        builder.addDependency(shortOne, last, Type.END_START).addDependency(longOne, last, Type.END_START);
+
+        long[] histogram = builder.build().run(100, SEED, null);
+
+        assertEquals(100, histogram[8]);
+    }
+
+    @Test
+    public void theTypeOfTheDependenciesIsConsidered() {
+        Builder builder = MonteCarloSimulation.builder();
+        int origin = addFixedTask(builder, 2, 10);
+        int startStart = addFixedTask(builder, 0, 3);
+        int endEnd = addFixedTask(builder, 0, 4);
+        builder.addDependency(origin, startStart, Type.START_START).addDependency(origin, endEnd, Type.END_END);
+
+        MonteCarloSimulation simulation = builder.build();
+
+        assertEquals(100, simulation.run(100, SEED, null)[12]);
+    }
+
+    @Test
+    public void theDurationsAreChosenWithTheirProbabilities() {
+        Builder builder = MonteCarloSimulation.builder();
+        builder.addTask(0, 1, 2, 3, 30, 50);
+
+        int iterations = 200000;
+        long[] histogram = builder.build().run(iterations, SEED, null);
+
+        assertEquals(0.2, histogram[1] / (double) iterations, 0.01);
+        assertEquals(0.5, histogram[2] / (double) iterations, 0.01);
+        assertEquals(0.3, histogram[3] / (double) iterations, 0.01);
+    }
+
+    @Test
+    public void theSameSeedGivesTheSameResults() {
+        Builder builder = MonteCarloSimulation.builder();
+        int previous = builder.addTask(0, 1, 5, 9, 30, 50);
+        for (int i = 0; i < 20; i++) {
+            int current = builder.addTask(0, 1, 5, 9, 30, 50);
+            builder.addDependency(previous, current, Type.END_START);
+            previous = current;
+        }
+        MonteCarloSimulation simulation = builder.build();
+
+        long[] histogram = simulation.run(100000, SEED, null);
+
+        assertArrayEquals(histogram, simulation.run(100000, SEED, null));
+        assertEquals(100000, total(histogram));
+    }
+
+    @Test
+    public void theProgressIsNotifiedUntilCompleted() {
+        Builder builder = MonteCarloSimulation.builder();
+        builder.addTask(0, 1, 2, 3, 30, 50);
+        final int[] last = { -1 };
+
+        builder.build().run(1000, SEED, new IDesktopUpdatesEmitter<Integer>() {
+
+            @Override
+            public void doUpdate(Integer value) {
+                assertTrue(value >= last[0]);
+                last[0] = value;
+            }
+        });
+
+        assertEquals(100, last[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cyclesAreNotAllowed() {
+        Builder builder = MonteCarloSimulation.builder();
+        int first = addFixedTask(builder, 0, 1);
+        int second = addFixedTask(builder, 0, 1);
+        builder.addDependency(first, second, Type.END_START).addDependency(second, first, Type.END_START);
+
+        builder.build();
+    }
+
+}
@@ -55,6 +55,7 @@ import org.libreplan.business.common.exceptions.ValidationException;
 import org.libreplan.business.externalcompanies.daos.IExternalCompanyDAO;
 import org.libreplan.business.externalcompanies.entities.ExternalCompany;
 import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.daos.IOrderElementDAO;
 import org.libreplan.business.orders.entities.HoursGroup;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
@@ -141,6 +142,9 @@ public class OrderModelTest {
     @Autowired
     private IOrderDAO orderDAO;
 
+    @Autowired
+    private IOrderElementDAO orderElementDAO;
+
     @Autowired
     private ITaskSourceDAO taskSourceDAO;
 
@@ -463,6 +467,54 @@ public class OrderModelTest {
         });
     }
 
+    @Test
+    public void testSavingAgainOnlyUpdatesTheModifiedElements() {
+
+        defaultAdvanceTypesBootstrapListener.loadRequiredData();
+        configurationBootstrap.loadRequiredData();
+        scenariosBootstrap.loadRequiredData();
+
+        final Order order = createValidOrder();
+        final OrderLine modified = createValidLeaf("modified");
+        final OrderLine unmodified = createValidLeaf("unmodified");
+        order.add(modified);
+        order.add(unmodified);
+        orderModel.setPlanningState(createPlanningStateFor(order));
+        orderModel.save();
+
+        final long unmodifiedVersion = unmodified.getVersion();
+        final long modifiedVersion = modified.getVersion();
+        modified.setName("modified again");
+        final OrderLine added = createValidLeaf("added");
+        order.add(added);
+        orderModel.save();
+
+        // The inserted elements are known without walking the order
+        assertFalse(added.isNewObject());
+        assertFalse(added.getHoursGroups().get(0).isNewObject());
+
+        adHocTransaction.runOnTransaction(new IOnTransaction<Void>() {
+
+            @Override
+            public Void execute() {
+                try {
+                    OrderElement reloadedUnmodified = orderElementDAO.find(unmodified.getId());
+                    assertThat(reloadedUnmodified.getVersion(), equalTo(unmodifiedVersion));
+
+                    OrderElement reloadedModified = orderElementDAO.find(modified.getId());
+                    assertThat(reloadedModified.getName(), equalTo("modified again"));
+                    assertThat(reloadedModified.getVersion(), equalTo(modifiedVersion + 1));
+
+                    assertTrue(orderElementDAO.exists(added.getId()));
+                    orderModel.remove(order);
+                } catch (InstanceNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+                return null;
+            }
+        });
+    }
+
     @Test
     @Transactional
     public void testManyToManyHoursGroupCriterionMapping() {
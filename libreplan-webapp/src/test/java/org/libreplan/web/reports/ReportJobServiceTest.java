@@ -0,0 +1,248 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.libreplan.web.reports;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.sf.jasperreports.engine.JREmptyDataSource;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.hibernate.notification.ISnapshotRefresherService;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.web.reports.IReportJobService.IReportData;
+import org.libreplan.web.reports.IReportJobService.IReportJob;
+import org.libreplan.web.reports.IReportJobService.Status;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Tests for {@link ReportJobService}, writing fake reports instead of filling
+ * them, so no database is needed.
+ */
+public class ReportJobServiceTest {
+
+    private static final String REPORT_NAME = "report";
+
+    private static final String PDF = "pdf";
+
+    private static final IReportData DATA = JREmptyDataSource::new;
+
+    private static class FakeReportJobService extends ReportJobService {
+
+        private final AtomicInteger written = new AtomicInteger();
+
+        private volatile CountDownLatch blocked = new CountDownLatch(0);
+
+        FakeReportJobService(ISnapshotRefresherService snapshotRefresherService, Scenario[] scenario) {
+            super(snapshotRefresherService, () -> scenario[0]);
+        }
+
+        @Override
+        void write(String reportName, String type, Map<String, Object> parameters,
+                   IReportData data, File file) throws IOException {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            written.incrementAndGet();
+            FileUtils.writeStringToFile(file, reportName + parameters, StandardCharsets.UTF_8);
+        }
+
+    }
+
+    private final AtomicLong modificationsVersion = new AtomicLong();
+
+    private final Scenario[] scenario = new Scenario[1];
+
+    private FakeReportJobService service;
+
+    @Before
+    public void createService() throws IOException {
+        ISnapshotRefresherService snapshotRefresherService = createNiceMock(ISnapshotRefresherService.class);
+        expect(snapshotRefresherService.getModificationsVersion()).andAnswer(modificationsVersion::get).anyTimes();
+        replay(snapshotRefresherService);
+
+        scenario[0] = givenScenario(1L);
+        givenUserAuthenticated("user");
+
+        service = new FakeReportJobService(snapshotRefresherService, scenario);
+        service.createDirectory();
+    }
+
+    @After
+    public void shutdownService() {
+        service.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    private static Scenario givenScenario(Long id) {
+        Scenario result = createNiceMock(Scenario.class);
+        expect(result.getId()).andReturn(id).anyTimes();
+        replay(result);
+        return result;
+    }
+
+    private static void givenUserAuthenticated(String name) {
+        Authentication authentication = createNiceMock(Authentication.class);
+        expect(authentication.getName()).andReturn(name).anyTimes();
+        replay(authentication);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    private static Map<String, Object> parameters(Object... namesAndValues) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            result.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return result;
+    }
+
+    private IReportJob submit(Map<String, Object> parameters, List<Object> dataKey) {
+        return service.submit(REPORT_NAME, PDF, parameters, dataKey, DATA);
+    }
+
+    private File generate(Map<String, Object> parameters, List<Object> dataKey) throws Exception {
+        return submit(parameters, dataKey).getResult(10, TimeUnit.SECONDS);
+    }
+
+    private File generate(Object dataKey) throws Exception {
+        return generate(parameters("a", 1), Collections.singletonList(dataKey));
+    }
+
+    @Test
+    public void theKeyDoesNotDependOnTheOrderOfTheParameters() throws Exception {
+        File first = generate(parameters("a", 1, "b", 2), Arrays.<Object> asList(1L, "x"));
+        File second = generate(parameters("b", 2, "a", 1), Arrays.<Object> asList(1L, "x"));
+
+        assertEquals(first, second);
+        assertEquals(1, service.written.get());
+    }
+
+    @Test
+    public void theKeyChangesWithTheParametersTheDataTheUserAndTheScenario() throws Exception {
+        File report = generate(1L);
+
+        assertNotEquals(report, generate(parameters("a", 2), Collections.<Object> singletonList(1L)));
+        assertNotEquals(report, generate(2L));
+
+        modificationsVersion.incrementAndGet();
+        File afterModification = generate(1L);
+        assertNotEquals(report, afterModification);
+
+        givenUserAuthenticated("another");
+        File ofAnotherUser = generate(1L);
+        assertNotEquals(afterModification, ofAnotherUser);
+
+        scenario[0] = givenScenario(2L);
+        File onAnotherScenario = generate(1L);
+        assertNotEquals(ofAnotherUser, onAnotherScenario);
+        assertNotEquals(afterModification, onAnotherScenario);
+
+        assertEquals(6, service.written.get());
+    }
+
+    @Test
+    public void anExistingFileIsReused() throws Exception {
+        File report = generate(1L);
+
+        IReportJob again = submit(parameters("a", 1), Collections.<Object> singletonList(1L));
+        assertEquals(Status.FINISHED, again.getStatus());
+        assertEquals(report, again.getResult(0, TimeUnit.SECONDS));
+        assertEquals(1, service.written.get());
+
+        assertTrue(report.delete());
+        assertEquals(report, generate(1L));
+        assertEquals(2, service.written.get());
+    }
+
+    @Test
+    public void theJobInProgressIsReused() throws Exception {
+        service.blocked = new CountDownLatch(1);
+        IReportJob job = submit(parameters("a", 1), Collections.<Object> singletonList(1L));
+        IReportJob same = submit(parameters("a", 1), Collections.<Object> singletonList(1L));
+        assertSame(job, same);
+
+        service.blocked.countDown();
+        assertEquals(job.getResult(10, TimeUnit.SECONDS), same.getResult(10, TimeUnit.SECONDS));
+        assertEquals(1, service.written.get());
+    }
+
+    @Test
+    public void theReportsWithoutDataKeyAreNeverReused() throws Exception {
+        service.blocked = new CountDownLatch(1);
+        IReportJob job = submit(parameters("a", 1), null);
+        IReportJob another = submit(parameters("a", 1), null);
+        assertNotSame(job, another);
+
+        service.blocked.countDown();
+        assertNotEquals(job.getResult(10, TimeUnit.SECONDS), another.getResult(10, TimeUnit.SECONDS));
+        assertEquals(2, service.written.get());
+    }
+
+    @Test
+    public void theLeastRecentlyUsedReportsAreRemoved() throws Exception {
+        File[] reports = new File[ReportJobService.MAX_STORED_REPORTS];
+        long longAgo = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1);
+        for (int i = 0; i < reports.length; i++) {
+            reports[i] = generate((long) i);
+            assertTrue(reports[i].setLastModified(longAgo + TimeUnit.SECONDS.toMillis(i)));
+        }
+        File directory = reports[0].getParentFile();
+        assertEquals(reports.length, directory.list().length);
+
+        assertEquals(reports[0], generate(0L));
+        File newest = generate((long) reports.length);
+
+        assertTrue(newest.exists());
+        assertTrue(reports[0].exists());
+        assertFalse(reports[1].exists());
+        assertTrue(reports[2].exists());
+        assertEquals(reports.length, directory.list().length);
+        assertEquals(reports.length + 1, service.written.get());
+    }
+
+}
@@ -0,0 +1,467 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.test.ws.common;
+
+import static org.easymock.EasyMock.anyInt;
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.easymock.IAnswer;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.IOnTransaction;
+import org.libreplan.business.common.IntegrationEntity;
+import org.libreplan.business.common.daos.IIntegrationEntityDAO;
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.common.exceptions.ValidationException;
+import org.libreplan.ws.common.api.InstanceConstraintViolationsDTO;
+import org.libreplan.ws.common.api.IntegrationEntityDTO;
+import org.libreplan.ws.common.api.WSCommonGlobalNames;
+import org.libreplan.ws.common.impl.GenericRESTService;
+
+/**
+ * Tests for the saving of entities in chunks and the streaming of entities of
+ * {@link GenericRESTService}.
+ */
+public class GenericRESTServiceTest {
+
+    public static class Item extends IntegrationEntity {
+
+        private String name;
+
+        private boolean invalid;
+
+        @Override
+        public void validate() throws ValidationException {
+            if ( invalid ) {
+                throw new ValidationException("invalid item " + getCode());
+            }
+        }
+
+        @Override
+        protected IIntegrationEntityDAO<? extends IntegrationEntity> getIntegrationEntityDAO() {
+            return null;
+        }
+
+    }
+
+    @XmlRootElement(name = "item", namespace = WSCommonGlobalNames.REST_NAMESPACE)
+    public static class ItemDTO extends IntegrationEntityDTO {
+
+        @XmlAttribute
+        public String name;
+
+        @XmlAttribute
+        public boolean invalid;
+
+        public ItemDTO() {
+        }
+
+        public ItemDTO(String code, String name, boolean invalid) {
+            super(code);
+            this.name = name;
+            this.invalid = invalid;
+        }
+
+        @Override
+        public String getEntityType() {
+            return "item";
+        }
+
+    }
+
+    @XmlRootElement(name = "item-list", namespace = WSCommonGlobalNames.REST_NAMESPACE)
+    public static class ItemListDTO {
+
+        @XmlElement(name = "item", namespace = WSCommonGlobalNames.REST_NAMESPACE)
+        public List<ItemDTO> items = new ArrayList<>();
+
+    }
+
+    /**
+     * Keeps the saved items in memory, discarding the ones saved in a
+     * transaction that fails.
+     */
+    private class InMemoryTransactions implements IAdHocTransactionService {
+
+        private final Map<String, Item> committed = new LinkedHashMap<>();
+
+        private List<Item> pending;
+
+        private int transactions = 0;
+
+        @Override
+        public <T> T runOnAnotherTransaction(IOnTransaction<T> onTransaction) {
+            transactions++;
+            pending = new ArrayList<>();
+            Map<String, Item> before = copyOf(committed);
+            try {
+                T result = onTransaction.execute();
+                for (Item each : pending) {
+                    committed.put(each.getCode().toLowerCase(), each);
+                }
+                return result;
+            } catch (RuntimeException e) {
+                restore(before);
+                throw e;
+            }
+        }
+
+        private Map<String, Item> copyOf(Map<String, Item> items) {
+            Map<String, Item> result = new LinkedHashMap<>();
+            for (Map.Entry<String, Item> each : items.entrySet()) {
+                Item copy = new Item();
+                copy.setCode(each.getValue().getCode());
+                copy.name = each.getValue().name;
+                result.put(each.getKey(), copy);
+            }
+            return result;
+        }
+
+        private void restore(Map<String, Item> items) {
+            committed.clear();
+            committed.putAll(items);
+        }
+
+        @Override
+        public <T> T runOnTransaction(IOnTransaction<T> onTransaction) {
+            return runOnAnotherTransaction(onTransaction);
+        }
+
+        @Override
+        public <T> T runOnReadOnlyTransaction(IOnTransaction<T> onTransaction) {
+            return runOnAnotherTransaction(onTransaction);
+        }
+
+        @Override
+        public <T> T runOnAnotherReadOnlyTransaction(IOnTransaction<T> onTransaction) {
+            return runOnAnotherTransaction(onTransaction);
+        }
+
+    }
+
+    private class ItemService extends GenericRESTService<Item, ItemDTO> {
+
+        private final IIntegrationEntityDAO<Item> itemDAO;
+
+        private final List<String> hooks = new ArrayList<>();
+
+        ItemService(IAdHocTransactionService transactionService, IIntegrationEntityDAO<Item> itemDAO) {
+            this.transactionService = transactionService;
+            this.itemDAO = itemDAO;
+        }
+
+        public List<InstanceConstraintViolationsDTO> saveAll(List<ItemDTO> dtos) {
+            return save(dtos).instanceConstraintViolationsList;
+        }
+
+        public Response streamResponse(String since, Integer limit) {
+            return findAllStreaming(since, limit, ItemListDTO.class, "item");
+        }
+
+        public List<ItemDTO> streamAll(String since, Integer limit) throws Exception {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ((StreamingOutput) streamResponse(since, limit).getEntity()).write(output);
+
+            Unmarshaller unmarshaller = JAXBContext.newInstance(ItemListDTO.class).createUnmarshaller();
+            return ((ItemListDTO) unmarshaller.unmarshal(new ByteArrayInputStream(output.toByteArray()))).items;
+        }
+
+        @Override
+        protected Item toEntity(ItemDTO entityDTO) {
+            Item result = new Item();
+            result.setCode(entityDTO.code);
+            updateEntity(result, entityDTO);
+            return result;
+        }
+
+        @Override
+        protected ItemDTO toDTO(Item entity) {
+            return new ItemDTO(entity.getCode(), entity.name, entity.invalid);
+        }
+
+        @Override
+        protected IIntegrationEntityDAO<Item> getIntegrationEntityDAO() {
+            return itemDAO;
+        }
+
+        @Override
+        protected void updateEntity(Item entity, ItemDTO entityDTO) {
+            entity.name = entityDTO.name;
+            entity.invalid = entityDTO.invalid;
+        }
+
+        @Override
+        protected List<String> getUniqueValues(ItemDTO entityDTO) {
+            return Collections.singletonList("name " + entityDTO.name);
+        }
+
+        @Override
+        protected void beforeSaving(Item entity) {
+            hooks.add("before " + entity.getCode());
+        }
+
+        @Override
+        protected void afterSaving(Item entity) {
+            hooks.add("after " + entity.getCode());
+        }
+
+    }
+
+    private InMemoryTransactions transactions;
+
+    private ItemService service;
+
+    private int pagesRead = 0;
+
+    private int failingPage = 0;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void createService() throws InstanceNotFoundException {
+        transactions = new InMemoryTransactions();
+        IIntegrationEntityDAO<Item> itemDAO = createNiceMock(IIntegrationEntityDAO.class);
+
+        expect(itemDAO.findByCodes((Collection<String>) anyObject())).andAnswer(new IAnswer<List<Item>>() {
+            @Override
+            public List<Item> answer() {
+                List<Item> result = new ArrayList<>();
+                for (String each : (Collection<String>) getCurrentArguments()[0]) {
+                    if ( transactions.committed.containsKey(each) ) {
+                        result.add(transactions.committed.get(each));
+                    }
+                }
+                return result;
+            }
+        }).anyTimes();
+
+        expect(itemDAO.findByCode((String) anyObject())).andAnswer(new IAnswer<Item>() {
+            @Override
+            public Item answer() throws Throwable {
+                String code = ((String) getCurrentArguments()[0]).toLowerCase();
+                if ( !transactions.committed.containsKey(code) ) {
+                    throw new InstanceNotFoundException(code, "item");
+                }
+                return transactions.committed.get(code);
+            }
+        }).anyTimes();
+
+        expect(itemDAO.findAfterCode((String) anyObject(), anyInt())).andAnswer(new IAnswer<List<Item>>() {
+            @Override
+            public List<Item> answer() {
+                String after = (String) getCurrentArguments()[0];
+                int maxResults = (Integer) getCurrentArguments()[1];
+                List<Item> result = new ArrayList<>();
+                for (Item each : new TreeMap<>(transactions.committed).values()) {
+                    if ( (after == null || each.getCode().compareTo(after) > 0) && result.size() < maxResults ) {
+                        result.add(each);
+                    }
+                }
+                pagesRead++;
+                if ( pagesRead == failingPage ) {
+                    throw new RuntimeException("page " + pagesRead + " cannot be read");
+                }
+                return result;
+            }
+        }).anyTimes();
+
+        itemDAO.saveWithoutValidating((Item) anyObject());
+        expectLastCall().andAnswer(new IAnswer<Void>() {
+            @Override
+            public Void answer() {
+                transactions.pending.add((Item) getCurrentArguments()[0]);
+                return null;
+            }
+        }).anyTimes();
+
+        replay(itemDAO);
+        service = new ItemService(transactions, itemDAO);
+    }
+
+    private static List<ItemDTO> givenItems(int count) {
+        List<ItemDTO> result = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            result.add(new ItemDTO("ITEM" + i, "item " + i, false));
+        }
+        return result;
+    }
+
+    @Test
+    public void theItemsAreSavedInChunks() {
+        List<InstanceConstraintViolationsDTO> violations = service.saveAll(givenItems(250));
+
+        assertTrue(violations.isEmpty());
+        assertEquals(250, transactions.committed.size());
+        assertEquals(3, transactions.transactions);
+    }
+
+    @Test
+    public void theExistingItemsAreUpdated() {
+        service.saveAll(givenItems(10));
+        List<ItemDTO> updates = new ArrayList<>();
+        updates.add(new ItemDTO("item3", "updated", false));
+        updates.add(new ItemDTO("ITEM11", "new", false));
+
+        service.saveAll(updates);
+
+        assertEquals(11, transactions.committed.size());
+        assertEquals("updated", transactions.committed.get("item3").name);
+    }
+
+    @Test
+    public void theChunksWithInvalidItemsAreSavedOneByOne() {
+        List<ItemDTO> items = givenItems(250);
+        items.set(119, new ItemDTO("ITEM120", "wrong", true));
+
+        List<InstanceConstraintViolationsDTO> violations = service.saveAll(items);
+
+        assertEquals(1, violations.size());
+        assertEquals(120, (long) violations.get(0).numItem);
+        assertEquals("ITEM120", violations.get(0).code);
+        assertEquals(249, transactions.committed.size());
+        assertEquals(3 + 100, transactions.transactions);
+    }
+
+    @Test
+    public void theRepeatedCodesUpdateTheFirstItem() {
+        List<ItemDTO> items = givenItems(5);
+        items.add(new ItemDTO("item2", "again", false));
+
+        List<InstanceConstraintViolationsDTO> violations = service.saveAll(items);
+
+        assertTrue(violations.isEmpty());
+        assertEquals(5, transactions.committed.size());
+        assertEquals("again", transactions.committed.get("item2").name);
+    }
+
+    @Test
+    public void theChunksWithRepeatedUniqueValuesAreSavedOneByOne() {
+        List<ItemDTO> items = givenItems(3);
+        items.get(2).name = "item 1";
+
+        service.saveAll(items);
+
+        assertEquals(3, transactions.committed.size());
+        assertEquals(3, transactions.transactions);
+    }
+
+    @Test
+    public void theHooksRunAroundEachItemOfAChunk() {
+        service.saveAll(givenItems(3));
+
+        assertEquals(1, transactions.transactions);
+        assertEquals(Arrays.asList("before ITEM1", "after ITEM1",
+                "before ITEM2", "after ITEM2", "before ITEM3", "after ITEM3"),
+                service.hooks);
+    }
+
+    private void givenSavedItems(int count) {
+        List<ItemDTO> items = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            items.add(new ItemDTO(String.format("ITEM%04d", i), "item " + i, false));
+        }
+        service.saveAll(items);
+    }
+
+    @Test
+    public void allTheItemsAreStreamedByPages() throws Exception {
+        givenSavedItems(250);
+
+        List<ItemDTO> items = service.streamAll(null, null);
+
+        assertEquals(250, items.size());
+        assertEquals("ITEM0001", items.get(0).code);
+        assertEquals("ITEM0250", items.get(249).code);
+        assertEquals("item 250", items.get(249).name);
+        assertEquals(3, pagesRead);
+    }
+
+    @Test
+    public void theItemsCanBeStreamedInSeveralRequests() throws Exception {
+        givenSavedItems(250);
+
+        List<ItemDTO> first = service.streamAll(null, 120);
+        List<ItemDTO> second = service.streamAll(first.get(first.size() - 1).code, 120);
+        List<ItemDTO> third = service.streamAll(second.get(second.size() - 1).code, 120);
+
+        assertEquals(120, first.size());
+        assertEquals("ITEM0121", second.get(0).code);
+        assertEquals(10, third.size());
+        assertEquals("ITEM0250", third.get(9).code);
+    }
+
+    @Test
+    public void theFailuresReadingTheFirstPageHappenBeforeTheResponse() {
+        givenSavedItems(250);
+        failingPage = 1;
+
+        try {
+            service.streamResponse(null, null);
+            fail("the first page must be read before returning the response");
+        } catch (RuntimeException e) {
+            assertEquals(1, pagesRead);
+        }
+    }
+
+    @Test
+    public void theDocumentIsNotClosedWhenALaterPageFails() {
+        givenSavedItems(250);
+        failingPage = 2;
+        Response response = service.streamResponse(null, null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try {
+            ((StreamingOutput) response.getEntity()).write(output);
+            fail("the failure must reach the container");
+        } catch (Exception e) {
+            assertFalse(new String(output.toByteArray(), StandardCharsets.UTF_8).contains("</item-list>"));
+        }
+    }
+
+}
@@ -35,6 +35,8 @@ import static org.libreplan.web.test.WebappGlobalNames.WEBAPP_SPRING_CONFIG_TEST
 import static org.libreplan.web.test.WebappGlobalNames.WEBAPP_SPRING_SECURITY_CONFIG_TEST_FILE;
 import static org.libreplan.web.test.ws.common.Util.mustEnd;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
@@ -47,6 +49,8 @@ import java.util.UUID;
 import javax.annotation.Resource;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
+import javax.xml.bind.JAXBContext;
 
 import org.hibernate.SessionFactory;
 import org.joda.time.LocalDate;
@@ -1962,6 +1966,85 @@ public class OrderElementServiceTest {
         assertTrue(instanceConstraintViolationsList.toString(), instanceConstraintViolationsList.size() == 1);
     }
 
+    @Test
+    public void severalOrdersAreSavedAndUpdatedInTheSameRequest() {
+        String prefix = "chunk-" + UUID.randomUUID() + "-";
+        List<OrderDTO> orderDTOs = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            orderDTOs.add(createOrderDTO(prefix + i));
+        }
+        List<InstanceConstraintViolationsDTO> instanceConstraintViolationsList =
+                orderElementService.addOrders(new OrderListDTO(orderDTOs)).instanceConstraintViolationsList;
+        assertTrue(instanceConstraintViolationsList.toString(), instanceConstraintViolationsList.isEmpty());
+
+        /* The existing orders are found by their codes */
+        List<OrderDTO> updates = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            OrderDTO orderDTO = createOrderDTO(prefix + i);
+            orderDTO.name = "updated " + prefix + i;
+            updates.add(orderDTO);
+        }
+        instanceConstraintViolationsList =
+                orderElementService.addOrders(new OrderListDTO(updates)).instanceConstraintViolationsList;
+        assertTrue(instanceConstraintViolationsList.toString(), instanceConstraintViolationsList.isEmpty());
+
+        for (int i = 1; i <= 3; i++) {
+            assertThat(findOrderNameOnAnotherTransaction(prefix + i), equalTo("updated " + prefix + i));
+        }
+    }
+
+    private String findOrderNameOnAnotherTransaction(final String code) {
+        return transactionService.runOnAnotherTransaction(new IOnTransaction<String>() {
+            @Override
+            public String execute() {
+                try {
+                    return orderDAO.findByCode(code).getName();
+                } catch (InstanceNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void theOrdersWithTheSameNameInTheSameRequestAreRejected() {
+        OrderDTO first = createOrderDTO("same-name-" + UUID.randomUUID());
+        OrderDTO second = createOrderDTO("same-name-" + UUID.randomUUID());
+        second.name = first.name;
+
+        List<InstanceConstraintViolationsDTO> instanceConstraintViolationsList =
+                orderElementService.addOrders(createOrderListDTO(first, second)).instanceConstraintViolationsList;
+
+        assertThat(instanceConstraintViolationsList.size(), equalTo(1));
+        assertThat(instanceConstraintViolationsList.get(0).code, equalTo(second.code));
+    }
+
+    @Test
+    public void theOrdersAreStreamedAfterTheGivenCode() throws Exception {
+        String prefix = "streamed-" + UUID.randomUUID() + "-";
+        List<OrderDTO> orderDTOs = new ArrayList<>();
+        for (int i = 3; i >= 1; i--) {
+            orderDTOs.add(createOrderDTO(prefix + i));
+        }
+        List<InstanceConstraintViolationsDTO> instanceConstraintViolationsList =
+                orderElementService.addOrders(new OrderListDTO(orderDTOs)).instanceConstraintViolationsList;
+
+        assertTrue(instanceConstraintViolationsList.toString(), instanceConstraintViolationsList.isEmpty());
+
+        Response response = orderElementService.getOrders(prefix + "0", 2);
+        assertThat(response.getStatus(), equalTo(Status.OK.getStatusCode()));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        List<OrderDTO> streamed = ((OrderListDTO) JAXBContext.newInstance(OrderListDTO.class)
+                .createUnmarshaller()
+                .unmarshal(new ByteArrayInputStream(output.toByteArray()))).orderDTOs;
+
+        assertThat(streamed.size(), equalTo(2));
+        assertThat(streamed.get(0).code, equalTo(prefix + "1"));
+        assertThat(streamed.get(1).code, equalTo(prefix + "2"));
+    }
+
     private OrderDTO createOrderDTO(String code) {
         OrderDTO result = new OrderDTO();
         result.initDate = DateConverter.toXMLGregorianCalendar(new Date());
@@ -47,6 +47,7 @@ import javax.xml.datatype.DatatypeConstants;
 import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
 
+import org.hibernate.SessionFactory;
 import org.joda.time.LocalDate;
 import org.junit.Before;
 import org.junit.Test;
@@ -73,6 +74,7 @@ import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.ResourceEnum;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.ws.common.api.InstanceConstraintViolationsDTO;
+import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
 import org.libreplan.ws.resources.api.CriterionSatisfactionDTO;
 import org.libreplan.ws.resources.api.IResourceService;
 import org.libreplan.ws.resources.api.MachineDTO;
@@ -129,6 +131,9 @@ public class ResourceServiceTest {
     @Autowired
     private IAdHocTransactionService transactionService;
 
+    @Autowired
+    private SessionFactory sessionFactory;
+
     @Before
     public void loadConfiguration() {
 
@@ -208,6 +213,76 @@ public class ResourceServiceTest {
 
     }
 
+    @Test
+    @Transactional
+    public void testAddWorkersWithTheSameNifInTheSameRequest() {
+
+        /*
+         * Both workers are saved in the same chunk, but the second one must
+         * see the first one as it did when each one was saved on its own.
+         */
+        String nif = getUniqueName();
+        WorkerDTO w1 = new WorkerDTO(getUniqueName(), "surname", nif);
+        WorkerDTO w2 = new WorkerDTO(getUniqueName(), "surname", nif);
+
+        /* Test. */
+        InstanceConstraintViolationsListDTO instanceConstraintViolationsListDTO =
+            resourceService.addResources(createResourceListDTO(w1, w2));
+
+        assertOneConstraintViolation(instanceConstraintViolationsListDTO);
+        assertEquals(w2.code, instanceConstraintViolationsListDTO.
+            instanceConstraintViolationsList.get(0).code);
+        assertTrue(resourceDAO.existsByCode(w1.code));
+        assertFalse(resourceDAO.existsByCode(w2.code));
+
+    }
+
+    @Test
+    @Transactional
+    public void testAddMoreWorkersThanTheMaximumInTheSameRequest() {
+
+        /*
+         * The workers are saved in the same chunk, but each one must count
+         * the previous ones as it did when each one was saved on its own.
+         */
+        int resources = transactionService.runOnAnotherReadOnlyTransaction(
+            new IOnTransaction<Integer>() {
+
+                @Override
+                public Integer execute() {
+                    return resourceDAO.findAll().size();
+                }
+            });
+
+        WorkerDTO w1 = new WorkerDTO(getUniqueName(), "surname", getUniqueName());
+        WorkerDTO w2 = new WorkerDTO(getUniqueName(), "surname", getUniqueName());
+        WorkerDTO w3 = new WorkerDTO(getUniqueName(), "surname", getUniqueName());
+        WorkerDTO w4 = new WorkerDTO(getUniqueName(), "surname", getUniqueName());
+
+        /* Test. */
+        setMaxResources(resources + 2);
+        try {
+            List<InstanceConstraintViolationsDTO> instanceConstraintViolationsList =
+                resourceService.addResources(
+                    createResourceListDTO(w1, w2, w3, w4)).
+                        instanceConstraintViolationsList;
+
+            assertEquals(instanceConstraintViolationsList.toString(), 2,
+                instanceConstraintViolationsList.size());
+            assertEquals(w3.code,
+                instanceConstraintViolationsList.get(0).code);
+            assertEquals(w4.code,
+                instanceConstraintViolationsList.get(1).code);
+            assertTrue(resourceDAO.existsByCode(w1.code));
+            assertTrue(resourceDAO.existsByCode(w2.code));
+            assertFalse(resourceDAO.existsByCode(w3.code));
+            assertFalse(resourceDAO.existsByCode(w4.code));
+        } finally {
+            setMaxResources(0);
+        }
+
+    }
+
     @Test
     @Transactional
     public void testAddResourceWithCriterionSatisfactions() {
@@ -880,6 +955,25 @@ constraintViolations
 
     }
 
+    private void setMaxResources(final int maxResources) {
+
+        IOnTransaction<Void> update = new IOnTransaction<Void>() {
+
+            @Override
+            public Void execute() {
+                sessionFactory.getCurrentSession()
+                    .createQuery("UPDATE Configuration "
+                        + "SET maxResources = :maxResources")
+                    .setParameter("maxResources", maxResources)
+                    .executeUpdate();
+                return null;
+            }
+        };
+
+        transactionService.runOnAnotherTransaction(update);
+
+    }
+
     private void saveResource(final Resource resource) {
 
         IOnTransaction<Void> save = new IOnTransaction<Void>() {